@@ -10,6 +10,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.sql.Time;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Column information about a field
@@ -32,10 +33,23 @@ abstract class AttributeInfo {
     * Holds the constants by name or ordinal.
     */
    private Map<Object, Object> enumConstants;
+   /**
+    * Conversions of database values to {@link #getType()} by value class. See {@link DatabaseValueToFieldType}.
+    */
+   final Map<Class<?>, DatabaseValueToFieldType.ValueAdapter> valueAdapters = new ConcurrentHashMap<>(4);
+   volatile DatabaseValueToFieldType.CachedAdapter lastValueAdapter;
+   /**
+    * The {@link TypeCodec} of {@link #getType()} for the most recently used JDBC type.
+    */
+   private volatile ResolvedCodec resolvedCodec;
    protected AttributeConverter converter;
    protected String caseSensitiveColumnName;
    protected boolean isGeneratedId;
    boolean isIdField;
+   /**
+    * Position of this attribute in the constructor of records and immutable classes. -1 if the attribute is populated after instantiation.
+    */
+   int constructorParameterIndex = -1;
    protected boolean isJoinColumn;
    protected boolean isTransient;
    protected boolean isEnumerated;
@@ -607,20 +621,47 @@ abstract class AttributeInfo {
 
    abstract void setValue(final Object target, final Object value) throws IllegalAccessException;
 
-   boolean isTransient()
+   /**
+    * @param sqlType {@link java.sql.Types} code of the column or parameter.
+    * @return null if values are not read and written with a {@link TypeCodec}. Attributes with converter or {@link Enumerated} annotation never are.
+    */
+   TypeCodec<Object> getTypeCodec(final int sqlType)
    {
-      return isTransient;
+      if (converter != null || isEnumerated) {
+         return null;
+      }
+      ResolvedCodec resolved = resolvedCodec;
+      final int version = TypeCodecs.version;
+      if (resolved == null || resolved.sqlType != sqlType || resolved.version != version) {
+         resolved = new ResolvedCodec(sqlType, version, TypeCodecs.lookup(type, sqlType));
+         resolvedCodec = resolved;
+      }
+      return resolved.codec;
    }
 
-   protected Object idValueToParentEntity(final Class<?> clazz, final Object value) throws IllegalAccessException, InstantiationException
+   private static final class ResolvedCodec
    {
-      return idValueToParentEntity(clazz.newInstance(), value);
+      final int sqlType;
+      final int version;
+      final TypeCodec<Object> codec;
+
+      ResolvedCodec(final int sqlType, final int version, final TypeCodec<Object> codec)
+      {
+         this.sqlType = sqlType;
+         this.version = version;
+         this.codec = codec;
+      }
+   }
+
+   boolean isTransient()
+   {
+      return isTransient;
    }
 
-   protected Object idValueToParentEntity(final Object target, @NotNull final Object value) throws InstantiationException, IllegalAccessException
+   protected Object idValueToParentEntity(final Class<?> clazz, @NotNull final Object value) throws IllegalAccessException
    {
-      final Object obj = target.getClass().newInstance();
-      final Introspected introspected = Introspected.getInstance(obj.getClass());
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final Object obj = introspected.newInstance();
       final AttributeInfo generatedIdFcInfo = introspected.getGeneratedIdFcInfo();
       generatedIdFcInfo.setValue(obj, value);
       return obj;
@@ -634,6 +675,14 @@ abstract class AttributeInfo {
       return !isTransient && toBeConsidered;
    }
 
+   /**
+    * @return null without {@code @JoinColumn} annotation.
+    */
+   String getJoinColumnName()
+   {
+      return joinColumnAnnotation == null ? null : joinColumnAnnotation.name();
+   }
+
    boolean isJoinFieldWithSecondTable()
    {
       return joinWithSecondTable;
@@ -0,0 +1,229 @@
+package com.zaxxer.q2o;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of closures executing on a DataSource at the same time. Closures beyond the limit wait in a bounded queue for a bounded time, and fail with a {@link BulkheadFullException} if the queue is full or the time is up, instead of piling up in {@link javax.sql.DataSource#getConnection()} of a slow database.
+ * <p>
+ * Read-only closures, see {@link SqlClosure#setReadOnly(boolean)}, are shed first: they are rejected once the queue holds maxWaitingReads closures, and waiting writes are admitted before waiting reads. Closures executed within a closure holding a permit on the same thread, e.g. joining its transaction, do not need another one.
+ * </p>
+ *
+ * @since 19.10.26
+ * @see q2o#setBulkhead(Bulkhead)
+ * @see q2o#setBulkhead(javax.sql.DataSource, Bulkhead)
+ */
+public final class Bulkhead {
+
+   private final int maxConcurrent;
+   private final int maxWaiting;
+   private final int maxWaitingReads;
+   private final long maxWaitNanos;
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition writeAdmitted = lock.newCondition();
+   private final Condition readAdmitted = lock.newCondition();
+   /**
+    * Permits held by the current thread, closures executed within reuse them.
+    */
+   private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+   private final LongAdder rejected = new LongAdder();
+   private final LongAdder timedOut = new LongAdder();
+   private int inFlight;
+   private int waitingReads;
+   private int waitingWrites;
+   private int maxQueueDepth;
+
+   /**
+    * Admit reads while the queue is less than half full.
+    *
+    * @param maxConcurrent closures executing at the same time.
+    * @param maxWaiting closures waiting at the same time. 0 to fail immediately.
+    * @param maxWait wait time of a closure before it fails.
+    */
+   public Bulkhead(final int maxConcurrent, final int maxWaiting, final Duration maxWait) {
+      this(maxConcurrent, maxWaiting, maxWaiting / 2, maxWait);
+   }
+
+   /**
+    * @param maxWaitingReads read-only closures are rejected if that many closures are waiting already. At most maxWaiting.
+    */
+   public Bulkhead(final int maxConcurrent, final int maxWaiting, final int maxWaitingReads, final Duration maxWait) {
+      if (maxConcurrent < 1) {
+         throw new IllegalArgumentException("maxConcurrent must be at least 1");
+      }
+      if (maxWaiting < 0 || maxWaitingReads < 0 || maxWaitingReads > maxWaiting) {
+         throw new IllegalArgumentException("maxWaitingReads must be between 0 and maxWaiting");
+      }
+      this.maxConcurrent = maxConcurrent;
+      this.maxWaiting = maxWaiting;
+      this.maxWaitingReads = maxWaitingReads;
+      this.maxWaitNanos = maxWait.toNanos();
+   }
+
+   public int getMaxConcurrent() {
+      return maxConcurrent;
+   }
+
+   /**
+    * @return the number of closures executing.
+    */
+   public int getInFlight() {
+      lock.lock();
+      try {
+         return inFlight;
+      }
+      finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * @return the number of closures waiting.
+    */
+   public int getQueueDepth() {
+      lock.lock();
+      try {
+         return waitingReads + waitingWrites;
+      }
+      finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * @return the highest number of closures waiting at the same time.
+    */
+   public int getMaxQueueDepth() {
+      lock.lock();
+      try {
+         return maxQueueDepth;
+      }
+      finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * @return the number of closures rejected because the queue was full.
+    */
+   public long getRejectedCount() {
+      return rejected.sum();
+   }
+
+   /**
+    * @return the number of closures failing after waiting maxWait.
+    */
+   public long getTimedOutCount() {
+      return timedOut.sum();
+   }
+
+   /**
+    * Must be followed by {@link #release()} after execution.
+    *
+    * @throws BulkheadFullException if not admitted.
+    */
+   void acquire(final boolean read) {
+      final int[] permits = held.get();
+      if (permits[0] > 0) {
+         permits[0]++;
+         return;
+      }
+      lock.lock();
+      try {
+         if (!isAdmitted(read)) {
+            await(read);
+            inFlight++;
+            // Several permits may have been released meanwhile.
+            signalNext();
+         }
+         else {
+            inFlight++;
+         }
+      }
+      finally {
+         lock.unlock();
+      }
+      permits[0] = 1;
+   }
+
+   void release() {
+      final int[] permits = held.get();
+      if (--permits[0] > 0) {
+         return;
+      }
+      held.remove();
+      lock.lock();
+      try {
+         inFlight--;
+         signalNext();
+      }
+      finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Reads do not overtake waiting writes.
+    */
+   private boolean isAdmitted(final boolean read) {
+      return inFlight < maxConcurrent && (!read || waitingWrites == 0);
+   }
+
+   private void await(final boolean read) {
+      final int waiting = waitingReads + waitingWrites;
+      if (waiting >= (read ? maxWaitingReads : maxWaiting)) {
+         rejected.increment();
+         throw new BulkheadFullException("Bulkhead full: " + inFlight + " executing, " + waiting + " waiting");
+      }
+      if (read) {
+         waitingReads++;
+      }
+      else {
+         waitingWrites++;
+      }
+      maxQueueDepth = Math.max(maxQueueDepth, waiting + 1);
+      boolean admitted = false;
+      try {
+         long nanos = maxWaitNanos;
+         while (!isAdmitted(read)) {
+            if (nanos <= 0) {
+               timedOut.increment();
+               throw new BulkheadFullException("Bulkhead wait timed out after " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms: " + inFlight + " executing");
+            }
+            nanos = (read ? readAdmitted : writeAdmitted).awaitNanos(nanos);
+         }
+         admitted = true;
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+      finally {
+         if (read) {
+            waitingReads--;
+         }
+         else {
+            waitingWrites--;
+         }
+         if (!admitted) {
+            // A signal consumed by a closure giving up is passed on.
+            signalNext();
+         }
+      }
+   }
+
+   private void signalNext() {
+      if (inFlight >= maxConcurrent) {
+         return;
+      }
+      if (waitingWrites > 0) {
+         writeAdmitted.signal();
+      }
+      else if (waitingReads > 0) {
+         readAdmitted.signal();
+      }
+   }
+}
@@ -0,0 +1,13 @@
+package com.zaxxer.q2o;
+
+/**
+ * Thrown by a closure not admitted by the {@link Bulkhead} of its DataSource. The closure was not executed.
+ *
+ * @since 19.10.26
+ */
+public class BulkheadFullException extends RuntimeException {
+
+   public BulkheadFullException(final String message) {
+      super(message);
+   }
+}
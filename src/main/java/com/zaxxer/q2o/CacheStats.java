@@ -0,0 +1,66 @@
+package com.zaxxer.q2o;
+
+/**
+ * Snapshot of the counters of a q2o internal cache.
+ *
+ * @since 19.10.26
+ */
+public final class CacheStats {
+
+   private final long hitCount;
+   private final long missCount;
+   private final long evictionCount;
+   private final long totalLoadTimeNanos;
+
+   CacheStats(final long hitCount, final long missCount, final long evictionCount) {
+      this(hitCount, missCount, evictionCount, 0);
+   }
+
+   CacheStats(final long hitCount, final long missCount, final long evictionCount, final long totalLoadTimeNanos) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+      this.totalLoadTimeNanos = totalLoadTimeNanos;
+   }
+
+   public long getHitCount() {
+      return hitCount;
+   }
+
+   public long getMissCount() {
+      return missCount;
+   }
+
+   public long getEvictionCount() {
+      return evictionCount;
+   }
+
+   /**
+    * @return time spent loading values on misses. 0 with caches not measuring it.
+    */
+   public long getTotalLoadTimeNanos() {
+      return totalLoadTimeNanos;
+   }
+
+   public double getAverageLoadPenaltyNanos() {
+      return missCount == 0 ? 0.0 : (double) totalLoadTimeNanos / missCount;
+   }
+
+   /**
+    * @return 1.0 if there was no request yet.
+    */
+   public double getHitRate() {
+      final long requestCount = hitCount + missCount;
+      return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+   }
+
+   @Override
+   public String toString() {
+      return "CacheStats{" +
+         "hitCount=" + hitCount +
+         ", missCount=" + missCount +
+         ", evictionCount=" + evictionCount +
+         ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+         '}';
+   }
+}
@@ -16,59 +16,99 @@
 
 package com.zaxxer.q2o;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import com.zaxxer.q2o.jdbc.DelegatingConnection;
+
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
- * Closes all statements created or prepared on this connection when Connection#close() is called.
+ * Closes all statements created or prepared on this connection when Connection#close() is called. Statements closed before, e.g. not having returned a result set or closed by the driver, are forgotten.
  */
-class ConnectionProxy implements InvocationHandler
+class ConnectionProxy extends DelegatingConnection
 {
-   private final ArrayList<Statement> statements;
-   private final Connection connection;
+   /**
+    * Statements closed by the driver are pruned when the set grows beyond.
+    */
+   private static final int PRUNE_SIZE = 32;
+
+   private final Set<Statement> statements;
 
    ConnectionProxy(Connection connection)
    {
-      this.connection = connection;
-      this.statements = new ArrayList<>();
+      super(connection);
+      this.statements = Collections.newSetFromMap(new IdentityHashMap<>());
    }
 
    @Override
-   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+   public void close() throws SQLException
    {
-      if ("close".equals(method.getName())) {
-         try {
-            for (Statement stmt : statements) {
-               stmt.close();
-            }
-         }
-         finally {
-            statements.clear();
-            connection.close();
+      try {
+         for (Statement stmt : statements) {
+            stmt.close();
          }
       }
+      finally {
+         statements.clear();
+         delegate().close();
+      }
+   }
+
+   @Override
+   protected Statement wrapStatement(final Statement statement)
+   {
+      add(statement);
+      return new StatementProxy(this, statement);
+   }
+
+   @Override
+   protected PreparedStatement wrapPreparedStatement(final PreparedStatement statement)
+   {
+      add(statement);
+      return new PreparedStatementProxy(this, statement);
+   }
+
+   @Override
+   protected CallableStatement wrapCallableStatement(final CallableStatement statement)
+   {
+      add(statement);
+      return statement;
+   }
+
+   private void add(final Statement statement)
+   {
+      if (statements.size() >= PRUNE_SIZE) {
+         statements.removeIf(ConnectionProxy::isClosed);
+      }
+      statements.add(statement);
+   }
 
-      Object ret = method.invoke(connection, args);
-      if (ret instanceof PreparedStatement) {
-         statements.add((Statement) ret);
-         ret = PreparedStatementProxy.wrap((PreparedStatement) ret);
+   private static boolean isClosed(final Statement statement)
+   {
+      try {
+         return statement.isClosed();
       }
-      else if (ret instanceof Statement) {
-         statements.add((Statement) ret);
-         ret = StatementProxy.wrap((Statement) ret);
+      catch (SQLException e) {
+         return true;
       }
+   }
 
-      return ret;
+   /**
+    * Close a statement before the connection.
+    */
+   void close(final Statement statement) throws SQLException
+   {
+      statements.remove(statement);
+      statement.close();
    }
 
    static Connection wrap(final Connection connection) {
-      ConnectionProxy handler = new ConnectionProxy(connection);
-      return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class[] { Connection.class }, handler);
+      return new ConnectionProxy(connection);
    }
 
    /**
@@ -77,6 +117,6 @@ class ConnectionProxy implements InvocationHandler
     */
    Connection getConnection()
    {
-      return connection;
+      return delegate();
    }
 }
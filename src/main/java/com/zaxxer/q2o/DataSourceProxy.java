@@ -1,9 +1,8 @@
 package com.zaxxer.q2o;
 
+import com.zaxxer.q2o.jdbc.DelegatingDataSource;
+
 import javax.sql.DataSource;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.sql.Connection;
 
 /**
@@ -12,33 +11,21 @@ import java.sql.Connection;
  * @author Holger Thurow (thurow.h@gmail.com)
  * @since 19.01.20
  */
-public class DataSourceProxy implements InvocationHandler {
-
-   private final DataSource dataSource;
+public class DataSourceProxy extends DelegatingDataSource {
 
    public DataSourceProxy(DataSource dataSource)
    {
-      this.dataSource = dataSource;
+      super(dataSource);
    }
 
    @Override
-   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+   protected Connection wrapConnection(final Connection connection)
    {
-      Object ret;
-      if ("getConnection".equals(method.getName())) {
-         ret = method.invoke(dataSource, args);
-         ret = ConnectionProxy.wrap((Connection) ret);
-
-      }
-      else {
-         ret = method.invoke(dataSource, args);
-      }
-      return ret;
+      return ConnectionProxy.wrap(connection);
    }
 
    static DataSource wrap(final DataSource dataSource)
    {
-      DataSourceProxy handler = new DataSourceProxy(dataSource);
-      return (DataSource) Proxy.newProxyInstance(DataSourceProxy.class.getClassLoader(), new Class[] { DataSource.class }, handler);
+      return new DataSourceProxy(dataSource);
    }
 }
@@ -10,32 +10,74 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.*;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 
 /**
  * @author Holger Thurow (thurow.h@gmail.com)
  * @since 17.12.19
+ * @see TypeCodecs
  */
-// IMPROVE Let user customize the converter to use.
 class DatabaseValueToFieldType {
 
    private static Logger logger = LoggerFactory.getLogger(DatabaseValueToFieldType.class);
+
+   private static final ValueAdapter IDENTITY = (value, columnTypeName) -> value;
+   // TODO Do not set or H2 throws "Can not set java.lang.Byte field com.zaxxer.q2o.entities.DataTypesNullable.byteToSMALLINT to java.lang.Short".
+   private static final ValueAdapter UNSUPPORTED = (value, columnTypeName) -> null;
+
+   /**
+    * Converts a non null database value of one particular class to the type of one particular attribute. Resolved once per value class and attribute by {@link #resolveAdapter(AttributeInfo, Class)} and cached on the {@link AttributeInfo}.
+    */
+   @FunctionalInterface
+   interface ValueAdapter {
+      Object adapt(@NotNull Object value, String columnTypeName) throws IOException, SQLException;
+
+      /**
+       * @return true if {@link #adapt(Object, String)} evaluates the column type name. Otherwise it is not retrieved from the result set meta data.
+       */
+      default boolean needsColumnTypeName() {
+         return false;
+      }
+   }
+
+   /**
+    * The adapter of the most recently seen value class. Immutable so it can be published without locking.
+    */
+   static final class CachedAdapter {
+      final Class<?> valueClass;
+      final ValueAdapter adapter;
+
+      CachedAdapter(final Class<?> valueClass, final ValueAdapter adapter) {
+         this.valueClass = valueClass;
+         this.adapter = adapter;
+      }
+   }
+
    /**
     * Adjust the value's type as retrieved from database to the field's type in the Java entity when necessary.
     *
     * @return type corrected value
     */
    Object adaptValueToFieldType(@NotNull final AttributeInfo fcInfo, final Object value, final ResultSetMetaData metaData, final Introspected introspected, final int colIdx) {
+      if (value == null) {
+         return null;
+      }
       String columnTypeName = null;
       try {
-         columnTypeName = metaData.getColumnTypeName(colIdx);
-         return adaptValueToFieldType(fcInfo, value, columnTypeName, introspected, colIdx);
+         final ValueAdapter adapter = getAdapter(fcInfo, value.getClass());
+         if (adapter.needsColumnTypeName()) {
+            columnTypeName = SchemaCatalog.getColumnTypeName(fcInfo, introspected);
+            if (columnTypeName == null) {
+               columnTypeName = metaData.getColumnTypeName(colIdx);
+            }
+         }
+         return adapter.adapt(value, columnTypeName);
       }
       catch (Exception e) {
          logger.error("columnTypeName={}\n fieldType={}\n value={}\n fcInfo={}", columnTypeName, fcInfo.getType(), value, fcInfo);
@@ -44,221 +86,205 @@ class DatabaseValueToFieldType {
    }
 
    Object adaptValueToFieldType(@NotNull final AttributeInfo fcInfo, final Object value, final String columnTypeName, final Introspected introspected, final int colIdx) {
-      Class<?> fieldType = null;
+      if (value == null) {
+         return null;
+      }
       try {
-         fieldType = fcInfo.getType();
-         Object typeCorrectedValue;
-         if (value != null && fcInfo.getConverter() != null) {
-            typeCorrectedValue = applyConverter(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
-         return typeCorrectedValue;
+         return getAdapter(fcInfo, value.getClass()).adapt(value, columnTypeName);
       }
       catch (Exception e) {
-         logger.error("columnTypeName={}\n fieldType={}\n value={}\n fcInfo={}", columnTypeName, fieldType, value, fcInfo);
+         logger.error("columnTypeName={}\n fieldType={}\n value={}\n fcInfo={}", columnTypeName, fcInfo.getType(), value, fcInfo);
          throw new RuntimeException(e);
       }
    }
 
-   private Object applyConverter(final @NotNull AttributeInfo fcInfo, final Object value, final Introspected introspected, final String columnTypeName, final Class<?> fieldType) throws IOException, SQLException {
-      final Object typeCorrectedValue;
-      AttributeConverter converter = fcInfo.getConverter();
-      if (converter.getClass() == DateTimestampConverter.class) {
-         // Hack for SQLite, providing Integer not Timestamp.
-         if (Timestamp.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
+   private ValueAdapter getAdapter(final AttributeInfo fcInfo, final Class<?> valueClass) {
+      // A column delivers nearly always values of the same class.
+      final CachedAdapter cached = fcInfo.lastValueAdapter;
+      if (cached != null && cached.valueClass == valueClass) {
+         return cached.adapter;
+      }
+      final ValueAdapter adapter = fcInfo.valueAdapters.computeIfAbsent(valueClass, cls -> resolveAdapter(fcInfo, cls));
+      fcInfo.lastValueAdapter = new CachedAdapter(valueClass, adapter);
+      return adapter;
+   }
+
+   private ValueAdapter resolveAdapter(final @NotNull AttributeInfo fcInfo, final Class<?> valueType) {
+      final AttributeConverter converter = fcInfo.getConverter();
+      if (converter != null) {
+         final Class<?> expectedValueType = getExpectedValueType(converter);
+         if (expectedValueType == null || expectedValueType.isAssignableFrom(valueType)) {
+            return (value, columnTypeName) -> converter.convertToEntityAttribute(value);
          }
       }
-      else if (converter.getClass() == CalendarTimestampConverter.class) {
-         // Hack for SQLite, providing Long not Timestamp.
-         if (Timestamp.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
+      return resolveByTypeInspection(fcInfo, valueType);
+   }
+
+   /**
+    * @return the value type the builtin converter requires or null if any value is passed to the converter.
+    */
+   @Nullable
+   private Class<?> getExpectedValueType(final AttributeConverter converter) {
+      final Class<?> converterClass = converter.getClass();
+      // Hacks for SQLite, providing Integer or Long instead of temporal types.
+      if (converterClass == DateTimestampConverter.class || converterClass == CalendarTimestampConverter.class) {
+         return Timestamp.class;
       }
-      else if (converter.getClass() == CalenderTimeConverter.class) {
-         // Hack for SQLite, providing Long not Time.
-         if (Time.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
+      else if (converterClass == CalenderTimeConverter.class) {
+         return Time.class;
       }
-      else if (converter.getClass() == CalendarDateConverter.class) {
-         // Hack for SQLite, providing Long not Date.
-         if (Date.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
+      else if (converterClass == CalendarDateConverter.class) {
+         return Date.class;
       }
-      else if (converter.getClass() == UtilDateDateConverter.class) {
-         // Hack for SQLite, providing Long not Date.
-         if (java.sql.Date.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
+      else if (converterClass == UtilDateDateConverter.class) {
+         return java.sql.Date.class;
       }
       // TODO Deal also with util.Date > TIME converter?
-      else {
-         typeCorrectedValue = converter.convertToEntityAttribute(value);
-      }
-      return typeCorrectedValue;
+      return null;
    }
 
-   private Object adaptByTypeInspection(final @NotNull AttributeInfo fcInfo, @Nullable final Object value, final Introspected introspected, final String columnTypeName, final Class<?> fieldType) throws IOException, SQLException {
-      Object typeCorrectedValue = null;
-      if (value != null) {
-         Class<?> valueType = value.getClass();
-         if (fieldType != valueType) {
-            // Fix-up column value for enums, integer as boolean, etc.
-            if (Integer.class == valueType) {
-               typeCorrectedValue = convertInteger(fieldType, value);
-            }
-            else if (Long.class == valueType) {
-               typeCorrectedValue = convertLong(fieldType, value);
-            }
-            else if (Double.class == valueType) {
-               typeCorrectedValue = convertDouble(fieldType, value);
-            }
-            else if (BigInteger.class == valueType) {
-               typeCorrectedValue = convertBigInteger(fieldType, value);
-            }
-            // With Sybase ASE it is SybBigDecimal
-            // IMPROVE Is getColumnClassName() check more reliable?
-            else if (BigDecimal.class.isAssignableFrom(valueType)) {
-               typeCorrectedValue = convertBigDecimal(fieldType, value);
-            }
-            // With Sybase ASE it is SybTimestamp
-            else if (Timestamp.class.isAssignableFrom(valueType)) {
-               typeCorrectedValue = convertTimestamp(columnTypeName, fieldType, value);
-            }
-            else if (Time.class == valueType) {
-               typeCorrectedValue = convertTime(columnTypeName, fieldType, value);
-            }
-            else if (java.sql.Date.class == valueType) {
-               typeCorrectedValue = convertSqlDate(columnTypeName, fieldType, value);
-            }
-            else if (Boolean.class == valueType) {
-               typeCorrectedValue = value;
-            }
-            else if (byte[].class == valueType) {
-               typeCorrectedValue = convertByteArray(columnTypeName, fieldType, value);
-            }
-            else if (UUID.class == valueType && String.class == fieldType) {
-               typeCorrectedValue = value.toString();
-            }
-            else if (fieldType.isEnum()) {
-               if (!q2o.isMySqlMode()) {
-                  typeCorrectedValue = fcInfo.getEnumConstant(value);
-               }
-               else {
-                  // With ENUM fields MySQL returns always the value, not the ordinal, even when the ordinal was stored.
-                  //noinspection unchecked
-                  typeCorrectedValue = Enum.valueOf((Class) fieldType, (String) value);
-               }
-            }
-            else if (value instanceof Clob) {
-               typeCorrectedValue = readClob((Clob) value);
-            }
-//            else if (Blob.class.isAssignableFrom(fieldType)) {
-//               typeCorrectedValue =
-//            }
-            else if ("PGobject".equals(valueType.getSimpleName())
-               && "citext".equalsIgnoreCase(((PGobject) value).getType())) {
-               typeCorrectedValue = ((PGobject) value).getValue();
+   private ValueAdapter resolveByTypeInspection(final @NotNull AttributeInfo fcInfo, final Class<?> valueType) {
+      final Class<?> fieldType = fcInfo.getType();
+      if (fieldType == valueType) {
+         return IDENTITY;
+      }
+      // Fix-up column value for enums, integer as boolean, etc.
+      if (Integer.class == valueType) {
+         return adapter(integerConverter(fieldType));
+      }
+      else if (Long.class == valueType) {
+         return adapter(longConverter(fieldType));
+      }
+      else if (Double.class == valueType) {
+         return adapter(doubleConverter(fieldType));
+      }
+      else if (BigInteger.class == valueType) {
+         return adapter(bigIntegerConverter(fieldType));
+      }
+      // With Sybase ASE it is SybBigDecimal
+      // IMPROVE Is getColumnClassName() check more reliable?
+      else if (BigDecimal.class.isAssignableFrom(valueType)) {
+         return adapter(bigDecimalConverter(fieldType));
+      }
+      // With Sybase ASE it is SybTimestamp
+      else if (Timestamp.class.isAssignableFrom(valueType)) {
+         return adapter(timestampConverter(fieldType));
+      }
+      else if (Time.class == valueType) {
+         return adapter(timeConverter(fieldType));
+      }
+      else if (java.sql.Date.class == valueType) {
+         return new ValueAdapter() {
+            @Override
+            public Object adapt(@NotNull final Object value, final String columnTypeName) {
+               return convertSqlDate(columnTypeName, fieldType, value);
             }
-            else if (Blob.class.isAssignableFrom(fieldType)) {
-               typeCorrectedValue = value;
+
+            @Override
+            public boolean needsColumnTypeName() {
+               return true;
             }
-            else {
-               // TODO Do not set or H2 throws "Can not set java.lang.Byte field com.zaxxer.q2o.entities.DataTypesNullable.byteToSMALLINT to java.lang.Short".
+         };
+      }
+      else if (Boolean.class == valueType) {
+         return IDENTITY;
+      }
+      else if (byte[].class == valueType) {
+         return adapter(byteArrayConverter(fieldType));
+      }
+      else if (UUID.class == valueType && String.class == fieldType) {
+         return (value, columnTypeName) -> value.toString();
+      }
+      else if (fieldType.isEnum()) {
+         return (value, columnTypeName) -> {
+            if (!q2o.isMySqlMode()) {
+               return fcInfo.getEnumConstant(value);
             }
-         }
-         else {
-            typeCorrectedValue = value;
-         }
+            // With ENUM fields MySQL returns always the value, not the ordinal, even when the ordinal was stored.
+            //noinspection unchecked
+            return Enum.valueOf((Class) fieldType, (String) value);
+         };
+      }
+      else if (Clob.class.isAssignableFrom(valueType)) {
+         return (value, columnTypeName) -> readClob((Clob) value);
+      }
+      else if ("PGobject".equals(valueType.getSimpleName())) {
+         final boolean isBlobField = Blob.class.isAssignableFrom(fieldType);
+         return (value, columnTypeName) -> "citext".equalsIgnoreCase(((PGobject) value).getType())
+            ? ((PGobject) value).getValue()
+            : isBlobField ? value : null;
+      }
+      else if (Blob.class.isAssignableFrom(fieldType)) {
+         return IDENTITY;
       }
-      return typeCorrectedValue;
+      return UNSUPPORTED;
+   }
+
+   private static ValueAdapter adapter(final UnaryOperator<Object> converter) {
+      return (value, columnTypeName) -> converter.apply(value);
    }
 
    /**
     * // SQLite TIMESTAMP and YEAR yields Integer. Also MySQL TINYINT.
     */
-   Object convertInteger(final Class<?> fieldType, @NotNull Object columnValue) {
+   UnaryOperator<Object> integerConverter(final Class<?> fieldType) {
       if (fieldType == Boolean.class || fieldType == boolean.class) {
-         columnValue = (((Integer) columnValue) != 0);
+         return columnValue -> ((Integer) columnValue) != 0;
       }
       else if (fieldType == Timestamp.class) {
-         columnValue = new Timestamp((Integer) columnValue);
+         return columnValue -> new Timestamp((Integer) columnValue);
       }
       else if (fieldType == Time.class) {
-         columnValue = new Time((Integer) columnValue);
+         return columnValue -> new Time((Integer) columnValue);
       }
       else if (fieldType == Date.class) {
-         columnValue = new Date((Integer) columnValue);
+         return columnValue -> new Date((Integer) columnValue);
       }
       else if (fieldType == Byte.class || fieldType == byte.class) {
-         columnValue = ((Integer) columnValue).byteValue();
+         return columnValue -> ((Integer) columnValue).byteValue();
       }
       else if (fieldType == Short.class || fieldType == short.class) {
-         columnValue = ((Integer) columnValue).shortValue();
+         return columnValue -> ((Integer) columnValue).shortValue();
       }
       else if (fieldType == Long.class || fieldType == long.class) {
-         columnValue = ((Integer) columnValue).longValue();
+         return columnValue -> ((Integer) columnValue).longValue();
       }
       else if (fieldType == Float.class || fieldType == float.class) {
-         columnValue = ((Integer) columnValue).floatValue();
+         return columnValue -> ((Integer) columnValue).floatValue();
       }
       else if (fieldType == Double.class || fieldType == double.class) {
-         columnValue = ((Integer) columnValue).doubleValue();
+         return columnValue -> ((Integer) columnValue).doubleValue();
       }
       else if (fieldType == BigInteger.class) {
-         columnValue = BigInteger.valueOf(((Integer) columnValue).longValue());
+         return columnValue -> BigInteger.valueOf(((Integer) columnValue).longValue());
       }
       else if (fieldType == BigDecimal.class) {
-         columnValue = new BigDecimal(((Integer) columnValue));
+         return columnValue -> new BigDecimal(((Integer) columnValue));
       }
       else if (fieldType.isEnum()) {
-         columnValue = enumFromNumber(fieldType, (Integer) columnValue);
+         final Object[] values = fieldType.getEnumConstants();
+         return columnValue -> enumFromNumber(fieldType, values, (Integer) columnValue);
       }
       else if (fieldType == String.class) {
-         columnValue = Integer.toString((Integer) columnValue);
+         return columnValue -> Integer.toString((Integer) columnValue);
       }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
-   private Object enumFromNumber(final Class<?> fieldType, Integer ordinal) {
+   private Object enumFromNumber(final Class<?> fieldType, final Object[] values, Integer ordinal) {
       Object columnValue = null;
-      try {
-         Object[] values = (Object[]) fieldType.getMethod("values").invoke(null);
-         // CLARIFY Deal with NULL and 0?
-         if (ordinal != null) {
-            if (q2o.isMySqlMode()) {
-               // "Values from the list of permissible elements in the column specification are numbered beginning with 1." (MySQL 5.5 Reference Manual, 10.4.4. The ENUM Type).
-               ordinal--;
-            }
-            if (ordinal < values.length) {
-               columnValue = values[ordinal];
-            }
-            else {
-               throw new RuntimeException("There is no enum constant with ordinal=" + ordinal + " in " + fieldType.getCanonicalName());
-            }
+      // CLARIFY Deal with NULL and 0?
+      if (ordinal != null) {
+         if (q2o.isMySqlMode()) {
+            // "Values from the list of permissible elements in the column specification are numbered beginning with 1." (MySQL 5.5 Reference Manual, 10.4.4. The ENUM Type).
+            ordinal--;
+         }
+         if (ordinal < values.length) {
+            columnValue = values[ordinal];
+         }
+         else {
+            throw new RuntimeException("There is no enum constant with ordinal=" + ordinal + " in " + fieldType.getCanonicalName());
          }
-      }
-      catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-         throw new RuntimeException(e.getMessage(), e);
       }
       return columnValue;
    }
@@ -266,130 +292,131 @@ class DatabaseValueToFieldType {
    /**
     * MYSQL BIGINT. SQLite TIMESTAMP, DATE.
     */
-   Object convertLong(final Class<?> fieldType, @NotNull Object columnValue) {
+   UnaryOperator<Object> longConverter(final Class<?> fieldType) {
       if (fieldType == Byte.class || fieldType == byte.class) {
-         columnValue = ((Long) columnValue).byteValue();
+         return columnValue -> ((Long) columnValue).byteValue();
       }
       else if (fieldType == Short.class || fieldType == short.class) {
-         columnValue = ((Long) columnValue).shortValue();
+         return columnValue -> ((Long) columnValue).shortValue();
       }
       else if (fieldType == Integer.class || fieldType == int.class) {
-         columnValue = ((Long) columnValue).intValue();
+         return columnValue -> ((Long) columnValue).intValue();
       }
       else if (fieldType == Float.class || fieldType == float.class) {
-         columnValue = ((Long) columnValue).floatValue();
+         return columnValue -> ((Long) columnValue).floatValue();
       }
       else if (fieldType == Double.class || fieldType == double.class) {
-         columnValue = ((Long) columnValue).doubleValue();
+         return columnValue -> ((Long) columnValue).doubleValue();
       }
       else if (fieldType == BigInteger.class) {
-         columnValue = BigInteger.valueOf((Long) columnValue);
+         return columnValue -> BigInteger.valueOf((Long) columnValue);
       }
       else if (fieldType == BigDecimal.class) {
-         columnValue = BigDecimal.valueOf((Long) columnValue);
+         return columnValue -> BigDecimal.valueOf((Long) columnValue);
       }
       else if (fieldType == Date.class) {
-         columnValue = new Date((Long) columnValue);
+         return columnValue -> new Date((Long) columnValue);
       }
       else if (fieldType == java.sql.Date.class) {
-         columnValue = new java.sql.Date((Long) columnValue);
+         return columnValue -> new java.sql.Date((Long) columnValue);
       }
       else if (fieldType == Timestamp.class) {
-         columnValue = new Timestamp((Long) columnValue);
+         return columnValue -> new Timestamp((Long) columnValue);
       }
       else if (Calendar.class.isAssignableFrom(fieldType)) {
-         Calendar cal = Calendar.getInstance();
-         cal.setTimeInMillis((Long) columnValue);
-         columnValue = cal;
+         return columnValue -> {
+            Calendar cal = Calendar.getInstance();
+            cal.setTimeInMillis((Long) columnValue);
+            return cal;
+         };
       }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
-   Object convertDouble(final Class<?> fieldType, @NotNull Object columnValue) {
+   UnaryOperator<Object> doubleConverter(final Class<?> fieldType) {
       if (fieldType == Byte.class || fieldType == byte.class) {
-         columnValue = ((Double) columnValue).byteValue();
+         return columnValue -> ((Double) columnValue).byteValue();
       }
       else if (fieldType == Short.class || fieldType == short.class) {
-         columnValue = ((Double) columnValue).shortValue();
+         return columnValue -> ((Double) columnValue).shortValue();
       }
       else if (fieldType == Integer.class || fieldType == int.class) {
-         columnValue = ((Double) columnValue).intValue();
+         return columnValue -> ((Double) columnValue).intValue();
       }
       else if (fieldType == Long.class || fieldType == long.class) {
-         columnValue = ((Double) columnValue).longValue();
+         return columnValue -> ((Double) columnValue).longValue();
       }
       else if (fieldType == Float.class || fieldType == float.class) {
-         columnValue = ((Double) columnValue).floatValue();
+         return columnValue -> ((Double) columnValue).floatValue();
       }
       else if (fieldType == BigDecimal.class) {
-         columnValue = new BigDecimal(((Double) columnValue));
+         return columnValue -> new BigDecimal(((Double) columnValue));
       }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
-   Object convertBigInteger(final Class<?> fieldType, @NotNull Object columnValue) {
-
+   UnaryOperator<Object> bigIntegerConverter(final Class<?> fieldType) {
       if (fieldType == Byte.class || fieldType == byte.class) {
-         columnValue = ((BigInteger) columnValue).byteValue();
+         return columnValue -> ((BigInteger) columnValue).byteValue();
       }
       else if (fieldType == Short.class || fieldType == short.class) {
-         columnValue = ((BigInteger) columnValue).shortValue();
+         return columnValue -> ((BigInteger) columnValue).shortValue();
       }
       else if (fieldType == Integer.class || fieldType == int.class) {
-         columnValue = ((BigInteger) columnValue).intValue();
+         return columnValue -> ((BigInteger) columnValue).intValue();
       }
       else if (fieldType == Long.class || fieldType == long.class) {
-         columnValue = ((BigInteger) columnValue).longValue();
+         return columnValue -> ((BigInteger) columnValue).longValue();
       }
       else if (fieldType == Float.class || fieldType == float.class) {
-         columnValue = ((BigInteger) columnValue).floatValue();
+         return columnValue -> ((BigInteger) columnValue).floatValue();
       }
       else if (fieldType == Double.class || fieldType == double.class) {
-         columnValue = ((BigInteger) columnValue).doubleValue();
+         return columnValue -> ((BigInteger) columnValue).doubleValue();
       }
       else if (fieldType == BigDecimal.class) {
-         columnValue = new BigDecimal(((BigInteger) columnValue));
+         return columnValue -> new BigDecimal(((BigInteger) columnValue));
       }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
-   Object convertBigDecimal(final Class<?> fieldType, @NotNull Object columnValue) {
+   UnaryOperator<Object> bigDecimalConverter(final Class<?> fieldType) {
       // Beim deploy: package sun.jvm.hotspot.runtime does not exist. Siehe https://stackoverflow.com/questions/42651694/maven-cant-find-sun-jvm-hotspot-when-compiling.
 //      if (fieldType == Bytes.class || fieldType == byte.class) {
 //         columnValue = ((BigDecimal) columnValue).byteValue();
 //      }
 //      else
       if (fieldType == Short.class || fieldType == short.class) {
-         columnValue = ((BigDecimal) columnValue).shortValue();
+         return columnValue -> ((BigDecimal) columnValue).shortValue();
       }
       else if (fieldType == Integer.class || fieldType == int.class) {
-         columnValue = ((BigDecimal) columnValue).intValue();
+         return columnValue -> ((BigDecimal) columnValue).intValue();
       }
       else if (fieldType == Long.class || fieldType == long.class) {
-         columnValue = ((BigDecimal) columnValue).longValue();
+         return columnValue -> ((BigDecimal) columnValue).longValue();
       }
       else if (fieldType == Float.class || fieldType == float.class) {
-         columnValue = ((BigDecimal) columnValue).floatValue();
+         return columnValue -> ((BigDecimal) columnValue).floatValue();
       }
       else if (fieldType == Double.class || fieldType == double.class) {
-         columnValue = ((BigDecimal) columnValue).doubleValue();
+         return columnValue -> ((BigDecimal) columnValue).doubleValue();
       }
       else if (fieldType == BigInteger.class) {
-         columnValue = ((BigDecimal) columnValue).toBigInteger();
+         return columnValue -> ((BigDecimal) columnValue).toBigInteger();
       }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
-   private Object convertTimestamp(final String columnTypeName, final Class<?> fieldType, @NotNull Object columnValue) {
+   private UnaryOperator<Object> timestampConverter(final Class<?> fieldType) {
       if (fieldType == java.sql.Date.class) {
-         columnValue = new java.sql.Date(((Timestamp) columnValue).getTime());
+         return columnValue -> new java.sql.Date(((Timestamp) columnValue).getTime());
       }
       // With DATE, TIME and TIMESTAMP fields handled by @Temporal annotation, but not with DATETIME fields.
       else if (fieldType == Date.class) {
-         columnValue = new Date(((Timestamp) columnValue).getTime());
+         return columnValue -> new Date(((Timestamp) columnValue).getTime());
       }
       else if (fieldType == Time.class) {
-         columnValue = Time.valueOf(((Timestamp) columnValue).toLocalDateTime().toLocalTime());
+         return columnValue -> Time.valueOf(((Timestamp) columnValue).toLocalDateTime().toLocalTime());
       }
       // Handled by @Temporal annotation
 //      else if (fieldType.isAssignableFrom(Calendar.class)) {
@@ -398,24 +425,24 @@ class DatabaseValueToFieldType {
 //         calendar.setTimeInMillis(((Timestamp)columnValue).getTime());
 //         columnValue = calendar;
 //      }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
-   private Object convertTime(final String columnTypeName, final Class<?> fieldType, @NotNull Object columnValue) {
+   private UnaryOperator<Object> timeConverter(final Class<?> fieldType) {
       if (fieldType == Timestamp.class) {
-         columnValue = new Timestamp(((Time) columnValue).getTime());
+         return columnValue -> new Timestamp(((Time) columnValue).getTime());
       }
       // Handled by @Temporal annotation
 //      else if (fieldType == Date.class) {
 //         columnValue = new Date(((Time) columnValue).getTime());
 //      }
       else if (fieldType == String.class) {
-         columnValue = columnValue.toString();
+         return Object::toString;
       }
       else if (fieldType == Integer.class || fieldType == int.class) {
-         columnValue = Long.valueOf(((Time) columnValue).getTime()).intValue();
+         return columnValue -> Long.valueOf(((Time) columnValue).getTime()).intValue();
       }
-      return columnValue;
+      return UnaryOperator.identity();
    }
 
    private Object convertSqlDate(final String columnTypeName, final Class<?> fieldType, @NotNull Object columnValue) {
@@ -445,46 +472,50 @@ class DatabaseValueToFieldType {
       return columnValue;
    }
 
-   private Object convertByteArray(final String columnTypeName, final Class<?> fieldType, @NotNull Object columnValue) {
-      byte[] v = (byte[]) columnValue;
+   private UnaryOperator<Object> byteArrayConverter(final Class<?> fieldType) {
       if (fieldType == String.class) {
-         columnValue = new String(v);
+         return columnValue -> new String((byte[]) columnValue);
       }
       else if (fieldType == Byte.class || fieldType == byte.class) {
-         columnValue = v[0];
+         return columnValue -> ((byte[]) columnValue)[0];
       }
       else if (fieldType == Short.class || fieldType == short.class) {
-         columnValue = new BigInteger(v).shortValue();
+         return columnValue -> new BigInteger((byte[]) columnValue).shortValue();
       }
       else if (fieldType == Integer.class || fieldType == int.class) {
-         columnValue = new BigInteger(v).intValue();
+         return columnValue -> new BigInteger((byte[]) columnValue).intValue();
       }
       else if (fieldType == Long.class || fieldType == long.class) {
-         columnValue = new BigInteger(v).longValue();
+         return columnValue -> new BigInteger((byte[]) columnValue).longValue();
       }
       else if (fieldType == Float.class || fieldType == float.class) {
-         columnValue = new BigInteger(v).floatValue();
+         return columnValue -> new BigInteger((byte[]) columnValue).floatValue();
       }
       else if (fieldType == Double.class || fieldType == double.class) {
-         columnValue = new BigInteger(v).doubleValue();
+         return columnValue -> new BigInteger((byte[]) columnValue).doubleValue();
       }
       else if (fieldType == BigInteger.class) {
-         columnValue = new BigInteger(v);
+         return columnValue -> new BigInteger((byte[]) columnValue);
       }
       else if (Blob.class.isAssignableFrom(fieldType)) {
-         // MySQL, H2 provides byte[] for BLOB
-         try {
-            // TODO Wenn in Spring Context, muss DataSourceUtils.getConnection() gerufen werden. Sonst dead lock.
-            Connection con = q2o.dataSource.getConnection();
-            // createBlob: H2: SQLFeatureNotSupportedException
-            Blob blob = con.createBlob();
-            blob.setBytes(1, (byte[]) columnValue);
-            columnValue = blob;
-            con.close();
-         }
-         catch (SQLException e) {
-            logger.error("", e);
-         }
+         return this::byteArrayToBlob;
+      }
+      return UnaryOperator.identity();
+   }
+
+   private Object byteArrayToBlob(@NotNull Object columnValue) {
+      // MySQL, H2 provides byte[] for BLOB
+      try {
+         // TODO Wenn in Spring Context, muss DataSourceUtils.getConnection() gerufen werden. Sonst dead lock.
+         Connection con = q2o.dataSource.getConnection();
+         // createBlob: H2: SQLFeatureNotSupportedException
+         Blob blob = con.createBlob();
+         blob.setBytes(1, (byte[]) columnValue);
+         columnValue = blob;
+         con.close();
+      }
+      catch (SQLException e) {
+         logger.error("", e);
       }
       return columnValue;
    }
@@ -0,0 +1,143 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.transaction.TxTransaction;
+import jakarta.transaction.Status;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.Transaction;
+import jakarta.transaction.TransactionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time limit of a closure execution: the earliest of the timeout of the closure, the deadline of an enclosing closure on the same thread and the timeout of the transaction set with {@link com.zaxxer.q2o.transaction.TxTransactionManager#setTransactionTimeout(int)}. Every statement created on the connection of the closure gets the remaining time as query timeout. On expiry a watchdog thread cancels the executing statements with {@link Statement#cancel()} and marks the transaction rollback-only, so its commit rolls back. Statements created afterwards fail with a {@link SQLTimeoutException}.
+ *
+ * @since 19.10.26
+ * @see SqlClosure#setTimeout(java.time.Duration)
+ */
+final class Deadline {
+
+   private static final Logger logger = LoggerFactory.getLogger(Deadline.class);
+   private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+   private static final ScheduledThreadPoolExecutor watchdog = newWatchdog();
+
+   private final long expiresAtNanos;
+   private final Transaction transaction;
+   private final Deadline enclosing;
+   private final TrackedStatements statements = new TrackedStatements(this::admit, () -> this.expired);
+   private final ScheduledFuture<?> expiry;
+   private volatile boolean expired;
+
+   private Deadline(final long remainingNanos, final Transaction transaction, final Deadline enclosing) {
+      this.expiresAtNanos = System.nanoTime() + remainingNanos;
+      this.transaction = transaction;
+      this.enclosing = enclosing;
+      this.expiry = watchdog.schedule(this::expire, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+   }
+
+   /**
+    * Start the time limit of a closure executing on the current thread. Call it after the closure began or joined its transaction.
+    *
+    * @param timeoutNanos {@link Long#MAX_VALUE} if the closure has no timeout of its own.
+    * @return null if there is no time limit.
+    */
+   static Deadline start(final long timeoutNanos) {
+      final Deadline enclosing = current.get();
+      final Transaction transaction = SqlClosure.isSpringTxAware ? null : currentTransaction();
+      long remaining = timeoutNanos;
+      if (enclosing != null) {
+         remaining = Math.min(remaining, enclosing.remainingNanos());
+      }
+      if (transaction instanceof TxTransaction) {
+         remaining = Math.min(remaining, ((TxTransaction) transaction).getRemainingNanos());
+      }
+      if (remaining == Long.MAX_VALUE) {
+         return null;
+      }
+      final Deadline deadline = new Deadline(remaining, transaction, enclosing);
+      current.set(deadline);
+      return deadline;
+   }
+
+   /**
+    * End the time limit started last on the current thread.
+    */
+   void end() {
+      expiry.cancel(false);
+      if (enclosing != null) {
+         current.set(enclosing);
+      }
+      else {
+         current.remove();
+      }
+      statements.clear();
+   }
+
+   /**
+    * @return connection itself without time limit on the current thread.
+    */
+   static Connection track(final Connection connection) {
+      final Deadline deadline = current.get();
+      return deadline == null || connection == null ? connection : deadline.statements.wrap(connection);
+   }
+
+   private long remainingNanos() {
+      return expiresAtNanos - System.nanoTime();
+   }
+
+   private static Transaction currentTransaction() {
+      final TransactionManager transactionManager = TransactionHelper.getTransactionManager();
+      if (transactionManager == null) {
+         return null;
+      }
+      try {
+         final Transaction transaction = transactionManager.getTransaction();
+         return transaction != null && transaction.getStatus() != Status.STATUS_NO_TRANSACTION ? transaction : null;
+      }
+      catch (SystemException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private void expire() {
+      expired = true;
+      statements.cancelAll();
+      if (transaction != null) {
+         try {
+            transaction.setRollbackOnly();
+         }
+         catch (IllegalStateException | SystemException e) {
+            // Completed meanwhile.
+            logger.debug("Transaction not marked rollback-only", e);
+         }
+      }
+   }
+
+   private void admit(final Statement statement) throws SQLException {
+      final long remaining = remainingNanos();
+      if (expired || remaining <= 0) {
+         statement.close();
+         throw new SQLTimeoutException("Deadline exceeded");
+      }
+      // Whole seconds, at least one: 0 means no timeout.
+      statement.setQueryTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, (remaining + 999_999_999L) / 1_000_000_000L)));
+   }
+
+   private static ScheduledThreadPoolExecutor newWatchdog() {
+      final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+         final Thread thread = new Thread(runnable, "q2o-deadline-watchdog");
+         thread.setDaemon(true);
+         return thread;
+      });
+      // Most deadlines end before they expire.
+      executor.setRemoveOnCancelPolicy(true);
+      return executor;
+   }
+}
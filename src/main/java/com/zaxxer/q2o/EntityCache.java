@@ -0,0 +1,226 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Cacheable;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second-level cache of entities read by id with {@link Q2Obj#byId(Class, Object...)}. Inserts, updates and deletes through q2o invalidate the entries they touch. Within a transaction the invalidation is repeated after completion, and entities written by the transaction are read from the database until then, so other threads never see uncommitted state and the transaction always sees its own changes.
+ * <p>
+ * Enabled per class with {@link Cacheable} or {@link q2o#enableEntityCache(Class, int, Duration)}. Entities are cached as shallow copies: callers may modify the instances they get, but not objects referenced by them. Immutable entities are not copied. Changes made with plain SQL, e.g. {@link Q2Sql#executeUpdate(String, Object...)}, are not noticed. Use {@link q2o#clearEntityCache(Class)} then. Entities read on a read replica are not cached, see {@link q2o#setReadReplicas(ReplicaSelection, javax.sql.DataSource...)}.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class EntityCache {
+
+   interface Loader<T> {
+      T load() throws SQLException;
+   }
+
+   static final int DEFAULT_SIZE = Integer.getInteger("com.zaxxer.q2o.entityCacheSize", 1000);
+   /**
+    * In seconds. 0 means entries do not expire.
+    */
+   static final long DEFAULT_TTL = Long.getLong("com.zaxxer.q2o.entityCacheTtl", 0);
+
+   private static final EntityCache DISABLED = new EntityCache(null, 0, Duration.ZERO);
+   private static final Map<Class<?>, EntityCache> caches = new ConcurrentHashMap<>();
+
+   private final Introspected introspected;
+   private final StatementCache<Object, Entry> entries;
+   private final StatementCache.Counters counters = new StatementCache.Counters();
+   private final long ttlNanos;
+   /**
+    * Incremented by every invalidation. A value loaded from the database is only cached if there was no invalidation while it was loaded.
+    */
+   private final AtomicLong invalidations = new AtomicLong();
+
+   private static final class Entry {
+      final Object entity;
+      final long expiresAtNanos;
+
+      Entry(final Object entity, final long expiresAtNanos) {
+         this.entity = entity;
+         this.expiresAtNanos = expiresAtNanos;
+      }
+   }
+
+   /**
+    * Keys written in the current transaction.
+    */
+   private final class Written implements TxSynchronizations.TxResource {
+      final Set<Object> keys = new HashSet<>();
+      boolean all;
+
+      @Override
+      public void afterCompletion(final boolean committed) {
+         if (all) {
+            clear();
+         }
+         else {
+            keys.forEach(EntityCache.this::remove);
+         }
+      }
+   }
+
+   private EntityCache(final Introspected introspected, final int maxSize, final Duration ttl) {
+      this.introspected = introspected;
+      this.entries = introspected == null ? null : new StatementCache<>(maxSize, counters);
+      this.ttlNanos = ttl.toNanos();
+   }
+
+   static void enable(final Class<?> clazz, final int maxSize, final Duration ttl) {
+      final Introspected introspected = Introspected.getInstance(clazz);
+      if (introspected.getIdColumnNames().length == 0) {
+         throw new IllegalArgumentException(clazz.getName() + " has no id");
+      }
+      caches.put(clazz, new EntityCache(introspected, maxSize, ttl));
+   }
+
+   static void disable(final Class<?> clazz) {
+      caches.put(clazz, DISABLED);
+   }
+
+   /**
+    * @return null if entities of clazz are not cached.
+    */
+   static CacheStats getStats(final Class<?> clazz) {
+      final EntityCache cache = forClass(clazz);
+      return cache == DISABLED ? null : cache.counters.snapshot();
+   }
+
+   static void clear(final Class<?> clazz) {
+      final EntityCache cache = caches.get(clazz);
+      if (cache != null && cache != DISABLED) {
+         cache.clear();
+      }
+   }
+
+   static void clearAll() {
+      for (final EntityCache cache : caches.values()) {
+         if (cache != DISABLED) {
+            cache.clear();
+         }
+      }
+   }
+
+   /**
+    * @return the cached entity or the one loaded with loader.
+    */
+   @SuppressWarnings("unchecked")
+   static <T> T get(final Class<T> clazz, final Object[] ids, final Loader<T> loader) throws SQLException {
+      final EntityCache cache = forClass(clazz);
+      if (cache == DISABLED) {
+         return loader.load();
+      }
+      return (T) cache.get(key(ids), (Loader<Object>) loader);
+   }
+
+   static void invalidate(final Class<?> clazz, final Object... ids) {
+      final EntityCache cache = caches.get(clazz);
+      if (cache != null && cache != DISABLED && ids != null) {
+         final Object key = key(ids);
+         cache.remove(key);
+         final Written written = TxSynchronizations.getResource(cache, cache::newWritten);
+         if (written != null) {
+            written.keys.add(key);
+         }
+      }
+   }
+
+   static void invalidateAll(final Class<?> clazz) {
+      final EntityCache cache = caches.get(clazz);
+      if (cache != null && cache != DISABLED) {
+         cache.clear();
+         final Written written = TxSynchronizations.getResource(cache, cache::newWritten);
+         if (written != null) {
+            written.all = true;
+         }
+      }
+   }
+
+   private static EntityCache forClass(final Class<?> clazz) {
+      final EntityCache cache = caches.get(clazz);
+      if (cache != null) {
+         return cache;
+      }
+      return caches.computeIfAbsent(clazz, c -> {
+         final Cacheable cacheable = c.getAnnotation(Cacheable.class);
+         if (cacheable == null || !cacheable.value()) {
+            return DISABLED;
+         }
+         return new EntityCache(Introspected.getInstance(c), DEFAULT_SIZE, Duration.ofSeconds(DEFAULT_TTL));
+      });
+   }
+
+   private Written newWritten() {
+      return new Written();
+   }
+
+   private Object get(final Object key, final Loader<Object> loader) throws SQLException {
+      final Written written = TxSynchronizations.getResource(this, null);
+      if (written != null && (written.all || written.keys.contains(key))) {
+         return loader.load();
+      }
+
+      final Entry entry = entries.getIfPresent(key);
+      if (entry != null) {
+         if (ttlNanos == 0 || entry.expiresAtNanos - System.nanoTime() > 0) {
+            counters.hits.increment();
+            return introspected.shallowCopy(entry.entity);
+         }
+         entries.remove(key);
+      }
+
+      counters.misses.increment();
+      final long invalidationsBefore = invalidations.get();
+      final long start = System.nanoTime();
+      final Object entity = loader.load();
+      final long end = System.nanoTime();
+      counters.loadTimeNanos.add(end - start);
+      // A replica may lag behind, an entity read there may be stale already.
+      if (entity != null && invalidations.get() == invalidationsBefore && !ReadReplicas.isExecuting()) {
+         entries.put(key, new Entry(introspected.shallowCopy(entity), end + ttlNanos));
+      }
+      return entity;
+   }
+
+   private void remove(final Object key) {
+      invalidations.incrementAndGet();
+      entries.remove(key);
+   }
+
+   private void clear() {
+      invalidations.incrementAndGet();
+      entries.clear();
+   }
+
+   /**
+    * Ids of integral types are normalized to Long, so an entity read by {@code Integer} id is invalidated by the {@code Long} id of the same row.
+    */
+   static Object key(final Object[] ids) {
+      if (ids.length == 1) {
+         return normalize(ids[0]);
+      }
+      final Object[] key = new Object[ids.length];
+      for (int i = 0; i < ids.length; i++) {
+         key[i] = normalize(ids[i]);
+      }
+      return Arrays.asList(key);
+   }
+
+   static Object normalize(final Object id) {
+      if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+         return ((Number) id).longValue();
+      }
+      return id;
+   }
+}
@@ -79,19 +79,13 @@ class FieldInfo extends AttributeInfo {
    }
 
    void setValue(final Object target, final Object value) throws IllegalAccessException {
-      try {
-         if (!isSelfJoinField()) {
-            field.set(target, value);
-         }
-         else {
-            final Object obj = value != null ? idValueToParentEntity(target, value)
-                                             : value;
-            field.set(target, obj);
-         }
+      if (!isSelfJoinField()) {
+         field.set(target, value);
       }
-      catch (InstantiationException e) {
-         e.printStackTrace();
-         throw new RuntimeException(e);
+      else {
+         final Object obj = value != null ? idValueToParentEntity(target.getClass(), value)
+                                          : value;
+         field.set(target, obj);
       }
    }
 
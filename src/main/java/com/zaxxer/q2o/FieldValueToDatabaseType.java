@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Optional;
@@ -84,6 +86,19 @@ class FieldValueToDatabaseType {
       return value;
    }
 
+   /**
+    * Set an IN parameter of a statement created from SQL. A {@link TypeCodec} registered for the value's type takes precedence over {@link #getValue(Object, int)}.
+    */
+   static void setParameter(final PreparedStatement stmt, final int parameterIndex, final Object value, final int sqlType) throws SQLException {
+      final TypeCodec<Object> codec = value != null ? TypeCodecs.lookup(value.getClass(), sqlType) : null;
+      if (codec != null) {
+         codec.write(stmt, parameterIndex, value, sqlType);
+      }
+      else {
+         stmt.setObject(parameterIndex, getValue(value, sqlType), sqlType);
+      }
+   }
+
    /**
     * <p>Get the value of the specified field from the specified target object, possibly after applying a {@link AttributeConverter}. This is the type to store in database.
     * </p>
@@ -0,0 +1,118 @@
+package com.zaxxer.q2o;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transaction-scoped identity map: within a transaction, entities read by id or with a list query are the same instances on every read. Saves round trips for repeated {@link Q2Obj#byId(Class, Object...)} calls of different code paths and gives them a consistent view. Entities inserted or updated in the transaction replace the loaded ones, deleted ones are removed. Discarded at commit or rollback.
+ * <p>
+ * Disabled by default. See {@link q2o#setIdentityMapEnabled(boolean)}.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class IdentityMap implements TxSynchronizations.TxResource {
+
+   private static final Object TX_KEY = new Object();
+   private static volatile boolean enabled;
+
+   private final Map<Class<?>, Map<Object, Object>> entities = new HashMap<>();
+
+   private IdentityMap() {
+   }
+
+   static void setEnabled(final boolean enabled) {
+      IdentityMap.enabled = enabled;
+   }
+
+   /**
+    * @return null outside transactions or if disabled.
+    */
+   private static IdentityMap current() {
+      return enabled ? TxSynchronizations.getResource(TX_KEY, IdentityMap::new) : null;
+   }
+
+   @SuppressWarnings("unchecked")
+   static <T> T get(final Class<T> clazz, final Object[] ids, final EntityCache.Loader<T> loader) throws SQLException {
+      final IdentityMap map = current();
+      if (map == null) {
+         return loader.load();
+      }
+      final Map<Object, Object> byId = map.entities.computeIfAbsent(clazz, c -> new HashMap<>());
+      final Object key = EntityCache.key(ids);
+      final Object known = byId.get(key);
+      if (known != null) {
+         return (T) known;
+      }
+      final T entity = loader.load();
+      if (entity != null) {
+         byId.put(key, entity);
+      }
+      return entity;
+   }
+
+   /**
+    * Replace the entities of list already read in the current transaction with those, and remember the others.
+    */
+   @SuppressWarnings("unchecked")
+   static <T> List<T> merge(final Class<T> clazz, final List<T> list) {
+      final IdentityMap map = current();
+      if (map == null || list.isEmpty()) {
+         return list;
+      }
+      final Introspected introspected = Introspected.getInstance(clazz);
+      if (introspected.getIdColumnNames().length == 0) {
+         return list;
+      }
+      final Map<Object, Object> byId = map.entities.computeIfAbsent(clazz, c -> new HashMap<>());
+      for (int i = 0; i < list.size(); i++) {
+         final T entity = list.get(i);
+         final Object known = byId.putIfAbsent(EntityCache.key(introspected.getActualIds(entity)), entity);
+         if (known != null) {
+            list.set(i, (T) known);
+         }
+      }
+      return list;
+   }
+
+   static void written(final Object entity, final Object[] ids) {
+      final IdentityMap map = current();
+      if (map != null && ids != null) {
+         map.entities.computeIfAbsent(entity.getClass(), c -> new HashMap<>()).put(EntityCache.key(ids), entity);
+      }
+   }
+
+   static void deleted(final Class<?> clazz, final Object[] ids) {
+      final IdentityMap map = current();
+      if (map != null) {
+         final Map<Object, Object> byId = map.entities.get(clazz);
+         if (byId != null) {
+            byId.remove(EntityCache.key(ids));
+         }
+      }
+   }
+
+   static void deletedAll(final Class<?> clazz) {
+      final IdentityMap map = current();
+      if (map != null) {
+         map.entities.remove(clazz);
+      }
+   }
+
+   /**
+    * Forget the entities of the current transaction, e.g. after a nested transaction was rolled back.
+    */
+   static void clear() {
+      final IdentityMap map = enabled ? TxSynchronizations.getResource(TX_KEY, null) : null;
+      if (map != null) {
+         map.entities.clear();
+      }
+   }
+
+   @Override
+   public void afterCompletion(final boolean committed) {
+      entities.clear();
+   }
+}
@@ -0,0 +1,438 @@
+package com.zaxxer.q2o;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the measurements of q2o in memory, per SQL shape and per entity class, for capacity planning and to export them to a monitoring system. SQL shapes are the statements with literals replaced by {@code ?} and parameter lists collapsed, see {@link #sqlShape(String)}, so statements with inlined values do not count separately.
+ * <pre>
+ * InMemoryQ2oMetrics metrics = new InMemoryQ2oMetrics();
+ * q2o.setMetrics(metrics);
+ * ...
+ * metrics.getSqlShapeStats().forEach((shape, stats) -&gt; log.info("{}: {}", shape, stats));
+ * </pre>
+ *
+ * @since 19.10.26
+ */
+public final class InMemoryQ2oMetrics implements Q2oMetrics {
+
+   /**
+    * The SQL shape operations count as once {@link #getMaxSqlShapes()} shapes are recorded.
+    */
+   public static final String OTHER_SQL_SHAPES = "(other)";
+   /**
+    * The SQL shape of operations without known SQL.
+    */
+   public static final String UNKNOWN_SQL = "(unknown)";
+
+   private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+   private final int maxSqlShapes;
+   private final Map<String, Stats> sqlShapeStats = new ConcurrentHashMap<>();
+   /**
+    * SQL to its {@link #sqlShape(String)}, not to tokenize the statements executed repeatedly on each operation.
+    */
+   private final StatementCache<String, String> sqlShapes;
+   private final Map<Class<?>, Stats> entityStats = new ConcurrentHashMap<>();
+   private final LongAdder[] cacheHits = newAdders(Cache.values().length);
+   private final LongAdder[] cacheMisses = newAdders(Cache.values().length);
+   private final LatencyHistogram connectionAcquireLatency = new LatencyHistogram();
+   private final LatencyHistogram closureLatency = new LatencyHistogram();
+   private final LongAdder failedClosures = new LongAdder();
+
+   /**
+    * Record up to 1000 SQL shapes.
+    */
+   public InMemoryQ2oMetrics() {
+      this(1000);
+   }
+
+   /**
+    * @param maxSqlShapes operations of further shapes count as {@link #OTHER_SQL_SHAPES}, to bound the memory used.
+    */
+   public InMemoryQ2oMetrics(final int maxSqlShapes) {
+      if (maxSqlShapes < 1) {
+         throw new IllegalArgumentException("maxSqlShapes must be at least 1");
+      }
+      this.maxSqlShapes = maxSqlShapes;
+      this.sqlShapes = new StatementCache<>(maxSqlShapes, new StatementCache.Counters());
+   }
+
+   public int getMaxSqlShapes() {
+      return maxSqlShapes;
+   }
+
+   @Override
+   public void recordOperation(final Operation operation, final String sql, final Class<?> entityClass, final int rows, final long bytes, final long nanos) {
+      sqlShapeStats(sql).record(operation, rows, bytes, nanos);
+      if (entityClass != null) {
+         entityStats.computeIfAbsent(entityClass, key -> new Stats()).record(operation, rows, bytes, nanos);
+      }
+   }
+
+   @Override
+   public void recordError(final Operation operation, final String sql, final Class<?> entityClass, final Throwable error) {
+      sqlShapeStats(sql).errors.increment();
+      if (entityClass != null) {
+         entityStats.computeIfAbsent(entityClass, key -> new Stats()).errors.increment();
+      }
+   }
+
+   @Override
+   public void recordCacheAccess(final Cache cache, final boolean hit) {
+      (hit ? cacheHits : cacheMisses)[cache.ordinal()].increment();
+   }
+
+   @Override
+   public void recordConnectionAcquire(final long nanos) {
+      connectionAcquireLatency.record(nanos);
+   }
+
+   @Override
+   public void recordClosure(final long nanos, final boolean failed) {
+      closureLatency.record(nanos);
+      if (failed) {
+         failedClosures.increment();
+      }
+   }
+
+   /**
+    * @return live statistics by SQL shape.
+    */
+   public Map<String, Stats> getSqlShapeStats() {
+      return Collections.unmodifiableMap(sqlShapeStats);
+   }
+
+   /**
+    * @return live statistics by entity class.
+    */
+   public Map<Class<?>, Stats> getEntityStats() {
+      return Collections.unmodifiableMap(entityStats);
+   }
+
+   /**
+    * @return the hits and misses of cache. Evictions are not reported.
+    */
+   public CacheStats getCacheStats(final Cache cache) {
+      return new CacheStats(cacheHits[cache.ordinal()].sum(), cacheMisses[cache.ordinal()].sum(), 0);
+   }
+
+   /**
+    * @return the time closures waited for a connection.
+    */
+   public LatencyHistogram getConnectionAcquireLatency() {
+      return connectionAcquireLatency;
+   }
+
+   /**
+    * @return the execution time of closures not joining a transaction.
+    */
+   public LatencyHistogram getClosureLatency() {
+      return closureLatency;
+   }
+
+   public long getFailedClosureCount() {
+      return failedClosures.sum();
+   }
+
+   /**
+    * Forget all measurements.
+    */
+   public void reset() {
+      sqlShapeStats.clear();
+      entityStats.clear();
+      for (int i = 0; i < cacheHits.length; i++) {
+         cacheHits[i].reset();
+         cacheMisses[i].reset();
+      }
+      connectionAcquireLatency.reset();
+      closureLatency.reset();
+      failedClosures.reset();
+   }
+
+   private Stats sqlShapeStats(final String sql) {
+      String shape = sql == null ? UNKNOWN_SQL : sqlShapes.computeIfAbsent(sql, InMemoryQ2oMetrics::sqlShape);
+      if (sqlShapeStats.size() >= maxSqlShapes && !sqlShapeStats.containsKey(shape)) {
+         shape = OTHER_SQL_SHAPES;
+      }
+      return sqlShapeStats.computeIfAbsent(shape, key -> new Stats());
+   }
+
+   /**
+    * @return sql with string and number literals replaced by {@code ?}, lists of parameters like {@code IN (?, ?, ?)} collapsed to {@code IN (?)} and whitespace normalized. Delimited identifiers are kept.
+    */
+   public static String sqlShape(final String sql) {
+      final int length = sql.length();
+      final StringBuilder shape = new StringBuilder(length);
+      int i = 0;
+      while (i < length) {
+         final char c = sql.charAt(i);
+         if (c == '\'') {
+            i++;
+            while (i < length) {
+               if (sql.charAt(i) == '\'') {
+                  // '' is an escaped quote.
+                  if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                     i += 2;
+                     continue;
+                  }
+                  break;
+               }
+               i++;
+            }
+            i++;
+            shape.append('?');
+         }
+         else if (c == '"') {
+            final int end = sql.indexOf('"', i + 1);
+            final int next = end < 0 ? length : end + 1;
+            shape.append(sql, i, next);
+            i = next;
+         }
+         else if (Character.isDigit(c) && (shape.length() == 0 || !isIdentifierPart(shape.charAt(shape.length() - 1)))) {
+            // Decimals and hex literals too.
+            while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+               i++;
+            }
+            shape.append('?');
+         }
+         else if (Character.isWhitespace(c)) {
+            while (i < length && Character.isWhitespace(sql.charAt(i))) {
+               i++;
+            }
+            if (shape.length() > 0 && i < length) {
+               shape.append(' ');
+            }
+         }
+         else {
+            shape.append(c);
+            i++;
+         }
+      }
+      return PARAMETER_LIST.matcher(shape).replaceAll("?");
+   }
+
+   private static boolean isIdentifierPart(final char c) {
+      return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+   }
+
+   private static LongAdder[] newAdders(final int count) {
+      final LongAdder[] adders = new LongAdder[count];
+      for (int i = 0; i < count; i++) {
+         adders[i] = new LongAdder();
+      }
+      return adders;
+   }
+
+   /**
+    * The measurements of one SQL shape or entity class. Writes are inserts, updates, deletes and batches.
+    */
+   public static final class Stats {
+      private final LongAdder[] operations = newAdders(Operation.values().length);
+      private final LongAdder rowsRead = new LongAdder();
+      private final LongAdder rowsWritten = new LongAdder();
+      private final LongAdder bytesRead = new LongAdder();
+      private final LongAdder bytesWritten = new LongAdder();
+      private final LongAdder errors = new LongAdder();
+      private final LatencyHistogram latency = new LatencyHistogram();
+
+      Stats() {
+      }
+
+      void record(final Operation operation, final int rows, final long bytes, final long nanos) {
+         operations[operation.ordinal()].increment();
+         if (operation == Operation.QUERY) {
+            rowsRead.add(Math.max(rows, 0));
+            bytesRead.add(bytes);
+         }
+         else {
+            rowsWritten.add(Math.max(rows, 0));
+            bytesWritten.add(bytes);
+         }
+         latency.record(nanos);
+      }
+
+      /**
+       * @return the number of successful operations.
+       */
+      public long getCount() {
+         long count = 0;
+         for (final LongAdder adder : operations) {
+            count += adder.sum();
+         }
+         return count;
+      }
+
+      public long getCount(final Operation operation) {
+         return operations[operation.ordinal()].sum();
+      }
+
+      public long getRowsRead() {
+         return rowsRead.sum();
+      }
+
+      /**
+       * @return the rows affected, without batches the driver reported no count for.
+       */
+      public long getRowsWritten() {
+         return rowsWritten.sum();
+      }
+
+      /**
+       * @return the estimated size of the column values read.
+       */
+      public long getBytesRead() {
+         return bytesRead.sum();
+      }
+
+      /**
+       * @return the estimated size of the parameter values written.
+       */
+      public long getBytesWritten() {
+         return bytesWritten.sum();
+      }
+
+      /**
+       * @return the number of failed operations.
+       */
+      public long getErrorCount() {
+         return errors.sum();
+      }
+
+      /**
+       * @return the latency of the successful operations.
+       */
+      public LatencyHistogram getLatency() {
+         return latency;
+      }
+
+      @Override
+      public String toString() {
+         return "Stats{" +
+            "count=" + getCount() +
+            ", errors=" + getErrorCount() +
+            ", rowsRead=" + getRowsRead() +
+            ", rowsWritten=" + getRowsWritten() +
+            ", bytesRead=" + getBytesRead() +
+            ", bytesWritten=" + getBytesWritten() +
+            ", latency=" + latency +
+            '}';
+      }
+   }
+
+   /**
+    * Counts latencies in buckets growing exponentially like an HDR histogram: each power of two is divided into 8 buckets, so percentiles are accurate to 12.5%. Latencies of 2^40 ns, about 18 minutes, and more count as such. Recording does not lock or allocate.
+    */
+   public static final class LatencyHistogram {
+      private static final int SUB_BUCKET_BITS = 3;
+      private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+      private static final int MAX_BITS = 40;
+      private static final long MAX_NANOS = (1L << MAX_BITS) - 1;
+
+      private final AtomicLongArray counts = new AtomicLongArray((MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+      private final LongAdder totalNanos = new LongAdder();
+      private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+      LatencyHistogram() {
+      }
+
+      void record(final long nanos) {
+         final long value = Math.max(0, nanos);
+         counts.incrementAndGet(bucket(Math.min(value, MAX_NANOS)));
+         totalNanos.add(value);
+         maxNanos.accumulate(value);
+      }
+
+      void reset() {
+         for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+         }
+         totalNanos.reset();
+         maxNanos.reset();
+      }
+
+      static int bucket(final long value) {
+         if (value < SUB_BUCKETS) {
+            return (int) value;
+         }
+         final int exponent = 63 - Long.numberOfLeadingZeros(value);
+         return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+      }
+
+      /**
+       * @return the smallest value counted in bucket.
+       */
+      static long lowestValue(final int bucket) {
+         final int block = bucket >>> SUB_BUCKET_BITS;
+         final int subBucket = bucket & (SUB_BUCKETS - 1);
+         return block == 0 ? subBucket : (long) (SUB_BUCKETS + subBucket) << (block - 1);
+      }
+
+      public long getCount() {
+         long count = 0;
+         for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+         }
+         return count;
+      }
+
+      public long getTotalNanos() {
+         return totalNanos.sum();
+      }
+
+      /**
+       * @return 0 if nothing was recorded.
+       */
+      public double getMeanNanos() {
+         final long count = getCount();
+         return count == 0 ? 0.0 : (double) getTotalNanos() / count;
+      }
+
+      public long getMaxNanos() {
+         return maxNanos.get();
+      }
+
+      /**
+       * @param percentile between 0 and 100, e.g. 99.9.
+       * @return the upper bound of the bucket holding the percentile, at most {@link #getMaxNanos()}. 0 if nothing was recorded.
+       */
+      public long getPercentileNanos(final double percentile) {
+         if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+         }
+         final long[] snapshot = new long[counts.length()];
+         long count = 0;
+         for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+         }
+         if (count == 0) {
+            return 0;
+         }
+         final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+         long seen = 0;
+         for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+               return Math.min(lowestValue(i + 1) - 1, getMaxNanos());
+            }
+         }
+         return getMaxNanos();
+      }
+
+      @Override
+      public String toString() {
+         return "LatencyHistogram{" +
+            "count=" + getCount() +
+            ", p50=" + getPercentileNanos(50) +
+            ", p99=" + getPercentileNanos(99) +
+            ", max=" + getMaxNanos() +
+            '}';
+      }
+   }
+}
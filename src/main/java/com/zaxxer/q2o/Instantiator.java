@@ -0,0 +1,26 @@
+package com.zaxxer.q2o;
+
+/**
+ * Creates entity instances while mapping result set rows. q2o chooses an instantiator per entity class on first use:
+ * <ul>
+ *    <li>Classes with a no-arg constructor are created through a cached constructor {@link java.lang.invoke.MethodHandle} and populated attribute by attribute afterwards.</li>
+ *    <li>Java records and classes with a {@link java.beans.ConstructorProperties} annotated constructor are created through their canonical constructor. The column values of a row are collected in a buffer first and the constructor is called once per row. Such entities may declare final fields and can be shared between threads without defensive copies.</li>
+ * </ul>
+ * Immutable entities can not be refreshed and do not support joins or generated ids. A custom instantiator can be registered with {@link q2o#registerInstantiator(Class, Instantiator)}.
+ *
+ * @since 19.10.26
+ */
+public interface Instantiator<T> {
+
+   /**
+    * @return null if instances are created with {@link #newInstance(Object...)} without arguments and populated afterwards. Otherwise the attribute names of the constructor parameters in declaration order. The column values are passed in this order to {@link #newInstance(Object...)}.
+    */
+   default String[] getParameterNames() {
+      return null;
+   }
+
+   /**
+    * @param args empty if {@link #getParameterNames()} returns null, else the attribute values in the order of {@link #getParameterNames()}. Values of absent columns are null.
+    */
+   T newInstance(Object... args);
+}
@@ -0,0 +1,220 @@
+package com.zaxxer.q2o;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves and caches the {@link Instantiator} of entity classes.
+ *
+ * @since 19.10.26
+ */
+final class Instantiators {
+
+   private static final Map<Class<?>, Instantiator<?>> registered = new ConcurrentHashMap<>();
+
+   private Instantiators() {
+   }
+
+   static <T> void register(final Class<T> clazz, final Instantiator<T> instantiator) {
+      if (instantiator != null) {
+         registered.put(clazz, instantiator);
+      }
+      else {
+         registered.remove(clazz);
+      }
+      // Buffered instantiation changes which fields are introspected.
+      Introspected.descriptorMap.remove(clazz);
+   }
+
+   @SuppressWarnings("unchecked")
+   static <T> Instantiator<T> of(final Class<T> clazz) {
+      Instantiator<T> instantiator = (Instantiator<T>) registered.get(clazz);
+      if (instantiator != null) {
+         return instantiator;
+      }
+      Constructor<?> canonical = findCanonicalConstructor(clazz);
+      if (canonical != null) {
+         return new ConstructorInstantiator<>(canonical, getParameterNames(canonical));
+      }
+      return new NoArgInstantiator<>(clazz);
+   }
+
+   /**
+    * @return true if clazz is instantiated by passing all column values to its constructor.
+    */
+   static boolean isBuffered(final Class<?> clazz) {
+      Instantiator<?> instantiator = registered.get(clazz);
+      return instantiator != null
+         ? instantiator.getParameterNames() != null
+         : findCanonicalConstructor(clazz) != null;
+   }
+
+   /**
+    * @return the canonical constructor of a record or the constructor annotated with {@link ConstructorProperties}, else null. Classes with a no-arg constructor keep being populated attribute by attribute.
+    */
+   private static Constructor<?> findCanonicalConstructor(final Class<?> clazz) {
+      Object[] recordComponents = getRecordComponents(clazz);
+      if (recordComponents != null) {
+         try {
+            Class<?>[] types = new Class<?>[recordComponents.length];
+            Method getType = recordComponents.getClass().getComponentType().getMethod("getType");
+            for (int i = 0; i < recordComponents.length; i++) {
+               types[i] = (Class<?>) getType.invoke(recordComponents[i]);
+            }
+            return clazz.getDeclaredConstructor(types);
+         }
+         catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+         }
+      }
+      Constructor<?> annotated = null;
+      for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+         if (constructor.getParameterCount() == 0) {
+            return null;
+         }
+         if (constructor.isAnnotationPresent(ConstructorProperties.class)) {
+            annotated = constructor;
+         }
+      }
+      return annotated;
+   }
+
+   private static String[] getParameterNames(final Constructor<?> constructor) {
+      ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+      if (properties != null) {
+         return properties.value();
+      }
+      try {
+         Object[] recordComponents = getRecordComponents(constructor.getDeclaringClass());
+         String[] names = new String[recordComponents.length];
+         Method getName = recordComponents.getClass().getComponentType().getMethod("getName");
+         for (int i = 0; i < recordComponents.length; i++) {
+            names[i] = (String) getName.invoke(recordComponents[i]);
+         }
+         return names;
+      }
+      catch (ReflectiveOperationException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Class.getRecordComponents() is called reflectively because q2o still runs on Java 11.
+    *
+    * @return null if clazz is not a record.
+    */
+   private static Object[] getRecordComponents(final Class<?> clazz) {
+      try {
+         Method getRecordComponents = Class.class.getMethod("getRecordComponents");
+         return (Object[]) getRecordComponents.invoke(clazz);
+      }
+      catch (NoSuchMethodException e) {
+         return null;
+      }
+      catch (ReflectiveOperationException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static MethodHandle unreflect(final Constructor<?> constructor) {
+      try {
+         constructor.setAccessible(true);
+         return MethodHandles.lookup().unreflectConstructor(constructor);
+      }
+      catch (IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static final class NoArgInstantiator<T> implements Instantiator<T> {
+      private final Class<T> clazz;
+      private volatile MethodHandle constructor;
+
+      NoArgInstantiator(final Class<T> clazz) {
+         this.clazz = clazz;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T newInstance(final Object... args) {
+         MethodHandle handle = constructor;
+         if (handle == null) {
+            // Resolved lazily: not every introspected class is instantiated, e.g. mapped superclasses.
+            try {
+               handle = unreflect(clazz.getDeclaredConstructor()).asType(MethodType.methodType(Object.class));
+            }
+            catch (NoSuchMethodException e) {
+               throw new RuntimeException(clazz.getName() + " has neither a no-arg constructor nor a canonical constructor", e);
+            }
+            constructor = handle;
+         }
+         try {
+            return (T) handle.invokeExact();
+         }
+         catch (RuntimeException | Error e) {
+            throw e;
+         }
+         catch (Throwable e) {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+
+   private static final class ConstructorInstantiator<T> implements Instantiator<T> {
+      private final MethodHandle constructor;
+      private final String[] parameterNames;
+      /**
+       * Default values for primitive parameters to substitute SQL NULL.
+       */
+      private final Object[] defaults;
+
+      ConstructorInstantiator(final Constructor<?> constructor, final String[] parameterNames) {
+         if (parameterNames.length != constructor.getParameterCount()) {
+            throw new IllegalArgumentException("Parameter names " + String.join(",", parameterNames) + " do not match " + constructor);
+         }
+         this.parameterNames = parameterNames;
+         Class<?>[] parameterTypes = constructor.getParameterTypes();
+         this.defaults = new Object[parameterTypes.length];
+         for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive()) {
+               defaults[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+            }
+         }
+         this.constructor = unreflect(constructor)
+            .asSpreader(Object[].class, parameterTypes.length)
+            .asType(MethodType.methodType(Object.class, Object[].class));
+      }
+
+      @Override
+      public String[] getParameterNames() {
+         return parameterNames;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T newInstance(final Object... args) {
+         Object[] arguments = args.length == 0 ? new Object[defaults.length] : args;
+         for (int i = 0; i < defaults.length; i++) {
+            if (arguments[i] == null) {
+               arguments[i] = defaults[i];
+            }
+         }
+         try {
+            return (T) constructor.invokeExact(arguments);
+         }
+         catch (RuntimeException | Error e) {
+            throw e;
+         }
+         catch (Throwable e) {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+}
@@ -27,6 +27,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Holds all informations we need about an entity.
@@ -73,6 +74,19 @@ final class Introspected {
    private AttributeInfo[] insertableFcInfosArray;
    private AttributeInfo[] updatableFcInfosArray;
    private AttributeInfo[] selectableFcInfos;
+   /**
+    * Select statements generated from clauses keyed by clause. Created on first use.
+    */
+   private volatile StatementCache<String, String> selectCache;
+   private volatile StatementCache<String, String> selectCacheAsIs;
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<Introspected, StatementCache> SELECT_CACHE = AtomicReferenceFieldUpdater.newUpdater(Introspected.class, StatementCache.class, "selectCache");
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<Introspected, StatementCache> SELECT_CACHE_AS_IS = AtomicReferenceFieldUpdater.newUpdater(Introspected.class, StatementCache.class, "selectCacheAsIs");
+   /**
+    * Fields copied by {@link #shallowCopy(Object)}. Collected on first use.
+    */
+   private volatile Field[] copiedFields;
 
    private static final HashSet<Class<?>> jpaAnnotations = new HashSet<>();
 
@@ -169,6 +183,11 @@ final class Introspected {
    }
 
    private boolean initialized;
+   private Instantiator<?> instantiator;
+   /**
+    * Not null if instances are created by passing the column values of a row to the constructor. Index is the constructor parameter position.
+    */
+   private AttributeInfo[] constructorParameterInfos;
    private Introspected joinedEntity;
    private List<AttributeInfo> oneToOneAnnotatedFcInfos;
 
@@ -190,7 +209,9 @@ final class Introspected {
    }
 
    static Introspected getInstance(@NotNull Class<?> clazz) {
-      return descriptorMap.computeIfAbsent(clazz, cls -> new Introspected(cls).introspect());
+      // Plain get first: computeIfAbsent() may lock the bin even if the key is present.
+      final Introspected introspected = descriptorMap.get(clazz);
+      return introspected != null ? introspected : descriptorMap.computeIfAbsent(clazz, cls -> new Introspected(cls).introspect());
    }
 
    Introspected introspect() {
@@ -200,9 +221,11 @@ final class Introspected {
 
          AttributeInfo fcInfo = null;
          try {
+            final boolean isBuffered = Instantiators.isBuffered(clazz);
             for (final Field field : getDeclaredFields()) {
                final int modifiers = field.getModifiers();
-               if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers)) {
+               // Final fields are populated through the constructor of records and immutable classes.
+               if (Modifier.isStatic(modifiers) || (Modifier.isFinal(modifiers) && !isBuffered) || Modifier.isTransient(modifiers)) {
                   continue;
                }
 
@@ -259,6 +282,7 @@ final class Introspected {
             }
 
             precalculateColumnInfos(idFcInfos);
+            initInstantiator(isBuffered);
 
          }
          catch (Exception e) {
@@ -277,14 +301,101 @@ final class Introspected {
       attributeInfos.add(fcInfo);
    }
 
+   private void initInstantiator(final boolean isBuffered) {
+      instantiator = Instantiators.of(clazz);
+      if (isBuffered) {
+         final String[] parameterNames = instantiator.getParameterNames();
+         constructorParameterInfos = new AttributeInfo[parameterNames.length];
+         for (int i = 0; i < parameterNames.length; i++) {
+            final AttributeInfo info = propertyToField.get(parameterNames[i]);
+            if (info == null) {
+               throw new IllegalStateException("Constructor parameter " + parameterNames[i] + " of " + clazz.getName() + " does not correspond to a persistent attribute");
+            }
+            info.constructorParameterIndex = i;
+            constructorParameterInfos[i] = info;
+         }
+      }
+   }
+
+   /**
+    * @return true if instances are created with all column values of a row at once. See {@link #newInstance(Object[])}.
+    */
+   boolean isConstructorInstantiated() {
+      return constructorParameterInfos != null;
+   }
+
+   int getConstructorParameterCount() {
+      return constructorParameterInfos.length;
+   }
+
+   /**
+    * @return new instance of the introspected class to populate attribute by attribute.
+    */
+   Object newInstance() {
+      if (constructorParameterInfos != null) {
+         throw new UnsupportedOperationException(clazz.getName() + " is immutable. It can only be created with all of its attribute values.");
+      }
+      return instantiator.newInstance();
+   }
+
+   /**
+    * @param args attribute values indexed by {@link AttributeInfo#constructorParameterIndex}.
+    */
+   Object newInstance(final Object[] args) {
+      return instantiator.newInstance(args);
+   }
+
+   /**
+    * @return a new instance with the values of all instance fields of entity, or entity itself if the class is immutable. Referenced objects are not copied.
+    */
+   Object shallowCopy(final Object entity) {
+      if (constructorParameterInfos != null) {
+         return entity;
+      }
+      Field[] fields = copiedFields;
+      if (fields == null) {
+         final List<Field> list = new ArrayList<>();
+         for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+               if (!Modifier.isStatic(field.getModifiers())) {
+                  field.setAccessible(true);
+                  list.add(field);
+               }
+            }
+         }
+         copiedFields = fields = list.toArray(new Field[0]);
+      }
+      final Object copy = newInstance();
+      try {
+         for (final Field field : fields) {
+            field.set(copy, field.get(entity));
+         }
+      }
+      catch (IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+      return copy;
+   }
+
+   /**
+    * @return names of the tables entities of this class are read from, including joined ones.
+    */
+   Set<String> getTableNames() {
+      final Set<String> tableNames = new HashSet<>(tableNameToClassCaseInsensitive.keySet());
+      if (joinedEntity != null) {
+         tableNames.addAll(joinedEntity.getTableNames());
+      }
+      return tableNames;
+   }
+
    /**
     * @return new entity representing this table
     */
-   Object getTableTarget(String tableName) throws IllegalAccessException, InstantiationException {
+   Object getTableTarget(String tableName) {
       Class<?> cls = tableNameToClassCaseInsensitive.get(tableName);
       if (cls != null) {
          Introspected i = getInstance(cls);
-         return i.clazz.newInstance();
+         return i.newInstance();
       }
       else {
          for (Class<?> c : tableNameToClassCaseInsensitive.values()) {
@@ -724,6 +835,30 @@ final class Introspected {
       return tableName;
    }
 
+   /**
+    * @param addLackingWhere whether the cached statements got a WHERE inserted if the clause lacks one.
+    */
+   @SuppressWarnings({"unchecked", "rawtypes"})
+   StatementCache<String, String> getSelectCache(final boolean addLackingWhere) {
+      final AtomicReferenceFieldUpdater<Introspected, StatementCache> updater = addLackingWhere ? SELECT_CACHE : SELECT_CACHE_AS_IS;
+      final StatementCache<String, String> cache = updater.get(this);
+      if (cache != null) {
+         return cache;
+      }
+      // No lock, a cache created by a concurrent caller is dropped.
+      updater.compareAndSet(this, null, new StatementCache<>(OrmBase.STATEMENT_CACHE_SIZE, OrmBase.statementCacheCounters));
+      return updater.get(this);
+   }
+
+   void clearSelectCaches() {
+      if (selectCache != null) {
+         selectCache.clear();
+      }
+      if (selectCacheAsIs != null) {
+         selectCacheAsIs.clear();
+      }
+   }
+
    /**
     * Get the delimited column name for the specified property name, or {@code null} if
     * no such property exists.
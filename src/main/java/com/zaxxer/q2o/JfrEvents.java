@@ -0,0 +1,427 @@
+package com.zaxxer.q2o;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * Java Flight Recorder events of q2o operations, category "q2o". The duration of an event is the time spent in q2o and the driver, split up into execution, mapping and conversion time, to tell database latency from mapping overhead. Timings are taken only if the JFR event is enabled or {@link Q2oMetrics} are set. The events also feed the metrics.
+ * <p>
+ * The {@code jdk.jfr} types are confined to {@link Jfr}, loaded only if the module is present. Without it, the events only feed the metrics.
+ * </p>
+ * <p>
+ * Enable them e.g. with {@code jcmd <pid> JFR.start settings=profile} and a {@code .jfc} file enabling {@code q2o.*}.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class JfrEvents {
+
+   /**
+    * Whether the {@code jdk.jfr} module is present, checked once.
+    */
+   static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+   private JfrEvents() {
+   }
+
+   /**
+    * The Flight Recorder side of a {@link TimedEvent}, a {@code jdk.jfr.Event} of {@link Jfr}.
+    */
+   interface Recorder {
+      void begin();
+
+      boolean isEnabled();
+
+      boolean shouldCommit();
+
+      /**
+       * Copy the fields of event and commit.
+       */
+      void commit(TimedEvent event);
+   }
+
+   /**
+    * Times the phases of an operation and passes it on to {@link Metrics}, and to a {@link Recorder} if JFR is {@link #AVAILABLE}.
+    */
+   abstract static class TimedEvent {
+      private Recorder recorder;
+      private boolean timed;
+      private long startNanos;
+      private long lap;
+      /**
+       * Estimated size of the values read or written, summed up if timed.
+       */
+      long bytes;
+
+      /**
+       * @return a new {@code jdk.jfr.Event} of {@link Jfr}. Called only if JFR is {@link #AVAILABLE}.
+       */
+      abstract Recorder newRecorder();
+
+      final void start() {
+         if (AVAILABLE) {
+            recorder = newRecorder();
+            recorder.begin();
+         }
+         timed = (recorder != null && recorder.isEnabled()) || Metrics.isEnabled();
+         if (timed) {
+            startNanos = System.nanoTime();
+            lap = startNanos;
+         }
+      }
+
+      /**
+       * @return whether the event or the metrics are enabled.
+       */
+      final boolean isTimed() {
+         return timed;
+      }
+
+      /**
+       * @return the nanos since the last call or {@link #start()}, 0 if not timed.
+       */
+      final long lap() {
+         if (!timed) {
+            return 0;
+         }
+         final long now = System.nanoTime();
+         final long elapsed = now - lap;
+         lap = now;
+         return elapsed;
+      }
+
+      /**
+       * @return the nanos since {@link #start()}, 0 if not timed.
+       */
+      final long elapsed() {
+         return timed ? System.nanoTime() - startNanos : 0;
+      }
+
+      final void meter(final Q2oMetrics.Operation operation, final String sql, final Class<?> entityClass, final int rows) {
+         if (timed) {
+            Metrics.get().recordOperation(operation, sql, entityClass, rows, bytes, elapsed());
+         }
+      }
+
+      final boolean shouldCommit() {
+         return recorder != null && recorder.shouldCommit();
+      }
+
+      final void commit() {
+         recorder.commit(this);
+      }
+
+      /**
+       * The event is not committed.
+       */
+      final void failed(final Q2oMetrics.Operation operation, final String sql, final Class<?> entityClass, final Throwable error) {
+         Metrics.get().recordError(operation, sql, entityClass, error);
+      }
+   }
+
+   static final class QueryEvent extends TimedEvent {
+      String sql;
+      Class<?> entityClass;
+      int rows;
+      long executeTime;
+      long mappingTime;
+      long conversionTime;
+
+      @Override
+      Recorder newRecorder() {
+         return new Jfr.QueryRecord();
+      }
+
+      /**
+       * @param sql null if unknown.
+       * @param bytes estimated size of the values read.
+       */
+      void emit(final String sql, final Class<?> entityClass, final int rows, final long conversionNanos, final long bytes) {
+         mappingTime = lap();
+         this.bytes = bytes;
+         meter(Q2oMetrics.Operation.QUERY, sql, entityClass, rows);
+         if (shouldCommit()) {
+            this.sql = sql;
+            this.entityClass = entityClass;
+            this.rows = rows;
+            this.conversionTime = conversionNanos;
+            commit();
+         }
+      }
+   }
+
+   /**
+    * A write of a single entity.
+    */
+   abstract static class WriteEvent extends TimedEvent {
+      String sql;
+      Class<?> entityClass;
+      int rows;
+      long executeTime;
+      long conversionTime;
+
+      abstract Q2oMetrics.Operation operation();
+
+      void emit(final String sql, final Class<?> entityClass, final int rows) {
+         meter(operation(), sql, entityClass, rows);
+         if (shouldCommit()) {
+            this.sql = sql;
+            this.entityClass = entityClass;
+            this.rows = rows;
+            commit();
+         }
+      }
+   }
+
+   static final class InsertEvent extends WriteEvent {
+      @Override
+      Recorder newRecorder() {
+         return new Jfr.InsertRecord();
+      }
+
+      @Override
+      Q2oMetrics.Operation operation() {
+         return Q2oMetrics.Operation.INSERT;
+      }
+   }
+
+   static final class UpdateEvent extends WriteEvent {
+      @Override
+      Recorder newRecorder() {
+         return new Jfr.UpdateRecord();
+      }
+
+      @Override
+      Q2oMetrics.Operation operation() {
+         return Q2oMetrics.Operation.UPDATE;
+      }
+   }
+
+   static final class DeleteEvent extends WriteEvent {
+      @Override
+      Recorder newRecorder() {
+         return new Jfr.DeleteRecord();
+      }
+
+      @Override
+      Q2oMetrics.Operation operation() {
+         return Q2oMetrics.Operation.DELETE;
+      }
+   }
+
+   static final class BatchEvent extends TimedEvent {
+      String sql;
+      Class<?> entityClass;
+      String operation;
+      int batchSize;
+      int rows;
+      long executeTime;
+      long conversionTime;
+
+      @Override
+      Recorder newRecorder() {
+         return new Jfr.BatchRecord();
+      }
+
+      /**
+       * @param operation of the statements batched.
+       */
+      void emit(final String sql, final Class<?> entityClass, final Q2oMetrics.Operation operation, final int batchSize, final int[] counts) {
+         final int rows = sum(counts);
+         meter(Q2oMetrics.Operation.BATCH, sql, entityClass, rows);
+         if (shouldCommit()) {
+            this.sql = sql;
+            this.entityClass = entityClass;
+            this.operation = operation.name().toLowerCase(Locale.ROOT);
+            this.batchSize = batchSize;
+            this.rows = rows;
+            commit();
+         }
+      }
+
+      private static int sum(final int[] counts) {
+         int sum = 0;
+         for (final int count : counts) {
+            if (count < 0) {
+               // Statement.SUCCESS_NO_INFO
+               return -1;
+            }
+            sum += count;
+         }
+         return sum;
+      }
+   }
+
+   static final class ConnectionAcquireEvent extends TimedEvent {
+      String dataSource;
+
+      @Override
+      Recorder newRecorder() {
+         return new Jfr.ConnectionAcquireRecord();
+      }
+
+      void emit(final DataSource dataSource) {
+         if (isTimed()) {
+            Metrics.get().recordConnectionAcquire(elapsed());
+         }
+         if (shouldCommit()) {
+            this.dataSource = dataSource.getClass().getName();
+            commit();
+         }
+      }
+   }
+
+   /**
+    * The {@code jdk.jfr.Event}s recorded, loaded only if JFR is {@link #AVAILABLE}.
+    */
+   static final class Jfr {
+
+      private Jfr() {
+      }
+
+      @Name("q2o.Query")
+      @Label("Query")
+      @Category("q2o")
+      @Description("A query mapping its rows to entities")
+      static final class QueryRecord extends Event implements Recorder {
+         @Label("SQL")
+         String sql;
+         @Label("Entity Class")
+         Class<?> entityClass;
+         @Label("Rows")
+         int rows;
+         @Label("Execute Time")
+         @Description("Setting parameters and executing the query")
+         @Timespan
+         long executeTime;
+         @Label("Mapping Time")
+         @Description("Reading the rows and creating the entities, including Conversion Time")
+         @Timespan
+         long mappingTime;
+         @Label("Conversion Time")
+         @Description("Converting column values to attribute types")
+         @Timespan
+         long conversionTime;
+
+         @Override
+         public void commit(final TimedEvent event) {
+            final QueryEvent query = (QueryEvent) event;
+            sql = query.sql;
+            entityClass = query.entityClass;
+            rows = query.rows;
+            executeTime = query.executeTime;
+            mappingTime = query.mappingTime;
+            conversionTime = query.conversionTime;
+            commit();
+         }
+      }
+
+      abstract static class WriteRecord extends Event implements Recorder {
+         @Label("SQL")
+         String sql;
+         @Label("Entity Class")
+         Class<?> entityClass;
+         @Label("Rows")
+         @Description("Rows affected")
+         int rows;
+         @Label("Execute Time")
+         @Timespan
+         long executeTime;
+         @Label("Conversion Time")
+         @Description("Converting attribute values and setting them as parameters")
+         @Timespan
+         long conversionTime;
+
+         @Override
+         public void commit(final TimedEvent event) {
+            final WriteEvent write = (WriteEvent) event;
+            sql = write.sql;
+            entityClass = write.entityClass;
+            rows = write.rows;
+            executeTime = write.executeTime;
+            conversionTime = write.conversionTime;
+            commit();
+         }
+      }
+
+      @Name("q2o.Insert")
+      @Label("Insert")
+      @Category("q2o")
+      static final class InsertRecord extends WriteRecord {
+      }
+
+      @Name("q2o.Update")
+      @Label("Update")
+      @Category("q2o")
+      static final class UpdateRecord extends WriteRecord {
+      }
+
+      @Name("q2o.Delete")
+      @Label("Delete")
+      @Category("q2o")
+      static final class DeleteRecord extends WriteRecord {
+      }
+
+      @Name("q2o.Batch")
+      @Label("Batch")
+      @Category("q2o")
+      @Description("A JDBC batch writing entities of one class")
+      static final class BatchRecord extends Event implements Recorder {
+         @Label("SQL")
+         String sql;
+         @Label("Entity Class")
+         Class<?> entityClass;
+         @Label("Operation")
+         String operation;
+         @Label("Batch Size")
+         int batchSize;
+         @Label("Rows")
+         @Description("Rows affected, -1 if not reported by the driver")
+         int rows;
+         @Label("Execute Time")
+         @Timespan
+         long executeTime;
+         @Label("Conversion Time")
+         @Description("Converting attribute values and adding them to the batch")
+         @Timespan
+         long conversionTime;
+
+         @Override
+         public void commit(final TimedEvent event) {
+            final BatchEvent batch = (BatchEvent) event;
+            sql = batch.sql;
+            entityClass = batch.entityClass;
+            operation = batch.operation;
+            batchSize = batch.batchSize;
+            rows = batch.rows;
+            executeTime = batch.executeTime;
+            conversionTime = batch.conversionTime;
+            commit();
+         }
+      }
+
+      @Name("q2o.ConnectionAcquire")
+      @Label("Connection Acquire")
+      @Category("q2o")
+      @Description("A closure waiting for a connection of its DataSource")
+      @StackTrace(false)
+      static final class ConnectionAcquireRecord extends Event implements Recorder {
+         @Label("DataSource")
+         String dataSource;
+
+         @Override
+         public void commit(final TimedEvent event) {
+            dataSource = ((ConnectionAcquireEvent) event).dataSource;
+            commit();
+         }
+      }
+   }
+}
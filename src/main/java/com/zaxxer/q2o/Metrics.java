@@ -0,0 +1,54 @@
+package com.zaxxer.q2o;
+
+/**
+ * Holds the {@link Q2oMetrics} set with {@link q2o#setMetrics(Q2oMetrics)}.
+ *
+ * @since 19.10.26
+ */
+final class Metrics {
+
+   private static volatile Q2oMetrics metrics = Q2oMetrics.NOOP;
+
+   private Metrics() {
+   }
+
+   static Q2oMetrics get() {
+      return metrics;
+   }
+
+   /**
+    * @param metrics null to restore {@link Q2oMetrics#NOOP}.
+    */
+   static void set(final Q2oMetrics metrics) {
+      Metrics.metrics = metrics != null ? metrics : Q2oMetrics.NOOP;
+   }
+
+   /**
+    * @return false if measurements would be discarded anyway.
+    */
+   static boolean isEnabled() {
+      return metrics != Q2oMetrics.NOOP;
+   }
+
+   /**
+    * @return a rough size of value on the wire: characters of strings, bytes of arrays, 4 or 8 bytes of numbers and temporals. LOBs count with the size of their locator only, asking for their length may be a round trip.
+    */
+   static long estimateSize(final Object value) {
+      if (value == null) {
+         return 0;
+      }
+      if (value instanceof CharSequence) {
+         return ((CharSequence) value).length();
+      }
+      if (value instanceof byte[]) {
+         return ((byte[]) value).length;
+      }
+      if (value instanceof Boolean || value instanceof Byte) {
+         return 1;
+      }
+      if (value instanceof Short || value instanceof Integer || value instanceof Float) {
+         return 4;
+      }
+      return 8;
+   }
+}
@@ -32,6 +32,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 class OrmBase
 {
+   static final int STATEMENT_CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
+   static final StatementCache.Counters statementCacheCounters = new StatementCache.Counters(Q2oMetrics.Cache.STATEMENT);
    private static final Map<String, String> columnsCsvCache;
    private static Logger logger = LoggerFactory.getLogger(OrmBase.class.getName());
 
@@ -82,8 +84,7 @@ Callers:
 
       for (int colIdx = paramCount; colIdx > 0; colIdx--) {
          final int sqlType = parameterMetaData.getParameterType(colIdx);
-         final Object object = FieldValueToDatabaseType.getValue(args[colIdx - 1], sqlType);
-         stmt.setObject(colIdx, object, sqlType);
+         FieldValueToDatabaseType.setParameter(stmt, colIdx, args[colIdx - 1], sqlType);
       }
    }
 
@@ -20,13 +20,26 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
 import java.util.function.Function;
 
@@ -35,40 +48,47 @@ import java.util.function.Function;
  */
 // MULTIPLESTRINGS:OFF
 class OrmReader extends OrmBase {
-   private static final int CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
+   private static final int LOB_CHUNK_SIZE = 64 * 1024;
    private static Logger LOGGER = LoggerFactory.getLogger(OrmBase.class);
 
-   private static final Map<String, String> fromClauseStmtCache;
-
-   static {
-      fromClauseStmtCache = Collections.synchronizedMap(
-         new LinkedHashMap<String, String>(CACHE_SIZE) {
-            private static final long serialVersionUID = 6259942586093454872L;
-
-            @Override
-            protected boolean removeEldestEntry(java.util.Map.Entry<String, String> eldest) {
-               return this.size() > CACHE_SIZE;
-            }
-      });
-   }
-
    static void clearCache()
    {
-      fromClauseStmtCache.clear();
+      for (final Introspected introspected : Introspected.descriptorMap.values()) {
+         introspected.clearSelectCaches();
+      }
    }
 
    static <T> List<T> statementToList(final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException {
+      return statementToList(null, stmt, clazz, args);
+   }
+
+   /**
+    * @param sql of stmt, for the JFR event. Null if unknown.
+    */
+   private static <T> List<T> statementToList(final String sql, final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException {
       LOGGER.debug("{}", stmt);
+      final JfrEvents.QueryEvent event = new JfrEvents.QueryEvent();
+      event.start();
       try (final PreparedStatement closeStmt = stmt) {
          ResultSet rs = statementToResultSet(stmt, args);
          boolean next = rs.next();
+         event.executeTime = event.lap();
          if (next) {
-            return resultSetToList(rs, clazz);
+            final ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(rs, new HashSet<>());
+            processor.setTimed(event.isTimed());
+            final List<T> list = processor.process(clazz);
+            event.emit(sql, clazz, list.size(), processor.getConversionNanos(), processor.getBytes());
+            return list;
          }
          else {
+            event.emit(sql, clazz, 0, 0, 0);
             return new ArrayList<T>();
          }
       }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.QUERY, sql, clazz, e);
+         throw e;
+      }
    }
 
    static ResultSet statementToResultSet(final PreparedStatement stmt, final Object... args) throws SQLException
@@ -87,14 +107,27 @@ class OrmReader extends OrmBase {
       return processor.process(targetClass);
    }
 
-   private static <T> T statementToObject(final PreparedStatement stmt, final T target, final Object... args) throws SQLException
+   private static <T> T statementToObject(final String sql, final PreparedStatement stmt, final T target, final Object... args) throws SQLException
    {
+      final JfrEvents.QueryEvent event = new JfrEvents.QueryEvent();
+      event.start();
       populateStatementParameters(stmt, args);
       LOGGER.debug("{}", stmt);
       try (final ResultSet resultSet = stmt.executeQuery()) {
-         return resultSet.next() ? resultSetToObject(resultSet, target) : null;
+         final boolean next = resultSet.next();
+         event.executeTime = event.lap();
+         if (!next) {
+            event.emit(sql, target.getClass(), 0, 0, 0);
+            return null;
+         }
+         final ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, Collections.emptySet());
+         processor.setTimed(event.isTimed());
+         final T object = processor.process(target);
+         event.emit(sql, target.getClass(), 1, processor.getConversionNanos(), processor.getBytes());
+         return object;
       }
       catch (Exception e) {
+         event.failed(Q2oMetrics.Operation.QUERY, sql, target.getClass(), e);
          throw new RuntimeException(e);
       }
       finally {
@@ -103,14 +136,37 @@ class OrmReader extends OrmBase {
    }
 
    static <T> T statementToObject(final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException {
-      T target;
-      try {
-         target = clazz.newInstance();
+      return statementToObject(null, stmt, clazz, args);
+   }
+
+   /**
+    * @param sql of stmt, for the JFR event. Null if unknown.
+    */
+   private static <T> T statementToObject(final String sql, final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException {
+      final JfrEvents.QueryEvent event = new JfrEvents.QueryEvent();
+      event.start();
+      populateStatementParameters(stmt, args);
+      LOGGER.debug("{}", stmt);
+      try (final ResultSet resultSet = stmt.executeQuery()) {
+         final boolean next = resultSet.next();
+         event.executeTime = event.lap();
+         if (!next) {
+            event.emit(sql, clazz, 0, 0, 0);
+            return null;
+         }
+         final ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, Collections.emptySet());
+         processor.setTimed(event.isTimed());
+         final T object = processor.processRow(clazz);
+         event.emit(sql, clazz, 1, processor.getConversionNanos(), processor.getBytes());
+         return object;
       }
       catch (Exception e) {
+         event.failed(Q2oMetrics.Operation.QUERY, sql, clazz, e);
          throw new RuntimeException(e);
       }
-      return statementToObject(stmt, target, args);
+      finally {
+         stmt.close();
+      }
    }
 
    static <T> T resultSetToObject(final ResultSet resultSet, final T target) throws SQLException
@@ -127,8 +183,10 @@ class OrmReader extends OrmBase {
 
    static <T> T objectById(final Connection connection, final Class<T> clazz, final Object... args) throws SQLException
    {
-      String where = getWhereIdClause(Introspected.getInstance(clazz));
-      return objectFromClause(connection, clazz, where, args);
+      return IdentityMap.get(clazz, args, () -> EntityCache.get(clazz, args, () -> {
+         String where = getWhereIdClause(Introspected.getInstance(clazz));
+         return objectFromClause(connection, clazz, where, args);
+      }));
    }
 
    static <T> T objectById(final Connection connection, final T target) throws SQLException {
@@ -153,7 +211,7 @@ class OrmReader extends OrmBase {
       final String where = getWhereIdClause(introspected);
       final String sql = generateSelectFromWhereClause(target.getClass(), where, true);
       final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, target, introspected.getActualIds(target));
+      return statementToObject(sql, stmt, target, introspected.getActualIds(target));
    }
 
    private static String getWhereIdClause(Introspected introspected) {
@@ -170,41 +228,150 @@ class OrmReader extends OrmBase {
       return where.toString();
    }
 
+   /**
+    * @return number of bytes written to target, 0 in case of SQL NULL and -1 if there is no entity with this id.
+    */
+   static <T> long streamLob(final Connection connection, final Class<T> clazz, final Object id, final String property, final WritableByteChannel target) throws SQLException
+   {
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final String column = introspected.getColumnNameForProperty(property);
+      if (column == null) {
+         throw new IllegalArgumentException(clazz.getName() + " has no persistent property " + property);
+      }
+      final String sql = "SELECT " + column + " FROM " + introspected.getDelimitedTableName() + " WHERE " + getWhereIdClause(introspected);
+      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
+         populateStatementParameters(stmt, id);
+         try (final ResultSet resultSet = stmt.executeQuery()) {
+            if (!resultSet.next()) {
+               return -1;
+            }
+            switch (resultSet.getMetaData().getColumnType(1)) {
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+            case Types.CHAR:
+            case Types.NCHAR:
+               return transfer(resultSet.getCharacterStream(1), target);
+            default:
+               return transfer(resultSet.getBinaryStream(1), target);
+            }
+         }
+      }
+      catch (IOException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static long transfer(final InputStream in, final WritableByteChannel target) throws IOException
+   {
+      if (in == null) {
+         return 0;
+      }
+      try (final ReadableByteChannel source = Channels.newChannel(in)) {
+         long total = 0;
+         if (target instanceof FileChannel) {
+            // Let the file system copy without passing the bytes through a buffer of ours.
+            final FileChannel file = (FileChannel) target;
+            final long position = file.position();
+            long transferred;
+            while ((transferred = file.transferFrom(source, position + total, LOB_CHUNK_SIZE)) > 0) {
+               total += transferred;
+            }
+            file.position(position + total);
+            return total;
+         }
+         final ByteBuffer buffer = ByteBuffer.allocateDirect(LOB_CHUNK_SIZE);
+         while (source.read(buffer) != -1) {
+            total += drain(buffer, target);
+         }
+         return total + drain(buffer, target);
+      }
+   }
+
+   /**
+    * Characters are written UTF-8 encoded.
+    */
+   private static long transfer(final Reader in, final WritableByteChannel target) throws IOException
+   {
+      if (in == null) {
+         return 0;
+      }
+      try (final Reader source = in) {
+         final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+         final CharBuffer chars = CharBuffer.allocate(LOB_CHUNK_SIZE / 4);
+         final ByteBuffer bytes = ByteBuffer.allocateDirect(LOB_CHUNK_SIZE);
+         long total = 0;
+         boolean endOfInput = false;
+         while (!endOfInput) {
+            endOfInput = source.read(chars) == -1;
+            chars.flip();
+            CoderResult result;
+            do {
+               result = encoder.encode(chars, bytes, endOfInput);
+               total += drain(bytes, target);
+            } while (result.isOverflow());
+            chars.compact();
+         }
+         while (encoder.flush(bytes).isOverflow()) {
+            total += drain(bytes, target);
+         }
+         return total + drain(bytes, target);
+      }
+   }
+
+   private static int drain(final ByteBuffer buffer, final WritableByteChannel target) throws IOException
+   {
+      buffer.flip();
+      int written = 0;
+      while (buffer.hasRemaining()) {
+         written += target.write(buffer);
+      }
+      buffer.clear();
+      return written;
+   }
+
    static <T> List<T> listFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
-      final String sql = generateSelectFromWhereClause(clazz, clause, true);
-      // TODO SQL hier loggen
-      final PreparedStatement stmt = connection.prepareStatement(sql);
+      return IdentityMap.merge(clazz, QueryCache.list(clazz, clause, false, args, () -> {
+         final String sql = generateSelectFromWhereClause(clazz, clause, true);
+         // TODO SQL hier loggen
+         final PreparedStatement stmt = connection.prepareStatement(sql);
 
-      return statementToList(stmt, clazz, args);
+         return statementToList(sql, stmt, clazz, args);
+      }));
    }
 
    static <T> List<T> listFromRawClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
-      final String sql = generateSelectFromWhereClause(clazz, clause, false);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
+      return IdentityMap.merge(clazz, QueryCache.list(clazz, clause, true, args, () -> {
+         final String sql = generateSelectFromWhereClause(clazz, clause, false);
+         final PreparedStatement stmt = connection.prepareStatement(sql);
 
-      return statementToList(stmt, clazz, args);
+         return statementToList(sql, stmt, clazz, args);
+      }));
    }
 
    static <T> T objectFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
       final String sql = generateSelectFromWhereClause(clazz, clause, true);
       final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, clazz, args);
+      return statementToObject(sql, stmt, clazz, args);
    }
 
    static <T> T objectFromRawClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
       final String sql = generateSelectFromWhereClause(clazz, clause, false);
       final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, clazz, args);
+      return statementToObject(sql, stmt, clazz, args);
    }
 
    static <T> T objectFromClause(final Connection connection, final T target, final String clause, final Object... args) throws SQLException {
       final String sql = generateSelectFromWhereClause(target.getClass(), clause, true);
       final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, target, args);
+      return statementToObject(sql, stmt, target, args);
    }
 
    static <T> int countObjectsFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
@@ -273,34 +440,24 @@ class OrmReader extends OrmBase {
    {
       Function<Object, T> converter = null;
       if (value instanceof Integer) {
-         converter = o -> {
-            //noinspection unchecked
-            return (T) databaseValueToFieldType.convertInteger(requiredType, o);
-         };
+         //noinspection unchecked
+         converter = (Function) databaseValueToFieldType.integerConverter(requiredType);
       }
       else if (value instanceof Long) {
-         converter = o -> {
-            //noinspection unchecked
-            return (T) databaseValueToFieldType.convertLong(requiredType, o);
-         };
+         //noinspection unchecked
+         converter = (Function) databaseValueToFieldType.longConverter(requiredType);
       }
       else if (value instanceof Double) {
-         converter = o -> {
-            //noinspection unchecked
-            return (T) databaseValueToFieldType.convertDouble(requiredType, o);
-         };
+         //noinspection unchecked
+         converter = (Function) databaseValueToFieldType.doubleConverter(requiredType);
       }
       else if (value instanceof BigInteger) {
-         converter = o -> {
-            //noinspection unchecked
-            return (T) databaseValueToFieldType.convertBigInteger(requiredType, o);
-         };
+         //noinspection unchecked
+         converter = (Function) databaseValueToFieldType.bigIntegerConverter(requiredType);
       }
       else if (value instanceof BigDecimal) {
-         converter = o -> {
-            //noinspection unchecked
-            return (T) databaseValueToFieldType.convertBigDecimal(requiredType, o);
-         };
+         //noinspection unchecked
+         converter = (Function) databaseValueToFieldType.bigDecimalConverter(requiredType);
       }
       else if (value instanceof String) {
          converter = o -> {
@@ -313,10 +470,9 @@ class OrmReader extends OrmBase {
 
    static <T> String generateSelectFromWhereClause(final Class<T> clazz, final String clause, final boolean addLackingWhere)
    {
-      final String cacheKey = clazz.getName() + clause;
-
-      return fromClauseStmtCache.computeIfAbsent(cacheKey, key -> {
-        final Introspected introspected = Introspected.getInstance(clazz);
+      final Introspected introspected = Introspected.getInstance(clazz);
+      // The clause alone is the key, the cache is per class and per addLackingWhere.
+      return introspected.getSelectCache(addLackingWhere).computeIfAbsent(clause == null ? "" : clause, key -> {
         final String tableName = introspected.getDelimitedTableName();
 
         final StringBuilder s = new StringBuilder()
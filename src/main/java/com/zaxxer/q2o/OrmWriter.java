@@ -28,34 +28,11 @@ import java.util.*;
  */
 class OrmWriter extends OrmBase
 {
-   private static final int CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
-   private static final Map<Introspected, String> createStatementCache;
-   private static final Map<Introspected, String> updateStatementCache;
+   private static final StatementCache<Introspected, String> createStatementCache = new StatementCache<>(STATEMENT_CACHE_SIZE, statementCacheCounters);
+   private static final StatementCache<Introspected, String> updateStatementCache = new StatementCache<>(STATEMENT_CACHE_SIZE, statementCacheCounters);
    private static final Logger logger = LoggerFactory.getLogger(OrmBase.class);
    private static final DatabaseValueToFieldType DATABASE_VALUE_TO_FIELD_TYPE = new DatabaseValueToFieldType();
 
-   static {
-      createStatementCache = Collections.synchronizedMap(new LinkedHashMap<Introspected, String>(CACHE_SIZE) {
-         private static final long serialVersionUID = 4559270460685275064L;
-
-         @Override
-         protected boolean removeEldestEntry(final Map.Entry<Introspected, String> eldest)
-         {
-            return this.size() > CACHE_SIZE;
-         }
-      });
-
-      updateStatementCache = Collections.synchronizedMap(new LinkedHashMap<Introspected, String>(CACHE_SIZE) {
-         private static final long serialVersionUID = -5324251353646078607L;
-
-         @Override
-         protected boolean removeEldestEntry(final Map.Entry<Introspected, String> eldest)
-         {
-            return this.size() > CACHE_SIZE;
-         }
-      });
-   }
-
    static void clearCache()
    {
       createStatementCache.clear();
@@ -77,15 +54,23 @@ class OrmWriter extends OrmBase
       }
 
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
-      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos, setGeneratedValues)) {
-         final int[] parameterTypes = getParameterTypes(stmt);
+      final JfrEvents.BatchEvent event = new JfrEvents.BatchEvent();
+      event.start();
+      final String sql = insertSql(introspected, insertableFcInfos);
+      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, sql, setGeneratedValues)) {
+         final int[] parameterTypes = getParameterTypes(connection, stmt, introspected, insertableFcInfos, null, false);
+         final TypeCodec<Object>[] codecs = newCodecs(parameterTypes.length);
          int itemCount = 0;
          for (final T item : iterable) {
-            setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null);
+            setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, codecs, null, event);
             stmt.addBatch();
             itemCount++;
          }
-         stmt.executeBatch();
+         event.conversionTime = event.lap();
+         final int[] counts = stmt.executeBatch();
+         event.executeTime = event.lap();
+         event.emit(sql, clazz, Q2oMetrics.Operation.INSERT, itemCount, counts);
+         QueryCache.invalidate(introspected.getTableName());
 
          // Set generated ids on inserted objects where possible
 
@@ -93,25 +78,32 @@ class OrmWriter extends OrmBase
             ResultSet generatedKeys = stmt.getGeneratedKeys();
 
             Object[] generatedIds = new Object[itemCount];
-            String[] columnTypeNames = new String[itemCount];
+            AttributeInfo generatedIdFcInfo = introspected.getGeneratedIdFcInfo();
+            // The same column for all rows.
+            String columnTypeName = SchemaCatalog.getColumnTypeName(generatedIdFcInfo, introspected);
             int generatedIdsCount = 0;
             while (generatedKeys.next()) {
                generatedIds[generatedIdsCount] = generatedKeys.getObject(1);
-               columnTypeNames[generatedIdsCount] = generatedKeys.getMetaData().getColumnTypeName(1);
+               if (columnTypeName == null) {
+                  columnTypeName = generatedKeys.getMetaData().getColumnTypeName(1);
+               }
                generatedIdsCount++;
             }
             int i = 0;
             // Not every database supports generated ids with batch inserts. SQLite delivers only the last inserted id.
             if (generatedIdsCount == itemCount) {
                for (final T item : iterable) {
-                  AttributeInfo generatedIdFcInfo = introspected.getGeneratedIdFcInfo();
-                  Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(generatedIdFcInfo, generatedIds[i], columnTypeNames[i], introspected, 1);
+                  Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(generatedIdFcInfo, generatedIds[i], columnTypeName, introspected, 1);
                   generatedIdFcInfo.setValue(item, typeCorrectedValue);
                   i++;
                }
             }
          }
       }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.BATCH, sql, clazz, e);
+         throw e;
+      }
       catch (IllegalAccessException e) {
          logger.error("Could not set object's identity field", e);
       }
@@ -130,22 +122,123 @@ class OrmWriter extends OrmBase
       final String[] idColumnNames = introspected.getIdColumnNames();
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
       // Insert
-      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos, true)) {
-         final int[] parameterTypes = getParameterTypes(stmt);
+      final String sql = insertSql(introspected, insertableFcInfos);
+      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, sql, true)) {
+         final int[] parameterTypes = getParameterTypes(connection, stmt, introspected, insertableFcInfos, null, false);
+         final TypeCodec<Object>[] codecs = newCodecs(parameterTypes.length);
          for (final T item : iterable) {
-            setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null);
+            final JfrEvents.InsertEvent event = new JfrEvents.InsertEvent();
+            event.start();
+            setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, codecs, null, event);
+            event.conversionTime = event.lap();
+            final int count;
             try {
-               stmt.executeUpdate();
+               count = stmt.executeUpdate();
             }
             catch (SQLException e) {
                logger.error("Insert failed for: {}", item);
                System.out.println("Insert failed for: " + item);
+               event.failed(Q2oMetrics.Operation.INSERT, sql, clazz, e);
                throw e;
             }
+            event.executeTime = event.lap();
             fillGeneratedId(item, introspected, stmt, /*checkExistingId=*/false);
             stmt.clearParameters();
+            event.emit(sql, clazz, count);
+         }
+      }
+      QueryCache.invalidate(introspected.getTableName());
+   }
+
+   /**
+    * Updates all objects of one class with a single batch.
+    */
+   static <T> void updateListBatched(final Connection connection, final Collection<T> objects) throws SQLException
+   {
+      if (objects.isEmpty()) {
+         return;
+      }
+
+      final Class<?> clazz = objects.iterator().next().getClass();
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
+      final JfrEvents.BatchEvent event = new JfrEvents.BatchEvent();
+      event.start();
+      final String sql = updateSql(introspected, updatableFcInfos, null);
+      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
+         final int[] parameterTypes = getParameterTypes(connection, stmt, introspected, updatableFcInfos, null, introspected.getIdColumnNames().length > 0);
+         final TypeCodec<Object>[] codecs = newCodecs(parameterTypes.length);
+         for (final T item : objects) {
+            int parameterIndex = setStatementParameters(item, introspected, updatableFcInfos, stmt, parameterTypes, codecs, null, event);
+            for (final Object id : introspected.getActualIds(item)) {
+               stmt.setObject(parameterIndex, id, parameterTypes[parameterIndex - 1]);
+               ++parameterIndex;
+            }
+            stmt.addBatch();
          }
+         event.conversionTime = event.lap();
+         final int[] counts = stmt.executeBatch();
+         event.executeTime = event.lap();
+         event.emit(sql, clazz, Q2oMetrics.Operation.UPDATE, objects.size(), counts);
+      }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.BATCH, sql, clazz, e);
+         throw e;
+      }
+      for (final T item : objects) {
+         final Object[] ids = introspected.getActualIds(item);
+         EntityCache.invalidate(clazz, ids);
+         IdentityMap.written(item, ids);
       }
+      QueryCache.invalidate(introspected.getTableName());
+   }
+
+   /**
+    * Deletes all objects of one class by id with a single batch.
+    */
+   static <T> void deleteListBatched(final Connection connection, final Collection<T> objects) throws SQLException
+   {
+      if (objects.isEmpty()) {
+         return;
+      }
+
+      final Class<?> clazz = objects.iterator().next().getClass();
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final String[] idColumnNames = introspected.getIdColumnNames();
+      if (idColumnNames.length == 0) {
+         throw new RuntimeException("No id columns provided in: " + clazz.getName());
+      }
+
+      final StringBuilder sql = new StringBuilder()
+        .append("DELETE FROM ").append(introspected.getDelimitedTableName())
+        .append(" WHERE ");
+      for (final String idColumn : idColumnNames) {
+         sql.append(idColumn).append("=? AND ");
+      }
+      sql.setLength(sql.length() - 5);
+
+      final JfrEvents.BatchEvent event = new JfrEvents.BatchEvent();
+      event.start();
+      try (final PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+         for (final T item : objects) {
+            populateStatementParameters(stmt, introspected.getActualIds(item));
+            stmt.addBatch();
+         }
+         event.conversionTime = event.lap();
+         final int[] counts = stmt.executeBatch();
+         event.executeTime = event.lap();
+         event.emit(sql.toString(), clazz, Q2oMetrics.Operation.DELETE, objects.size(), counts);
+      }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.BATCH, sql.toString(), clazz, e);
+         throw e;
+      }
+      for (final T item : objects) {
+         final Object[] ids = introspected.getActualIds(item);
+         EntityCache.invalidate(clazz, ids);
+         IdentityMap.deleted(clazz, ids);
+      }
+      QueryCache.invalidate(introspected.getTableName());
    }
 
    static <T> T insertObject(final Connection connection, final T target) throws SQLException
@@ -153,9 +246,21 @@ class OrmWriter extends OrmBase
       final Class<?> clazz = target.getClass();
       final Introspected introspected = Introspected.getInstance(clazz);
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
-      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos, true)) {
-         setParamsExecute(target, introspected, insertableFcInfos, stmt, /*checkExistingId=*/false, null);
+      final JfrEvents.InsertEvent event = new JfrEvents.InsertEvent();
+      event.start();
+      final String sql = insertSql(introspected, insertableFcInfos);
+      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, sql, true)) {
+         final int count = setParamsExecute(connection, target, introspected, insertableFcInfos, stmt, /*checkExistingId=*/false, null, event);
+         event.emit(sql, clazz, count);
+      }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.INSERT, sql, clazz, e);
+         throw e;
       }
+      final Object[] ids = introspected.getActualIds(target);
+      EntityCache.invalidate(clazz, ids);
+      QueryCache.invalidate(introspected.getTableName());
+      IdentityMap.written(target, ids);
       return target;
    }
 
@@ -169,16 +274,21 @@ class OrmWriter extends OrmBase
       final Class<?> clazz = target.getClass();
       final Introspected introspected = Introspected.getInstance(clazz);
       final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
-      if (excludedColumns == null) {
-         try (final PreparedStatement stmt = createStatementForUpdate(connection, introspected, updatableFcInfos)) {
-            setParamsExecute(target, introspected, updatableFcInfos, stmt, /*checkExistingId=*/true, null);
-         }
+      final JfrEvents.UpdateEvent event = new JfrEvents.UpdateEvent();
+      event.start();
+      final String sql = updateSql(introspected, updatableFcInfos, excludedColumns);
+      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
+         final int count = setParamsExecute(connection, target, introspected, updatableFcInfos, stmt, /*checkExistingId=*/true, excludedColumns, event);
+         event.emit(sql, clazz, count);
       }
-      else {
-         try (final PreparedStatement stmt = createStatementForUpdate(connection, introspected, updatableFcInfos, excludedColumns)){
-            setParamsExecute(target, introspected, updatableFcInfos, stmt, /*checkExistingId=*/true, excludedColumns);
-         }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.UPDATE, sql, clazz, e);
+         throw e;
       }
+      final Object[] ids = introspected.getActualIds(target);
+      EntityCache.invalidate(clazz, ids);
+      QueryCache.invalidate(introspected.getTableName());
+      IdentityMap.written(target, ids);
       return target;
    }
 
@@ -212,7 +322,21 @@ class OrmWriter extends OrmBase
       }
       sql.setLength(sql.length() - 5);
 
-      return executeUpdate(connection, sql.toString(), args);
+      final JfrEvents.DeleteEvent event = new JfrEvents.DeleteEvent();
+      event.start();
+      final int count;
+      try {
+         count = executeUpdate(connection, sql.toString(), args);
+      }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.DELETE, sql.toString(), clazz, e);
+         throw e;
+      }
+      event.executeTime = event.lap();
+      event.emit(sql.toString(), clazz, count);
+      EntityCache.invalidate(clazz, args);
+      IdentityMap.deleted(clazz, args);
+      return count;
    }
 
    static <T> int deleteByWhereClause(final Connection connection, final Class<T> clazz, final String whereClause, final Object... args) throws SQLException
@@ -223,7 +347,21 @@ class OrmWriter extends OrmBase
         .append("DELETE FROM ").append(introspected.getDelimitedTableName())
         .append(" WHERE ").append(whereClause);
 
-      return executeUpdate(connection, sql.toString(), args);
+      final JfrEvents.DeleteEvent event = new JfrEvents.DeleteEvent();
+      event.start();
+      final int count;
+      try {
+         count = executeUpdate(connection, sql.toString(), args);
+      }
+      catch (SQLException | RuntimeException e) {
+         event.failed(Q2oMetrics.Operation.DELETE, sql.toString(), clazz, e);
+         throw e;
+      }
+      event.executeTime = event.lap();
+      event.emit(sql.toString(), clazz, count);
+      EntityCache.invalidateAll(clazz);
+      IdentityMap.deletedAll(clazz);
+      return count;
    }
 
    static <T> int deleteObjects(Connection connection, Class<T> clazz, List<T> objects) throws SQLException {
@@ -234,7 +372,9 @@ class OrmWriter extends OrmBase
    {
       try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
          populateStatementParameters(stmt, args);
-         return stmt.executeUpdate();
+         final int count = stmt.executeUpdate();
+         QueryCache.invalidateStatement(sql);
+         return count;
       }
       catch (Exception e) {
          logger.error("{}", sql);
@@ -246,11 +386,12 @@ class OrmWriter extends OrmBase
    //                      P R I V A T E   M E T H O D S
    // -----------------------------------------------------------------------
 
-   private static PreparedStatement createStatementForInsert(final Connection connection,
-                                                             final Introspected introspected,
-                                                             final AttributeInfo[] fcInfos, final boolean setGeneratedValues) throws SQLException
+   /**
+    * @return the cached INSERT statement of all fcInfos.
+    */
+   private static String insertSql(final Introspected introspected, final AttributeInfo[] fcInfos)
    {
-      final String sql = createStatementCache.computeIfAbsent(introspected, key -> {
+      return createStatementCache.computeIfAbsent(introspected, key -> {
          final String tableName = introspected.getDelimitedTableName();
          final StringBuilder sqlSB = new StringBuilder("INSERT INTO ").append(tableName).append('(');
          final StringBuilder sqlValues = new StringBuilder(") VALUES (");
@@ -265,7 +406,12 @@ class OrmWriter extends OrmBase
 
          return sqlSB.toString();
       });
+   }
 
+   private static PreparedStatement createStatementForInsert(final Connection connection,
+                                                             final Introspected introspected,
+                                                             final String sql, final boolean setGeneratedValues) throws SQLException
+   {
       if (introspected.hasGeneratedId() && setGeneratedValues) {
          return connection.prepareStatement(sql, introspected.getIdColumnNames());
       }
@@ -275,28 +421,14 @@ class OrmWriter extends OrmBase
    }
 
    /**
-    *
-    * @return newly created or already cached statement.
+    * @param excludedColumns to exclude columns situative. The statement is cached only if null.
     */
-   private static PreparedStatement createStatementForUpdate(final Connection connection,
-                                                             final Introspected introspected,
-                                                             final AttributeInfo[] fieldColumnInfos) throws SQLException
+   private static String updateSql(final Introspected introspected, final AttributeInfo[] fieldColumnInfos, final Set<String> excludedColumns)
    {
-      final String sql = updateStatementCache.computeIfAbsent(introspected, key -> createSqlForUpdate(introspected, fieldColumnInfos, null));
-
-      return connection.prepareStatement(sql);
-   }
-
-   /**
-    * To exclude columns situative. Does not cache the statement.
-    */
-   private static PreparedStatement createStatementForUpdate(final Connection connection,
-                                                             final Introspected introspected,
-                                                             final AttributeInfo[] fieldColumnInfos,
-                                                             final Set<String> excludedColumns) throws SQLException
-   {
-      final String sql = createSqlForUpdate(introspected, fieldColumnInfos, excludedColumns);
-      return connection.prepareStatement(sql);
+      if (excludedColumns != null) {
+         return createSqlForUpdate(introspected, fieldColumnInfos, excludedColumns);
+      }
+      return updateStatementCache.computeIfAbsent(introspected, key -> createSqlForUpdate(introspected, fieldColumnInfos, null));
    }
 
    /**
@@ -325,17 +457,25 @@ class OrmWriter extends OrmBase
       return sqlSB.toString();
    }
 
-   /** You should close stmt by yourself */
-   private static <T> void setParamsExecute(final T target,
-                                            final Introspected introspected,
-                                            final AttributeInfo[] fcInfos,
-                                            final PreparedStatement stmt,
-                                            final boolean checkExistingId,
-                                            final Set<String> excludedColumns)
+   /**
+    * You should close stmt by yourself
+    *
+    * @param event to record the conversion and execute time in.
+    * @return the update count.
+    */
+   private static <T> int setParamsExecute(final Connection connection,
+                                           final T target,
+                                           final Introspected introspected,
+                                           final AttributeInfo[] fcInfos,
+                                           final PreparedStatement stmt,
+                                           final boolean checkExistingId,
+                                           final Set<String> excludedColumns,
+                                           final JfrEvents.WriteEvent event)
       throws SQLException
    {
-      final int[] parameterTypes = getParameterTypes(stmt);
-      int parameterIndex = setStatementParameters(target, introspected, fcInfos, /*hasSelfJoinColumn*/ stmt, parameterTypes, excludedColumns);
+      // Updates have the id columns as trailing parameters.
+      final int[] parameterTypes = getParameterTypes(connection, stmt, introspected, fcInfos, excludedColumns, checkExistingId && introspected.getIdColumnNames().length > 0);
+      int parameterIndex = setStatementParameters(target, introspected, fcInfos, /*hasSelfJoinColumn*/ stmt, parameterTypes, newCodecs(parameterTypes.length), excludedColumns, event);
 
       // If there is still a parameter left to be set, it's the ID used for an update
       if (parameterIndex <= parameterTypes.length) {
@@ -344,31 +484,63 @@ class OrmWriter extends OrmBase
             ++parameterIndex;
          }
       }
+      event.conversionTime = event.lap();
 
+      final int count;
       try {
          logger.debug("{}", stmt);
-         stmt.executeUpdate();
+         count = stmt.executeUpdate();
       }
       catch (Exception e) {
          logger.error("statement={}", stmt);
          throw e;
       }
+      event.executeTime = event.lap();
       fillGeneratedId(target, introspected, stmt, checkExistingId);
+      return count;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static TypeCodec<Object>[] newCodecs(final int parameterCount) {
+      return new TypeCodec[parameterCount];
    }
 
-   /** Small helper to set statement parameters from given object */
+   /**
+    * Small helper to set statement parameters from given object
+    *
+    * @param codecs the codecs bound to stmt by parameter index - 1, filled on first use.
+    * @param event to sum up the size of the values in.
+    */
    private static <T> int setStatementParameters(final T item,
                                                  final Introspected introspected,
                                                  final AttributeInfo[] fcInfos,
                                                  final PreparedStatement stmt,
                                                  final int[] parameterTypes,
-                                                 final Set<String> excludedColumns) throws SQLException {
+                                                 final TypeCodec<Object>[] codecs,
+                                                 final Set<String> excludedColumns,
+                                                 final JfrEvents.TimedEvent event) throws SQLException {
       int parameterIndex = 1;
       for (final AttributeInfo fcInfo : fcInfos) {
          if (excludedColumns == null || !isIgnoredColumn(excludedColumns, fcInfo.getColumnName())) {
             final int sqlType = parameterTypes[parameterIndex - 1];
             final Object object = FieldValueToDatabaseType.getValue(item, fcInfo, sqlType);
-            if (q2o.isMySqlMode()) {
+            if (event.isTimed()) {
+               event.bytes += Metrics.estimateSize(object);
+            }
+            TypeCodec<Object> codec = null;
+            if (object != null && !fcInfo.isSelfJoinField()) {
+               codec = codecs[parameterIndex - 1];
+               if (codec == null) {
+                  codec = fcInfo.getTypeCodec(sqlType);
+                  if (codec != null) {
+                     codec = codecs[parameterIndex - 1] = codec.forStatement(stmt);
+                  }
+               }
+            }
+            if (codec != null) {
+               codec.write(stmt, parameterIndex, object, sqlType);
+            }
+            else if (q2o.isMySqlMode()) {
                // Does not help with problem that fractional seconds get lost when stored.
 //               if (fcInfo.isTemporalAnnotated()) {
 //                  if (fcInfo.getTemporalType().equals(TemporalType.TIMESTAMP)) {
@@ -452,6 +624,20 @@ class OrmWriter extends OrmBase
       }
    }
 
+   /**
+    * @return the parameter types from the {@link SchemaCatalog} if enabled, else from the statement's {@link ParameterMetaData}.
+    */
+   private static int[] getParameterTypes(final Connection connection,
+                                          final PreparedStatement stmt,
+                                          final Introspected introspected,
+                                          final AttributeInfo[] fcInfos,
+                                          final Set<String> excludedColumns,
+                                          final boolean withIds) throws SQLException
+   {
+      final int[] parameterTypes = SchemaCatalog.getParameterTypes(connection, introspected, fcInfos, excludedColumns, withIds);
+      return parameterTypes != null ? parameterTypes : getParameterTypes(stmt);
+   }
+
    private static int[] getParameterTypes(final PreparedStatement stmt) throws SQLException
    {
       final ParameterMetaData metaData = stmt.getParameterMetaData();
@@ -0,0 +1,246 @@
+package com.zaxxer.q2o;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.q2o.jdbc.DelegatingConnection;
+import com.zaxxer.q2o.jdbc.DelegatingDataSource;
+import com.zaxxer.q2o.jdbc.DelegatingPreparedStatement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps prepared statements of a connection open for reuse until the connection is closed. Closing a statement returns it to the cache with its parameters and batch cleared and query timeout, fetch size and max rows reset to the default 0. The least recently used statement is closed if the cache is full. A statement requested while the cached one with the same SQL is in use is prepared anew.
+ * <p>
+ * Other statement properties, e.g. fetch direction or max field size, are not reset when a statement is returned. Like the connection itself the cache must not be used by several threads at the same time.
+ * </p>
+ *
+ * @since 19.10.26
+ * @see q2o#setPreparedStatementCacheSize(int)
+ */
+final class PreparedStatementCache extends DelegatingConnection {
+
+   private static final Logger logger = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+   /**
+    * Max number of cached statements per connection. 0 disables the cache.
+    */
+   static volatile int maxSize;
+
+   private final int capacity;
+   /**
+    * Idle statements in access order.
+    */
+   private final LinkedHashMap<String, PreparedStatement> idle;
+
+   private PreparedStatementCache(final Connection connection, final int capacity) {
+      super(connection);
+      this.capacity = capacity;
+      this.idle = new LinkedHashMap<>(16, 0.75f, true);
+   }
+
+   /**
+    * @return a data source wrapping its connections if the cache is enabled at the time a connection is requested.
+    */
+   static DataSource wrap(final DataSource dataSource) {
+      return new CachingDataSource(dataSource);
+   }
+
+   /**
+    * @return the DataSource passed to {@link #wrap(DataSource)}, dataSource itself if not wrapped.
+    */
+   static DataSource unwrap(final DataSource dataSource) {
+      return dataSource instanceof CachingDataSource ? ((CachingDataSource) dataSource).delegate() : dataSource;
+   }
+
+   private static final class CachingDataSource extends DelegatingDataSource {
+      CachingDataSource(final DataSource dataSource) {
+         super(dataSource);
+      }
+
+      // Accessible to unwrap(DataSource).
+      @Override
+      protected DataSource delegate() {
+         return super.delegate();
+      }
+
+      @Override
+      protected Connection wrapConnection(final Connection connection) {
+         final int size = maxSize;
+         return size > 0 ? wrap(connection, size) : connection;
+      }
+   }
+
+   static Connection wrap(final Connection connection, final int capacity) {
+      return new PreparedStatementCache(connection, capacity);
+   }
+
+   // Result set type, concurrency or holdability variants are not cached.
+
+   @Override
+   public PreparedStatement prepareStatement(final String sql) throws SQLException {
+      final PreparedStatement statement = take(sql);
+      return new CachedStatement(sql, statement != null ? statement : delegate().prepareStatement(sql));
+   }
+
+   @Override
+   public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+      final String key = sql + "\u0000" + autoGeneratedKeys;
+      final PreparedStatement statement = take(key);
+      return new CachedStatement(key, statement != null ? statement : delegate().prepareStatement(sql, autoGeneratedKeys));
+   }
+
+   @Override
+   public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+      final String key = sql + "\u0000" + Arrays.toString(columnIndexes);
+      final PreparedStatement statement = take(key);
+      return new CachedStatement(key, statement != null ? statement : delegate().prepareStatement(sql, columnIndexes));
+   }
+
+   @Override
+   public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+      final String key = sql + "\u0000" + Arrays.toString(columnNames);
+      final PreparedStatement statement = take(key);
+      return new CachedStatement(key, statement != null ? statement : delegate().prepareStatement(sql, columnNames));
+   }
+
+   @Override
+   public void close() throws SQLException {
+      closeAll();
+      super.close();
+   }
+
+   /**
+    * @return null if there is no idle statement for key.
+    */
+   private PreparedStatement take(final String key) throws SQLException {
+      final PreparedStatement statement = idle.remove(key);
+      final boolean hit = statement != null && !statement.isClosed();
+      Metrics.get().recordCacheAccess(Q2oMetrics.Cache.PREPARED_STATEMENT, hit);
+      return hit ? statement : null;
+   }
+
+   private void release(final String key, final PreparedStatement statement, final CachedStatement returned) throws SQLException {
+      if (statement.isClosed() || delegate().isClosed()) {
+         return;
+      }
+      try {
+         statement.clearParameters();
+         statement.clearBatch();
+         // The next user may have no time limit, may read all rows.
+         if (returned.timeoutSet) {
+            statement.setQueryTimeout(0);
+         }
+         if (returned.fetchSizeSet) {
+            statement.setFetchSize(0);
+         }
+         if (returned.maxRowsSet) {
+            statement.setMaxRows(0);
+         }
+      }
+      catch (SQLException e) {
+         logger.debug("Not cached", e);
+         statement.close();
+         return;
+      }
+      final PreparedStatement previous = idle.put(key, statement);
+      if (previous != null) {
+         previous.close();
+      }
+      if (idle.size() > capacity) {
+         final Iterator<PreparedStatement> eldest = idle.values().iterator();
+         final PreparedStatement evicted = eldest.next();
+         eldest.remove();
+         evicted.close();
+      }
+   }
+
+   private void closeAll() {
+      for (final PreparedStatement statement : idle.values()) {
+         try {
+            statement.close();
+         }
+         catch (SQLException e) {
+            logger.debug("", e);
+         }
+      }
+      idle.clear();
+   }
+
+   /**
+    * A statement returned to the cache on close. Closing and cancelling are synchronized, so that a statement cancelled from another thread, see {@link TrackedStatements}, is not cancelled once it was returned and reused.
+    */
+   private final class CachedStatement extends DelegatingPreparedStatement {
+      private final String key;
+      private final PreparedStatement statement;
+      private volatile boolean closed;
+      private boolean timeoutSet;
+      private boolean fetchSizeSet;
+      private boolean maxRowsSet;
+
+      CachedStatement(final String key, final PreparedStatement statement) {
+         super(statement);
+         this.key = key;
+         this.statement = statement;
+      }
+
+      @Override
+      protected PreparedStatement delegate() throws SQLException {
+         if (closed) {
+            throw new SQLException("Statement is closed");
+         }
+         return statement;
+      }
+
+      @Override
+      public void close() throws SQLException {
+         synchronized (this) {
+            if (closed) {
+               return;
+            }
+            closed = true;
+         }
+         release(key, statement, this);
+      }
+
+      @Override
+      public synchronized void cancel() throws SQLException {
+         delegate().cancel();
+      }
+
+      @Override
+      public void setQueryTimeout(final int seconds) throws SQLException {
+         super.setQueryTimeout(seconds);
+         timeoutSet = true;
+      }
+
+      @Override
+      public void setFetchSize(final int rows) throws SQLException {
+         super.setFetchSize(rows);
+         fetchSizeSet = true;
+      }
+
+      @Override
+      public void setMaxRows(final int max) throws SQLException {
+         super.setMaxRows(max);
+         maxRowsSet = true;
+      }
+
+      @Override
+      public void setLargeMaxRows(final long max) throws SQLException {
+         super.setLargeMaxRows(max);
+         maxRowsSet = true;
+      }
+
+      @Override
+      public boolean isClosed() throws SQLException {
+         return closed || statement.isClosed();
+      }
+   }
+}
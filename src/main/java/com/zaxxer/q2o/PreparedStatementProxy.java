@@ -1,41 +1,42 @@
 package com.zaxxer.q2o;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import com.zaxxer.q2o.jdbc.DelegatingPreparedStatement;
+
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 /**
- * A non-closeable Statement.
+ * A non-closeable Statement. Closed immediately if it did not return a result set.
  *
  * @author Holger Thurow (thurow.h@gmail.com)
  * @since 19.01.20
  */
-class PreparedStatementProxy implements InvocationHandler {
-   private final PreparedStatement statement;
+class PreparedStatementProxy extends DelegatingPreparedStatement {
+   private final ConnectionProxy connection;
+   private boolean resultSetReturned;
 
-   public PreparedStatementProxy(PreparedStatement statement)
+   PreparedStatementProxy(ConnectionProxy connection, PreparedStatement statement)
    {
-      this.statement = statement;
+      super(statement);
+      this.connection = connection;
    }
 
    @Override
-   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+   protected ResultSet wrapResultSet(final ResultSet resultSet)
    {
-      Object ret = null;
-      if (!"close".equals(method.getName())) {
-         ret = method.invoke(statement, args);
-      }
-      if (ret instanceof ResultSet) {
-         ret = ResultSetProxy.wrap((ResultSet) ret);
+      if (resultSet == null) {
+         return null;
       }
-      return ret;
+      resultSetReturned = true;
+      return ResultSetProxy.wrap(resultSet);
    }
 
-   static PreparedStatement wrap(PreparedStatement statement)
+   @Override
+   public void close() throws SQLException
    {
-      PreparedStatementProxy statementProxy = new PreparedStatementProxy(statement);
-      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatementProxy.class.getClassLoader(), new Class[]{PreparedStatement.class}, statementProxy);
+      if (!resultSetReturned) {
+         connection.close(delegate());
+      }
    }
 }
@@ -138,7 +138,7 @@ class PropertyInfo extends AttributeInfo {
             propertyDescriptor.getWriteMethod().invoke(target, obj);
          }
       }
-      catch (InvocationTargetException | InstantiationException e) {
+      catch (InvocationTargetException e) {
          e.printStackTrace();
          throw new RuntimeException(e);
       }
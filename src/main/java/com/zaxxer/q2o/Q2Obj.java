@@ -18,13 +18,16 @@ package com.zaxxer.q2o;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.channels.WritableByteChannel;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Encapsulates object-, not SQL-centric database operations. For SQL-centric operations use {@link Q2Sql}.
@@ -281,16 +284,25 @@ public final class Q2Obj {
     * @see #byId(Connection, Class, Object...)
     */
    public static <T> T byId(Class<T> type, Object... ids) {
-      return SqlClosure.sqlExecute(connection -> byId(connection, type, ids));
+      return SqlClosure.sqlExecuteReadOnly(connection -> byId(connection, type, ids));
    }
 
    /**
+    * Reads from the primary, not from a read replica, as target is refreshed usually.
+    *
     * @see #byId(Connection, Object)
     */
    public static <T> T byId(T target) {
       return SqlClosure.sqlExecute(connection -> OrmReader.objectById(connection, target));
    }
 
+   /**
+    * Asynchronous {@link #byId(Class, Object...)}. See {@link SqlClosure#submit()} for the transaction and cancellation.
+    */
+   public static <T> CompletableFuture<T> byIdAsync(Class<T> type, Object... ids) {
+      return SqlClosure.sqlExecuteReadOnlyAsync(connection -> byId(connection, type, ids));
+   }
+
    /**
     * See {@link #fromClause(Connection, Class, String, Object...)}).
     *
@@ -302,7 +314,7 @@ public final class Q2Obj {
     */
    public static <T> T fromClause(Class<T> type, @Nullable String clause, Object... args)
    {
-      return SqlClosure.sqlExecute(connection -> fromClause(connection, type, clause, args));
+      return SqlClosure.sqlExecuteReadOnly(connection -> fromClause(connection, type, clause, args));
    }
 
    /**
@@ -310,36 +322,55 @@ public final class Q2Obj {
     */
    public static <T> T fromRawClause(Class<T> type, @Nullable String clause, Object... args)
    {
-      return SqlClosure.sqlExecute(connection -> fromRawClause(connection, type, clause, args));
+      return SqlClosure.sqlExecuteReadOnly(connection -> fromRawClause(connection, type, clause, args));
+   }
+
+   /**
+    * Asynchronous {@link #fromClause(Class, String, Object...)}. See {@link SqlClosure#submit()} for the transaction and cancellation.
+    */
+   public static <T> CompletableFuture<T> fromClauseAsync(Class<T> type, @Nullable String clause, Object... args) {
+      return SqlClosure.sqlExecuteReadOnlyAsync(connection -> fromClause(connection, type, clause, args));
    }
 
    /**
-    * Inserts the given object into the database.
+    * Inserts the given object into the database. With {@link q2o#setDeferredWrites(boolean) deferred writes} enabled and within a transaction the insert is queued instead, generated IDs are set when the queue is flushed before commit or before the next closure.
     * @param object The object to insert.
     * @param <T> The type of the object.
-    * @return The inserted object populated with any generated IDs.
+    * @return The inserted object populated with any generated IDs, object itself if the insert is deferred.
     */
    public static <T> T insert(T object)
    {
+      if (UnitOfWork.insert(object)) {
+         return object;
+      }
       return SqlClosure.sqlExecute(connection -> insert(connection, object));
    }
 
    /**
-    * Updates the given object in the database.
+    * Updates the given object in the database. With {@link q2o#setDeferredWrites(boolean) deferred writes} enabled and within a transaction the update is queued instead and executed with the object's state at flush time.
     * @param object The object to update.
     * @param <T> The type of the object.
     * @return The updated object.
     */
    public static <T> T update(T object)
    {
+      if (UnitOfWork.update(object)) {
+         return object;
+      }
       return SqlClosure.sqlExecute(connection -> update(connection, object));
    }
 
    /**
+    * With {@link q2o#setDeferredWrites(boolean) deferred writes} enabled and within a transaction the delete is queued instead, the number of rows deleted is not known then.
+    *
+    * @return the number of rows affected, {@link Statement#SUCCESS_NO_INFO} if the delete is deferred.
     * @see #delete(Connection, Object)
     */
    public static <T> int delete(T object)
    {
+      if (UnitOfWork.delete(object)) {
+         return Statement.SUCCESS_NO_INFO;
+      }
       return SqlClosure.sqlExecute(connection ->  delete(connection, object));
    }
 
@@ -366,7 +397,14 @@ public final class Q2Obj {
     */
    public static <T> int countFromClause(Class<T> clazz, String clause, Object... args)
    {
-      return SqlClosure.sqlExecute(connection -> countFromClause(connection, clazz, clause, args));
+      return SqlClosure.sqlExecuteReadOnly(connection -> countFromClause(connection, clazz, clause, args));
+   }
+
+   /**
+    * Asynchronous {@link #countFromClause(Class, String, Object...)}. See {@link SqlClosure#submit()} for the transaction and cancellation.
+    */
+   public static <T> CompletableFuture<Integer> countFromClauseAsync(Class<T> clazz, String clause, Object... args) {
+      return SqlClosure.sqlExecuteReadOnlyAsync(connection -> countFromClause(connection, clazz, clause, args));
    }
 
    /**
@@ -379,7 +417,7 @@ public final class Q2Obj {
     * @return The object or object graph
     */
    public static <T> T fromSelect(Class<T> clazz, String select, Object... args) {
-      return SqlClosure.sqlExecute(connection -> {
+      return SqlClosure.sqlExecuteReadOnly(connection -> {
          PreparedStatement stmnt = connection.prepareStatement(select);
          return fromStatement(stmnt, clazz, args);
       });
@@ -393,6 +431,24 @@ public final class Q2Obj {
       return fromStatement(stmnt, clazz, args);
    }
 
+   /**
+    * Copy a LOB column in chunks to target without materializing it. Binary columns are copied as is, character columns UTF-8 encoded. With a {@link java.nio.channels.FileChannel} as target the copy is delegated to {@link java.nio.channels.FileChannel#transferFrom(java.nio.channels.ReadableByteChannel, long, long)}. The target is not closed.
+    *
+    * @param id the id of the entity. Composite keys are not supported.
+    * @param property the name of the LOB attribute.
+    * @return number of bytes written, 0 in case of SQL NULL and -1 if there is no entity with this id.
+    */
+   public static <T> long streamLob(Connection connection, Class<T> clazz, Object id, String property, WritableByteChannel target) throws SQLException {
+      return OrmReader.streamLob(connection, clazz, id, property, target);
+   }
+
+   /**
+    * @see #streamLob(Connection, Class, Object, String, WritableByteChannel)
+    */
+   public static <T> long streamLob(Class<T> clazz, Object id, String property, WritableByteChannel target) {
+      return SqlClosure.sqlExecute(connection -> OrmReader.streamLob(connection, clazz, id, property, target));
+   }
+
    public static int deleteByWhereClause(Class<?> clazz, String whereClause, Object... args) {
       return SqlClosure.sqlExecute(connection -> {
          return OrmWriter.deleteByWhereClause(connection, clazz, whereClause, args);
@@ -5,6 +5,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 /**
  * Note the differences between methods taking a connection, PreparedStatement or ResultSet and those that do not. See {@link Q2Obj}.
@@ -79,21 +81,44 @@ public class Q2ObjList {
     * See {@link #fromClause(Connection, Class, String, Object...)}.
     */
    public static <T> List<T> fromClause(Class<T> clazz, String clause, Object... args) {
-      return SqlClosure.sqlExecute(c -> OrmReader.listFromClause(c, clazz, clause, args));
+      return SqlClosure.sqlExecuteReadOnly(c -> OrmReader.listFromClause(c, clazz, clause, args));
    }
 
    /**
     * See {@link Q2Obj#fromRawClause(Connection, Class, String, Object...)}.
     */
    public static <T> List<T> fromRawClause(Class<T> clazz, String clause, Object... args) {
-      return SqlClosure.sqlExecute(c -> OrmReader.listFromRawClause(c, clazz, clause, args));
+      return SqlClosure.sqlExecuteReadOnly(c -> OrmReader.listFromRawClause(c, clazz, clause, args));
+   }
+
+   /**
+    * Asynchronous {@link #fromClause(Class, String, Object...)}. See {@link SqlClosure#submit()} for the transaction and cancellation.
+    */
+   public static <T> CompletableFuture<List<T>> fromClauseAsync(Class<T> clazz, String clause, Object... args) {
+      return SqlClosure.sqlExecuteReadOnlyAsync(c -> OrmReader.listFromClause(c, clazz, clause, args));
+   }
+
+   /**
+    * Asynchronous {@link #fromRawClause(Class, String, Object...)}. See {@link SqlClosure#submit()} for the transaction and cancellation.
+    */
+   public static <T> CompletableFuture<List<T>> fromRawClauseAsync(Class<T> clazz, String clause, Object... args) {
+      return SqlClosure.sqlExecuteReadOnlyAsync(c -> OrmReader.listFromRawClause(c, clazz, clause, args));
+   }
+
+   /**
+    * Stream the objects of {@link #fromClause(Class, String, Object...)} to reactive subscribers with backpressure. Each subscription executes the query on another thread, in a transaction of its own, and reads rows as requested. The connection is released on completion, error or cancel.
+    *
+    * @return a publisher of objects, neither cached nor merged into the identity map.
+    */
+   public static <T> Flow.Publisher<T> publisher(Class<T> clazz, String clause, Object... args) {
+      return new QueryPublisher<>(clazz, clause, args);
    }
 
    /**
     * @see Q2Obj#fromSelect(Class, String, Object...)
     */
    public static <T> List<T> fromSelect(Class<T> clazz, String select, Object... args) {
-      return SqlClosure.sqlExecute(connection -> {
+      return SqlClosure.sqlExecuteReadOnly(connection -> {
          PreparedStatement stmnt = connection.prepareStatement(select);
          return fromStatement(stmnt, clazz, args);
       });
@@ -0,0 +1,73 @@
+package com.zaxxer.q2o;
+
+/**
+ * Receives measurements of the database operations q2o executes, to feed a metrics library or {@link InMemoryQ2oMetrics}. Set it with {@link q2o#setMetrics(Q2oMetrics)}. Methods are called on the executing threads and must be thread-safe and fast, all default to doing nothing.
+ * <p>
+ * Operations are the queries mapping rows to entities and the inserts, updates and deletes of entities, see {@link Operation}. Statements executed with {@link Q2Sql} or directly on the connection are measured by their closure only.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+public interface Q2oMetrics {
+
+   /**
+    * Measures nothing, the default.
+    */
+   Q2oMetrics NOOP = new Q2oMetrics() {
+   };
+
+   enum Operation {
+      QUERY,
+      INSERT,
+      UPDATE,
+      DELETE,
+      /**
+       * A JDBC batch of inserts, updates or deletes.
+       */
+      BATCH
+   }
+
+   enum Cache {
+      /**
+       * The generated SQL statements, see {@link q2o#getStatementCacheStats()}.
+       */
+      STATEMENT,
+      /**
+       * The prepared statements per connection, see {@link q2o#setPreparedStatementCacheSize(int)}.
+       */
+      PREPARED_STATEMENT
+   }
+
+   /**
+    * @param sql as executed, with parameter markers. Null if unknown.
+    * @param entityClass the entity class mapped.
+    * @param rows read by queries, affected by writes. -1 if not reported by the driver.
+    * @param bytes estimated size of the column values read or the parameter values written.
+    * @param nanos the latency including parameter conversion and mapping.
+    */
+   default void recordOperation(Operation operation, String sql, Class<?> entityClass, int rows, long bytes, long nanos) {
+   }
+
+   /**
+    * @param sql null if unknown.
+    */
+   default void recordError(Operation operation, String sql, Class<?> entityClass, Throwable error) {
+   }
+
+   default void recordCacheAccess(Cache cache, boolean hit) {
+   }
+
+   /**
+    * @param nanos waited in {@link javax.sql.DataSource#getConnection()}.
+    */
+   default void recordConnectionAcquire(long nanos) {
+   }
+
+   /**
+    * A closure not joining a transaction, retries and bulkhead wait included.
+    *
+    * @param failed whether it threw an exception.
+    */
+   default void recordClosure(long nanos, boolean failed) {
+   }
+}
@@ -0,0 +1,249 @@
+package com.zaxxer.q2o;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of the results of {@link Q2ObjList#fromClause(Class, String, Object...)} and {@link Q2ObjList#fromRawClause(Class, String, Object...)}, keyed by clause and arguments. Every entry is tagged with the tables it was read from: the tables mapped by the entity class and those named after FROM or JOIN in the clause. Writes through q2o, including {@link Q2Sql#executeUpdate(String, Object...)}, invalidate all entries tagged with the written table. Statements whose table can not be determined invalidate all entries. Within a transaction the invalidation is repeated after completion, and queries on tables written by the transaction are not cached until then.
+ * <p>
+ * Enabled per class with {@link q2o#enableQueryCache(Class, int, Duration)}. Results are lists of shallow copies, so callers may modify them. Results read on a read replica are not cached.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class QueryCache {
+
+   private static final Pattern WRITTEN_TABLE = Pattern.compile("^\\s*(?:INSERT\\s+(?:IGNORE\\s+)?INTO|REPLACE\\s+INTO|MERGE\\s+INTO|UPDATE|DELETE\\s+FROM|TRUNCATE\\s+TABLE)\\s+([^\\s(]+)", Pattern.CASE_INSENSITIVE);
+   private static final Pattern READ_TABLE = Pattern.compile("\\b(?:FROM|JOIN)\\s+([^\\s,()]+)", Pattern.CASE_INSENSITIVE);
+
+   private static final Map<Class<?>, QueryCache> caches = new ConcurrentHashMap<>();
+   /**
+    * Incremented with every write to a table. Key: normalized table name.
+    */
+   private static final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+   /**
+    * Incremented by writes to unknown tables.
+    */
+   private static final AtomicLong epoch = new AtomicLong();
+   private static final Object TX_KEY = new Object();
+
+   private final Introspected introspected;
+   private final String[] classTables;
+   private final StatementCache<List<Object>, Entry> entries;
+   private final StatementCache.Counters counters = new StatementCache.Counters();
+   private final long ttlNanos;
+
+   private static final class Entry {
+      final List<Object> rows;
+      final String[] tables;
+      final long[] versions;
+      final long epoch;
+      final long expiresAtNanos;
+
+      Entry(final List<Object> rows, final String[] tables, final long[] versions, final long epoch, final long expiresAtNanos) {
+         this.rows = rows;
+         this.tables = tables;
+         this.versions = versions;
+         this.epoch = epoch;
+         this.expiresAtNanos = expiresAtNanos;
+      }
+   }
+
+   /**
+    * Tables written in the current transaction.
+    */
+   private static final class Written implements TxSynchronizations.TxResource {
+      final Set<String> tables = new HashSet<>();
+      boolean all;
+
+      @Override
+      public void afterCompletion(final boolean committed) {
+         if (all) {
+            epoch.incrementAndGet();
+         }
+         else {
+            tables.forEach(QueryCache::increment);
+         }
+      }
+   }
+
+   private QueryCache(final Introspected introspected, final int maxSize, final Duration ttl) {
+      this.introspected = introspected;
+      this.classTables = introspected.getTableNames().stream().map(QueryCache::normalize).distinct().toArray(String[]::new);
+      this.entries = new StatementCache<>(maxSize, counters);
+      this.ttlNanos = ttl.toNanos();
+   }
+
+   static void enable(final Class<?> clazz, final int maxSize, final Duration ttl) {
+      caches.put(clazz, new QueryCache(Introspected.getInstance(clazz), maxSize, ttl));
+   }
+
+   static void disable(final Class<?> clazz) {
+      caches.remove(clazz);
+   }
+
+   /**
+    * @return null if query results of clazz are not cached.
+    */
+   static CacheStats getStats(final Class<?> clazz) {
+      final QueryCache cache = caches.get(clazz);
+      return cache == null ? null : cache.counters.snapshot();
+   }
+
+   static void clearAll() {
+      caches.values().forEach(cache -> cache.entries.clear());
+   }
+
+   @SuppressWarnings("unchecked")
+   static <T> List<T> list(final Class<T> clazz, final String clause, final boolean raw, final Object[] args, final EntityCache.Loader<List<T>> loader) throws SQLException {
+      final QueryCache cache = caches.get(clazz);
+      if (cache == null) {
+         return loader.load();
+      }
+      return (List<T>) cache.list(clause, raw, args, (EntityCache.Loader<List<Object>>) (EntityCache.Loader<?>) loader);
+   }
+
+   /**
+    * Called with every statement executed with {@link OrmWriter#executeUpdate(java.sql.Connection, String, Object...)}.
+    */
+   static void invalidateStatement(final String sql) {
+      if (caches.isEmpty()) {
+         return;
+      }
+      final Matcher matcher = WRITTEN_TABLE.matcher(sql);
+      if (matcher.find()) {
+         invalidate(matcher.group(1));
+      }
+      else {
+         epoch.incrementAndGet();
+         final Written written = TxSynchronizations.getResource(TX_KEY, Written::new);
+         if (written != null) {
+            written.all = true;
+         }
+      }
+   }
+
+   static void invalidate(final String table) {
+      if (caches.isEmpty()) {
+         return;
+      }
+      final String normalized = normalize(table);
+      increment(normalized);
+      final Written written = TxSynchronizations.getResource(TX_KEY, Written::new);
+      if (written != null) {
+         written.tables.add(normalized);
+      }
+   }
+
+   private List<Object> list(final String clause, final boolean raw, final Object[] args, final EntityCache.Loader<List<Object>> loader) throws SQLException {
+      final String[] tables = tables(clause);
+      final Written written = TxSynchronizations.getResource(TX_KEY, null);
+      if (written != null && (written.all || Arrays.stream(tables).anyMatch(written.tables::contains))) {
+         return loader.load();
+      }
+
+      final List<Object> key = Arrays.asList(clause, raw, key(args));
+      final Entry entry = entries.getIfPresent(key);
+      if (entry != null) {
+         if (isValid(entry)) {
+            counters.hits.increment();
+            return copy(entry.rows);
+         }
+         entries.remove(key);
+      }
+
+      counters.misses.increment();
+      final long epochBefore = epoch.get();
+      final long[] versions = new long[tables.length];
+      for (int i = 0; i < tables.length; i++) {
+         versions[i] = version(tables[i]).get();
+      }
+      final long start = System.nanoTime();
+      final List<Object> rows = loader.load();
+      final long end = System.nanoTime();
+      counters.loadTimeNanos.add(end - start);
+      // Written meanwhile entries are stale on the next request. A replica may lag behind, its rows may be stale already.
+      if (!ReadReplicas.isExecuting()) {
+         entries.put(key, new Entry(copy(rows), tables, versions, epochBefore, end + ttlNanos));
+      }
+      return rows;
+   }
+
+   private boolean isValid(final Entry entry) {
+      if (entry.epoch != epoch.get() || (ttlNanos != 0 && entry.expiresAtNanos - System.nanoTime() <= 0)) {
+         return false;
+      }
+      for (int i = 0; i < entry.tables.length; i++) {
+         if (version(entry.tables[i]).get() != entry.versions[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private List<Object> copy(final List<Object> rows) {
+      final List<Object> copy = new ArrayList<>(rows.size());
+      for (final Object row : rows) {
+         copy.add(introspected.shallowCopy(row));
+      }
+      return copy;
+   }
+
+   private String[] tables(final String clause) {
+      if (clause == null) {
+         return classTables;
+      }
+      Set<String> tables = null;
+      final Matcher matcher = READ_TABLE.matcher(clause);
+      while (matcher.find()) {
+         if (tables == null) {
+            tables = new HashSet<>(Arrays.asList(classTables));
+         }
+         tables.add(normalize(matcher.group(1)));
+      }
+      return tables == null ? classTables : tables.toArray(new String[0]);
+   }
+
+   private static List<Object> key(final Object[] args) {
+      if (args == null) {
+         return null;
+      }
+      final Object[] key = new Object[args.length];
+      for (int i = 0; i < args.length; i++) {
+         key[i] = args[i] instanceof Object[] ? key((Object[]) args[i]) : EntityCache.normalize(args[i]);
+      }
+      return Arrays.asList(key);
+   }
+
+   private static AtomicLong version(final String table) {
+      final AtomicLong version = tableVersions.get(table);
+      return version != null ? version : tableVersions.computeIfAbsent(table, t -> new AtomicLong());
+   }
+
+   private static void increment(final String table) {
+      version(table).incrementAndGet();
+   }
+
+   /**
+    * Without schema and delimiters, upper case.
+    */
+   private static String normalize(final String table) {
+      String name = table;
+      final int dot = name.lastIndexOf('.');
+      if (dot >= 0) {
+         name = name.substring(dot + 1);
+      }
+      return name.replaceAll("[\"`\\[\\]]", "").toUpperCase(Locale.ROOT);
+   }
+}
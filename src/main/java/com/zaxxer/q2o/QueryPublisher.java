@@ -0,0 +1,171 @@
+package com.zaxxer.q2o;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams the entities of a query to subscribers. Every subscription executes the query in a closure of its own on the executor set with {@link q2o#setExecutor(java.util.concurrent.Executor)}, once the subscriber requested the first entity. The closure reads rows only as requested, the fetch size set to the first request within {@value #MIN_FETCH_SIZE} and {@value #MAX_FETCH_SIZE}, and waits in between. Without transaction manager it turns off auto-commit for the query, as drivers like PostgreSQL's fetch all rows at once otherwise. The connection is released before {@link Flow.Subscriber#onComplete()} or {@link Flow.Subscriber#onError(Throwable)} is signalled, and after a cancel.
+ * <p>
+ * Entities are neither cached nor merged into the identity map.
+ * </p>
+ *
+ * @since 19.10.26
+ * @see Q2ObjList#publisher(Class, String, Object...)
+ */
+final class QueryPublisher<T> implements Flow.Publisher<T> {
+
+   /**
+    * Lower bound of the fetch size, for subscribers requesting one entity at a time.
+    */
+   private static final int MIN_FETCH_SIZE = 100;
+   /**
+    * Upper bound of the fetch size, for subscribers requesting an unbounded number of entities.
+    */
+   private static final int MAX_FETCH_SIZE = 1_000;
+
+   private final Class<T> clazz;
+   private final String sql;
+   private final Object[] args;
+
+   QueryPublisher(final Class<T> clazz, final String clause, final Object[] args) {
+      this.clazz = clazz;
+      this.sql = OrmReader.generateSelectFromWhereClause(clazz, clause, true);
+      this.args = args;
+   }
+
+   @Override
+   public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+      Objects.requireNonNull(subscriber, "subscriber");
+      final Subscription subscription = new Subscription(subscriber);
+      subscriber.onSubscribe(subscription);
+      subscription.start();
+   }
+
+   private final class Subscription implements Flow.Subscription {
+      private final Flow.Subscriber<? super T> subscriber;
+      private final AtomicLong demand = new AtomicLong();
+      private final ReentrantLock lock = new ReentrantLock();
+      private final Condition demanded = lock.newCondition();
+      private volatile boolean cancelled;
+      private volatile Throwable invalidRequest;
+      private volatile CompletableFuture<Void> future;
+
+      Subscription(final Flow.Subscriber<? super T> subscriber) {
+         this.subscriber = subscriber;
+      }
+
+      void start() {
+         if (cancelled) {
+            if (invalidRequest != null) {
+               subscriber.onError(invalidRequest);
+            }
+            return;
+         }
+         future = SqlClosure.sqlExecuteAsync(connection -> {
+            if (!awaitDemand()) {
+               return null;
+            }
+            final boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+               connection.setAutoCommit(false);
+            }
+            try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
+               stmt.setFetchSize((int) Math.min(Math.max(demand.get(), MIN_FETCH_SIZE), MAX_FETCH_SIZE));
+               try (final ResultSet resultSet = OrmReader.statementToResultSet(stmt, args)) {
+                  final ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, Collections.emptySet());
+                  while (awaitDemand() && resultSet.next()) {
+                     final T entity = processor.processCurrentRow(clazz);
+                     demand.decrementAndGet();
+                     subscriber.onNext(entity);
+                  }
+               }
+            }
+            finally {
+               if (autoCommit) {
+                  // Only read, nothing to commit.
+                  connection.rollback();
+                  connection.setAutoCommit(true);
+               }
+            }
+            return null;
+         });
+         future.whenComplete((result, e) -> {
+            if (invalidRequest != null) {
+               subscriber.onError(invalidRequest);
+            }
+            else if (!cancelled) {
+               if (e == null) {
+                  subscriber.onComplete();
+               }
+               else {
+                  subscriber.onError(e);
+               }
+            }
+         });
+      }
+
+      /**
+       * @return false if cancelled.
+       */
+      private boolean awaitDemand() {
+         lock.lock();
+         try {
+            while (demand.get() == 0 && !cancelled) {
+               demanded.await();
+            }
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+         }
+         finally {
+            lock.unlock();
+         }
+         return !cancelled;
+      }
+
+      @Override
+      public void request(final long n) {
+         if (n <= 0) {
+            invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+            // Not cancel(): the error is signalled once the worker stopped, not concurrently with onNext.
+            cancelled = true;
+            signal();
+            return;
+         }
+         demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+         signal();
+      }
+
+      @Override
+      public void cancel() {
+         if (cancelled) {
+            return;
+         }
+         cancelled = true;
+         signal();
+         final CompletableFuture<Void> running = future;
+         if (running != null) {
+            // Aborts a statement waiting for the database.
+            running.cancel(false);
+         }
+      }
+
+      private void signal() {
+         lock.lock();
+         try {
+            demanded.signalAll();
+         }
+         finally {
+            lock.unlock();
+         }
+      }
+   }
+}
@@ -0,0 +1,91 @@
+package com.zaxxer.q2o;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Read replicas of the primary database. Read-only closures outside a transaction are executed on one of them in auto-commit mode. Replicas may lag behind the primary, a read-only closure may not see changes committed just before. So entities and query results read on a replica are not put into the entity and query caches.
+ *
+ * @since 19.10.26
+ */
+final class ReadReplicas {
+
+   private final DataSource[] configured;
+   private final DataSource[] dataSources;
+   private final ReplicaSelection selection;
+   private final AtomicInteger next = new AtomicInteger();
+   private final AtomicIntegerArray inFlight;
+
+   private static final ThreadLocal<Boolean> executing = new ThreadLocal<>();
+
+   ReadReplicas(final ReplicaSelection selection, final DataSource[] dataSources) {
+      this.selection = selection;
+      this.configured = dataSources.clone();
+      this.dataSources = new DataSource[dataSources.length];
+      for (int i = 0; i < dataSources.length; i++) {
+         this.dataSources[i] = PreparedStatementCache.wrap(dataSources[i]);
+      }
+      this.inFlight = new AtomicIntegerArray(dataSources.length);
+   }
+
+   /**
+    * @return the index of the replica to use. Must be passed to {@link #release(int)} after execution.
+    */
+   int acquire() {
+      final int index;
+      if (selection == ReplicaSelection.ROUND_ROBIN || dataSources.length == 1) {
+         index = Math.floorMod(next.getAndIncrement(), dataSources.length);
+      }
+      else {
+         int least = 0;
+         for (int i = 1; i < dataSources.length; i++) {
+            if (inFlight.get(i) < inFlight.get(least)) {
+               least = i;
+            }
+         }
+         index = least;
+      }
+      inFlight.incrementAndGet(index);
+      return index;
+   }
+
+   void release(final int index) {
+      inFlight.decrementAndGet(index);
+   }
+
+   /**
+    * Execute execution, marking the current thread as reading from a replica.
+    */
+   static <T> T execute(final Supplier<T> execution) {
+      final Boolean outer = executing.get();
+      executing.set(Boolean.TRUE);
+      try {
+         return execution.get();
+      }
+      finally {
+         if (outer == null) {
+            executing.remove();
+         }
+      }
+   }
+
+   /**
+    * @return whether the current thread executes a closure on a replica. Nested closures count, even if they execute on the primary.
+    */
+   static boolean isExecuting() {
+      return executing.get() != null;
+   }
+
+   DataSource get(final int index) {
+      return dataSources[index];
+   }
+
+   /**
+    * @return the replica as passed to {@link q2o#setReadReplicas(ReplicaSelection, DataSource...)}.
+    */
+   DataSource getConfigured(final int index) {
+      return configured[index];
+   }
+}
@@ -0,0 +1,17 @@
+package com.zaxxer.q2o;
+
+/**
+ * How read-only closures choose one of the replicas set with {@link q2o#setReadReplicas(ReplicaSelection, javax.sql.DataSource...)}.
+ *
+ * @since 19.10.26
+ */
+public enum ReplicaSelection {
+   /**
+    * One after the other.
+    */
+   ROUND_ROBIN,
+   /**
+    * The replica executing the fewest read-only closures of this JVM at the moment. Ties go to the first.
+    */
+   LEAST_IN_FLIGHT
+}
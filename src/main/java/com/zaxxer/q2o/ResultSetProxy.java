@@ -1,36 +1,29 @@
 package com.zaxxer.q2o;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import com.zaxxer.q2o.jdbc.DelegatingResultSet;
+
 import java.sql.ResultSet;
 
 /**
+ * A non-closeable ResultSet.
+ *
  * @author Holger Thurow (thurow.h@gmail.com)
  * @since 19.01.20
  */
-public class ResultSetProxy implements InvocationHandler {
-
-   private final ResultSet resultSet;
+public class ResultSetProxy extends DelegatingResultSet {
 
    public ResultSetProxy(ResultSet resultSet)
    {
-      this.resultSet = resultSet;
+      super(resultSet);
    }
 
    @Override
-   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+   public void close()
    {
-      Object ret = null;
-      if (!"close".equals(method.getName())) {
-         ret = method.invoke(resultSet, args);
-      }
-      return ret;
    }
 
    static ResultSet wrap(ResultSet resultSet)
    {
-      ResultSetProxy proxy = new ResultSetProxy(resultSet);
-      return (ResultSet) Proxy.newProxyInstance(ResultSetProxy.class.getClassLoader(), new Class[]{ResultSet.class}, proxy);
+      return new ResultSetProxy(resultSet);
    }
 }
@@ -45,7 +45,25 @@ class ResultSetToObjectProcessor<T> {
     * the per row created targets in a multi row result
     */
    private List<T> targets;
+   /**
+    * Column values of the currently processed row if the target is created through its constructor.
+    */
+   private Object[] constructorArgs;
    private int colIdx;
+   /**
+    * Per column names and attributes, indexed by column index. Resolved once per result set, not per row.
+    */
+   private String[] columnNames;
+   private boolean[] ignoredColumnIdxs;
+   private String[] tableNames;
+   private AttributeInfo[] columnInfos;
+   private TypeCodec<Object>[] columnCodecs;
+   /**
+    * Whether to sum up the conversion time and the size of the values read, see {@link JfrEvents.QueryEvent}.
+    */
+   private boolean timed;
+   private long conversionNanos;
+   private long bytes;
    private static final DatabaseValueToFieldType DATABASE_VALUE_TO_FIELD_TYPE = new DatabaseValueToFieldType();
 
    /**
@@ -57,11 +75,30 @@ class ResultSetToObjectProcessor<T> {
       this.ignoredColumns = ignoredColumns;
    }
 
+   void setTimed(final boolean timed) {
+      this.timed = timed;
+   }
+
+   /**
+    * @return the nanos spent in type codecs and type conversions, if {@link #setTimed(boolean) timed}.
+    */
+   long getConversionNanos() {
+      return conversionNanos;
+   }
+
+   /**
+    * @return the estimated size of the column values read, if {@link #setTimed(boolean) timed}.
+    */
+   long getBytes() {
+      return bytes;
+   }
+
    T forTestOnly(final T target) throws SQLException {
       this.target = target;
 
       metaData = resultSet.getMetaData();
       introspected = Introspected.getInstance(target.getClass());
+      resolveColumns();
       tableNameToEntitiesInCurrentRow = new HashMap<>();
       tableNameToEntitiesInCurrentRow.putIfAbsent(introspected.getTableName().toUpperCase(), target);
       tableNameToEntities = new HashMap<>();
@@ -105,6 +142,10 @@ class ResultSetToObjectProcessor<T> {
       this.target = target;
       metaData = resultSet.getMetaData();
       introspected = Introspected.getInstance(target.getClass());
+      if (introspected.isConstructorInstantiated()) {
+         throw new IllegalArgumentException(target.getClass().getName() + " is immutable and can not be populated. Query by class instead.");
+      }
+      resolveColumns();
       tableNameToEntitiesInCurrentRow = new HashMap<>();
       tableNameToEntitiesInCurrentRow.putIfAbsent(introspected.getTableName().toUpperCase(), target);
       tableNameToEntities = new HashMap<>();
@@ -120,23 +161,11 @@ class ResultSetToObjectProcessor<T> {
 
       metaData = resultSet.getMetaData();
       introspected = Introspected.getInstance(targetClass);
+      resolveColumns();
       targets = new ArrayList<>();
 
       do {
-         try {
-            target = targetClass.newInstance();
-            tableNameToEntitiesInCurrentRow = new HashMap<>();
-            tableNameToEntitiesInCurrentRow.put(introspected.getTableName().toUpperCase(), target);
-         }
-         catch (InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-         }
-
-         for (colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
-            processColumn(colIdx);
-         }
-
-         targets.add(target);
+         targets.add(processRow());
          currentRow++;
 
       } while (resultSet.next());
@@ -144,51 +173,113 @@ class ResultSetToObjectProcessor<T> {
       return targets;
    }
 
-   private void processColumn(final int colIdx) throws SQLException {
-      final String columnName = metaData.getColumnName(colIdx);
-      // To make names in ignoredColumns independend from database case sensitivity. Otherwise you have to write database dependent code.
-      if (OrmBase.isIgnoredColumn(ignoredColumns, columnName)) {
-         return;
+   /**
+    * @return a new instance of targetClass populated from the current row only.
+    */
+   T processRow(final Class<T> targetClass) throws SQLException {
+      metaData = resultSet.getMetaData();
+      introspected = Introspected.getInstance(targetClass);
+      resolveColumns();
+      return processRow();
+   }
+
+   /**
+    * Map the current row, for callers moving through the result set themselves. Columns are resolved once, on the first call.
+    */
+   T processCurrentRow(final Class<T> targetClass) throws SQLException {
+      if (introspected == null) {
+         metaData = resultSet.getMetaData();
+         introspected = Introspected.getInstance(targetClass);
+         resolveColumns();
       }
-      String tableName = null;
-      AttributeInfo fcInfo = null;
-      tableName = Optional.ofNullable(metaData.getTableName(colIdx)).orElse("");
-//      if (tableName.isEmpty() || tableName.equalsIgnoreCase(introspected.getTableName())) {
-//         fcInfo = !tableName.isEmpty()
-//            ? introspected.getFieldColumnInfo(tableName, columnName)
-//            : introspected.getFieldColumnInfo(columnName);
-//      }
-
-      if (!tableName.isEmpty()) {
-         fcInfo = introspected.getFieldColumnInfo(tableName, columnName);
-         if (fcInfo == null) {
-            // OneToOneTest.flattenedTableJoin()
-            fcInfo = introspected.getFieldColumnInfo(columnName);
+      final T row = processRow();
+      currentRow++;
+      return row;
+   }
+
+   @SuppressWarnings("unchecked")
+   private T processRow() throws SQLException {
+      tableNameToEntitiesInCurrentRow = new HashMap<>();
+      if (introspected.isConstructorInstantiated()) {
+         // Records and immutable classes: Collect the column values and call the constructor once.
+         constructorArgs = new Object[introspected.getConstructorParameterCount()];
+         for (colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+            processColumn(colIdx);
          }
+         target = (T) introspected.newInstance(constructorArgs);
       }
       else {
-         fcInfo = introspected.getFieldColumnInfo(columnName);
+         target = (T) introspected.newInstance();
+         tableNameToEntitiesInCurrentRow.put(introspected.getTableName().toUpperCase(), target);
+         for (colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+            processColumn(colIdx);
+         }
       }
+      return target;
+   }
 
-      Object columnValue = getObject(colIdx, fcInfo);
+   private void resolveColumns() throws SQLException {
+      final int columnCount = metaData.getColumnCount();
+      columnNames = new String[columnCount + 1];
+      ignoredColumnIdxs = new boolean[columnCount + 1];
+      tableNames = new String[columnCount + 1];
+      columnInfos = new AttributeInfo[columnCount + 1];
+      //noinspection unchecked
+      columnCodecs = new TypeCodec[columnCount + 1];
+      for (int i = 1; i <= columnCount; i++) {
+         final String columnName = metaData.getColumnName(i);
+         final String tableName = Optional.ofNullable(metaData.getTableName(i)).orElse("");
+         columnNames[i] = columnName;
+         // To make names in ignoredColumns independend from database case sensitivity. Otherwise you have to write database dependent code.
+         ignoredColumnIdxs[i] = OrmBase.isIgnoredColumn(ignoredColumns, columnName);
+         tableNames[i] = tableName;
+         AttributeInfo fcInfo;
+         if (!tableName.isEmpty()) {
+            fcInfo = introspected.getFieldColumnInfo(tableName, columnName);
+            if (fcInfo == null) {
+               // OneToOneTest.flattenedTableJoin()
+               fcInfo = introspected.getFieldColumnInfo(columnName);
+            }
+         }
+         else {
+            fcInfo = introspected.getFieldColumnInfo(columnName);
+         }
+         columnInfos[i] = fcInfo;
+         final TypeCodec<Object> codec = fcInfo != null ? fcInfo.getTypeCodec(metaData.getColumnType(i)) : null;
+         columnCodecs[i] = codec != null ? codec.forResultSet(resultSet) : null;
+      }
+   }
+
+   private void processColumn(final int colIdx) throws SQLException {
+      if (ignoredColumnIdxs[colIdx]) {
+         return;
+      }
+      final String columnName = columnNames[colIdx];
+      final String tableName = tableNames[colIdx];
+      final AttributeInfo fcInfo = columnInfos[colIdx];
+
+      final TypeCodec<Object> codec = columnCodecs[colIdx];
+      Object columnValue = codec == null ? getObject(colIdx, fcInfo) : readTimed(codec, colIdx);
+      if (timed) {
+         bytes += Metrics.estimateSize(columnValue);
+      }
 
       // tableName is empty when aliases as in "SELECT (t.string_from_number + 1) as string_from_number " were used. See org.sansorm.QueryTest.testConverterLoad().
       if (tableName.isEmpty() || tableName.equalsIgnoreCase(introspected.getTableName())) {
 
-         Object parent = tableNameToEntitiesInCurrentRow.computeIfAbsent(introspected.getTableName().toUpperCase(), tbl -> {
-            try {
-               return introspected.getTableTarget(introspected.getTableName());
+         if (constructorArgs != null) {
+            if (fcInfo != null && fcInfo.constructorParameterIndex >= 0) {
+               constructorArgs[fcInfo.constructorParameterIndex] = adaptColumnValue(fcInfo, columnValue);
             }
-            catch (IllegalAccessException | InstantiationException e) {
-               throw new RuntimeException(e);
-            }
-         });
+            return;
+         }
+         Object parent = tableNameToEntitiesInCurrentRow.computeIfAbsent(introspected.getTableName().toUpperCase(), tbl -> introspected.getTableTarget(introspected.getTableName()));
          // If objectFromSelect() does more fields retrieve as are defined on the entity then fcInfo is null.
          if (fcInfo != null
             && (!fcInfo.isIdField || !fcInfo.getType().isPrimitive() || columnValue != null)) {
             // Do not call fcInfo.setValue() directly. AttributeInfo#setValue() does not apply type conversion (e. g. identity fields of type BigInteger to integer)!
             try {
-               Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(fcInfo, columnValue, metaData, introspected, colIdx);
+               Object typeCorrectedValue = adaptColumnValue(fcInfo, columnValue);
                fcInfo.setValue(parent, typeCorrectedValue);
             }
             catch (IllegalAccessException e) {
@@ -196,11 +287,49 @@ class ResultSetToObjectProcessor<T> {
             }
          }
       }
+      else if (constructorArgs != null) {
+         throw new UnsupportedOperationException("Joins are not supported for immutable " + introspected.getTableName() + " entities. Column " + tableName + "." + columnName);
+      }
       else {
          processColumnOfJoinedTable(columnName, columnValue, tableName);
       }
    }
 
+   /**
+    * Values read by a {@link TypeCodec} have already the attribute's type.
+    */
+   private Object adaptColumnValue(final AttributeInfo info, final Object columnValue) {
+      if (!timed) {
+         return adaptColumnValueUntimed(info, columnValue);
+      }
+      final long start = System.nanoTime();
+      try {
+         return adaptColumnValueUntimed(info, columnValue);
+      }
+      finally {
+         conversionNanos += System.nanoTime() - start;
+      }
+   }
+
+   private Object readTimed(final TypeCodec<Object> codec, final int colIdx) throws SQLException {
+      if (!timed) {
+         return codec.read(resultSet, colIdx);
+      }
+      final long start = System.nanoTime();
+      try {
+         return codec.read(resultSet, colIdx);
+      }
+      finally {
+         conversionNanos += System.nanoTime() - start;
+      }
+   }
+
+   private Object adaptColumnValueUntimed(final AttributeInfo info, final Object columnValue) {
+      return columnCodecs[colIdx] != null && info.getType().isInstance(columnValue)
+         ? columnValue
+         : DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(info, columnValue, metaData, introspected, colIdx);
+   }
+
    @Nullable
    private Object getObject(final int colIdx, final AttributeInfo fcInfo) throws SQLException
    {
@@ -234,13 +363,8 @@ class ResultSetToObjectProcessor<T> {
 
       isNewEntity = new AtomicBoolean(false);
       currentEntity = tableNameToEntitiesInCurrentRow.computeIfAbsent(tableName.toUpperCase(), tableNameUpperCased -> {
-         try {
-            isNewEntity.set(true);
-            return introspected.getTableTarget(tableNameUpperCased);
-         }
-         catch (IllegalAccessException | InstantiationException e) {
-            throw new RuntimeException(e);
-         }
+         isNewEntity.set(true);
+         return introspected.getTableTarget(tableNameUpperCased);
       });
       // currentEntity is null if target does not correspond with an actual table. See com.zaxxer.q2o.internal.JoinOneToOneSeveralTablesTest.flattenedTableJoin().
       currentEntity = currentEntity == null ? target : currentEntity;
@@ -255,7 +379,7 @@ class ResultSetToObjectProcessor<T> {
       ) {
          if (!(currentTargetInfo.getType().isPrimitive() && columnValue == null)) {
             try {
-               Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(currentTargetInfo, columnValue, metaData, introspected, colIdx);
+               Object typeCorrectedValue = adaptColumnValue(currentTargetInfo, columnValue);
                currentTargetInfo.setValue(currentEntity, typeCorrectedValue);
             }
             catch (IllegalAccessException e) {
@@ -265,14 +389,7 @@ class ResultSetToObjectProcessor<T> {
          // parentInfo is null if target does not correspond with an actual table. See com.zaxxer.q2o.internal.JoinOneToOneSeveralTablesTest.flattenedTableJoin().
          parentInfo = introspected.getFieldColumnInfo(currentTargetClass);
          if (parentInfo != null) {
-            currentParent = tableNameToEntitiesInCurrentRow.computeIfAbsent(parentInfo.getOwnerClassTableName().toUpperCase(), tbln -> {
-               try {
-                  return parentInfo.getOwnerClazz().newInstance();
-               }
-               catch (InstantiationException | IllegalAccessException e) {
-                  throw new RuntimeException(e);
-               }
-            });
+            currentParent = tableNameToEntitiesInCurrentRow.computeIfAbsent(parentInfo.getOwnerClassTableName().toUpperCase(), tbln -> Introspected.getInstance(parentInfo.getOwnerClazz()).newInstance());
             // Do not call currentTargetInfo.setValue() directly. AttributeInfo#setValue() does not apply type conversion (e. g. identity fields of type BigInteger to integer)!
             if (!parentInfo.isOneToManyAnnotated) {
                try {
@@ -0,0 +1,147 @@
+package com.zaxxer.q2o;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Re-runs a failed {@link SqlClosure} in a fresh transaction if the failure is transient, by default deadlocks and serialization failures (SQLSTATE 40001, 40P01). Between attempts the closure waits a random time up to an exponentially growing bound ("full jitter").
+ * <p>
+ * Only closures starting their own transaction are retried, closures joining a transaction fail and leave the retry to the closure that started it. In auto-commit mode every closure is retried on its own. The closure must tolerate being executed more than once.
+ * </p>
+ *
+ * @since 19.10.26
+ * @see q2o#setRetryPolicy(RetryPolicy)
+ * @see SqlClosure#setRetryPolicy(RetryPolicy)
+ */
+public final class RetryPolicy {
+
+   private final int maxAttempts;
+   private final long initialBackoffNanos;
+   private final long maxBackoffNanos;
+   private final Predicate<SQLException> classifier;
+   private final LongAdder retries = new LongAdder();
+   private final LongAdder recovered = new LongAdder();
+   private final LongAdder exhausted = new LongAdder();
+
+   /**
+    * Retry deadlocks and serialization failures.
+    *
+    * @param maxAttempts including the first one.
+    * @param initialBackoff the upper bound of the wait before the second attempt, doubled with every further attempt.
+    * @param maxBackoff the limit of the upper bound.
+    */
+   public RetryPolicy(final int maxAttempts, final Duration initialBackoff, final Duration maxBackoff) {
+      this(maxAttempts, initialBackoff, maxBackoff, RetryPolicy::isTransient);
+   }
+
+   /**
+    * @param classifier decides whether a closure failing with the exception is retried. Called for every SQLException in the cause chain of the failure.
+    */
+   public RetryPolicy(final int maxAttempts, final Duration initialBackoff, final Duration maxBackoff, final Predicate<SQLException> classifier) {
+      if (maxAttempts < 1) {
+         throw new IllegalArgumentException("maxAttempts must be at least 1");
+      }
+      this.maxAttempts = maxAttempts;
+      this.initialBackoffNanos = initialBackoff.toNanos();
+      this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+      this.classifier = classifier;
+   }
+
+   /**
+    * The default classification: SQLSTATE 40001 (serialization failure, reported for deadlocks by MySQL and SQL Server too), 40P01 (PostgreSQL deadlock) or a {@link SQLTransactionRollbackException}.
+    */
+   public static boolean isTransient(final SQLException e) {
+      final String state = e.getSQLState();
+      return "40001".equals(state) || "40P01".equals(state) || e instanceof SQLTransactionRollbackException;
+   }
+
+   public int getMaxAttempts() {
+      return maxAttempts;
+   }
+
+   /**
+    * @return the number of attempts after the first one.
+    */
+   public long getRetryCount() {
+      return retries.sum();
+   }
+
+   /**
+    * @return the number of closures succeeding after one or more retries.
+    */
+   public long getRecoveredCount() {
+      return recovered.sum();
+   }
+
+   /**
+    * @return the number of closures failing with a retryable exception on their last attempt.
+    */
+   public long getExhaustedCount() {
+      return exhausted.sum();
+   }
+
+   <T> T execute(final SqlClosure<T> closure) {
+      for (int attempt = 1; ; attempt++) {
+         try {
+            final T result = closure.executeOnce();
+            if (attempt > 1) {
+               recovered.increment();
+            }
+            return result;
+         }
+         catch (RuntimeException e) {
+            if (!isRetryable(e)) {
+               throw e;
+            }
+            if (attempt >= maxAttempts) {
+               exhausted.increment();
+               throw e;
+            }
+            if (!backoff(attempt)) {
+               throw e;
+            }
+            retries.increment();
+         }
+      }
+   }
+
+   private boolean isRetryable(final Throwable failure) {
+      for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+         if (cause instanceof SQLException) {
+            for (SQLException e = (SQLException) cause; e != null; e = e.getNextException()) {
+               if (classifier.test(e)) {
+                  return true;
+               }
+            }
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return false if interrupted.
+    */
+   private boolean backoff(final int attempt) {
+      long limit = initialBackoffNanos;
+      for (int i = 1; i < attempt && limit < maxBackoffNanos; i++) {
+         limit <<= 1;
+      }
+      limit = Math.min(limit, maxBackoffNanos);
+      if (limit <= 0) {
+         return true;
+      }
+      try {
+         TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(limit + 1));
+         return true;
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      }
+   }
+}
@@ -0,0 +1,1003 @@
+package com.zaxxer.q2o;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Read-mostly copy of a mapped table outside the Java heap, for large reference tables which would occupy much heap and prolong garbage collection as entity objects.
+ * <p>
+ * Rows are stored with a fixed width in direct buffers: primitive and wrapper attributes in their binary form, dates, timestamps, {@code LocalDate}, {@code LocalDateTime} and {@code Instant} as epoch values, {@code BigDecimal} as unscaled long and scale, strings as references into a deduplicated UTF-8 string area. The string area is indexed off-heap too and reference counted, it is compacted by a refresh once more than half of it is no longer referenced. Values of other types, e.g. enums or decimals beyond 64 bits, are dictionary-encoded and kept once on the heap while referenced, so they should have few distinct values. Relationships to other entities are not stored. An off-heap hash index maps numeric ids to rows, other ids are indexed on the heap.
+ * </p>
+ * <p>
+ * Entities are created on demand with {@link #get(Object...)}. {@link View} reads single attributes without creating entities. Changed or new rows are reloaded with {@link #refresh(String, Object...)}, deleted rows with a new {@link #load(Class)} only. Lookups do not block, they are repeated with a read lock if a refresh ran at the same time.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+public final class RowStore<T> {
+
+   private static final int SEGMENT_BYTES = Integer.getInteger("com.zaxxer.q2o.rowStoreSegmentBytes", 1 << 26);
+   private static final int FETCH_SIZE = 1000;
+   /**
+    * Orphaned bytes of the string area below which it is not compacted.
+    */
+   private static final int MIN_COMPACTION_BYTES = 1 << 16;
+   /**
+    * Length and reference count before the bytes of a string.
+    */
+   private static final int STRING_HEADER = 8;
+   /**
+    * Scale of a {@code BigDecimal} stored as dictionary code.
+    */
+   private static final int DICTIONARY_SCALE = Integer.MIN_VALUE;
+
+   private static final int BOOLEAN = 0;
+   private static final int BYTE = 1;
+   private static final int SHORT = 2;
+   private static final int CHAR = 3;
+   private static final int INT = 4;
+   private static final int FLOAT = 5;
+   private static final int LONG = 6;
+   private static final int DOUBLE = 7;
+   private static final int STRING = 8;
+   private static final int OBJECT = 9;
+   /**
+    * Epoch milliseconds of {@code java.util.Date}, {@code java.sql.Date} and {@code Time}.
+    */
+   private static final int DATE = 10;
+   /**
+    * Epoch day.
+    */
+   private static final int LOCAL_DATE = 11;
+   /**
+    * Epoch second and nanosecond of {@code Timestamp}, {@code Instant} and {@code LocalDateTime} at UTC.
+    */
+   private static final int TIMESTAMP = 12;
+   /**
+    * Unscaled value and scale, or dictionary code and {@link #DICTIONARY_SCALE}.
+    */
+   private static final int DECIMAL = 13;
+   private static final int[] WIDTHS = {1, 1, 2, 2, 4, 4, 8, 8, 4, 4, 8, 8, 12, 12};
+
+   private final Class<T> clazz;
+   private final Introspected introspected;
+   private final AttributeInfo[] attributes;
+   private final int[] kinds;
+   /**
+    * Position of the values within a row, after the null bits.
+    */
+   private final int[] positions;
+   private final int nullBytes;
+   private final Map<String, Integer> propertyIndexes = new HashMap<>();
+   private final int rowWidth;
+   private final int rowsPerSegment;
+   private final int[] idIndexes;
+   private final boolean numericId;
+
+   private final StampedLock lock = new StampedLock();
+   private volatile ByteBuffer[] rowSegments = new ByteBuffer[0];
+   private volatile int size;
+   private volatile ByteBuffer[] stringSegments = new ByteBuffer[0];
+   /**
+    * Address of the next string: segment index * SEGMENT_BYTES + position.
+    */
+   private long stringAddress;
+   private long orphanedStringBytes;
+   private StringIndex stringIndex = new StringIndex(1024);
+   private volatile Object[] objects = new Object[16];
+   private int[] objectReferences = new int[16];
+   private int objectCount;
+   private int[] freeObjectCodes = new int[16];
+   private int freeObjectCount;
+   private final Map<Object, Integer> objectCodes = new HashMap<>();
+   /**
+    * String addresses and dictionary codes of the row being replaced, released after storing the new values.
+    */
+   private final int[] replacedStrings;
+   private final int[] replacedObjects;
+   private volatile LongIndex longIndex;
+   private final Map<Object, Integer> heapIndex;
+
+   private RowStore(final Class<T> clazz) {
+      this.clazz = clazz;
+      this.introspected = Introspected.getInstance(clazz);
+      final List<AttributeInfo> stored = new ArrayList<>();
+      for (final AttributeInfo info : introspected.getSelectableFcInfos()) {
+         if (!info.isJoinFieldWithSecondTable() && (!info.isJoinColumn || info.isSelfJoinField())) {
+            stored.add(info);
+         }
+      }
+      attributes = stored.toArray(new AttributeInfo[0]);
+      kinds = new int[attributes.length];
+      positions = new int[attributes.length];
+      nullBytes = (attributes.length + 7) / 8;
+      int position = nullBytes;
+      for (int i = 0; i < attributes.length; i++) {
+         kinds[i] = kindOf(attributes[i]);
+         positions[i] = position;
+         position += WIDTHS[kinds[i]];
+         propertyIndexes.put(attributes[i].getName(), i);
+      }
+      rowWidth = Math.max(position, 1);
+      replacedStrings = new int[attributes.length];
+      replacedObjects = new int[attributes.length];
+      rowsPerSegment = Math.max(1, SEGMENT_BYTES / rowWidth);
+
+      final List<AttributeInfo> idInfos = introspected.getIdFcInfos();
+      if (idInfos.isEmpty()) {
+         throw new IllegalArgumentException(clazz.getName() + " has no id");
+      }
+      idIndexes = new int[idInfos.size()];
+      for (int i = 0; i < idIndexes.length; i++) {
+         idIndexes[i] = Arrays.asList(attributes).indexOf(idInfos.get(i));
+      }
+      final int idKind = kinds[idIndexes[0]];
+      numericId = idIndexes.length == 1 && (idKind == BYTE || idKind == SHORT || idKind == INT || idKind == LONG);
+      heapIndex = numericId ? null : new ConcurrentHashMap<>();
+   }
+
+   /**
+    * Read all rows of the table entities of clazz are mapped to.
+    */
+   public static <T> RowStore<T> load(final Class<T> clazz) {
+      return SqlClosure.sqlExecute(connection -> load(connection, clazz));
+   }
+
+   public static <T> RowStore<T> load(final Connection connection, final Class<T> clazz) throws SQLException {
+      final RowStore<T> store = new RowStore<>(clazz);
+      store.read(connection, null);
+      return store;
+   }
+
+   /**
+    * Reload the rows selected by clause, e.g. {@code "UPDATED_AT > ?"}. Rows with a known id are replaced, others are added.
+    *
+    * @return number of rows read.
+    */
+   public int refresh(final String clause, final Object... args) {
+      return SqlClosure.sqlExecute(connection -> refresh(connection, clause, args));
+   }
+
+   public int refresh(final Connection connection, final String clause, final Object... args) throws SQLException {
+      return read(connection, clause, args);
+   }
+
+   public int size() {
+      return size;
+   }
+
+   /**
+    * @return bytes allocated outside the heap for rows, strings and the index.
+    */
+   public long getOffHeapBytes() {
+      long bytes = 0;
+      for (final ByteBuffer segment : rowSegments) {
+         bytes += segment.capacity();
+      }
+      for (final ByteBuffer segment : stringSegments) {
+         bytes += segment.capacity();
+      }
+      bytes += stringIndex.capacity() * 8L;
+      final LongIndex index = longIndex;
+      return index == null ? bytes : bytes + index.capacity() * 12L;
+   }
+
+   /**
+    * @return bytes of the string area in use, including those no longer referenced.
+    */
+   long getStringAreaBytes() {
+      return stringAddress;
+   }
+
+   /**
+    * @return number of values in the heap dictionary.
+    */
+   int getDictionarySize() {
+      return objectCodes.size();
+   }
+
+   public boolean contains(final Object... ids) {
+      long stamp = lock.tryOptimisticRead();
+      try {
+         final boolean found = find(ids) >= 0;
+         if (lock.validate(stamp)) {
+            return found;
+         }
+      }
+      catch (RuntimeException e) {
+         // Inconsistent state read while refreshing.
+      }
+      stamp = lock.readLock();
+      try {
+         return find(ids) >= 0;
+      }
+      finally {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * @return a new entity with the stored values. Null if there is no row with this id.
+    */
+   @SuppressWarnings("unchecked")
+   public T get(final Object... ids) {
+      final Object[] values = readRow(ids);
+      if (values == null) {
+         return null;
+      }
+      try {
+         if (introspected.isConstructorInstantiated()) {
+            final Object[] args = new Object[introspected.getConstructorParameterCount()];
+            for (int i = 0; i < attributes.length; i++) {
+               if (attributes[i].constructorParameterIndex >= 0) {
+                  args[attributes[i].constructorParameterIndex] = values[i];
+               }
+            }
+            return (T) introspected.newInstance(args);
+         }
+         final T entity = (T) introspected.newInstance();
+         for (int i = 0; i < attributes.length; i++) {
+            if (values[i] != null) {
+               attributes[i].setValue(entity, values[i]);
+            }
+         }
+         return entity;
+      }
+      catch (IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * @return a new flyweight to read single attributes. Not thread-safe, use one per thread.
+    */
+   public View view() {
+      return new View();
+   }
+
+   /**
+    * Flyweight positioned on one row with {@link #moveTo(Object...)}.
+    */
+   public final class View {
+      private int row = -1;
+
+      private View() {
+      }
+
+      /**
+       * @return false if there is no row with this id.
+       */
+      public boolean moveTo(final Object... ids) {
+         long stamp = lock.tryOptimisticRead();
+         int found = -1;
+         try {
+            found = find(ids);
+         }
+         catch (RuntimeException e) {
+            stamp = 0;
+         }
+         if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+               found = find(ids);
+            }
+            finally {
+               lock.unlockRead(stamp);
+            }
+         }
+         row = found;
+         return found >= 0;
+      }
+
+      /**
+       * @return the value of property in the current row, null in case of SQL NULL.
+       */
+      public Object get(final String property) {
+         if (row < 0) {
+            throw new IllegalStateException("Not positioned on a row");
+         }
+         final int attribute = attributeIndex(property);
+         long stamp = lock.tryOptimisticRead();
+         try {
+            final Object value = readValue(row, attribute);
+            if (lock.validate(stamp)) {
+               return value;
+            }
+         }
+         catch (RuntimeException e) {
+            // Inconsistent state read while refreshing.
+         }
+         stamp = lock.readLock();
+         try {
+            return readValue(row, attribute);
+         }
+         finally {
+            lock.unlockRead(stamp);
+         }
+      }
+
+      public long getLong(final String property) {
+         final Object value = get(property);
+         return value == null ? 0 : ((Number) value).longValue();
+      }
+
+      public int getInt(final String property) {
+         final Object value = get(property);
+         return value == null ? 0 : ((Number) value).intValue();
+      }
+
+      public double getDouble(final String property) {
+         final Object value = get(property);
+         return value == null ? 0 : ((Number) value).doubleValue();
+      }
+
+      public boolean getBoolean(final String property) {
+         return Boolean.TRUE.equals(get(property));
+      }
+
+      public String getString(final String property) {
+         final Object value = get(property);
+         return value == null ? null : value.toString();
+      }
+   }
+
+   private int attributeIndex(final String property) {
+      final Integer index = propertyIndexes.get(property);
+      if (index == null) {
+         throw new IllegalArgumentException(clazz.getName() + " has no stored property " + property);
+      }
+      return index;
+   }
+
+   private Object[] readRow(final Object[] ids) {
+      long stamp = lock.tryOptimisticRead();
+      try {
+         final Object[] values = readRowUnlocked(ids);
+         if (lock.validate(stamp)) {
+            return values;
+         }
+      }
+      catch (RuntimeException e) {
+         // Inconsistent state read while refreshing.
+      }
+      stamp = lock.readLock();
+      try {
+         return readRowUnlocked(ids);
+      }
+      finally {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   private Object[] readRowUnlocked(final Object[] ids) {
+      final int row = find(ids);
+      if (row < 0) {
+         return null;
+      }
+      final Object[] values = new Object[attributes.length];
+      for (int i = 0; i < attributes.length; i++) {
+         values[i] = readValue(row, i);
+      }
+      return values;
+   }
+
+   private int find(final Object[] ids) {
+      if (ids.length != idIndexes.length) {
+         throw new IllegalArgumentException(clazz.getName() + " has " + idIndexes.length + " id attributes, got " + ids.length + " values");
+      }
+      if (numericId) {
+         final LongIndex index = longIndex;
+         return index == null || ids[0] == null ? -1 : index.get(((Number) ids[0]).longValue());
+      }
+      final Integer row = heapIndex.get(indexKey(ids));
+      return row == null ? -1 : row;
+   }
+
+   private static Object indexKey(final Object[] ids) {
+      if (ids.length == 1) {
+         return EntityCache.normalize(ids[0]);
+      }
+      final Object[] key = new Object[ids.length];
+      for (int i = 0; i < ids.length; i++) {
+         key[i] = EntityCache.normalize(ids[i]);
+      }
+      return Arrays.asList(key);
+   }
+
+   private int read(final Connection connection, final String clause, final Object... args) throws SQLException {
+      final String sql = OrmReader.generateSelectFromWhereClause(clazz, clause, true);
+      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
+         stmt.setFetchSize(FETCH_SIZE);
+         OrmBase.populateStatementParameters(stmt, args);
+         try (final ResultSet resultSet = stmt.executeQuery()) {
+            if (!resultSet.next()) {
+               return 0;
+            }
+            final ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, Collections.emptySet());
+            final Object[] values = new Object[attributes.length];
+            int count = 0;
+            do {
+               final T entity = processor.processCurrentRow(clazz);
+               for (int i = 0; i < attributes.length; i++) {
+                  values[i] = attributes[i].getValue(entity);
+               }
+               final long stamp = lock.writeLock();
+               try {
+                  store(values);
+               }
+               finally {
+                  lock.unlockWrite(stamp);
+               }
+               count++;
+            } while (resultSet.next());
+            if (orphanedStringBytes >= MIN_COMPACTION_BYTES && orphanedStringBytes * 2 > stringAddress) {
+               final long stamp = lock.writeLock();
+               try {
+                  compactStrings();
+               }
+               finally {
+                  lock.unlockWrite(stamp);
+               }
+            }
+            return count;
+         }
+      }
+      catch (IllegalAccessException | InvocationTargetException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private void store(final Object[] values) {
+      final Object[] ids = new Object[idIndexes.length];
+      for (int i = 0; i < ids.length; i++) {
+         ids[i] = values[idIndexes[i]];
+      }
+      int row = find(ids);
+      final boolean replacing = row >= 0;
+      if (row < 0) {
+         row = size;
+         if (row / rowsPerSegment >= rowSegments.length) {
+            final ByteBuffer[] segments = Arrays.copyOf(rowSegments, rowSegments.length + 1);
+            segments[segments.length - 1] = ByteBuffer.allocateDirect(rowsPerSegment * rowWidth);
+            rowSegments = segments;
+         }
+         index(ids, row);
+         size = row + 1;
+      }
+      final ByteBuffer segment = rowSegments[row / rowsPerSegment];
+      final int base = (row % rowsPerSegment) * rowWidth;
+      if (replacing) {
+         collectReferences(segment, base);
+      }
+      for (int i = 0; i < nullBytes; i++) {
+         segment.put(base + i, (byte) 0);
+      }
+      for (int i = 0; i < attributes.length; i++) {
+         final Object value = values[i];
+         if (value == null) {
+            segment.put(base + i / 8, (byte) (segment.get(base + i / 8) | (1 << (i % 8))));
+         }
+         else {
+            writeValue(segment, base + positions[i], kinds[i], value);
+         }
+      }
+      // Released after storing, so unchanged values are not orphaned in between.
+      if (replacing) {
+         for (int i = 0; i < attributes.length; i++) {
+            if (replacedStrings[i] >= 0) {
+               releaseString(replacedStrings[i]);
+            }
+            if (replacedObjects[i] >= 0) {
+               releaseObject(replacedObjects[i]);
+            }
+         }
+      }
+   }
+
+   private void collectReferences(final ByteBuffer segment, final int base) {
+      for (int i = 0; i < attributes.length; i++) {
+         replacedStrings[i] = -1;
+         replacedObjects[i] = -1;
+         if ((segment.get(base + i / 8) & (1 << (i % 8))) != 0) {
+            continue;
+         }
+         final int position = base + positions[i];
+         if (kinds[i] == STRING) {
+            replacedStrings[i] = segment.getInt(position);
+         }
+         else if (kinds[i] == OBJECT) {
+            replacedObjects[i] = segment.getInt(position);
+         }
+         else if (kinds[i] == DECIMAL && segment.getInt(position + 8) == DICTIONARY_SCALE) {
+            replacedObjects[i] = (int) segment.getLong(position);
+         }
+      }
+   }
+
+   private void index(final Object[] ids, final int row) {
+      if (numericId) {
+         LongIndex index = longIndex;
+         if (index == null || (size + 1) * 2L > index.capacity()) {
+            final LongIndex grown = new LongIndex(Math.max(1024, index == null ? 0 : index.capacity() * 2));
+            if (index != null) {
+               index.copyTo(grown);
+            }
+            longIndex = index = grown;
+         }
+         index.put(((Number) ids[0]).longValue(), row);
+      }
+      else {
+         heapIndex.put(indexKey(ids), row);
+      }
+   }
+
+   private void writeValue(final ByteBuffer segment, final int position, final int kind, final Object value) {
+      switch (kind) {
+      case BOOLEAN:
+         segment.put(position, (byte) ((Boolean) value ? 1 : 0));
+         break;
+      case BYTE:
+         segment.put(position, (Byte) value);
+         break;
+      case SHORT:
+         segment.putShort(position, (Short) value);
+         break;
+      case CHAR:
+         segment.putChar(position, (Character) value);
+         break;
+      case INT:
+         segment.putInt(position, (Integer) value);
+         break;
+      case FLOAT:
+         segment.putFloat(position, (Float) value);
+         break;
+      case LONG:
+         segment.putLong(position, (Long) value);
+         break;
+      case DOUBLE:
+         segment.putDouble(position, (Double) value);
+         break;
+      case STRING:
+         segment.putInt(position, stringCode((String) value));
+         break;
+      case DATE:
+         segment.putLong(position, ((java.util.Date) value).getTime());
+         break;
+      case LOCAL_DATE:
+         segment.putLong(position, ((LocalDate) value).toEpochDay());
+         break;
+      case TIMESTAMP:
+         final Instant instant = value instanceof Timestamp ? ((Timestamp) value).toInstant()
+            : value instanceof LocalDateTime ? ((LocalDateTime) value).toInstant(ZoneOffset.UTC)
+            : (Instant) value;
+         segment.putLong(position, instant.getEpochSecond());
+         segment.putInt(position + 8, instant.getNano());
+         break;
+      case DECIMAL:
+         final BigDecimal decimal = (BigDecimal) value;
+         if (decimal.unscaledValue().bitLength() < 64 && decimal.scale() != DICTIONARY_SCALE) {
+            segment.putLong(position, decimal.unscaledValue().longValue());
+            segment.putInt(position + 8, decimal.scale());
+         }
+         else {
+            segment.putLong(position, objectCode(value));
+            segment.putInt(position + 8, DICTIONARY_SCALE);
+         }
+         break;
+      default:
+         segment.putInt(position, objectCode(value));
+      }
+   }
+
+   private Object readValue(final int row, final int attribute) {
+      final ByteBuffer segment = rowSegments[row / rowsPerSegment];
+      final int base = (row % rowsPerSegment) * rowWidth;
+      if ((segment.get(base + attribute / 8) & (1 << (attribute % 8))) != 0) {
+         return null;
+      }
+      final int position = base + positions[attribute];
+      switch (kinds[attribute]) {
+      case BOOLEAN:
+         return segment.get(position) != 0;
+      case BYTE:
+         return segment.get(position);
+      case SHORT:
+         return segment.getShort(position);
+      case CHAR:
+         return segment.getChar(position);
+      case INT:
+         return segment.getInt(position);
+      case FLOAT:
+         return segment.getFloat(position);
+      case LONG:
+         return segment.getLong(position);
+      case DOUBLE:
+         return segment.getDouble(position);
+      case STRING:
+         return readString(segment.getInt(position));
+      case DATE:
+         return newDate(attributes[attribute].getType(), segment.getLong(position));
+      case LOCAL_DATE:
+         return LocalDate.ofEpochDay(segment.getLong(position));
+      case TIMESTAMP:
+         return newTimestamp(attributes[attribute].getType(), segment.getLong(position), segment.getInt(position + 8));
+      case DECIMAL:
+         final int scale = segment.getInt(position + 8);
+         return scale == DICTIONARY_SCALE ? objects[(int) segment.getLong(position)] : BigDecimal.valueOf(segment.getLong(position), scale);
+      default:
+         return objects[segment.getInt(position)];
+      }
+   }
+
+   private static Object newDate(final Class<?> type, final long millis) {
+      if (type == java.sql.Date.class) {
+         return new java.sql.Date(millis);
+      }
+      if (type == Time.class) {
+         return new Time(millis);
+      }
+      return new java.util.Date(millis);
+   }
+
+   private static Object newTimestamp(final Class<?> type, final long epochSecond, final int nanos) {
+      if (type == LocalDateTime.class) {
+         return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+      }
+      final Instant instant = Instant.ofEpochSecond(epochSecond, nanos);
+      return type == Timestamp.class ? Timestamp.from(instant) : instant;
+   }
+
+   /**
+    * @return the address of value in the string area, with its reference count incremented.
+    */
+   private int stringCode(final String value) {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      final int hash = value.hashCode();
+      final int known = stringIndex.get(hash, bytes, stringSegments);
+      if (known >= 0) {
+         final ByteBuffer segment = stringSegments[known / SEGMENT_BYTES];
+         final int position = known % SEGMENT_BYTES;
+         final int references = segment.getInt(position + 4);
+         if (references == 0) {
+            orphanedStringBytes -= STRING_HEADER + bytes.length;
+         }
+         segment.putInt(position + 4, references + 1);
+         return known;
+      }
+      final int address = appendString(bytes, 1);
+      if ((stringIndex.count() + 1) * 2L > stringIndex.capacity()) {
+         final StringIndex grown = new StringIndex(stringIndex.capacity() * 2);
+         stringIndex.copyTo(grown);
+         stringIndex = grown;
+      }
+      stringIndex.put(hash, address);
+      return address;
+   }
+
+   private int appendString(final byte[] bytes, final int references) {
+      if (bytes.length + STRING_HEADER > SEGMENT_BYTES) {
+         throw new IllegalArgumentException("String of " + bytes.length + " bytes exceeds the segment size of " + SEGMENT_BYTES);
+      }
+      int segmentIndex = (int) (stringAddress / SEGMENT_BYTES);
+      int position = (int) (stringAddress % SEGMENT_BYTES);
+      if (segmentIndex < stringSegments.length && position + bytes.length + STRING_HEADER > SEGMENT_BYTES) {
+         segmentIndex++;
+         position = 0;
+      }
+      if (segmentIndex >= stringSegments.length) {
+         final ByteBuffer[] segments = Arrays.copyOf(stringSegments, segmentIndex + 1);
+         segments[segmentIndex] = ByteBuffer.allocateDirect(SEGMENT_BYTES);
+         stringSegments = segments;
+      }
+      final long address = (long) segmentIndex * SEGMENT_BYTES + position;
+      if (address > Integer.MAX_VALUE) {
+         throw new IllegalStateException("String area of " + clazz.getName() + " is full");
+      }
+      final ByteBuffer segment = stringSegments[segmentIndex].duplicate();
+      segment.position(position);
+      segment.putInt(bytes.length);
+      segment.putInt(references);
+      segment.put(bytes);
+      stringAddress = address + STRING_HEADER + bytes.length;
+      return (int) address;
+   }
+
+   /**
+    * Decrement the reference count of the string at address. Strings no longer referenced stay indexed, they are revived if stored again before the next compaction.
+    */
+   private void releaseString(final int address) {
+      final ByteBuffer segment = stringSegments[address / SEGMENT_BYTES];
+      final int position = address % SEGMENT_BYTES;
+      final int references = segment.getInt(position + 4) - 1;
+      segment.putInt(position + 4, references);
+      if (references == 0) {
+         orphanedStringBytes += STRING_HEADER + segment.getInt(position);
+      }
+   }
+
+   /**
+    * Copy the referenced strings into a new string area and point the rows to them. Requires the write lock.
+    */
+   private void compactStrings() {
+      final ByteBuffer[] oldSegments = stringSegments;
+      stringSegments = new ByteBuffer[0];
+      stringAddress = 0;
+      stringIndex = new StringIndex(stringIndex.capacity());
+      final Map<Integer, Integer> moved = new HashMap<>();
+      for (int row = 0; row < size; row++) {
+         final ByteBuffer segment = rowSegments[row / rowsPerSegment];
+         final int base = (row % rowsPerSegment) * rowWidth;
+         for (int i = 0; i < attributes.length; i++) {
+            if (kinds[i] != STRING || (segment.get(base + i / 8) & (1 << (i % 8))) != 0) {
+               continue;
+            }
+            final int oldAddress = segment.getInt(base + positions[i]);
+            Integer address = moved.get(oldAddress);
+            if (address == null) {
+               final ByteBuffer oldSegment = oldSegments[oldAddress / SEGMENT_BYTES].duplicate();
+               oldSegment.position(oldAddress % SEGMENT_BYTES);
+               final byte[] bytes = new byte[oldSegment.getInt()];
+               final int references = oldSegment.getInt();
+               oldSegment.get(bytes);
+               address = appendString(bytes, references);
+               stringIndex.put(new String(bytes, StandardCharsets.UTF_8).hashCode(), address);
+               moved.put(oldAddress, address);
+            }
+            segment.putInt(base + positions[i], address);
+         }
+      }
+      orphanedStringBytes = 0;
+   }
+
+   private String readString(final int address) {
+      final ByteBuffer segment = stringSegments[address / SEGMENT_BYTES].duplicate();
+      segment.position(address % SEGMENT_BYTES);
+      final int length = segment.getInt();
+      if (length < 0 || length > segment.remaining() - 4) {
+         // An address read while compacting.
+         throw new IllegalStateException("Invalid string address " + address);
+      }
+      final byte[] bytes = new byte[length];
+      segment.position(segment.position() + 4);
+      segment.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   /**
+    * @return the dictionary code of value, with its reference count incremented.
+    */
+   private int objectCode(final Object value) {
+      final Integer known = objectCodes.get(value);
+      if (known != null) {
+         objectReferences[known]++;
+         return known;
+      }
+      final int code;
+      Object[] values = objects;
+      if (freeObjectCount > 0) {
+         code = freeObjectCodes[--freeObjectCount];
+      }
+      else {
+         code = objectCount++;
+         if (code == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+            objectReferences = Arrays.copyOf(objectReferences, values.length);
+         }
+      }
+      values[code] = value;
+      objects = values;
+      objectReferences[code] = 1;
+      objectCodes.put(value, code);
+      return code;
+   }
+
+   /**
+    * Decrement the reference count of the dictionary value of code. Codes no longer referenced are reused.
+    */
+   private void releaseObject(final int code) {
+      if (--objectReferences[code] == 0) {
+         objectCodes.remove(objects[code]);
+         objects[code] = null;
+         if (freeObjectCount == freeObjectCodes.length) {
+            freeObjectCodes = Arrays.copyOf(freeObjectCodes, freeObjectCodes.length * 2);
+         }
+         freeObjectCodes[freeObjectCount++] = code;
+      }
+   }
+
+   private static int kindOf(final AttributeInfo info) {
+      final Class<?> type = info.getType();
+      if (info.getConverter() != null || info.isSelfJoinField()) {
+         return OBJECT;
+      }
+      if (type == boolean.class || type == Boolean.class) {
+         return BOOLEAN;
+      }
+      if (type == byte.class || type == Byte.class) {
+         return BYTE;
+      }
+      if (type == short.class || type == Short.class) {
+         return SHORT;
+      }
+      if (type == char.class || type == Character.class) {
+         return CHAR;
+      }
+      if (type == int.class || type == Integer.class) {
+         return INT;
+      }
+      if (type == float.class || type == Float.class) {
+         return FLOAT;
+      }
+      if (type == long.class || type == Long.class) {
+         return LONG;
+      }
+      if (type == double.class || type == Double.class) {
+         return DOUBLE;
+      }
+      if (type == String.class) {
+         return STRING;
+      }
+      if (type == java.util.Date.class || type == java.sql.Date.class || type == Time.class) {
+         return DATE;
+      }
+      if (type == LocalDate.class) {
+         return LOCAL_DATE;
+      }
+      if (type == Timestamp.class || type == Instant.class || type == LocalDateTime.class) {
+         return TIMESTAMP;
+      }
+      if (type == BigDecimal.class) {
+         return DECIMAL;
+      }
+      return OBJECT;
+   }
+
+   /**
+    * Open addressing hash index of the strings in the string area, by {@link String#hashCode()}, in a direct buffer. Slots hold the hash and the address + 1, 0 if the slot is empty.
+    */
+   private static final class StringIndex {
+      private final ByteBuffer slots;
+      private final int mask;
+      private int count;
+
+      StringIndex(final int capacity) {
+         slots = ByteBuffer.allocateDirect(capacity * 8);
+         mask = capacity - 1;
+      }
+
+      int capacity() {
+         return mask + 1;
+      }
+
+      int count() {
+         return count;
+      }
+
+      /**
+       * @return the address of the string encoded as bytes, -1 if not present.
+       */
+      int get(final int hash, final byte[] bytes, final ByteBuffer[] segments) {
+         for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            final int address = slots.getInt(slot * 8 + 4) - 1;
+            if (address < 0) {
+               return -1;
+            }
+            if (slots.getInt(slot * 8) == hash && equal(segments[address / SEGMENT_BYTES], address % SEGMENT_BYTES, bytes)) {
+               return address;
+            }
+         }
+      }
+
+      void put(final int hash, final int address) {
+         int slot = spread(hash) & mask;
+         while (slots.getInt(slot * 8 + 4) != 0) {
+            slot = (slot + 1) & mask;
+         }
+         slots.putInt(slot * 8, hash);
+         slots.putInt(slot * 8 + 4, address + 1);
+         count++;
+      }
+
+      void copyTo(final StringIndex target) {
+         for (int slot = 0; slot <= mask; slot++) {
+            final int address = slots.getInt(slot * 8 + 4);
+            if (address != 0) {
+               target.put(slots.getInt(slot * 8), address - 1);
+            }
+         }
+      }
+
+      private static boolean equal(final ByteBuffer segment, final int position, final byte[] bytes) {
+         if (segment.getInt(position) != bytes.length) {
+            return false;
+         }
+         for (int i = 0; i < bytes.length; i++) {
+            if (segment.get(position + STRING_HEADER + i) != bytes[i]) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+      private static int spread(final int hash) {
+         return hash ^ (hash >>> 16);
+      }
+   }
+
+   /**
+    * Open addressing hash index of long keys to row numbers in direct buffers.
+    */
+   private static final class LongIndex {
+      private final ByteBuffer keys;
+      /**
+       * Row number + 1, 0 if the slot is empty.
+       */
+      private final ByteBuffer rows;
+      private final int mask;
+
+      LongIndex(final int capacity) {
+         keys = ByteBuffer.allocateDirect(capacity * 8);
+         rows = ByteBuffer.allocateDirect(capacity * 4);
+         mask = capacity - 1;
+      }
+
+      int capacity() {
+         return mask + 1;
+      }
+
+      int get(final long key) {
+         for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            final int row = rows.getInt(slot * 4);
+            if (row == 0) {
+               return -1;
+            }
+            if (keys.getLong(slot * 8) == key) {
+               return row - 1;
+            }
+         }
+      }
+
+      void put(final long key, final int row) {
+         int slot = hash(key) & mask;
+         while (rows.getInt(slot * 4) != 0 && keys.getLong(slot * 8) != key) {
+            slot = (slot + 1) & mask;
+         }
+         keys.putLong(slot * 8, key);
+         rows.putInt(slot * 4, row + 1);
+      }
+
+      void copyTo(final LongIndex target) {
+         for (int slot = 0; slot <= mask; slot++) {
+            final int row = rows.getInt(slot * 4);
+            if (row != 0) {
+               target.put(keys.getLong(slot * 8), row - 1);
+            }
+         }
+      }
+
+      private static int hash(final long key) {
+         long h = key * 0x9E3779B97F4A7C15L;
+         return (int) (h ^ (h >>> 32));
+      }
+   }
+}
@@ -0,0 +1,197 @@
+package com.zaxxer.q2o;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column definitions of the mapped tables as read once per table with {@link DatabaseMetaData#getColumns(String, String, String, String)}. Used instead of {@link java.sql.ParameterMetaData} and {@link java.sql.ResultSetMetaData#getColumnTypeName(int)}, which are network round trips with some drivers, e.g. jTDS.
+ * <p>
+ * Disabled by default. See {@link q2o#setSchemaCatalogEnabled(boolean)}.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class SchemaCatalog {
+
+   private static final Logger logger = LoggerFactory.getLogger(SchemaCatalog.class);
+
+   /**
+    * Key: table name as mapped, without delimiters. Value: column definitions keyed case insensitive by column name. Empty if the table was not found in the database meta data.
+    */
+   private static final Map<String, Map<String, Column>> tables = new ConcurrentHashMap<>();
+   private static volatile boolean enabled;
+
+   static final class Column {
+      final int sqlType;
+      final String typeName;
+      final boolean nullable;
+      final int size;
+
+      Column(final int sqlType, final String typeName, final boolean nullable, final int size) {
+         this.sqlType = sqlType;
+         this.typeName = typeName;
+         this.nullable = nullable;
+         this.size = size;
+      }
+   }
+
+   private SchemaCatalog() {
+   }
+
+   static boolean isEnabled() {
+      return enabled;
+   }
+
+   static void setEnabled(final boolean enabled) {
+      SchemaCatalog.enabled = enabled;
+      if (!enabled) {
+         tables.clear();
+      }
+   }
+
+   /**
+    * Drop all column definitions. They are read again on next use.
+    */
+   static void refresh() {
+      tables.clear();
+   }
+
+   static void refresh(final String tableName) {
+      tables.remove(tableName);
+   }
+
+   static void load(final Connection connection, final String tableName) throws SQLException {
+      final Map<String, Column> columns = readColumns(connection, tableName);
+      if (columns != null) {
+         tables.put(tableName, columns);
+      }
+   }
+
+   /**
+    * @return null if the catalog is disabled or a column is unknown. Otherwise the JDBC types of the fcInfos not excluded, followed by the types of the id columns if withIds is true.
+    */
+   static int[] getParameterTypes(final Connection connection, final Introspected introspected, final AttributeInfo[] fcInfos, final Set<String> excludedColumns, final boolean withIds) throws SQLException {
+      if (!enabled) {
+         return null;
+      }
+      final Map<String, Column> columns = getColumns(connection, introspected.getTableName());
+      if (columns.isEmpty()) {
+         return null;
+      }
+      int count = 0;
+      for (final AttributeInfo fcInfo : fcInfos) {
+         if (excludedColumns == null || !OrmBase.isIgnoredColumn(excludedColumns, fcInfo.getColumnName())) {
+            count++;
+         }
+      }
+      final AttributeInfo[] idFcInfos = withIds ? introspected.getIdFcInfos().toArray(new AttributeInfo[0]) : new AttributeInfo[0];
+      final int[] parameterTypes = new int[count + idFcInfos.length];
+      int i = 0;
+      for (final AttributeInfo fcInfo : fcInfos) {
+         if (excludedColumns == null || !OrmBase.isIgnoredColumn(excludedColumns, fcInfo.getColumnName())) {
+            final Column column = columns.get(fcInfo.getColumnName());
+            if (column == null) {
+               return null;
+            }
+            parameterTypes[i++] = column.sqlType;
+         }
+      }
+      for (final AttributeInfo idFcInfo : idFcInfos) {
+         final Column column = columns.get(idFcInfo.getColumnName());
+         if (column == null) {
+            return null;
+         }
+         parameterTypes[i++] = column.sqlType;
+      }
+      return parameterTypes;
+   }
+
+   /**
+    * Does not read the meta data of tables not loaded yet because there is no connection at hand while mapping result sets.
+    *
+    * @return null if the catalog is disabled or the column is unknown.
+    */
+   static String getColumnTypeName(final AttributeInfo fcInfo, final Introspected introspected) {
+      if (!enabled) {
+         return null;
+      }
+      final String tableName = fcInfo.getTableName().isEmpty() && introspected != null
+         ? introspected.getTableName()
+         : fcInfo.getTableName();
+      final Map<String, Column> columns = tables.get(tableName);
+      final Column column = columns != null ? columns.get(fcInfo.getColumnName()) : null;
+      return column != null ? column.typeName : null;
+   }
+
+   static Map<String, Column> getColumns(final Connection connection, final String tableName) throws SQLException {
+      Map<String, Column> columns = tables.get(tableName);
+      if (columns == null) {
+         columns = readColumns(connection, tableName);
+         if (columns == null) {
+            return Collections.emptyMap();
+         }
+         final Map<String, Column> concurrentlyRead = tables.putIfAbsent(tableName, columns);
+         if (concurrentlyRead != null) {
+            columns = concurrentlyRead;
+         }
+      }
+      return columns;
+   }
+
+   /**
+    * @return null if the connection provides no meta data.
+    */
+   private static Map<String, Column> readColumns(final Connection connection, final String tableName) throws SQLException {
+      final DatabaseMetaData metaData = connection.getMetaData();
+      if (metaData == null) {
+         return null;
+      }
+      final int dot = tableName.lastIndexOf('.');
+      final String schema = dot > 0 ? unquote(tableName.substring(0, dot)) : null;
+      final String table = dot > 0 ? unquote(tableName.substring(dot + 1)) : tableName;
+      // Unquoted identifiers are stored in the case the database prefers.
+      Map<String, Column> columns = readColumns(metaData, schema, table);
+      if (columns.isEmpty() && metaData.storesUpperCaseIdentifiers()) {
+         columns = readColumns(metaData, schema == null ? null : schema.toUpperCase(), table.toUpperCase());
+      }
+      else if (columns.isEmpty() && metaData.storesLowerCaseIdentifiers()) {
+         columns = readColumns(metaData, schema == null ? null : schema.toLowerCase(), table.toLowerCase());
+      }
+      if (columns.isEmpty()) {
+         logger.debug("No columns found for table {}", tableName);
+         return Collections.emptyMap();
+      }
+      return Collections.unmodifiableMap(columns);
+   }
+
+   private static Map<String, Column> readColumns(final DatabaseMetaData metaData, final String schema, final String table) throws SQLException {
+      final Map<String, Column> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      try (final ResultSet resultSet = metaData.getColumns(null, schema, table, null)) {
+         while (resultSet.next()) {
+            // Tables of the same name in different schemas: the first one wins.
+            columns.putIfAbsent(resultSet.getString("COLUMN_NAME"), new Column(
+               resultSet.getInt("DATA_TYPE"),
+               resultSet.getString("TYPE_NAME"),
+               resultSet.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls,
+               resultSet.getInt("COLUMN_SIZE")));
+         }
+      }
+      return columns;
+   }
+
+   private static String unquote(final String identifier) {
+      return identifier.startsWith("\"") && identifier.endsWith("\"")
+         ? identifier.substring(1, identifier.length() - 1)
+         : identifier;
+   }
+}
@@ -16,13 +16,31 @@
 
 package com.zaxxer.q2o;
 
+import com.zaxxer.q2o.transaction.TxTransaction;
+import com.zaxxer.q2o.transaction.TxTransactionManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.Transaction;
+import jakarta.transaction.TransactionManager;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * The {@code SqlClosure} class provides a convenient way to execute SQL
@@ -38,12 +56,31 @@ public class SqlClosure<T> {
     * Only set with Spring Support activated.
     */
    private static volatile SQLExceptionTranslator defaultExceptionTranslator;
+   /**
+    * Runs closures passed to {@link #submit()}. Created on first use if not set.
+    */
+   private static final AtomicReference<Executor> executor = new AtomicReference<>();
+   private static volatile RetryPolicy defaultRetryPolicy;
+   private static volatile ReadReplicas readReplicas;
+   private static volatile Bulkhead defaultBulkhead;
+   private static final Map<DataSource, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+   /**
+    * {@link Long#MAX_VALUE} for none.
+    */
+   private static volatile long defaultTimeoutNanos = Long.MAX_VALUE;
+   /**
+    * The executor created by q2o, shut down when replaced.
+    */
+   private static volatile ExecutorService ownExecutor;
    private DataSource dataSource;
    /**
     * Only set with Spring Support activated.
     */
    private SQLExceptionTranslator exceptionTranslator;
    private Object[] args;
+   private RetryPolicy retryPolicy;
+   private boolean readOnly;
+   private long timeoutNanos;
 
    private static Logger logger = LoggerFactory.getLogger(SqlClosure.class);
 
@@ -105,13 +142,35 @@ public class SqlClosure<T> {
          }
       }
       else {
-         this.dataSource = dataSource;
+         // The DataSource q2o was initialized with is used wrapped by the statement cache.
+         this.dataSource = defaultDataSource != null && dataSource == PreparedStatementCache.unwrap(defaultDataSource) ? defaultDataSource : dataSource;
          if (isSpringTxAware) {
             exceptionTranslator = newSpringExceptionTranslator(dataSource);
          }
       }
    }
 
+   /**
+    * @return null without {@link TxTransactionManager} or active transaction.
+    */
+   private static TxTransaction activeTxTransaction() {
+      final TransactionManager transactionManager = TransactionHelper.getTransactionManager();
+      if (!(transactionManager instanceof TxTransactionManager)) {
+         return null;
+      }
+      try {
+         final Transaction transaction = transactionManager.getTransaction();
+         if (!(transaction instanceof TxTransaction)) {
+            return null;
+         }
+         final int status = transaction.getStatus();
+         return status == Status.STATUS_ACTIVE || status == Status.STATUS_MARKED_ROLLBACK ? (TxTransaction) transaction : null;
+      }
+      catch (SystemException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @NotNull
    private static SQLExceptionTranslator newSpringExceptionTranslator(@NotNull final DataSource dataSource) {
       return new SQLExceptionTranslatorSpring(dataSource);
@@ -138,6 +197,77 @@ public class SqlClosure<T> {
       defaultDataSource = ds;
    }
 
+   /**
+    * @param executor null to use a default executor on the next submit.
+    */
+   static void setExecutor(final Executor executor) {
+      final Executor previous = SqlClosure.executor.getAndSet(executor);
+      final ExecutorService own = ownExecutor;
+      if (previous != null && previous == own) {
+         ownExecutor = null;
+         // Running closures complete.
+         own.shutdown();
+      }
+   }
+
+   /**
+    * Use a fixed pool of daemon threads.
+    */
+   static void setExecutorThreads(final int threads) {
+      setOwnExecutor(Executors.newFixedThreadPool(threads, newThreadFactory()));
+   }
+
+   /**
+    * Use a virtual thread per closure.
+    *
+    * @throws UnsupportedOperationException with JDKs before 21.
+    */
+   static void useVirtualThreads() {
+      setOwnExecutor(VirtualThreads.newExecutor());
+   }
+
+   /**
+    * @param created by q2o, shut down when replaced.
+    */
+   private static void setOwnExecutor(final ExecutorService created) {
+      setExecutor(created);
+      ownExecutor = created;
+   }
+
+   static Executor getExecutor() {
+      final Executor current = executor.get();
+      if (current != null) {
+         return current;
+      }
+      final ExecutorService created = newDefaultExecutor();
+      if (executor.compareAndSet(null, created)) {
+         ownExecutor = created;
+      }
+      else {
+         created.shutdown();
+      }
+      return executor.get();
+   }
+
+   /**
+    * Virtual threads if available, daemon threads otherwise. Both unbounded: closures wait for a connection from the pool.
+    */
+   private static ExecutorService newDefaultExecutor() {
+      if (VirtualThreads.isSupported()) {
+         return VirtualThreads.newExecutor();
+      }
+      return Executors.newCachedThreadPool(newThreadFactory());
+   }
+
+   private static ThreadFactory newThreadFactory() {
+      final AtomicInteger threadCount = new AtomicInteger();
+      return runnable -> {
+         final Thread thread = new Thread(runnable, "q2o-" + threadCount.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      };
+   }
+
    static void activateSpringDefaultExceptionTranslator(@NotNull DataSource dataSource) {
       defaultExceptionTranslator = newSpringExceptionTranslator(dataSource);
    }
@@ -171,6 +301,112 @@ public class SqlClosure<T> {
       }.execute();
    }
 
+   /**
+    * Execute a lambda {@code SqlFunction} closure within a time limit. See {@link #setTimeout(Duration)}.
+    *
+    * @param timeout the time limit
+    * @param functional the lambda function
+    * @param <V> the result type
+    * @return the result specified by the lambda
+    */
+   public static <V> V sqlExecute(final Duration timeout, final SqlFunction<V> functional) {
+      final SqlClosure<V> closure = new SqlClosure<V>() {
+         @Override
+         public V execute(Connection connection) throws SQLException {
+            return functional.execute(connection);
+         }
+      };
+      closure.setTimeout(timeout);
+      return closure.execute();
+   }
+
+   /**
+    * Execute a lambda {@code SqlFunction} closure only reading. See {@link #setReadOnly(boolean)}.
+    *
+    * @param functional the lambda function
+    * @param <V> the result type
+    * @return the result specified by the lambda
+    */
+   public static <V> V sqlExecuteReadOnly(final SqlFunction<V> functional) {
+      return readOnly(functional).execute();
+   }
+
+   static <V> CompletableFuture<V> sqlExecuteReadOnlyAsync(final SqlFunction<V> functional) {
+      return readOnly(functional).submit();
+   }
+
+   private static <V> SqlClosure<V> readOnly(final SqlFunction<V> functional) {
+      final SqlClosure<V> closure = new SqlClosure<V>() {
+         @Override
+         public V execute(Connection connection) throws SQLException {
+            return functional.execute(connection);
+         }
+      };
+      closure.readOnly = true;
+      return closure;
+   }
+
+   /**
+    * Execute a lambda {@code SqlFunction} closure in a nested transaction of the current one: a savepoint on its connection. If the closure fails, only its changes are rolled back and the exception is rethrown, the enclosing transaction stays active. Use it e.g. to process items of a large batch in one transaction, skipping failed ones.
+    * <p>
+    * Supported with {@link q2o#initializeTxSimple(DataSource)}. Without active transaction, or with other transaction managers, it is the same as {@link #sqlExecute(SqlFunction)}. With Spring use {@code TransactionDefinition.PROPAGATION_NESTED}.
+    * </p>
+    *
+    * @param functional the lambda function
+    * @param <V> the result type
+    * @return the result specified by the lambda
+    */
+   public static <V> V sqlExecuteNested(final SqlFunction<V> functional) {
+      final TxTransaction transaction = isSpringTxAware ? null : activeTxTransaction();
+      if (transaction == null) {
+         return sqlExecute(functional);
+      }
+      final int level = transaction.getNestingLevel() + 1;
+      UnitOfWork.flush();
+      TransactionHelper.beginNested();
+      final V result;
+      try {
+         // A failing closure ends the nested transaction with TransactionHelper.rollback().
+         result = sqlExecute(functional);
+         if (transaction.getNestingLevel() == level) {
+            UnitOfWork.flush();
+         }
+      }
+      catch (Throwable e) {
+         if (transaction.getNestingLevel() == level) {
+            TransactionHelper.rollback();
+         }
+         UnitOfWork.discard();
+         IdentityMap.clear();
+         throw e;
+      }
+      if (transaction.getNestingLevel() == level) {
+         TransactionHelper.commit();
+      }
+      else {
+         // Ended by a failed closure the functional caught.
+         UnitOfWork.discard();
+         IdentityMap.clear();
+      }
+      return result;
+   }
+
+   /**
+    * Execute a lambda {@code SqlFunction} closure on another thread. See {@link #submit()}.
+    *
+    * @param functional the lambda function
+    * @param <V> the result type
+    * @return the future result specified by the lambda
+    */
+   public static <V> CompletableFuture<V> sqlExecuteAsync(final SqlFunction<V> functional) {
+      return new SqlClosure<V>() {
+         @Override
+         public V execute(Connection connection) throws SQLException {
+            return functional.execute(connection);
+         }
+      }.submit();
+   }
+
    /**
     * Execute a lambda {@code SqlVarArgsFunction} closure.
     *
@@ -238,12 +474,60 @@ public class SqlClosure<T> {
     * @return the template return type of the closure
     */
    public final T execute() {
+      final RetryPolicy policy = retryPolicy != null ? retryPolicy : defaultRetryPolicy;
+      final boolean startsTransaction = startsTransaction();
+      // Closures joining a transaction are part of the one that started it.
+      final boolean metered = startsTransaction && Metrics.isEnabled();
+      final long start = metered ? System.nanoTime() : 0;
+      boolean failed = true;
+      try {
+         final T result = policy != null && startsTransaction ? policy.execute(this) : executeOnce();
+         failed = false;
+         return result;
+      }
+      finally {
+         if (metered) {
+            Metrics.get().recordClosure(System.nanoTime() - start, failed);
+         }
+      }
+   }
+
+   final T executeOnce() {
+      // Within a transaction closures see the writes deferred before.
+      UnitOfWork.flush();
+      final ReadReplicas replicas = readReplicas;
+      if (readOnly && replicas != null && !isSpringTxAware && dataSource == defaultDataSource && startsTransaction()) {
+         final int replica = replicas.acquire();
+         try {
+            return ReadReplicas.execute(() -> executeLimited(bulkheads.get(replicas.getConfigured(replica)), () -> executeAutoCommit(replicas.get(replica))));
+         }
+         finally {
+            replicas.release(replica);
+         }
+      }
+      return executeLimited(dataSource == defaultDataSource ? defaultBulkhead : bulkheads.get(dataSource), this::executeOnPrimary);
+   }
+
+   private T executeLimited(final Bulkhead bulkhead, final Supplier<T> execution) {
+      if (bulkhead == null) {
+         return execution.get();
+      }
+      bulkhead.acquire(readOnly);
+      try {
+         return execution.get();
+      }
+      finally {
+         bulkhead.release();
+      }
+   }
+
+   private T executeOnPrimary() {
       if (!isSpringTxAware) {
          if (TransactionHelper.hasTransactionManager()) {
             return executeInTx();
          }
          else {
-            return executeAutoCommit();
+            return executeAutoCommit(dataSource);
          }
       }
       else {
@@ -251,18 +535,134 @@ public class SqlClosure<T> {
       }
    }
 
+   /**
+    * Retry this closure as specified by policy instead of the default set with {@link q2o#setRetryPolicy(RetryPolicy)}.
+    *
+    * @param policy null to use the default.
+    */
+   public final void setRetryPolicy(final RetryPolicy policy) {
+      this.retryPolicy = policy;
+   }
+
+   /**
+    * Mark this closure as only reading. Outside a transaction it is executed on one of the replicas set with {@link q2o#setReadReplicas(ReplicaSelection, DataSource...)}, if any, in auto-commit mode. Within a transaction, with Spring support or with a DataSource of its own it is executed as any other closure.
+    */
+   public final void setReadOnly(final boolean readOnly) {
+      this.readOnly = readOnly;
+   }
+
+   /**
+    * Limit the execution time of this closure, including a transaction it starts. Statements get the remaining time as query timeout. On expiry executing statements are cancelled and the transaction is rolled back. Closures executed within get the remaining time too, a transaction timeout set with {@link com.zaxxer.q2o.transaction.TxTransactionManager#setTransactionTimeout(int)} may shorten it.
+    *
+    * @param timeout null to use the default set with {@link q2o#setDefaultTimeout(Duration)}.
+    */
+   public final void setTimeout(final Duration timeout) {
+      this.timeoutNanos = timeout == null ? 0 : nanos(timeout);
+   }
+
+   static void setDefaultTimeout(final Duration timeout) {
+      defaultTimeoutNanos = timeout == null ? Long.MAX_VALUE : nanos(timeout);
+   }
+
+   private static long nanos(final Duration timeout) {
+      if (timeout.isNegative() || timeout.isZero()) {
+         throw new IllegalArgumentException("timeout must be positive: " + timeout);
+      }
+      try {
+         return timeout.toNanos();
+      }
+      catch (ArithmeticException e) {
+         return Long.MAX_VALUE;
+      }
+   }
+
+   /**
+    * @return {@link Long#MAX_VALUE} without timeout.
+    */
+   private long timeoutNanos() {
+      return timeoutNanos != 0 ? timeoutNanos : defaultTimeoutNanos;
+   }
+
+   /**
+    * @param replicas null to execute read-only closures on the primary.
+    */
+   static void setReadReplicas(final ReadReplicas replicas) {
+      readReplicas = replicas;
+   }
+
+   /**
+    * @param bulkhead null to remove the bulkhead of the default DataSource.
+    */
+   static void setDefaultBulkhead(final Bulkhead bulkhead) {
+      defaultBulkhead = bulkhead;
+   }
+
+   /**
+    * @param bulkhead null to remove the bulkhead of dataSource.
+    */
+   static void setBulkhead(final DataSource dataSource, final Bulkhead bulkhead) {
+      if (bulkhead == null) {
+         bulkheads.remove(dataSource);
+      }
+      else {
+         bulkheads.put(dataSource, bulkhead);
+      }
+   }
+
+   static void clearBulkheads() {
+      defaultBulkhead = null;
+      bulkheads.clear();
+   }
+
+   static void setDefaultRetryPolicy(final RetryPolicy policy) {
+      defaultRetryPolicy = policy;
+   }
+
+   /**
+    * @return false if the closure joins a transaction.
+    */
+   private static boolean startsTransaction() {
+      if (isSpringTxAware) {
+         return !TransactionSynchronizationManager.isActualTransactionActive();
+      }
+      return !TransactionHelper.hasTransactionManager() || !TransactionHelper.isInTransaction();
+   }
+
+   /**
+    * Execute the closure on another thread of the executor set with {@link q2o#setExecutor(Executor)}.
+    * <p>
+    * The closure does not join a transaction of the submitting thread, a JDBC connection must not be used by several threads at a time. It runs in a transaction of its own, or in auto-commit mode without transaction manager. Commit or rollback happen before the future completes.
+    * </p><p>
+    * {@link CompletableFuture#cancel(boolean)} cancels the executing statements with {@link Statement#cancel()}, the transaction of the closure is rolled back. A closure cancelled before it started is not executed.
+    * </p>
+    *
+    * @return the future result of {@link #execute()}
+    */
+   public final CompletableFuture<T> submit() {
+      return SqlFuture.submit(this, getExecutor());
+   }
+
    private T executeWithSpringSupport() {
       Connection connection = null;
+      final Deadline deadline = Deadline.start(timeoutNanos());
       try {
+         final JfrEvents.ConnectionAcquireEvent event = new JfrEvents.ConnectionAcquireEvent();
+         event.start();
          connection = DataSourceUtils.getConnection(dataSource);
+         event.emit(dataSource);
+         // Released unwrapped, Spring compares it with the one bound to the transaction.
+         final Connection tracked = Deadline.track(SqlFuture.track(connection));
          return (args == null)
-            ? execute(connection)
-            : execute(connection, args);
+            ? execute(tracked)
+            : execute(tracked, args);
       }
       catch (SQLException e) {
          throw exceptionTranslator.translate("", null, e);
       }
       finally {
+         if (deadline != null) {
+            deadline.end();
+         }
          if (connection != null) {
             DataSourceUtils.releaseConnection(connection, dataSource);
          }
@@ -337,11 +737,12 @@ public class SqlClosure<T> {
 //      }
 //   }
 
-   private T executeAutoCommit() {
+   private T executeAutoCommit(final DataSource dataSource) {
       Connection connection = null;
       Boolean origAutoCommit = null;
+      final Deadline deadline = Deadline.start(timeoutNanos());
       try {
-         connection = dataSource.getConnection();
+         connection = Deadline.track(SqlFuture.track(acquire(dataSource)));
          origAutoCommit = connection.getAutoCommit();
          if (!origAutoCommit) {
             connection.setAutoCommit(true);
@@ -367,7 +768,10 @@ public class SqlClosure<T> {
          throw e;
       }
       finally {
-         if (origAutoCommit != null) {
+         if (deadline != null) {
+            deadline.end();
+         }
+         if (origAutoCommit != null && !origAutoCommit) {
             try {
                connection.setAutoCommit(origAutoCommit);
             }
@@ -383,9 +787,17 @@ public class SqlClosure<T> {
       boolean failed = false;
       Connection connection;
       boolean isNewTransaction = false;
+      TxTransaction joined = null;
+      int level = 0;
+      Deadline deadline = null;
       try {
          isNewTransaction = TransactionHelper.beginOrJoinTransaction();
-         connection = dataSource.getConnection();
+         if (!isNewTransaction) {
+            joined = activeTxTransaction();
+            level = joined == null ? 0 : joined.getNestingLevel();
+         }
+         deadline = Deadline.start(timeoutNanos());
+         connection = Deadline.track(SqlFuture.track(acquire(dataSource)));
          connection.setAutoCommit(false);
          return (args == null)
             ? execute(connection)
@@ -397,21 +809,44 @@ public class SqlClosure<T> {
             e = e.getNextException();
          }
          failed = true;
-         TransactionHelper.rollback();
+         rollback(joined, level);
          throw new RuntimeException(e);
       }
       catch (Throwable e) {
          failed = true;
-         TransactionHelper.rollback();
+         rollback(joined, level);
          throw e;
       }
       finally {
+         if (deadline != null) {
+            deadline.end();
+         }
          if (isNewTransaction && !failed) {
             TransactionHelper.commit();
          }
       }
    }
 
+   /**
+    * Records the wait for the connection as {@link JfrEvents.ConnectionAcquireEvent}.
+    */
+   private static Connection acquire(final DataSource dataSource) throws SQLException {
+      final JfrEvents.ConnectionAcquireEvent event = new JfrEvents.ConnectionAcquireEvent();
+      event.start();
+      final Connection connection = dataSource.getConnection();
+      event.emit(dataSource);
+      return connection;
+   }
+
+   /**
+    * A nested transaction already rolled back by a failed inner closure is not rolled back again: the enclosing transaction stays active.
+    */
+   private static void rollback(final TxTransaction joined, final int level) {
+      if (joined == null || joined.getNestingLevel() == level) {
+         TransactionHelper.rollback();
+      }
+   }
+
    private void releaseLocksOnError(final Connection connection, final Throwable e)
    {
       try {
@@ -0,0 +1,87 @@
+package com.zaxxer.q2o;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Result of a closure executed on another thread. Cancelling it cancels the statements the closure is executing with {@link Statement#cancel()}, and statements prepared afterwards fail. A closure not yet started is not executed at all.
+ * <p>
+ * Statements are tracked on the connections of all closures executed on the thread of the closure, so q2o methods without connection parameter called within are covered, too.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class SqlFuture<T> extends CompletableFuture<T> {
+
+   private static final ThreadLocal<SqlFuture<?>> running = new ThreadLocal<>();
+
+   private final TrackedStatements statements = new TrackedStatements(this::admit, this::isCancelled);
+
+   private SqlFuture() {
+   }
+
+   static <T> SqlFuture<T> submit(final SqlClosure<T> closure, final Executor executor) {
+      final SqlFuture<T> future = new SqlFuture<>();
+      try {
+         executor.execute(() -> future.run(closure));
+      }
+      catch (RejectedExecutionException e) {
+         future.completeExceptionally(e);
+      }
+      return future;
+   }
+
+   private void run(final SqlClosure<T> closure) {
+      if (isDone()) {
+         return;
+      }
+      T result = null;
+      Throwable failure = null;
+      running.set(this);
+      try {
+         result = closure.execute();
+      }
+      catch (Throwable e) {
+         failure = e;
+      }
+      finally {
+         // Dependent stages run without tracking.
+         running.remove();
+         statements.clear();
+      }
+      if (failure != null) {
+         completeExceptionally(failure);
+      }
+      else {
+         complete(result);
+      }
+   }
+
+   @Override
+   public boolean cancel(final boolean mayInterruptIfRunning) {
+      final boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled) {
+         statements.cancelAll();
+      }
+      return cancelled;
+   }
+
+   /**
+    * @return connection itself if not called by a closure executed with a SqlFuture.
+    */
+   static Connection track(final Connection connection) {
+      final SqlFuture<?> future = running.get();
+      return future == null || connection == null ? connection : future.statements.wrap(connection);
+   }
+
+   private void admit(final Statement statement) throws SQLException {
+      if (isCancelled()) {
+         statement.close();
+         throw new SQLException("Cancelled");
+      }
+   }
+}
@@ -0,0 +1,274 @@
+package com.zaxxer.q2o;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of generated SQL, also backing the entity cache. Reads do not lock. Eviction follows W-TinyLFU: new entries enter a small FIFO admission window. An entry leaving the window competes with the oldest entry of the main FIFO queue and the one requested less often according to a count-min frequency sketch is evicted. So one-off statements, e.g. select clauses with inlined values, can not displace frequently used ones.
+ * <p>
+ * Maintenance runs on the thread adding an entry, if no other thread is doing it at the same time. While it runs the cache may exceed its capacity a little.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class StatementCache<K, V> {
+
+   /**
+    * Counters, possibly shared by several caches.
+    */
+   static final class Counters {
+      final LongAdder hits = new LongAdder();
+      final LongAdder misses = new LongAdder();
+      final LongAdder evictions = new LongAdder();
+      final LongAdder loadTimeNanos = new LongAdder();
+      /**
+       * Hits and misses are reported to {@link Metrics} as this cache. Null if not.
+       */
+      private final Q2oMetrics.Cache metricsCache;
+
+      Counters() {
+         this(null);
+      }
+
+      Counters(final Q2oMetrics.Cache metricsCache) {
+         this.metricsCache = metricsCache;
+      }
+
+      void hit() {
+         hits.increment();
+         if (metricsCache != null) {
+            Metrics.get().recordCacheAccess(metricsCache, true);
+         }
+      }
+
+      void miss() {
+         misses.increment();
+         if (metricsCache != null) {
+            Metrics.get().recordCacheAccess(metricsCache, false);
+         }
+      }
+
+      CacheStats snapshot() {
+         return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), loadTimeNanos.sum());
+      }
+
+      void reset() {
+         hits.reset();
+         misses.reset();
+         evictions.reset();
+         loadTimeNanos.reset();
+      }
+   }
+
+   private final int capacity;
+   private final int windowCapacity;
+   private final Map<K, V> data;
+   private final Queue<K> window = new ConcurrentLinkedQueue<>();
+   private final Queue<K> main = new ConcurrentLinkedQueue<>();
+   private final AtomicInteger windowSize = new AtomicInteger();
+   private final ReentrantLock maintenanceLock = new ReentrantLock();
+   private final FrequencySketch sketch;
+   private final Counters counters;
+
+   StatementCache(final int capacity, final Counters counters) {
+      this.capacity = Math.max(1, capacity);
+      this.windowCapacity = Math.max(1, this.capacity / 100);
+      this.data = new ConcurrentHashMap<>(Math.min(this.capacity, 64));
+      this.sketch = new FrequencySketch(this.capacity);
+      this.counters = counters;
+   }
+
+   V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+      sketch.increment(key);
+      V value = data.get(key);
+      if (value != null) {
+         counters.hit();
+         return value;
+      }
+      counters.miss();
+      value = mappingFunction.apply(key);
+      final V existing = data.putIfAbsent(key, value);
+      if (existing != null) {
+         return existing;
+      }
+      window.add(key);
+      windowSize.incrementAndGet();
+      maintain();
+      return value;
+   }
+
+   /**
+    * Does not count hits or misses.
+    *
+    * @return null if absent.
+    */
+   V getIfPresent(final K key) {
+      sketch.increment(key);
+      return data.get(key);
+   }
+
+   void put(final K key, final V value) {
+      if (data.put(key, value) == null) {
+         window.add(key);
+         windowSize.incrementAndGet();
+         maintain();
+      }
+   }
+
+   /**
+    * The key stays in the eviction queues until it reaches their head, where it is skipped.
+    */
+   void remove(final K key) {
+      data.remove(key);
+   }
+
+   int size() {
+      return data.size();
+   }
+
+   boolean containsKey(final K key) {
+      return data.containsKey(key);
+   }
+
+   void clear() {
+      maintenanceLock.lock();
+      try {
+         data.clear();
+         window.clear();
+         main.clear();
+         windowSize.set(0);
+         sketch.clear();
+      }
+      finally {
+         maintenanceLock.unlock();
+      }
+   }
+
+   /**
+    * A thread failing to get the lock leaves its work to the current holder, which checks for more work after unlocking.
+    */
+   private void maintain() {
+      while (windowSize.get() > windowCapacity && maintenanceLock.tryLock()) {
+         try {
+            K candidate;
+            while (windowSize.get() > windowCapacity && (candidate = window.poll()) != null) {
+               windowSize.decrementAndGet();
+               if (!data.containsKey(candidate)) {
+                  // Removed meanwhile.
+                  continue;
+               }
+               if (data.size() <= capacity || admit(candidate)) {
+                  main.add(candidate);
+               }
+            }
+         }
+         finally {
+            maintenanceLock.unlock();
+         }
+      }
+   }
+
+   /**
+    * TinyLFU admission: the candidate leaving the window competes with the oldest entry of main.
+    *
+    * @return true if the candidate is kept.
+    */
+   private boolean admit(final K candidate) {
+      K victim;
+      do {
+         victim = main.poll();
+         if (victim == null) {
+            return true;
+         }
+      } while (!data.containsKey(victim));
+      counters.evictions.increment();
+      if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+         data.remove(victim);
+         return true;
+      }
+      data.remove(candidate);
+      // The victim gets a second chance at the tail.
+      main.add(victim);
+      return false;
+   }
+
+   /**
+    * Count-min sketch with four hash functions and 4-bit counters, sixteen packed into a long. All counters are halved when the number of increments reaches ten times the capacity, so the popularity of past statements fades.
+    */
+   private static final class FrequencySketch {
+      private static final int[] SEEDS = {0x97cb3127, 0xb1a7d1c3, 0x8f3c5d2b, 0xc1f6e9a5};
+      private static final long MAX_COUNT = 15L;
+      private static final long RESET_MASK = 0x7777777777777777L;
+
+      private final AtomicLongArray table;
+      private final int mask;
+      private final int sampleSize;
+      private final AtomicInteger additions = new AtomicInteger();
+
+      FrequencySketch(final int capacity) {
+         final int length = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+         this.table = new AtomicLongArray(length);
+         this.mask = length - 1;
+         this.sampleSize = capacity * 10;
+      }
+
+      void increment(final Object key) {
+         final int hash = spread(key.hashCode());
+         boolean incremented = false;
+         for (final int seed : SEEDS) {
+            final int h = rehash(hash, seed);
+            final int index = h & mask;
+            final int shift = (h >>> 28) << 2;
+            final long word = table.get(index);
+            // A lost concurrent increment only makes the estimate a little less accurate.
+            if (((word >>> shift) & MAX_COUNT) < MAX_COUNT && table.compareAndSet(index, word, word + (1L << shift))) {
+               incremented = true;
+            }
+         }
+         if (incremented && additions.incrementAndGet() >= sampleSize) {
+            reset();
+         }
+      }
+
+      int frequency(final Object key) {
+         final int hash = spread(key.hashCode());
+         long frequency = MAX_COUNT;
+         for (final int seed : SEEDS) {
+            final int h = rehash(hash, seed);
+            frequency = Math.min(frequency, (table.get(h & mask) >>> ((h >>> 28) << 2)) & MAX_COUNT);
+         }
+         return (int) frequency;
+      }
+
+      void clear() {
+         for (int i = 0; i < table.length(); i++) {
+            table.set(i, 0L);
+         }
+         additions.set(0);
+      }
+
+      private void reset() {
+         additions.set(0);
+         for (int i = 0; i < table.length(); i++) {
+            table.set(i, (table.get(i) >>> 1) & RESET_MASK);
+         }
+      }
+
+      private static int rehash(final int hash, final int seed) {
+         final int h = (hash ^ seed) * 0x9e3779b9;
+         return h ^ (h >>> 15);
+      }
+
+      private static int spread(final int hashCode) {
+         final int h = hashCode * 0x85ebca6b;
+         return h ^ (h >>> 13);
+      }
+   }
+}
@@ -1,41 +1,42 @@
 package com.zaxxer.q2o;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import com.zaxxer.q2o.jdbc.DelegatingStatement;
+
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 
 /**
- * A non-closeable Statement.
+ * A non-closeable Statement. Closed immediately if it did not return a result set.
  *
  * @author Holger Thurow (thurow.h@gmail.com)
  * @since 19.01.20
  */
-class StatementProxy implements InvocationHandler {
-   private final Statement statement;
+class StatementProxy extends DelegatingStatement {
+   private final ConnectionProxy connection;
+   private boolean resultSetReturned;
 
-   public StatementProxy(Statement statement)
+   StatementProxy(ConnectionProxy connection, Statement statement)
    {
-      this.statement = statement;
+      super(statement);
+      this.connection = connection;
    }
 
    @Override
-   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+   protected ResultSet wrapResultSet(final ResultSet resultSet)
    {
-      Object ret = null;
-      if (!"close".equals(method.getName())) {
-         ret = method.invoke(statement, args);
-      }
-      if (ret instanceof ResultSet) {
-         ret = ResultSetProxy.wrap((ResultSet) ret);
+      if (resultSet == null) {
+         return null;
       }
-      return ret;
+      resultSetReturned = true;
+      return ResultSetProxy.wrap(resultSet);
    }
 
-   static Statement wrap(Statement statement)
+   @Override
+   public void close() throws SQLException
    {
-      StatementProxy statementProxy = new StatementProxy(statement);
-      return (Statement) Proxy.newProxyInstance(StatementProxy.class.getClassLoader(), new Class[]{Statement.class}, statementProxy);
+      if (!resultSetReturned) {
+         connection.close(delegate());
+      }
    }
 }
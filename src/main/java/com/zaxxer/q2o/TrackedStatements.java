@@ -0,0 +1,112 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.jdbc.DelegatingConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Statements created on connections wrapped with {@link #wrap(Connection)}, to cancel them from another thread, as done by {@link SqlFuture} and {@link Deadline}. Closed statements are pruned while statements are added, without blocking a cancelling thread.
+ *
+ * @since 19.10.26
+ */
+final class TrackedStatements {
+
+   private static final Logger logger = LoggerFactory.getLogger(TrackedStatements.class);
+   /**
+    * Closed statements are pruned when the set grows beyond.
+    */
+   private static final int PRUNE_SIZE = 32;
+
+   /**
+    * Checks and prepares a statement before it is tracked.
+    */
+   @FunctionalInterface
+   interface Admission {
+      /**
+       * @throws SQLException to reject statement, after closing it.
+       */
+      void admit(Statement statement) throws SQLException;
+   }
+
+   private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+   private final Admission admission;
+   private final BooleanSupplier cancelled;
+
+   /**
+    * @param cancelled whether {@link #cancelAll()} was called or is about to be. Statements added meanwhile are cancelled right away.
+    */
+   TrackedStatements(final Admission admission, final BooleanSupplier cancelled) {
+      this.admission = admission;
+      this.cancelled = cancelled;
+   }
+
+   Connection wrap(final Connection connection) {
+      return new DelegatingConnection(connection) {
+         @Override
+         protected Statement wrapStatement(final Statement statement) throws SQLException {
+            return add(statement);
+         }
+
+         @Override
+         protected PreparedStatement wrapPreparedStatement(final PreparedStatement statement) throws SQLException {
+            return add(statement);
+         }
+
+         @Override
+         protected CallableStatement wrapCallableStatement(final CallableStatement statement) throws SQLException {
+            return add(statement);
+         }
+      };
+   }
+
+   /**
+    * Cancel the statements not closed yet with {@link Statement#cancel()}.
+    */
+   void cancelAll() {
+      for (final Statement statement : statements) {
+         try {
+            if (!statement.isClosed()) {
+               statement.cancel();
+            }
+         }
+         catch (SQLException e) {
+            logger.debug("Statement not cancelled", e);
+         }
+      }
+   }
+
+   void clear() {
+      statements.clear();
+   }
+
+   private <S extends Statement> S add(final S statement) throws SQLException {
+      admission.admit(statement);
+      if (statements.size() >= PRUNE_SIZE) {
+         statements.removeIf(TrackedStatements::isClosed);
+      }
+      statements.add(statement);
+      if (cancelled.getAsBoolean()) {
+         // Cancelled while adding.
+         statement.cancel();
+      }
+      return statement;
+   }
+
+   private static boolean isClosed(final Statement statement) {
+      try {
+         return statement.isClosed();
+      }
+      catch (SQLException e) {
+         return true;
+      }
+   }
+}
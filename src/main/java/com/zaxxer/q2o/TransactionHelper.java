@@ -56,6 +56,24 @@ public final class TransactionHelper
       return transactionManager != null;
    }
 
+   static TransactionManager getTransactionManager()
+   {
+      return transactionManager;
+   }
+
+   /**
+    * @return true if the current thread is associated with a transaction.
+    */
+   static boolean isInTransaction()
+   {
+      try {
+         return userTransaction.getStatus() != Status.STATUS_NO_TRANSACTION;
+      }
+      catch (SystemException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    /**
     * Start or join a transaction.
     *
@@ -78,6 +96,19 @@ public final class TransactionHelper
       return newTransaction;
    }
 
+   /**
+    * Start a nested transaction within the current one. Supported by {@link com.zaxxer.q2o.transaction.TxTransactionManager}.
+    */
+   static void beginNested()
+   {
+      try {
+         userTransaction.begin();
+      }
+      catch (Exception e) {
+         throw new RuntimeException("Unable to start nested transaction.", e);
+      }
+   }
+
    /**
     * Commit the current transaction. When q2o has been initilaized with {@link q2o#initializeTxSimple(DataSource)} the connection is closed too.
     */
@@ -0,0 +1,141 @@
+package com.zaxxer.q2o;
+
+import jakarta.transaction.RollbackException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.Transaction;
+import jakarta.transaction.TransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Binds q2o internal state to the current transaction and notifies it on completion. Supports JTA transactions of the {@link TransactionManager} q2o was initialized with and Spring managed transactions.
+ *
+ * @since 19.10.26
+ */
+final class TxSynchronizations {
+
+   /**
+    * State bound to a transaction.
+    */
+   interface TxResource {
+      /**
+       * Called before commit of the transaction the resource is bound to, within the transaction.
+       */
+      default void beforeCommit() {
+      }
+
+      /**
+       * Called once after commit or rollback of the transaction the resource is bound to.
+       */
+      void afterCompletion(boolean committed);
+   }
+
+   private TxSynchronizations() {
+   }
+
+   /**
+    * @param factory null to only look up an existing resource.
+    * @return the resource bound to the current transaction under key, created with factory on first request. Null if there is no active transaction.
+    */
+   @SuppressWarnings("unchecked")
+   static <R extends TxResource> R getResource(final Object key, final Supplier<R> factory) {
+      if (SqlClosure.isSpringTxAware) {
+         return SpringResources.getResource(key, factory);
+      }
+      final TransactionManager transactionManager = TransactionHelper.getTransactionManager();
+      if (transactionManager == null) {
+         return null;
+      }
+      try {
+         final Transaction transaction = transactionManager.getTransaction();
+         if (transaction == null || transaction.getStatus() != Status.STATUS_ACTIVE) {
+            return null;
+         }
+         Resources resources = Resources.bound.get(transaction);
+         if (resources == null) {
+            if (factory == null) {
+               return null;
+            }
+            resources = new Resources(transaction);
+            transaction.registerSynchronization(resources);
+            Resources.bound.put(transaction, resources);
+         }
+         return (R) (factory == null ? resources.map.get(key) : resources.map.computeIfAbsent(key, k -> factory.get()));
+      }
+      catch (SystemException | RollbackException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * The resources of a JTA transaction.
+    */
+   private static final class Resources implements Synchronization {
+      /**
+       * Transactions are bound to a thread, but a transaction may be resumed on another thread.
+       */
+      static final Map<Transaction, Resources> bound = new ConcurrentHashMap<>();
+
+      private final Transaction transaction;
+      private final Map<Object, TxResource> map = new HashMap<>();
+
+      Resources(final Transaction transaction) {
+         this.transaction = transaction;
+      }
+
+      @Override
+      public void beforeCompletion() {
+         // Resources may be bound meanwhile.
+         for (final TxResource resource : new ArrayList<>(map.values())) {
+            resource.beforeCommit();
+         }
+      }
+
+      @Override
+      public void afterCompletion(final int status) {
+         bound.remove(transaction);
+         for (final TxResource resource : map.values()) {
+            resource.afterCompletion(status == Status.STATUS_COMMITTED);
+         }
+      }
+   }
+
+   /**
+    * Separate class so Spring, which is optional, is loaded only in Spring mode.
+    */
+   private static final class SpringResources {
+      @SuppressWarnings("unchecked")
+      static <R extends TxResource> R getResource(final Object key, final Supplier<R> factory) {
+         if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+         }
+         R resource = (R) TransactionSynchronizationManager.getResource(key);
+         if (resource == null && factory != null) {
+            final R newResource = factory.get();
+            TransactionSynchronizationManager.bindResource(key, newResource);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+               @Override
+               public void beforeCommit(final boolean readOnly) {
+                  newResource.beforeCommit();
+               }
+
+               @Override
+               public void afterCompletion(final int status) {
+                  TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                  newResource.afterCompletion(status == STATUS_COMMITTED);
+               }
+            });
+            resource = newResource;
+         }
+         return resource;
+      }
+   }
+}
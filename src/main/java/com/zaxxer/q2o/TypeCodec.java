@@ -0,0 +1,42 @@
+package com.zaxxer.q2o;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads and writes values of one Java type directly from a {@link ResultSet} and to a {@link PreparedStatement}. Unlike an {@link jakarta.persistence.AttributeConverter}, which is declared per attribute with {@code @Convert}, a codec applies to every attribute and parameter of its Java type. Register it with {@link TypeCodecs#register(Class, TypeCodec)}.
+ *
+ * @since 19.10.26
+ */
+public interface TypeCodec<T> {
+
+   /**
+    * @return the value of the column or null in case of SQL NULL.
+    */
+   T read(ResultSet resultSet, int columnIndex) throws SQLException;
+
+   /**
+    * @param value never null. SQL NULL is set by q2o.
+    * @param sqlType the {@link java.sql.Types} code of the parameter.
+    */
+   void write(PreparedStatement stmt, int parameterIndex, T value, int sqlType) throws SQLException;
+
+   /**
+    * Called once per result set before reading its columns, to resolve e.g. the capabilities of the driver once.
+    *
+    * @return the codec reading the values of resultSet. This codec by default.
+    */
+   default TypeCodec<T> forResultSet(ResultSet resultSet) throws SQLException {
+      return this;
+   }
+
+   /**
+    * Called once per statement before writing its parameters, to resolve e.g. the capabilities of the driver once.
+    *
+    * @return the codec writing the parameters of stmt. This codec by default.
+    */
+   default TypeCodec<T> forStatement(PreparedStatement stmt) throws SQLException {
+      return this;
+   }
+}
@@ -0,0 +1,98 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.converters.InputStreamCodec;
+import com.zaxxer.q2o.converters.InstantCodec;
+import com.zaxxer.q2o.converters.LocalDateCodec;
+import com.zaxxer.q2o.converters.LocalDateTimeCodec;
+import com.zaxxer.q2o.converters.OffsetDateTimeCodec;
+import com.zaxxer.q2o.converters.PathCodec;
+import com.zaxxer.q2o.converters.ReaderCodec;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global registry of {@link TypeCodec}s keyed by Java type and optionally by JDBC type. A codec registered for a particular {@link java.sql.Types} code takes precedence over the one registered for the Java type only. Attributes with an {@link jakarta.persistence.AttributeConverter} do not use codecs.
+ * <p>
+ * Builtin codecs: {@link LocalDate}, {@link LocalDateTime}, {@link Instant}, {@link OffsetDateTime} and the streaming LOB types {@link InputStream}, {@link Reader}, {@link Path}.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+public final class TypeCodecs {
+
+   /**
+    * JDBC type key of codecs registered for the Java type only.
+    */
+   private static final int ANY_SQL_TYPE = Integer.MIN_VALUE;
+   private static final Map<Class<?>, Map<Integer, TypeCodec<?>>> codecs = new ConcurrentHashMap<>();
+   /**
+    * Incremented with every change. Invalidates the codecs resolved per attribute.
+    */
+   static volatile int version;
+
+   static {
+      registerDefaults();
+   }
+
+   private TypeCodecs() {
+   }
+
+   public static <T> void register(final Class<T> javaType, final TypeCodec<T> codec) {
+      register(javaType, ANY_SQL_TYPE, codec);
+   }
+
+   /**
+    * @param sqlType the {@link java.sql.Types} code the codec is restricted to.
+    */
+   public static synchronized <T> void register(final Class<T> javaType, final int sqlType, final TypeCodec<T> codec) {
+      codecs.computeIfAbsent(javaType, type -> new ConcurrentHashMap<>()).put(sqlType, codec);
+      version++;
+   }
+
+   /**
+    * Remove all codecs of javaType, including builtin ones.
+    */
+   public static synchronized void unregister(final Class<?> javaType) {
+      codecs.remove(javaType);
+      version++;
+   }
+
+   /**
+    * Restore the builtin codecs and remove all others.
+    */
+   public static synchronized void reset() {
+      codecs.clear();
+      registerDefaults();
+   }
+
+   private static void registerDefaults() {
+      register(LocalDate.class, new LocalDateCodec());
+      register(LocalDateTime.class, new LocalDateTimeCodec());
+      register(Instant.class, new InstantCodec());
+      register(OffsetDateTime.class, new OffsetDateTimeCodec());
+      register(InputStream.class, new InputStreamCodec());
+      register(Reader.class, new ReaderCodec());
+      register(Path.class, new PathCodec());
+   }
+
+   /**
+    * @return null if there is no codec for javaType.
+    */
+   @SuppressWarnings("unchecked")
+   static TypeCodec<Object> lookup(final Class<?> javaType, final int sqlType) {
+      final Map<Integer, TypeCodec<?>> bySqlType = codecs.get(javaType);
+      if (bySqlType == null) {
+         return null;
+      }
+      final TypeCodec<?> codec = bySqlType.get(sqlType);
+      return (TypeCodec<Object>) (codec != null ? codec : bySqlType.get(ANY_SQL_TYPE));
+   }
+}
@@ -0,0 +1,273 @@
+package com.zaxxer.q2o;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transaction-scoped unit of work: {@link Q2Obj#insert(Object)}, {@link Q2Obj#update(Object)} and {@link Q2Obj#delete(Object)} called within a transaction are queued and flushed before commit, one JDBC batch per table and kind of write. Inserts and updates are executed parents first, deletes children first, as derived from the {@code @JoinColumn} attributes referencing other entity classes. A foreign key column mapped by an attribute of its own besides the join column attribute, and null, is set to the id of the referenced entity before the write, so ids generated by the flush are propagated. Repeated writes of the same instance collapse: an inserted instance is inserted with its state at flush time, updates are executed once, and an instance inserted and deleted again is not written at all.
+ * <p>
+ * Every q2o closure executed within the transaction flushes the queue first, so reads see the queued writes. The connection passed to the closure starting the transaction does not. Nested transactions flush at their begin and end, a rolled back one discards its queue.
+ * </p>
+ * <p>
+ * Disabled by default. See {@link q2o#setDeferredWrites(boolean)}.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+final class UnitOfWork implements TxSynchronizations.TxResource {
+
+   private static final Object TX_KEY = new Object();
+   private static volatile boolean enabled;
+
+   private enum Write { INSERT, UPDATE, DELETE }
+
+   /**
+    * Entity classes in order of their first write.
+    */
+   private Map<Class<?>, Queue> queues = new LinkedHashMap<>();
+
+   /**
+    * The writes of one entity class.
+    */
+   private static final class Queue {
+      final Map<Object, Write> writes = new IdentityHashMap<>();
+      final List<Object> order = new ArrayList<>();
+
+      List<Object> get(final Write write) {
+         final List<Object> objects = new ArrayList<>();
+         for (final Object object : order) {
+            if (writes.get(object) == write) {
+               objects.add(object);
+            }
+         }
+         return objects;
+      }
+   }
+
+   private UnitOfWork() {
+   }
+
+   static void setEnabled(final boolean enabled) {
+      UnitOfWork.enabled = enabled;
+   }
+
+   /**
+    * @return null outside transactions or if disabled.
+    */
+   private static UnitOfWork current() {
+      return enabled ? TxSynchronizations.getResource(TX_KEY, UnitOfWork::new) : null;
+   }
+
+   /**
+    * @return false if not queued, the caller writes object itself.
+    */
+   static boolean insert(final Object object) {
+      final UnitOfWork unitOfWork = current();
+      if (unitOfWork == null) {
+         return false;
+      }
+      final Queue queue = unitOfWork.queue(object);
+      final Write write = queue.writes.get(object);
+      // Deleted and inserted again: the row exists.
+      queue.writes.put(object, write == Write.DELETE ? Write.UPDATE : Write.INSERT);
+      return true;
+   }
+
+   static boolean update(final Object object) {
+      final UnitOfWork unitOfWork = current();
+      if (unitOfWork == null) {
+         return false;
+      }
+      final Queue queue = unitOfWork.queue(object);
+      final Write write = queue.writes.get(object);
+      if (write == Write.DELETE) {
+         throw new IllegalStateException("Update of deleted object: " + object);
+      }
+      if (write == null) {
+         queue.writes.put(object, Write.UPDATE);
+      }
+      EntityCache.invalidate(object.getClass(), Introspected.getInstance(object.getClass()).getActualIds(object));
+      return true;
+   }
+
+   static boolean delete(final Object object) {
+      final UnitOfWork unitOfWork = current();
+      if (unitOfWork == null) {
+         return false;
+      }
+      final Queue queue = unitOfWork.queue(object);
+      if (queue.writes.get(object) == Write.INSERT) {
+         queue.writes.remove(object);
+         queue.order.removeIf(o -> o == object);
+      }
+      else {
+         queue.writes.put(object, Write.DELETE);
+         EntityCache.invalidate(object.getClass(), Introspected.getInstance(object.getClass()).getActualIds(object));
+      }
+      return true;
+   }
+
+   /**
+    * Execute the writes queued in the current transaction.
+    */
+   static void flush() {
+      if (!enabled) {
+         return;
+      }
+      final UnitOfWork unitOfWork = TxSynchronizations.getResource(TX_KEY, null);
+      if (unitOfWork != null) {
+         unitOfWork.flushQueues();
+      }
+   }
+
+   /**
+    * Forget the writes queued in the current transaction.
+    */
+   static void discard() {
+      if (!enabled) {
+         return;
+      }
+      final UnitOfWork unitOfWork = TxSynchronizations.getResource(TX_KEY, null);
+      if (unitOfWork != null) {
+         unitOfWork.queues = new LinkedHashMap<>();
+      }
+   }
+
+   @Override
+   public void beforeCommit() {
+      flushQueues();
+   }
+
+   @Override
+   public void afterCompletion(final boolean committed) {
+   }
+
+   private Queue queue(final Object object) {
+      final Queue queue = queues.computeIfAbsent(object.getClass(), c -> new Queue());
+      if (!queue.writes.containsKey(object)) {
+         queue.order.add(object);
+      }
+      return queue;
+   }
+
+   private void flushQueues() {
+      if (queues.isEmpty()) {
+         return;
+      }
+      // Taken first: the closure flushing them joins the transaction.
+      final Map<Class<?>, Queue> flushed = queues;
+      queues = new LinkedHashMap<>();
+      final List<Class<?>> parentsFirst = sortByDependencies(flushed.keySet());
+      SqlClosure.sqlExecute(connection -> {
+         for (final Class<?> clazz : parentsFirst) {
+            insert(connection, clazz, setReferencedIds(clazz, flushed.get(clazz).get(Write.INSERT)));
+         }
+         for (final Class<?> clazz : parentsFirst) {
+            OrmWriter.updateListBatched(connection, setReferencedIds(clazz, flushed.get(clazz).get(Write.UPDATE)));
+         }
+         final List<Class<?>> childrenFirst = new ArrayList<>(parentsFirst);
+         Collections.reverse(childrenFirst);
+         for (final Class<?> clazz : childrenFirst) {
+            OrmWriter.deleteListBatched(connection, flushed.get(clazz).get(Write.DELETE));
+         }
+         return null;
+      });
+   }
+
+   private static void insert(final Connection connection, final Class<?> clazz, final List<Object> objects) throws SQLException {
+      if (objects.isEmpty()) {
+         return;
+      }
+      final Introspected introspected = Introspected.getInstance(clazz);
+      if (introspected.hasSelfJoinColumn()) {
+         // In order, one by one: a row may reference one inserted before.
+         OrmWriter.insertListNotBatched(connection, objects);
+      }
+      else {
+         OrmWriter.insertListBatched(connection, objects, true);
+      }
+      for (final Object object : objects) {
+         final Object[] ids = introspected.getActualIds(object);
+         EntityCache.invalidate(clazz, ids);
+         IdentityMap.written(object, ids);
+      }
+   }
+
+   private static List<Object> setReferencedIds(final Class<?> clazz, final List<Object> objects) {
+      if (objects.isEmpty()) {
+         return objects;
+      }
+      final Introspected introspected = Introspected.getInstance(clazz);
+      try {
+         for (final AttributeInfo joinInfo : introspected.getSelectableFcInfos()) {
+            if (!isReference(joinInfo)) {
+               continue;
+            }
+            final AttributeInfo columnInfo = introspected.getFieldColumnInfo(joinInfo.getJoinColumnName());
+            if (columnInfo == null || columnInfo.isJoinColumn) {
+               continue;
+            }
+            for (final Object object : objects) {
+               final Object referenced = joinInfo.getValue(object);
+               if (referenced != null && isUnset(columnInfo.getValue(object))) {
+                  final Object[] ids = Introspected.getInstance(referenced.getClass()).getActualIds(referenced);
+                  if (ids.length == 1 && !isUnset(ids[0])) {
+                     columnInfo.setValue(object, ids[0]);
+                  }
+               }
+            }
+         }
+      }
+      catch (IllegalAccessException | InvocationTargetException e) {
+         throw new RuntimeException(e);
+      }
+      return objects;
+   }
+
+   /**
+    * @return true if id is null, or 0 as with primitive id types before the id is known.
+    */
+   private static boolean isUnset(final Object id) {
+      return id == null || id instanceof Number && ((Number) id).longValue() == 0;
+   }
+
+   /**
+    * @return true with a {@code @JoinColumn} attribute referencing an entity of another class.
+    */
+   private static boolean isReference(final AttributeInfo attributeInfo) {
+      return attributeInfo.isJoinColumn && attributeInfo.isJoinFieldWithSecondTable() && attributeInfo.getType() == attributeInfo.getActualType();
+   }
+
+   /**
+    * @return classes referenced with a join column before the classes referencing them. Classes referencing each other are kept in order of their first write.
+    */
+   private static List<Class<?>> sortByDependencies(final Set<Class<?>> classes) {
+      final List<Class<?>> sorted = new ArrayList<>(classes.size());
+      final Set<Class<?>> visited = new HashSet<>();
+      for (final Class<?> clazz : classes) {
+         visit(clazz, classes, visited, sorted);
+      }
+      return sorted;
+   }
+
+   private static void visit(final Class<?> clazz, final Set<Class<?>> classes, final Set<Class<?>> visited, final List<Class<?>> sorted) {
+      if (!visited.add(clazz)) {
+         return;
+      }
+      for (final AttributeInfo attributeInfo : Introspected.getInstance(clazz).getSelectableFcInfos()) {
+         if (isReference(attributeInfo) && classes.contains(attributeInfo.getActualType())) {
+            visit(attributeInfo.getActualType(), classes, visited, sorted);
+         }
+      }
+      sorted.add(clazz);
+   }
+}
@@ -0,0 +1,46 @@
+package com.zaxxer.q2o;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads of JDK 21 and later. q2o is compiled for older JDKs, so they are looked up by reflection.
+ *
+ * @since 19.10.26
+ */
+final class VirtualThreads {
+
+   private static final Method NEW_EXECUTOR = lookUp();
+
+   private VirtualThreads() {
+   }
+
+   private static Method lookUp() {
+      try {
+         return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      }
+      catch (NoSuchMethodException e) {
+         return null;
+      }
+   }
+
+   static boolean isSupported() {
+      return NEW_EXECUTOR != null;
+   }
+
+   /**
+    * @throws UnsupportedOperationException with JDKs before 21.
+    */
+   static ExecutorService newExecutor() {
+      if (NEW_EXECUTOR == null) {
+         throw new UnsupportedOperationException("Virtual threads require JDK 21 or later, running on " + System.getProperty("java.version"));
+      }
+      try {
+         return (ExecutorService) NEW_EXECUTOR.invoke(null);
+      }
+      catch (ReflectiveOperationException e) {
+         throw new RuntimeException(e);
+      }
+   }
+}
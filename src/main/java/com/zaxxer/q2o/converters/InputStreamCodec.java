@@ -0,0 +1,40 @@
+package com.zaxxer.q2o.converters;
+
+import com.zaxxer.q2o.TypeCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps BLOB and binary columns to {@link InputStream} attributes. On read the column content is copied in chunks to a temporary file, which is deleted when the returned stream is closed. On write the stream is passed to the driver, which consumes it.
+ *
+ * @since 19.10.26
+ */
+public class InputStreamCodec implements TypeCodec<InputStream> {
+
+   @Override
+   public InputStream read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final InputStream in = resultSet.getBinaryStream(columnIndex);
+      if (in == null) {
+         return null;
+      }
+      try {
+         final Path file = LobFiles.copyToTempFile(in);
+         return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+      }
+      catch (IOException e) {
+         throw new SQLException("Could not buffer LOB of column " + columnIndex, e);
+      }
+   }
+
+   @Override
+   public void write(final PreparedStatement stmt, final int parameterIndex, final InputStream value, final int sqlType) throws SQLException {
+      stmt.setBinaryStream(parameterIndex, value);
+   }
+}
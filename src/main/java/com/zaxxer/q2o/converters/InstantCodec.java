@@ -0,0 +1,28 @@
+package com.zaxxer.q2o.converters;
+
+import com.zaxxer.q2o.TypeCodec;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * JDBC 4.2 defines no mapping for {@link Instant}, so it is read and written as {@link Timestamp}.
+ *
+ * @since 19.10.26
+ */
+public class InstantCodec implements TypeCodec<Instant> {
+
+   @Override
+   public Instant read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+      return timestamp != null ? timestamp.toInstant() : null;
+   }
+
+   @Override
+   public void write(final PreparedStatement stmt, final int parameterIndex, final Instant value, final int sqlType) throws SQLException {
+      stmt.setTimestamp(parameterIndex, Timestamp.from(value));
+   }
+}
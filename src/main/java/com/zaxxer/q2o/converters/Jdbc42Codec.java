@@ -0,0 +1,148 @@
+package com.zaxxer.q2o.converters;
+
+import com.zaxxer.q2o.TypeCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Wrapper;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base of the builtin java.time codecs. Uses {@link ResultSet#getObject(int, Class)} and {@link PreparedStatement#setObject(int, Object, int)} as introduced with JDBC 4.2. Drivers reporting them as not supported, by {@link SQLFeatureNotSupportedException} or {@link AbstractMethodError}, and for writing drivers of a JDBC version below 4.2, which may serialize the value instead, are remembered by their implementation class behind q2o's and pool wrappers and served by {@link #readLegacy(ResultSet, int)} and {@link #writeLegacy(PreparedStatement, int, Object)} from then on.
+ * <p>
+ * The driver is resolved by {@link #forResultSet(ResultSet)} and {@link #forStatement(PreparedStatement)}, once per result set and statement. {@link #read(ResultSet, int)} and {@link #write(PreparedStatement, int, Object, int)} of the codec itself resolve it on every call.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+abstract class Jdbc42Codec<T> implements TypeCodec<T> {
+
+   private static final Logger logger = LoggerFactory.getLogger(Jdbc42Codec.class);
+
+   private final Class<T> type;
+   private final Map<Class<?>, DriverCodec> driverCodecs = new ConcurrentHashMap<>();
+
+   Jdbc42Codec(final Class<T> type) {
+      this.type = type;
+   }
+
+   @Override
+   public T read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      return forResultSet(resultSet).read(resultSet, columnIndex);
+   }
+
+   @Override
+   public void write(final PreparedStatement stmt, final int parameterIndex, final T value, final int sqlType) throws SQLException {
+      forStatement(stmt).write(stmt, parameterIndex, value, sqlType);
+   }
+
+   @Override
+   public TypeCodec<T> forResultSet(final ResultSet resultSet) {
+      return forDriver(driverClass(resultSet, ResultSet.class));
+   }
+
+   @Override
+   public TypeCodec<T> forStatement(final PreparedStatement stmt) {
+      final DriverCodec codec = forDriver(driverClass(stmt, PreparedStatement.class));
+      if (codec.jdbc42Writes == null) {
+         codec.jdbc42Writes = isJdbc42(stmt);
+      }
+      return codec;
+   }
+
+   private DriverCodec forDriver(final Class<?> driverClass) {
+      final DriverCodec codec = driverCodecs.get(driverClass);
+      return codec != null ? codec : driverCodecs.computeIfAbsent(driverClass, DriverCodec::new);
+   }
+
+   /**
+    * This codec for the drivers of one implementation class.
+    */
+   private final class DriverCodec implements TypeCodec<T> {
+      private final Class<?> driverClass;
+      private volatile boolean legacyReads;
+      /**
+       * Null until a statement of the driver was seen.
+       */
+      private volatile Boolean jdbc42Writes;
+
+      DriverCodec(final Class<?> driverClass) {
+         this.driverClass = driverClass;
+      }
+
+      @Override
+      public T read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+         if (!legacyReads) {
+            try {
+               return resultSet.getObject(columnIndex, type);
+            }
+            catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+               logger.debug("{} does not support getObject(int, {})", driverClass, type.getSimpleName());
+               legacyReads = true;
+            }
+         }
+         return readLegacy(resultSet, columnIndex);
+      }
+
+      @Override
+      public void write(final PreparedStatement stmt, final int parameterIndex, final T value, final int sqlType) throws SQLException {
+         if (Boolean.TRUE.equals(jdbc42Writes)) {
+            try {
+               stmt.setObject(parameterIndex, value, sqlType);
+               return;
+            }
+            // Not any SQLException: a rejected value or a closed statement must not downgrade the driver for good.
+            catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+               logger.debug("{} does not support setObject(int, {}, int)", driverClass, type.getSimpleName());
+               jdbc42Writes = false;
+            }
+         }
+         writeLegacy(stmt, parameterIndex, value);
+      }
+   }
+
+   private boolean isJdbc42(final PreparedStatement stmt) {
+      try {
+         final DatabaseMetaData metaData = stmt.getConnection().getMetaData();
+         final int major = metaData.getJDBCMajorVersion();
+         if (major > 4 || major == 4 && metaData.getJDBCMinorVersion() >= 2) {
+            return true;
+         }
+         logger.debug("{} implements JDBC {}.{}, writing {} the legacy way", metaData.getDriverName(), major, metaData.getJDBCMinorVersion(), type.getSimpleName());
+         return false;
+      }
+      catch (SQLException | AbstractMethodError e) {
+         return false;
+      }
+   }
+
+   /**
+    * @return the implementation class of the driver behind wrappers like q2o's statement cache, or of the innermost wrapper not unwrapping further.
+    */
+   private static Class<?> driverClass(final Wrapper wrapper, final Class<? extends Wrapper> iface) {
+      Wrapper current = wrapper;
+      try {
+         for (int depth = 0; depth < 8; depth++) {
+            final Wrapper unwrapped = current.unwrap(iface);
+            if (unwrapped == null || unwrapped == current) {
+               break;
+            }
+            current = unwrapped;
+         }
+      }
+      catch (SQLException | AbstractMethodError e) {
+         // Not a wrapper of iface.
+      }
+      return current.getClass();
+   }
+
+   abstract T readLegacy(ResultSet resultSet, int columnIndex) throws SQLException;
+
+   abstract void writeLegacy(PreparedStatement stmt, int parameterIndex, T value) throws SQLException;
+}
@@ -0,0 +1,54 @@
+package com.zaxxer.q2o.converters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copies LOB streams in chunks to temporary files, so they survive the result set and are never materialized on the heap.
+ *
+ * @since 19.10.26
+ */
+final class LobFiles {
+
+   static final int CHUNK_SIZE = 64 * 1024;
+
+   private LobFiles() {
+   }
+
+   static Path copyToTempFile(final InputStream in) throws IOException {
+      final Path file = Files.createTempFile("q2o-lob", ".bin");
+      try (InputStream source = in) {
+         Files.copy(source, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch (IOException | RuntimeException e) {
+         Files.deleteIfExists(file);
+         throw e;
+      }
+      return file;
+   }
+
+   /**
+    * @return file containing the characters UTF-8 encoded.
+    */
+   static Path copyToTempFile(final Reader in) throws IOException {
+      final Path file = Files.createTempFile("q2o-lob", ".txt");
+      try (Reader source = in; Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+         final char[] buffer = new char[CHUNK_SIZE / 2];
+         int read;
+         while ((read = source.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+         }
+      }
+      catch (IOException | RuntimeException e) {
+         Files.deleteIfExists(file);
+         throw e;
+      }
+      return file;
+   }
+}
@@ -0,0 +1,28 @@
+package com.zaxxer.q2o.converters;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * @since 19.10.26
+ */
+public class LocalDateCodec extends Jdbc42Codec<LocalDate> {
+
+   public LocalDateCodec() {
+      super(LocalDate.class);
+   }
+
+   @Override
+   LocalDate readLegacy(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final Date date = resultSet.getDate(columnIndex);
+      return date != null ? date.toLocalDate() : null;
+   }
+
+   @Override
+   void writeLegacy(final PreparedStatement stmt, final int parameterIndex, final LocalDate value) throws SQLException {
+      stmt.setDate(parameterIndex, Date.valueOf(value));
+   }
+}
@@ -0,0 +1,28 @@
+package com.zaxxer.q2o.converters;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * @since 19.10.26
+ */
+public class LocalDateTimeCodec extends Jdbc42Codec<LocalDateTime> {
+
+   public LocalDateTimeCodec() {
+      super(LocalDateTime.class);
+   }
+
+   @Override
+   LocalDateTime readLegacy(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+      return timestamp != null ? timestamp.toLocalDateTime() : null;
+   }
+
+   @Override
+   void writeLegacy(final PreparedStatement stmt, final int parameterIndex, final LocalDateTime value) throws SQLException {
+      stmt.setTimestamp(parameterIndex, Timestamp.valueOf(value));
+   }
+}
@@ -0,0 +1,31 @@
+package com.zaxxer.q2o.converters;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * Falls back to the JVM's default time zone with drivers not supporting JDBC 4.2.
+ *
+ * @since 19.10.26
+ */
+public class OffsetDateTimeCodec extends Jdbc42Codec<OffsetDateTime> {
+
+   public OffsetDateTimeCodec() {
+      super(OffsetDateTime.class);
+   }
+
+   @Override
+   OffsetDateTime readLegacy(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+      return timestamp != null ? timestamp.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime() : null;
+   }
+
+   @Override
+   void writeLegacy(final PreparedStatement stmt, final int parameterIndex, final OffsetDateTime value) throws SQLException {
+      stmt.setTimestamp(parameterIndex, Timestamp.from(value.toInstant()));
+   }
+}
@@ -0,0 +1,86 @@
+package com.zaxxer.q2o.converters;
+
+import com.zaxxer.q2o.TypeCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps BLOB and binary columns to {@link Path} attributes. On read the column content is copied in chunks to a new temporary file. The caller owns the file and has to delete it. On write the file is streamed with its known length.
+ *
+ * @since 19.10.26
+ */
+public class PathCodec implements TypeCodec<Path> {
+
+   @Override
+   public Path read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final InputStream in = resultSet.getBinaryStream(columnIndex);
+      if (in == null) {
+         return null;
+      }
+      try {
+         return LobFiles.copyToTempFile(in);
+      }
+      catch (IOException e) {
+         throw new SQLException("Could not buffer LOB of column " + columnIndex, e);
+      }
+   }
+
+   @Override
+   public void write(final PreparedStatement stmt, final int parameterIndex, final Path value, final int sqlType) throws SQLException {
+      try {
+         stmt.setBinaryStream(parameterIndex, new FileStream(value), Files.size(value));
+      }
+      catch (IOException e) {
+         throw new SQLException("Could not read " + value, e);
+      }
+   }
+
+   /**
+    * Opens the file not before the driver reads from it and closes it at end of file. Drivers do not necessarily close streams passed as parameter.
+    */
+   private static final class FileStream extends InputStream {
+      private final Path path;
+      private InputStream in;
+      private boolean eof;
+
+      FileStream(final Path path) {
+         this.path = path;
+      }
+
+      @Override
+      public int read() throws IOException {
+         final byte[] b = new byte[1];
+         return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+      }
+
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+         if (eof) {
+            return -1;
+         }
+         if (in == null) {
+            in = Files.newInputStream(path);
+         }
+         final int read = in.read(b, off, len);
+         if (read == -1) {
+            close();
+         }
+         return read;
+      }
+
+      @Override
+      public void close() throws IOException {
+         eof = true;
+         if (in != null) {
+            in.close();
+            in = null;
+         }
+      }
+   }
+}
@@ -0,0 +1,43 @@
+package com.zaxxer.q2o.converters;
+
+import com.zaxxer.q2o.TypeCodec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps CLOB and character columns to {@link Reader} attributes. On read the column content is copied in chunks to a temporary file, which is deleted when the returned reader is closed. On write the reader is passed to the driver, which consumes it.
+ *
+ * @since 19.10.26
+ */
+public class ReaderCodec implements TypeCodec<Reader> {
+
+   @Override
+   public Reader read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+      final Reader in = resultSet.getCharacterStream(columnIndex);
+      if (in == null) {
+         return null;
+      }
+      try {
+         final Path file = LobFiles.copyToTempFile(in);
+         final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+         return Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), LobFiles.CHUNK_SIZE);
+      }
+      catch (IOException e) {
+         throw new SQLException("Could not buffer LOB of column " + columnIndex, e);
+      }
+   }
+
+   @Override
+   public void write(final PreparedStatement stmt, final int parameterIndex, final Reader value, final int sqlType) throws SQLException {
+      stmt.setCharacterStream(parameterIndex, value);
+   }
+}
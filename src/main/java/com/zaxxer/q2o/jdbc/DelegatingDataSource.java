@@ -0,0 +1,95 @@
+package com.zaxxer.q2o.jdbc;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.ShardingKeyBuilder;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DataSource} delegating all calls to another one. Subclasses override single methods, {@link #wrapConnection(Connection)} to wrap the connections returned.
+ * <p>
+ * {@link #createConnectionBuilder()} is not delegated, connections built with the builder of the delegate would not be wrapped.
+ * </p>
+ *
+ * @since 19.10.26
+ */
+public class DelegatingDataSource implements DataSource {
+
+   private final DataSource delegate;
+
+   public DelegatingDataSource(final DataSource delegate) {
+      this.delegate = delegate;
+   }
+
+   protected DataSource delegate() {
+      return delegate;
+   }
+
+   /**
+    * @param connection returned by the delegate.
+    * @return connection itself.
+    */
+   protected Connection wrapConnection(final Connection connection) throws SQLException {
+      return connection;
+   }
+
+   @Override
+   public Connection getConnection() throws SQLException {
+      return wrapConnection(delegate().getConnection());
+   }
+
+   @Override
+   public Connection getConnection(final String username, final String password) throws SQLException {
+      return wrapConnection(delegate().getConnection(username, password));
+   }
+
+   @Override
+   public PrintWriter getLogWriter() throws SQLException {
+      return delegate().getLogWriter();
+   }
+
+   @Override
+   public void setLogWriter(final PrintWriter out) throws SQLException {
+      delegate().setLogWriter(out);
+   }
+
+   @Override
+   public void setLoginTimeout(final int seconds) throws SQLException {
+      delegate().setLoginTimeout(seconds);
+   }
+
+   @Override
+   public int getLoginTimeout() throws SQLException {
+      return delegate().getLoginTimeout();
+   }
+
+   @Override
+   public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      return delegate().getParentLogger();
+   }
+
+   @Override
+   public ShardingKeyBuilder createShardingKeyBuilder() throws SQLException {
+      return delegate().createShardingKeyBuilder();
+   }
+
+   @Override
+   public <T> T unwrap(final Class<T> iface) throws SQLException {
+      final DataSource delegate = delegate();
+      return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+   }
+
+   @Override
+   public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+      final DataSource delegate = delegate();
+      return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+   }
+
+   @Override
+   public String toString() {
+      return delegate.toString();
+   }
+}
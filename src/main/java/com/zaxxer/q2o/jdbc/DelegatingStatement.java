@@ -0,0 +1,325 @@
+package com.zaxxer.q2o.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * A {@link Statement} delegating all calls to another one. Subclasses override single methods, {@link #wrapResultSet(ResultSet)} to wrap the result sets returned.
+ *
+ * @since 19.10.26
+ */
+public class DelegatingStatement implements Statement {
+
+   private final Statement delegate;
+
+   public DelegatingStatement(final Statement delegate) {
+      this.delegate = delegate;
+   }
+
+   /**
+    * Called by every delegated method.
+    *
+    * @throws SQLException e.g. if the statement is closed.
+    */
+   protected Statement delegate() throws SQLException {
+      return delegate;
+   }
+
+   /**
+    * @param resultSet returned by the delegate, null if there is none.
+    * @return resultSet itself.
+    */
+   protected ResultSet wrapResultSet(final ResultSet resultSet) throws SQLException {
+      return resultSet;
+   }
+
+   @Override
+   public ResultSet executeQuery(final String sql) throws SQLException {
+      return wrapResultSet(delegate().executeQuery(sql));
+   }
+
+   @Override
+   public int executeUpdate(final String sql) throws SQLException {
+      return delegate().executeUpdate(sql);
+   }
+
+   @Override
+   public void close() throws SQLException {
+      delegate().close();
+   }
+
+   @Override
+   public int getMaxFieldSize() throws SQLException {
+      return delegate().getMaxFieldSize();
+   }
+
+   @Override
+   public void setMaxFieldSize(final int max) throws SQLException {
+      delegate().setMaxFieldSize(max);
+   }
+
+   @Override
+   public int getMaxRows() throws SQLException {
+      return delegate().getMaxRows();
+   }
+
+   @Override
+   public void setMaxRows(final int max) throws SQLException {
+      delegate().setMaxRows(max);
+   }
+
+   @Override
+   public void setEscapeProcessing(final boolean enable) throws SQLException {
+      delegate().setEscapeProcessing(enable);
+   }
+
+   @Override
+   public int getQueryTimeout() throws SQLException {
+      return delegate().getQueryTimeout();
+   }
+
+   @Override
+   public void setQueryTimeout(final int seconds) throws SQLException {
+      delegate().setQueryTimeout(seconds);
+   }
+
+   @Override
+   public void cancel() throws SQLException {
+      delegate().cancel();
+   }
+
+   @Override
+   public SQLWarning getWarnings() throws SQLException {
+      return delegate().getWarnings();
+   }
+
+   @Override
+   public void clearWarnings() throws SQLException {
+      delegate().clearWarnings();
+   }
+
+   @Override
+   public void setCursorName(final String name) throws SQLException {
+      delegate().setCursorName(name);
+   }
+
+   @Override
+   public boolean execute(final String sql) throws SQLException {
+      return delegate().execute(sql);
+   }
+
+   @Override
+   public ResultSet getResultSet() throws SQLException {
+      return wrapResultSet(delegate().getResultSet());
+   }
+
+   @Override
+   public int getUpdateCount() throws SQLException {
+      return delegate().getUpdateCount();
+   }
+
+   @Override
+   public boolean getMoreResults() throws SQLException {
+      return delegate().getMoreResults();
+   }
+
+   @Override
+   public void setFetchDirection(final int direction) throws SQLException {
+      delegate().setFetchDirection(direction);
+   }
+
+   @Override
+   public int getFetchDirection() throws SQLException {
+      return delegate().getFetchDirection();
+   }
+
+   @Override
+   public void setFetchSize(final int rows) throws SQLException {
+      delegate().setFetchSize(rows);
+   }
+
+   @Override
+   public int getFetchSize() throws SQLException {
+      return delegate().getFetchSize();
+   }
+
+   @Override
+   public int getResultSetConcurrency() throws SQLException {
+      return delegate().getResultSetConcurrency();
+   }
+
+   @Override
+   public int getResultSetType() throws SQLException {
+      return delegate().getResultSetType();
+   }
+
+   @Override
+   public void addBatch(final String sql) throws SQLException {
+      delegate().addBatch(sql);
+   }
+
+   @Override
+   public void clearBatch() throws SQLException {
+      delegate().clearBatch();
+   }
+
+   @Override
+   public int[] executeBatch() throws SQLException {
+      return delegate().executeBatch();
+   }
+
+   @Override
+   public Connection getConnection() throws SQLException {
+      return delegate().getConnection();
+   }
+
+   @Override
+   public boolean getMoreResults(final int current) throws SQLException {
+      return delegate().getMoreResults(current);
+   }
+
+   @Override
+   public ResultSet getGeneratedKeys() throws SQLException {
+      return wrapResultSet(delegate().getGeneratedKeys());
+   }
+
+   @Override
+   public int executeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+      return delegate().executeUpdate(sql, autoGeneratedKeys);
+   }
+
+   @Override
+   public int executeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+      return delegate().executeUpdate(sql, columnIndexes);
+   }
+
+   @Override
+   public int executeUpdate(final String sql, final String[] columnNames) throws SQLException {
+      return delegate().executeUpdate(sql, columnNames);
+   }
+
+   @Override
+   public boolean execute(final String sql, final int autoGeneratedKeys) throws SQLException {
+      return delegate().execute(sql, autoGeneratedKeys);
+   }
+
+   @Override
+   public boolean execute(final String sql, final int[] columnIndexes) throws SQLException {
+      return delegate().execute(sql, columnIndexes);
+   }
+
+   @Override
+   public boolean execute(final String sql, final String[] columnNames) throws SQLException {
+      return delegate().execute(sql, columnNames);
+   }
+
+   @Override
+   public int getResultSetHoldability() throws SQLException {
+      return delegate().getResultSetHoldability();
+   }
+
+   @Override
+   public boolean isClosed() throws SQLException {
+      return delegate().isClosed();
+   }
+
+   @Override
+   public void setPoolable(final boolean poolable) throws SQLException {
+      delegate().setPoolable(poolable);
+   }
+
+   @Override
+   public boolean isPoolable() throws SQLException {
+      return delegate().isPoolable();
+   }
+
+   @Override
+   public void closeOnCompletion() throws SQLException {
+      delegate().closeOnCompletion();
+   }
+
+   @Override
+   public boolean isCloseOnCompletion() throws SQLException {
+      return delegate().isCloseOnCompletion();
+   }
+
+   @Override
+   public long getLargeUpdateCount() throws SQLException {
+      return delegate().getLargeUpdateCount();
+   }
+
+   @Override
+   public void setLargeMaxRows(final long max) throws SQLException {
+      delegate().setLargeMaxRows(max);
+   }
+
+   @Override
+   public long getLargeMaxRows() throws SQLException {
+      return delegate().getLargeMaxRows();
+   }
+
+   @Override
+   public long[] executeLargeBatch() throws SQLException {
+      return delegate().executeLargeBatch();
+   }
+
+   @Override
+   public long executeLargeUpdate(final String sql) throws SQLException {
+      return delegate().executeLargeUpdate(sql);
+   }
+
+   @Override
+   public long executeLargeUpdate(final String sql, final int autoGeneratedKeys) throws SQLException {
+      return delegate().executeLargeUpdate(sql, autoGeneratedKeys);
+   }
+
+   @Override
+   public long executeLargeUpdate(final String sql, final int[] columnIndexes) throws SQLException {
+      return delegate().executeLargeUpdate(sql, columnIndexes);
+   }
+
+   @Override
+   public long executeLargeUpdate(final String sql, final String[] columnNames) throws SQLException {
+      return delegate().executeLargeUpdate(sql, columnNames);
+   }
+
+   @Override
+   public String enquoteLiteral(final String val) throws SQLException {
+      return delegate().enquoteLiteral(val);
+   }
+
+   @Override
+   public String enquoteIdentifier(final String identifier, final boolean alwaysQuote) throws SQLException {
+      return delegate().enquoteIdentifier(identifier, alwaysQuote);
+   }
+
+   @Override
+   public boolean isSimpleIdentifier(final String identifier) throws SQLException {
+      return delegate().isSimpleIdentifier(identifier);
+   }
+
+   @Override
+   public String enquoteNCharLiteral(final String val) throws SQLException {
+      return delegate().enquoteNCharLiteral(val);
+   }
+
+   @Override
+   public <T> T unwrap(final Class<T> iface) throws SQLException {
+      final Statement delegate = delegate();
+      return iface.isInstance(delegate) ? iface.cast(delegate) : delegate.unwrap(iface);
+   }
+
+   @Override
+   public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+      final Statement delegate = delegate();
+      return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+   }
+
+   @Override
+   public String toString() {
+      return delegate.toString();
+   }
+}
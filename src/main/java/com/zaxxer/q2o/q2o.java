@@ -5,6 +5,8 @@ import jakarta.transaction.TransactionManager;
 import jakarta.transaction.UserTransaction;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 
 /** Single point of q2o configuration */
 public final class q2o {
@@ -22,6 +24,7 @@ public final class q2o {
     */
    public static void initializeTxNone(DataSource dataSource) {
       deinitialize();
+      dataSource = PreparedStatementCache.wrap(dataSource);
       SqlClosure.setDefaultDataSource(dataSource);
       q2o.dataSource = dataSource;
    }
@@ -34,7 +37,7 @@ public final class q2o {
     */
    public static DataSource initializeTxSimple(DataSource dataSource) {
       deinitialize();
-      TxTransactionManager txManager = new TxTransactionManager(dataSource);
+      TxTransactionManager txManager = new TxTransactionManager(PreparedStatementCache.wrap(dataSource));
       TransactionHelper.setTransactionManager(txManager);
       TransactionHelper.setUserTransaction(txManager);
       DataSource txDataSource = txManager.getTxDataSource();
@@ -103,6 +106,232 @@ public final class q2o {
       OrmBase.clearCache();
       OrmReader.clearCache();
       OrmWriter.clearCache();
+      SchemaCatalog.setEnabled(false);
+      EntityCache.clearAll();
+      QueryCache.clearAll();
+      IdentityMap.setEnabled(false);
+      SqlClosure.setDefaultRetryPolicy(null);
+      SqlClosure.setReadReplicas(null);
+      SqlClosure.clearBulkheads();
+      SqlClosure.setDefaultTimeout(null);
+      SqlClosure.setExecutor(null);
+      UnitOfWork.setEnabled(false);
+      Metrics.set(null);
+   }
+
+   /**
+    * Replace the {@link Instantiator} q2o chose for an entity class. Call it before the class is used the first time.
+    *
+    * @param instantiator null to restore the default.
+    */
+   public static <T> void registerInstantiator(Class<T> entityClass, Instantiator<T> instantiator) {
+      Instantiators.register(entityClass, instantiator);
+   }
+
+   /**
+    * When enabled, q2o reads the column definitions of a mapped table once with {@link java.sql.DatabaseMetaData#getColumns(String, String, String, String)} and uses them to bind insert and update parameters instead of asking the driver for the {@link java.sql.ParameterMetaData} of every statement. Call {@link #refreshSchemaCatalog()} after schema changes. Disabled by default.
+    */
+   public static void setSchemaCatalogEnabled(boolean enabled) {
+      SchemaCatalog.setEnabled(enabled);
+   }
+
+   /**
+    * Enable the schema catalog and read the column definitions of the tables of entityClasses now instead of on first use.
+    */
+   public static void preloadSchemaCatalog(Class<?>... entityClasses) {
+      SchemaCatalog.setEnabled(true);
+      SqlClosure.sqlExecute(connection -> {
+         for (Class<?> entityClass : entityClasses) {
+            SchemaCatalog.load(connection, Introspected.getInstance(entityClass).getTableName());
+         }
+         return null;
+      });
+   }
+
+   /**
+    * Forget all column definitions read so far. They are read again on next use.
+    */
+   public static void refreshSchemaCatalog() {
+      SchemaCatalog.refresh();
+   }
+
+   /**
+    * Forget the column definitions of the table of entityClass.
+    */
+   public static void refreshSchemaCatalog(Class<?> entityClass) {
+      SchemaCatalog.refresh(Introspected.getInstance(entityClass).getTableName());
+   }
+
+   /**
+    * Keep up to size prepared statements per connection open for reuse while the connection is open, i.e. for the duration of a transaction or of a {@link SqlClosure} outside transactions. Helps with drivers without a statement cache of their own, e.g. SQLite and H2. Applies to connections obtained after this call, with {@link #initializeTxNone(DataSource)} and {@link #initializeTxSimple(DataSource)} only. Spring and custom transaction managers manage connections themselves.
+    *
+    * @param size 0 to disable the cache, which is the default.
+    */
+   public static void setPreparedStatementCacheSize(int size) {
+      if (size < 0) {
+         throw new IllegalArgumentException("size must not be negative: " + size);
+      }
+      PreparedStatementCache.maxSize = size;
+   }
+
+   /**
+    * @return the counters of the caches of generated SQL statements, accumulated over all entity classes. The size of the caches is set with system property {@code com.zaxxer.sansorm.statementCacheSize}, default 500.
+    */
+   public static CacheStats getStatementCacheStats() {
+      return OrmBase.statementCacheCounters.snapshot();
+   }
+
+   /**
+    * Cache entities of entityClass read by id. Replaces the configuration from a {@link jakarta.persistence.Cacheable} annotation, which uses system properties {@code com.zaxxer.q2o.entityCacheSize}, default 1000, and {@code com.zaxxer.q2o.entityCacheTtl} in seconds, default 0. Entries are invalidated by q2o inserts, updates and deletes, not by plain SQL.
+    *
+    * @param maxSize max number of cached entities. Less frequently read ones are evicted first.
+    * @param ttl time after which an entry is read again from the database. {@link Duration#ZERO} for no expiry.
+    */
+   public static void enableEntityCache(Class<?> entityClass, int maxSize, Duration ttl) {
+      if (maxSize <= 0) {
+         throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+      }
+      EntityCache.enable(entityClass, maxSize, ttl);
+   }
+
+   /**
+    * Stop caching entities of entityClass, even if annotated with {@link jakarta.persistence.Cacheable}.
+    */
+   public static void disableEntityCache(Class<?> entityClass) {
+      EntityCache.disable(entityClass);
+   }
+
+   /**
+    * Remove all cached entities of entityClass, e.g. after changing its table with plain SQL.
+    */
+   public static void clearEntityCache(Class<?> entityClass) {
+      EntityCache.clear(entityClass);
+   }
+
+   /**
+    * @return the counters of the entity cache of entityClass. Null if its entities are not cached.
+    */
+   public static CacheStats getEntityCacheStats(Class<?> entityClass) {
+      return EntityCache.getStats(entityClass);
+   }
+
+   /**
+    * Cache the results of {@link Q2ObjList#fromClause(Class, String, Object...)} and {@link Q2ObjList#fromRawClause(Class, String, Object...)} for entityClass, keyed by clause and arguments. Writes through q2o, including {@link Q2Sql#executeUpdate(String, Object...)}, invalidate the results read from the written table.
+    *
+    * @param maxSize max number of cached results. Less frequently requested ones are evicted first.
+    * @param ttl time after which a result is read again from the database, e.g. to catch up with changes made by other applications. {@link Duration#ZERO} for no expiry.
+    */
+   public static void enableQueryCache(Class<?> entityClass, int maxSize, Duration ttl) {
+      if (maxSize <= 0) {
+         throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+      }
+      QueryCache.enable(entityClass, maxSize, ttl);
+   }
+
+   public static void disableQueryCache(Class<?> entityClass) {
+      QueryCache.disable(entityClass);
+   }
+
+   /**
+    * @return the counters of the query cache of entityClass. Null if its query results are not cached.
+    */
+   public static CacheStats getQueryCacheStats(Class<?> entityClass) {
+      return QueryCache.getStats(entityClass);
+   }
+
+   /**
+    * When enabled, entities read within a transaction by id or with a list query are the same instances on every read until the transaction completes. Repeated {@link Q2Obj#byId(Class, Object...)} calls do not query the database again. Disabled by default.
+    */
+   public static void setIdentityMapEnabled(boolean enabled) {
+      IdentityMap.setEnabled(enabled);
+   }
+
+   /**
+    * Set the executor running closures passed to {@link SqlClosure#submit()}, {@link SqlClosure#sqlExecuteAsync(SqlFunction)} and the async methods of {@link Q2Obj} and {@link Q2ObjList}. Without, q2o creates one using virtual threads on JDK 21 and later and daemon threads on older JDKs.
+    *
+    * @param executor null to restore the default.
+    */
+   public static void setExecutor(Executor executor) {
+      SqlClosure.setExecutor(executor);
+   }
+
+   /**
+    * Run asynchronously executed closures on a fixed number of daemon threads. Sized to the connection pool, closures queue in the executor instead of blocking threads while waiting for a connection.
+    *
+    * @see #setExecutor(Executor)
+    */
+   public static void setExecutorThreads(int threads) {
+      SqlClosure.setExecutorThreads(threads);
+   }
+
+   /**
+    * Run submitted closures on virtual threads, one per closure. q2o does not hold monitors while doing JDBC calls, so virtual threads are not pinned to their carrier threads by q2o. Whether the JDBC driver and connection pool pin them depends on their implementation.
+    *
+    * @throws UnsupportedOperationException with JDKs before 21.
+    */
+   public static void useVirtualThreads() {
+      SqlClosure.useVirtualThreads();
+   }
+
+   /**
+    * Retry closures failing with transient errors, by default deadlocks and serialization failures, as specified by policy. The policy counts retries. Closures can override it with {@link SqlClosure#setRetryPolicy(RetryPolicy)}.
+    *
+    * @param policy null to disable retries.
+    */
+   public static void setRetryPolicy(RetryPolicy policy) {
+      SqlClosure.setDefaultRetryPolicy(policy);
+   }
+
+   /**
+    * Execute read-only closures outside transactions on read replicas, e.g. reads with {@link Q2Obj} and {@link Q2ObjList} methods without connection parameter, {@link SqlClosure#sqlExecuteReadOnly(SqlFunction)} and closures marked with {@link SqlClosure#setReadOnly(boolean)}. Writes, refreshes like {@link Q2Obj#byId(Object)} and all closures within a transaction use the primary DataSource q2o was initialized with. Replicas may lag behind, so the entity and query caches are only filled by reads on the primary. Not used with Spring support.
+    *
+    * @param replicas none to execute everything on the primary.
+    */
+   public static void setReadReplicas(ReplicaSelection selection, DataSource... replicas) {
+      SqlClosure.setReadReplicas(replicas == null || replicas.length == 0 ? null : new ReadReplicas(selection, replicas));
+   }
+
+   /**
+    * Limit the number of closures executing at the same time on the DataSource q2o was initialized with, see {@link Bulkhead}. Closures executed on read replicas are limited by the bulkheads of the replicas.
+    *
+    * @param bulkhead null for no limit.
+    */
+   public static void setBulkhead(Bulkhead bulkhead) {
+      SqlClosure.setDefaultBulkhead(bulkhead);
+   }
+
+   /**
+    * Limit the number of closures executing at the same time on dataSource, a read replica as passed to {@link #setReadReplicas(ReplicaSelection, DataSource...)} or the DataSource of closures created with {@link SqlClosure#SqlClosure(DataSource)}.
+    *
+    * @param bulkhead null for no limit.
+    */
+   public static void setBulkhead(DataSource dataSource, Bulkhead bulkhead) {
+      SqlClosure.setBulkhead(dataSource, bulkhead);
+   }
+
+   /**
+    * Limit the execution time of every closure without timeout of its own, see {@link SqlClosure#setTimeout(Duration)}. This includes the closures executed by the {@link Q2Obj}, {@link Q2ObjList} and {@link Q2Sql} methods without connection parameter.
+    *
+    * @param timeout null for no time limit.
+    */
+   public static void setDefaultTimeout(Duration timeout) {
+      SqlClosure.setDefaultTimeout(timeout);
+   }
+
+   /**
+    * When enabled, {@link Q2Obj#insert(Object)}, {@link Q2Obj#update(Object)} and {@link Q2Obj#delete(Object)} called within a transaction are queued and executed as JDBC batches before commit, ordered by the join columns of the entity classes. Closures executed by q2o within the transaction execute the queued writes first. Generated ids are set at that time, and deferred deletes return {@link java.sql.Statement#SUCCESS_NO_INFO} instead of a row count. Disabled by default.
+    */
+   public static void setDeferredWrites(boolean enabled) {
+      UnitOfWork.setEnabled(enabled);
+   }
+
+   /**
+    * Report latencies, row counts, errors and cache accesses of the database operations to metrics, e.g. an {@link InMemoryQ2oMetrics}.
+    *
+    * @param metrics null to measure nothing, the default.
+    */
+   public static void setMetrics(Q2oMetrics metrics) {
+      Metrics.set(metrics);
    }
 
    static boolean isMySqlMode() {
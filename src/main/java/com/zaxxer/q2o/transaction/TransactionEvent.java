@@ -0,0 +1,54 @@
+package com.zaxxer.q2o.transaction;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a transaction from begin to commit or rollback, nested transactions included. Recorded only if the {@code jdk.jfr} module is present, {@link Record} is not loaded otherwise.
+ *
+ * @since 19.10.26
+ */
+final class TransactionEvent {
+
+   private static final boolean JFR_AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+   private Record record;
+
+   void begin() {
+      if (JFR_AVAILABLE) {
+         record = new Record();
+         record.begin();
+      }
+   }
+
+   void emit(final boolean committed, final boolean connectionAcquired) {
+      if (record != null) {
+         record.emit(committed, connectionAcquired);
+      }
+   }
+
+   @Name("q2o.Transaction")
+   @Label("Transaction")
+   @Category("q2o")
+   @Description("A transaction from begin to commit or rollback")
+   @StackTrace(false)
+   static final class Record extends Event {
+      @Label("Committed")
+      boolean committed;
+      @Label("Connection Acquired")
+      @Description("False if the transaction did not use the database")
+      boolean connectionAcquired;
+
+      void emit(final boolean committed, final boolean connectionAcquired) {
+         if (shouldCommit()) {
+            this.committed = committed;
+            this.connectionAcquired = connectionAcquired;
+            commit();
+         }
+      }
+   }
+}
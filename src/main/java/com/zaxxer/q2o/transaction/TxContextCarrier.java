@@ -0,0 +1,23 @@
+package com.zaxxer.q2o.transaction;
+
+/**
+ * Finds the {@link TxThreadContext} of the current unit of work for {@link TxTransactionManager}. The default carrier keeps one context per thread in a {@link ThreadLocal}, which also works with virtual threads. An application running its requests in scopes, e.g. with {@code ScopedValue} on JDK 21 and later, can bind a context to each scope instead:
+ * <pre>
+ * static final ScopedValue&lt;TxThreadContext&gt; TX_CONTEXT = ScopedValue.newInstance();
+ *
+ * TxThreadContext.setCarrier(TX_CONTEXT::get);
+ * ScopedValue.where(TX_CONTEXT, TxThreadContext.newContext()).run(request);
+ * </pre>
+ * Child threads of a scope must not use the transaction of the scope concurrently, JDBC connections are not thread-safe.
+ *
+ * @since 19.10.26
+ * @see TxThreadContext#setCarrier(TxContextCarrier)
+ */
+@FunctionalInterface
+public interface TxContextCarrier
+{
+   /**
+    * @return the context of the current thread or scope. Never null.
+    */
+   TxThreadContext current();
+}
@@ -16,93 +16,195 @@
 
 package com.zaxxer.q2o.transaction;
 
-import jakarta.transaction.Status;
+
+import com.zaxxer.q2o.jdbc.DelegatingConnection;
+import com.zaxxer.q2o.jdbc.DelegatingDataSource;
 
 import javax.sql.DataSource;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 /**
  * A transaction aware datasource.
  */
-class TxDataSource implements InvocationHandler
+class TxDataSource extends DelegatingDataSource
 {
-   private final DataSource dataSource;
-
    private TxDataSource(final DataSource dataSource)
    {
-      this.dataSource = dataSource;
+      super(dataSource);
    }
 
    static DataSource getWrappedDataSource(final DataSource dataSource)
    {
-    TxDataSource handler = new TxDataSource(dataSource);
-      return (DataSource) Proxy.newProxyInstance(TxDataSource.class.getClassLoader(), new Class[] { DataSource.class }, handler);
+      return new TxDataSource(dataSource);
    }
 
    @Override
-   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+   public Connection getConnection() throws SQLException
    {
-      if ("getConnection".equals(method.getName())) {
-         final TxThreadContext context = TxThreadContext.getThreadContext();
+      final TxTransaction transaction = TxThreadContext.getThreadContext().getTransaction();
+      if (transaction != null && transaction.getConnection() != null && transaction.isActive()) {
+         return transaction.getConnection();
+      }
+      return attach(transaction, super.getConnection());
+   }
 
-         final TxTransaction transaction = context.getTransaction();
-         if (transaction != null && transaction.getConnection() != null && transaction.getStatus() == Status.STATUS_ACTIVE)
-         {
-            return transaction.getConnection();
-         }
-         else
-         {
-            Connection connection = dataSource.getConnection();
-            final Connection wrappedConnection = TxConnection.getWrappedConnection(connection);
-            if (transaction != null) {
-               transaction.setConnection(wrappedConnection);
-            }
-
-            return wrappedConnection;
-         }
+   @Override
+   public Connection getConnection(final String username, final String password) throws SQLException
+   {
+      final TxTransaction transaction = TxThreadContext.getThreadContext().getTransaction();
+      if (transaction != null && transaction.getConnection() != null && transaction.isActive()) {
+         return transaction.getConnection();
       }
+      return attach(transaction, super.getConnection(username, password));
+   }
 
-      return method.invoke(dataSource, args);
+   @Override
+   protected Connection wrapConnection(final Connection connection)
+   {
+      return TxConnection.getWrappedConnection(connection);
+   }
+
+   private static Connection attach(final TxTransaction transaction, final Connection wrappedConnection) throws SQLException
+   {
+      if (transaction != null && transaction.isActive()) {
+         transaction.attachConnection(wrappedConnection);
+      }
+      else if (transaction != null) {
+         transaction.setConnection(wrappedConnection);
+      }
+      return wrappedConnection;
    }
 
    /**
-    * A transaction aware connection throwing exceptions when rollback() or commit() is called on it while there is a transaction running.
+    * A transaction aware connection throwing exceptions when rollback() or commit() is called on it while there is a transaction running. rollback(Savepoint) is allowed.
+    * <p>
+    * Remembers auto-commit, read-only, isolation and catalog state once read or set, and skips calls to the driver not changing it: joining closures set auto-commit on every call.
+    * </p>
     */
-   static class TxConnection implements InvocationHandler
+   static class TxConnection extends DelegatingConnection
    {
-      private final Connection connection;
+      private Boolean autoCommit;
+      private Boolean readOnly;
+      private Integer isolation;
+      private String catalog;
 
       private TxConnection(final Connection connection)
       {
-         this.connection = connection;
+         super(connection);
       }
 
       static Connection getWrappedConnection(final Connection delegate) {
-         final TxConnection handler = new TxConnection(delegate);
-         return (Connection) Proxy.newProxyInstance(TxConnection.class.getClassLoader(), new Class[] { Connection.class }, handler);
+         return new TxConnection(delegate);
+      }
+
+      private static boolean inTransaction()
+      {
+         return TxThreadContext.getThreadContext().getTransaction() != null;
+      }
+
+      @Override
+      public void close() throws SQLException
+      {
+         if (inTransaction()) {
+            // ignore close() of a connection during a transaction
+            return;
+         }
+         autoCommit = null;
+         readOnly = null;
+         isolation = null;
+         catalog = null;
+         super.close();
+      }
+
+      @Override
+      public void commit() throws SQLException
+      {
+         if (inTransaction()) {
+            throw new IllegalStateException("Calling Connection.commit() is not legal during a transaction.");
+         }
+         super.commit();
+      }
+
+      @Override
+      public void rollback() throws SQLException
+      {
+         if (inTransaction()) {
+            throw new IllegalStateException("Calling Connection.rollback() is not legal during a transaction.");
+         }
+         super.rollback();
       }
 
       @Override
-      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+      public boolean getAutoCommit() throws SQLException
       {
-        final TxTransaction transaction = TxThreadContext.getThreadContext().getTransaction();
-         if (transaction != null) {
-            switch (method.getName())
-            {
-            case "close":
-               // ignore close() of a connection during a transaction
-               return null;
-            case "commit":
-               throw new IllegalStateException("Calling Connection.commit() is not legal during a transaction.");
-            case "rollback":
-               throw new IllegalStateException("Calling Connection.rollback() is not legal during a transaction.");
-            }
+         if (autoCommit == null) {
+            autoCommit = super.getAutoCommit();
          }
+         return autoCommit;
+      }
+
+      @Override
+      public void setAutoCommit(final boolean autoCommit) throws SQLException
+      {
+         if (this.autoCommit == null || this.autoCommit != autoCommit) {
+            super.setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+         }
+      }
+
+      @Override
+      public boolean isReadOnly() throws SQLException
+      {
+         if (readOnly == null) {
+            readOnly = super.isReadOnly();
+         }
+         return readOnly;
+      }
+
+      @Override
+      public void setReadOnly(final boolean readOnly) throws SQLException
+      {
+         if (this.readOnly == null || this.readOnly != readOnly) {
+            super.setReadOnly(readOnly);
+            this.readOnly = readOnly;
+         }
+      }
+
+      @Override
+      public int getTransactionIsolation() throws SQLException
+      {
+         if (isolation == null) {
+            isolation = super.getTransactionIsolation();
+         }
+         return isolation;
+      }
+
+      @Override
+      public void setTransactionIsolation(final int level) throws SQLException
+      {
+         if (isolation == null || isolation != level) {
+            super.setTransactionIsolation(level);
+            isolation = level;
+         }
+      }
 
-         return method.invoke(connection, args);
+      @Override
+      public String getCatalog() throws SQLException
+      {
+         if (catalog == null) {
+            catalog = super.getCatalog();
+         }
+         return catalog;
+      }
+
+      @Override
+      public void setCatalog(final String catalog) throws SQLException
+      {
+         if (catalog == null || !catalog.equals(this.catalog)) {
+            super.setCatalog(catalog);
+            this.catalog = catalog;
+         }
       }
    }
 }
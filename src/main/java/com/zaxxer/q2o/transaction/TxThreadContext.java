@@ -16,15 +16,45 @@
 
 package com.zaxxer.q2o.transaction;
 
+/**
+ * Holds the transaction of the current thread or scope. Found through a {@link TxContextCarrier}, by default a {@link ThreadLocal}.
+ */
 public final class TxThreadContext
 {
    private static final ThreadLocal<TxThreadContext> threadContext = ThreadLocal.withInitial(TxThreadContext::new);
+   private static final TxContextCarrier THREAD_LOCAL_CARRIER = threadContext::get;
+
+   private static volatile TxContextCarrier carrier = THREAD_LOCAL_CARRIER;
 
    private volatile TxTransaction transaction;
+   /**
+    * Of transactions begun in this context, 0 for none.
+    */
+   private volatile int timeoutSeconds;
+
+   private TxThreadContext()
+   {
+   }
 
    static TxThreadContext getThreadContext()
    {
-      return threadContext.get();
+      return carrier.current();
+   }
+
+   /**
+    * @return a new context without transaction, for {@link TxContextCarrier} implementations binding contexts to scopes.
+    */
+   public static TxThreadContext newContext()
+   {
+      return new TxThreadContext();
+   }
+
+   /**
+    * @param carrier null to restore the default carrier holding one context per thread.
+    */
+   public static void setCarrier(final TxContextCarrier carrier)
+   {
+      TxThreadContext.carrier = carrier != null ? carrier : THREAD_LOCAL_CARRIER;
    }
 
    TxTransaction getTransaction()
@@ -41,4 +71,14 @@ public final class TxThreadContext
    {
       transaction = null;
    }
+
+   int getTimeoutSeconds()
+   {
+      return timeoutSeconds;
+   }
+
+   void setTimeoutSeconds(final int timeoutSeconds)
+   {
+      this.timeoutSeconds = timeoutSeconds;
+   }
 }
@@ -17,17 +17,39 @@
 package com.zaxxer.q2o.transaction;
 
 import jakarta.transaction.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.transaction.xa.XAResource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 public class TxTransaction implements Transaction
 {
+   private static final Logger logger = LoggerFactory.getLogger(TxTransaction.class);
+
    private final ArrayList<Synchronization> synchronizations;
+   /**
+    * One per nested transaction, the innermost last. Null until the connection is acquired.
+    */
+   private final ArrayList<Savepoint> savepoints = new ArrayList<>();
    private volatile Connection connection;
    private volatile int status;
+   private volatile boolean rollbackOnly;
+   /**
+    * {@link System#nanoTime()} the transaction times out at. Valid if timed.
+    */
+   private volatile long expiresAtNanos;
+   private volatile boolean timed;
+   private final TransactionEvent event = new TransactionEvent();
+   private boolean beforeCompletionDone;
+   /**
+    * Thrown by a synchronization before completion, commit rolls back instead.
+    */
+   private RuntimeException beforeCompletionFailure;
 
    TxTransaction() {
       status = Status.STATUS_NO_TRANSACTION;
@@ -41,15 +63,18 @@ public class TxTransaction implements Transaction
    @Override
    public int getStatus() throws SystemException
    {
-      return status;
+      return status == Status.STATUS_ACTIVE && rollbackOnly ? Status.STATUS_MARKED_ROLLBACK : status;
    }
 
    /**
-    * Connection is closed too.
+    * Connection is closed too. Without connection acquired only the synchronizations are notified.
     */
    @Override
    public void commit() throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SecurityException, IllegalStateException, SystemException
    {
+      if (beforeCompletionFailure != null) {
+         rollbackFailedBeforeCompletion();
+      }
       if (status == Status.STATUS_NO_TRANSACTION) {
          throw new IllegalStateException("transaction hasn't started yet");
       }
@@ -57,37 +82,89 @@ public class TxTransaction implements Transaction
          throw new IllegalStateException("transaction is done, cannot commit it");
       }
 
-      if (connection != null && status == Status.STATUS_ACTIVE) {
+      if (status == Status.STATUS_ACTIVE && (rollbackOnly || getRemainingNanos() <= 0)) {
+         final String reason = rollbackOnly ? "transaction is marked rollback-only" : "transaction timed out";
+         rollback();
+         throw new RollbackException(reason);
+      }
+
+      if (status == Status.STATUS_ACTIVE) {
+         beforeCompletion();
+         if (beforeCompletionFailure != null) {
+            rollbackFailedBeforeCompletion();
+         }
+         boolean committed = false;
          try {
-               synchronizations.forEach(Synchronization::beforeCompletion);
-               connection.commit();
+               if (connection != null) {
+                  connection.commit();
+               }
+               committed = true;
                synchronizations.forEach(s -> s.afterCompletion(Status.STATUS_COMMITTED));
          }
          catch (SQLException e) {
+            synchronizations.forEach(s -> s.afterCompletion(Status.STATUS_UNKNOWN));
             final SystemException systemException = new SystemException("Exception committing connection " + connection.toString());
             systemException.initCause(e);
             throw systemException;
          }
          finally {
+            event.emit(committed, connection != null);
             cleanup();
          }
       }
    }
 
+   /**
+    * Notify the synchronizations of the upcoming commit, once. {@link TxTransactionManager#commit()} calls it while the transaction is still bound to the thread, so that writes executed by the synchronizations join it.
+    */
+   void beforeCompletion()
+   {
+      if (status != Status.STATUS_ACTIVE || rollbackOnly || beforeCompletionDone) {
+         return;
+      }
+      beforeCompletionDone = true;
+      try {
+         synchronizations.forEach(Synchronization::beforeCompletion);
+      }
+      catch (RuntimeException e) {
+         beforeCompletionFailure = e;
+      }
+   }
+
+   /**
+    * E.g. deferred writes failed. Their closure may have rolled back already.
+    */
+   private void rollbackFailedBeforeCompletion() throws RollbackException, SystemException
+   {
+      rollback();
+      final RollbackException rollbackException = new RollbackException("Synchronization failed before commit");
+      rollbackException.initCause(beforeCompletionFailure);
+      throw rollbackException;
+   }
+
    @Override
    public void rollback() throws IllegalStateException, SystemException
    {
-      if (connection != null && status == Status.STATUS_ACTIVE) {
+      if (status == Status.STATUS_ACTIVE) {
          try {
-            connection.rollback();
+            if (connection != null) {
+               connection.rollback();
+            }
          }
          catch (SQLException e) {
-            final SystemException systemException = new SystemException("Exception committing connection " + connection.toString());
+            final SystemException systemException = new SystemException("Exception rolling back connection " + connection.toString());
             systemException.initCause(e);
             throw systemException;
          }
          finally {
-            cleanup();
+            // Also if the rollback failed: nothing was committed, and resources bound to the transaction are released on completion only.
+            try {
+               synchronizations.forEach(s -> s.afterCompletion(Status.STATUS_ROLLEDBACK));
+            }
+            finally {
+               event.emit(false, connection != null);
+               cleanup();
+            }
          }
       }
    }
@@ -95,7 +172,32 @@ public class TxTransaction implements Transaction
    @Override
    public void setRollbackOnly() throws IllegalStateException, SystemException
    {
-      throw new SystemException("setRollbackOnly() operation is not supported");
+      if (status != Status.STATUS_ACTIVE) {
+         throw new IllegalStateException("transaction is not active");
+      }
+      rollbackOnly = true;
+   }
+
+   /**
+    * @return the time until the transaction times out, {@link Long#MAX_VALUE} without timeout.
+    */
+   public long getRemainingNanos()
+   {
+      return timed ? expiresAtNanos - System.nanoTime() : Long.MAX_VALUE;
+   }
+
+   void setTimeout(final int seconds)
+   {
+      expiresAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+      timed = true;
+   }
+
+   /**
+    * @return true until commit or rollback, also if marked rollback-only.
+    */
+   boolean isActive()
+   {
+      return status == Status.STATUS_ACTIVE;
    }
 
    @Override
@@ -120,6 +222,74 @@ public class TxTransaction implements Transaction
    //                             Local Methods
    // ------------------------------------------------------------------------
 
+   /**
+    * @return the number of open nested transactions, 0 if only the transaction itself is open.
+    */
+   public int getNestingLevel()
+   {
+      return savepoints.size();
+   }
+
+   /**
+    * Start a nested transaction by setting a savepoint on the connection of this transaction. Without connection acquired yet, the savepoint is set when it is.
+    */
+   void beginNested() throws SystemException
+   {
+      if (status != Status.STATUS_ACTIVE) {
+         throw new IllegalStateException("transaction is not active");
+      }
+      if (connection == null) {
+         savepoints.add(null);
+         return;
+      }
+      try {
+         savepoints.add(connection.setSavepoint());
+      }
+      catch (SQLException e) {
+         final SystemException systemException = new SystemException("Exception setting savepoint on connection " + connection.toString());
+         systemException.initCause(e);
+         throw systemException;
+      }
+   }
+
+   /**
+    * Keep the changes of the innermost nested transaction as part of the enclosing one.
+    */
+   void commitNested() throws SystemException
+   {
+      final Savepoint savepoint = savepoints.remove(savepoints.size() - 1);
+      if (savepoint == null) {
+         return;
+      }
+      try {
+         connection.releaseSavepoint(savepoint);
+      }
+      catch (SQLException e) {
+         // Not supported by every driver, e.g. Oracle. Released with the transaction.
+         logger.debug("Savepoint not released", e);
+      }
+   }
+
+   /**
+    * Undo the changes of the innermost nested transaction. The enclosing one stays active.
+    */
+   void rollbackNested() throws SystemException
+   {
+      final Savepoint savepoint = savepoints.remove(savepoints.size() - 1);
+      if (savepoint == null) {
+         // Nothing done.
+         return;
+      }
+      try {
+         connection.rollback(savepoint);
+      }
+      catch (SQLException e) {
+         final SystemException systemException = new SystemException("Exception rolling back to savepoint on connection " + connection.toString());
+         systemException.initCause(e);
+         throw systemException;
+      }
+   }
+
    void setActive()
    {
       if (status != Status.STATUS_NO_TRANSACTION) {
@@ -127,6 +297,7 @@ public class TxTransaction implements Transaction
       }
 
       status = Status.STATUS_ACTIVE;
+      event.begin();
    }
 
    Connection getConnection()
@@ -139,8 +310,26 @@ public class TxTransaction implements Transaction
       this.connection = connection;
    }
 
+   /**
+    * Use connection, acquired on first request within this transaction. Sets the savepoints of nested transactions begun before.
+    */
+   void attachConnection(final Connection connection) throws SQLException
+   {
+      connection.setAutoCommit(false);
+      this.connection = connection;
+      for (int i = 0; i < savepoints.size(); i++) {
+         savepoints.set(i, connection.setSavepoint());
+      }
+   }
+
    private void cleanup()
    {
+      if (connection == null) {
+         synchronizations.clear();
+         savepoints.clear();
+         status = Status.STATUS_NO_TRANSACTION;
+         return;
+      }
       try {
          // Auto commit is set to false in SqlClosure.executeInTx. "By default, new connections are in auto-commit mode." (see Connection#setAutoCommit(boolean)). Because this connection may be reused outside a transaction we must restore the standard behaviour.
          connection.setAutoCommit(true);
@@ -151,6 +340,7 @@ public class TxTransaction implements Transaction
       }
 
       synchronizations.clear();
+      savepoints.clear();
       status = Status.STATUS_NO_TRANSACTION;
    }
 
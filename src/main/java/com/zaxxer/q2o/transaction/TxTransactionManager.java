@@ -19,9 +19,10 @@ package com.zaxxer.q2o.transaction;
 import jakarta.transaction.*;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.SQLException;
 
+/**
+ * Transactions bound to the current thread, each using one connection acquired on first use. {@link #begin()} within a transaction starts a nested transaction: a savepoint on the connection of the transaction. {@link #commit()} and {@link #rollback()} end the innermost nested transaction first.
+ */
 public class TxTransactionManager implements TransactionManager, UserTransaction
 {
    private final DataSource dataSource;
@@ -35,20 +36,18 @@ public class TxTransactionManager implements TransactionManager, UserTransaction
    public void begin() throws NotSupportedException, SystemException
    {
       final TxThreadContext context = TxThreadContext.getThreadContext();
-      if (context.getTransaction() != null) {
-         throw new NotSupportedException("Nested transactions not supported");
+      final TxTransaction currentTx = context.getTransaction();
+      if (currentTx != null) {
+         currentTx.beginNested();
+         return;
       }
 
       final TxTransaction newTransaction = new TxTransaction();
       newTransaction.setActive();
-      try {
-         Connection con = dataSource.getConnection();
-         con.setAutoCommit(false);
-         newTransaction.setConnection(con);
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
+      if (context.getTimeoutSeconds() > 0) {
+         newTransaction.setTimeout(context.getTimeoutSeconds());
       }
+      // The connection is acquired on first request, see TxDataSource.
       context.setTransaction(newTransaction);
    }
 
@@ -61,8 +60,17 @@ public class TxTransactionManager implements TransactionManager, UserTransaction
       final TxThreadContext threadContext = TxThreadContext.getThreadContext();
 
       final TxTransaction currentTx = threadContext.getTransaction();
-      if (currentTx != null) {
-         threadContext.clearTransaction();
+      if (currentTx != null && currentTx.getNestingLevel() > 0) {
+         currentTx.commitNested();
+      }
+      else if (currentTx != null) {
+         // Still bound: writes of the synchronizations, e.g. deferred ones, join the transaction.
+         try {
+            currentTx.beforeCompletion();
+         }
+         finally {
+            threadContext.clearTransaction();
+         }
          currentTx.commit();
       }
       else {
@@ -89,7 +97,10 @@ public class TxTransactionManager implements TransactionManager, UserTransaction
       final TxThreadContext threadContext = TxThreadContext.getThreadContext();
 
       final TxTransaction currentTx = threadContext.getTransaction();
-      if (currentTx != null) {
+      if (currentTx != null && currentTx.getNestingLevel() > 0) {
+         currentTx.rollbackNested();
+      }
+      else if (currentTx != null) {
          threadContext.clearTransaction();
          currentTx.rollback();
       }
@@ -131,13 +142,25 @@ public class TxTransactionManager implements TransactionManager, UserTransaction
    @Override
    public void setRollbackOnly() throws IllegalStateException, SystemException
    {
-      throw new SystemException("setRollbackOnly() operation is not supported");
+      final TxTransaction currentTx = TxThreadContext.getThreadContext().getTransaction();
+      if (currentTx == null) {
+         throw new IllegalStateException("TransactionManager.setRollbackOnly() called from a thread that is not joined with a transaction");
+      }
+      currentTx.setRollbackOnly();
    }
 
+   /**
+    * Time limit of the transactions begun afterwards in the current thread or scope. Expired, q2o cancels the statements of the transaction and its commit rolls back.
+    *
+    * @param seconds 0 for no time limit.
+    */
    @Override
    public void setTransactionTimeout(final int seconds) throws SystemException
    {
-      throw new SystemException("setTransactionTimeout() operation is not supported");
+      if (seconds < 0) {
+         throw new SystemException("Negative transaction timeout: " + seconds);
+      }
+      TxThreadContext.getThreadContext().setTimeoutSeconds(seconds);
    }
 
    public DataSource getTxDataSource()
@@ -0,0 +1,109 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class BulkheadTest {
+
+   private final CountDownLatch started = new CountDownLatch(1);
+   private final CountDownLatch finish = new CountDownLatch(1);
+   private final ExecutorService executor = Executors.newCachedThreadPool();
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+   }
+
+   @After
+   public void tearDown() {
+      finish.countDown();
+      executor.shutdown();
+      q2o.deinitialize();
+   }
+
+   /**
+    * @return a closure executing on another thread until {@link #finish} counts down, started.
+    */
+   private CompletableFuture<Integer> occupy() throws InterruptedException {
+      CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> SqlClosure.sqlExecute(connection -> {
+         started.countDown();
+         try {
+            finish.await();
+         }
+         catch (InterruptedException e) {
+            throw new RuntimeException(e);
+         }
+         return 1;
+      }), executor);
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      return future;
+   }
+
+   @Test
+   public void fullBulkheadFailsFast() throws Exception {
+      Bulkhead bulkhead = new Bulkhead(1, 0, Duration.ofSeconds(10));
+      q2o.setBulkhead(bulkhead);
+      CompletableFuture<Integer> occupying = occupy();
+
+      long start = System.nanoTime();
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> 1)).isInstanceOf(BulkheadFullException.class);
+      assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+      assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+      assertThat(bulkhead.getInFlight()).isEqualTo(1);
+
+      finish.countDown();
+      assertThat(occupying.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(bulkhead.getInFlight()).isEqualTo(0);
+   }
+
+   @Test
+   public void waitingClosureTimesOut() throws Exception {
+      Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofMillis(100));
+      q2o.setBulkhead(bulkhead);
+      occupy();
+
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> 1)).isInstanceOf(BulkheadFullException.class);
+      assertThat(bulkhead.getTimedOutCount()).isEqualTo(1);
+      assertThat(bulkhead.getMaxQueueDepth()).isEqualTo(1);
+      assertThat(bulkhead.getQueueDepth()).isEqualTo(0);
+   }
+
+   @Test
+   public void readsAreShedBeforeWrites() throws Exception {
+      Bulkhead bulkhead = new Bulkhead(1, 2, 1, Duration.ofSeconds(10));
+      q2o.setBulkhead(bulkhead);
+      occupy();
+      CompletableFuture<Integer> waitingWrite = CompletableFuture.supplyAsync(() -> SqlClosure.sqlExecute(connection -> 2), executor);
+      while (bulkhead.getQueueDepth() == 0) {
+         Thread.sleep(10);
+      }
+
+      assertThatThrownBy(() -> SqlClosure.sqlExecuteReadOnly(connection -> 3)).isInstanceOf(BulkheadFullException.class);
+      finish.countDown();
+      assertThat(waitingWrite.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+   }
+
+   @Test
+   public void nestedClosuresShareThePermit() {
+      q2o.setBulkhead(new Bulkhead(1, 0, Duration.ofSeconds(1)));
+
+      int result = SqlClosure.sqlExecute(connection -> SqlClosure.sqlExecute(c -> 1) + SqlClosure.sqlExecuteReadOnly(c -> 1));
+
+      assertThat(result).isEqualTo(2);
+   }
+}
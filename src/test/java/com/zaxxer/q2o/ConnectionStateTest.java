@@ -0,0 +1,119 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class ConnectionStateTest {
+
+   private final Map<String, AtomicInteger> driverCalls = new ConcurrentHashMap<>();
+
+   /**
+    * Counts the calls reaching the connections of dataSource.
+    */
+   private DataSource counting(DataSource dataSource) {
+      return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DataSource.class}, (proxy, method, args) -> {
+         Object ret = method.invoke(dataSource, args);
+         if (!(ret instanceof Connection)) {
+            return ret;
+         }
+         driverCalls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+         Connection connection = (Connection) ret;
+         return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (p, m, a) -> {
+            driverCalls.computeIfAbsent(m.getName(), name -> new AtomicInteger()).incrementAndGet();
+            try {
+               return m.invoke(connection, a);
+            }
+            catch (InvocationTargetException e) {
+               throw e.getCause();
+            }
+         });
+      });
+   }
+
+   private int calls(String method) {
+      AtomicInteger count = driverCalls.get(method);
+      return count == null ? 0 : count.get();
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(counting(DataSources.getH2ImMemoryDataSource(true)));
+      Q2Sql.executeUpdate("CREATE TABLE STATE_TEST (ID INTEGER)");
+      driverCalls.clear();
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE STATE_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void joiningClosuresDoNotSetAutoCommit() {
+      SqlClosure.sqlExecute(connection -> {
+         for (int i = 0; i < 10; i++) {
+            Q2Sql.executeUpdate("INSERT INTO STATE_TEST VALUES (?)", i);
+         }
+         return null;
+      });
+
+      // Off at begin, on at the end.
+      assertThat(calls("setAutoCommit")).isEqualTo(2);
+      assertThat(calls("getAutoCommit")).isEqualTo(0);
+   }
+
+   @Test
+   public void unchangedStateIsNotSet() {
+      SqlClosure.sqlExecute(connection -> {
+         int isolation = connection.getTransactionIsolation();
+         connection.setTransactionIsolation(isolation);
+         connection.setReadOnly(connection.isReadOnly());
+         connection.setReadOnly(connection.isReadOnly());
+         return null;
+      });
+
+      assertThat(calls("getTransactionIsolation")).isEqualTo(1);
+      assertThat(calls("setTransactionIsolation")).isEqualTo(0);
+      assertThat(calls("isReadOnly")).isEqualTo(1);
+      assertThat(calls("setReadOnly")).isEqualTo(0);
+   }
+
+   @Test
+   public void emptyTransactionsAcquireNoConnection() {
+      TransactionHelper.beginOrJoinTransaction();
+      TransactionHelper.commit();
+      TransactionHelper.beginOrJoinTransaction();
+      TransactionHelper.rollback();
+
+      assertThat(calls("getConnection")).isEqualTo(0);
+   }
+
+   @Test
+   public void connectionIsAcquiredOnFirstStatement() {
+      TransactionHelper.beginOrJoinTransaction();
+      TransactionHelper.beginNested();
+      Q2Sql.executeUpdate("INSERT INTO STATE_TEST VALUES (1)");
+      // Rolls back to the savepoint set when the connection was acquired.
+      TransactionHelper.rollback();
+      Q2Sql.executeUpdate("INSERT INTO STATE_TEST VALUES (2)");
+      TransactionHelper.commit();
+
+      assertThat(calls("getConnection")).isEqualTo(1);
+      assertThat(Q2Sql.numberFromSql("SELECT SUM(ID) FROM STATE_TEST").intValue()).isEqualTo(2);
+   }
+}
@@ -12,6 +12,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Holger Thurow (thurow.h@gmail.com)
@@ -47,4 +49,24 @@ public class DataSourceProxyTest {
       assertEquals(1, result);
 
    }
+
+   @Test
+   public void statementsWithoutResultSetAreClosedImmediately() throws SQLException
+   {
+      Connection con = DataSourceProxy.wrap(DataSources.getH2ImMemoryDataSource(true)).getConnection();
+
+      PreparedStatement executed = con.prepareStatement("select 1");
+      PreparedStatement unwrappedExecuted = executed.unwrap(PreparedStatement.class);
+      executed.execute();
+      executed.close();
+      PreparedStatement query = con.prepareStatement("select 1");
+      PreparedStatement unwrappedQuery = query.unwrap(PreparedStatement.class);
+      query.executeQuery().close();
+      query.close();
+
+      assertTrue(unwrappedExecuted.isClosed());
+      assertFalse(unwrappedQuery.isClosed());
+      con.close();
+      assertTrue(unwrappedQuery.isClosed());
+   }
 }
@@ -0,0 +1,66 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class DatabaseValueToFieldTypeTest {
+
+   enum Color { RED, GREEN }
+
+   @Table
+   static class TestClass {
+      @Enumerated(EnumType.ORDINAL)
+      Color color;
+      long count;
+      @Temporal(TemporalType.TIMESTAMP)
+      Calendar calendar;
+   }
+
+   private final DatabaseValueToFieldType databaseValueToFieldType = new DatabaseValueToFieldType();
+
+   @Test
+   public void adapterIsResolvedOncePerValueClass() throws NoSuchFieldException {
+      FieldInfo fieldInfo = new FieldInfo(TestClass.class.getDeclaredField("count"), TestClass.class);
+
+      assertThat(databaseValueToFieldType.adaptValueToFieldType(fieldInfo, 1, (String) null, null, 1)).isEqualTo(1L);
+      assertThat(databaseValueToFieldType.adaptValueToFieldType(fieldInfo, 2, (String) null, null, 1)).isEqualTo(2L);
+      assertThat(fieldInfo.valueAdapters).hasSize(1);
+      assertThat(fieldInfo.lastValueAdapter.valueClass).isEqualTo(Integer.class);
+
+      assertThat(databaseValueToFieldType.adaptValueToFieldType(fieldInfo, 3L, (String) null, null, 1)).isEqualTo(3L);
+      assertThat(fieldInfo.valueAdapters).hasSize(2);
+      assertThat(databaseValueToFieldType.adaptValueToFieldType(fieldInfo, null, (String) null, null, 1)).isNull();
+   }
+
+   @Test
+   public void enumFromOrdinal() throws NoSuchFieldException {
+      FieldInfo fieldInfo = new FieldInfo(TestClass.class.getDeclaredField("color"), TestClass.class);
+      assertThat(databaseValueToFieldType.adaptValueToFieldType(fieldInfo, 1, (String) null, null, 1)).isEqualTo(Color.GREEN);
+      assertThat(databaseValueToFieldType.adaptValueToFieldType(fieldInfo, 0, (String) null, null, 1)).isEqualTo(Color.RED);
+   }
+
+   @Test
+   public void builtinConverterFallsBackToTypeInspection() throws NoSuchFieldException {
+      FieldInfo fieldInfo = new FieldInfo(TestClass.class.getDeclaredField("calendar"), TestClass.class);
+      long millis = 1_000_000L;
+
+      Calendar fromTimestamp = (Calendar) databaseValueToFieldType.adaptValueToFieldType(fieldInfo, new Timestamp(millis), (String) null, null, 1);
+      // SQLite delivers Long instead of Timestamp.
+      Calendar fromLong = (Calendar) databaseValueToFieldType.adaptValueToFieldType(fieldInfo, millis, (String) null, null, 1);
+
+      assertThat(fromTimestamp.getTimeInMillis()).isEqualTo(millis);
+      assertThat(fromLong.getTimeInMillis()).isEqualTo(millis);
+   }
+}
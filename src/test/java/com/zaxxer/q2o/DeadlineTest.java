@@ -0,0 +1,77 @@
+package com.zaxxer.q2o;
+
+import jakarta.transaction.SystemException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class DeadlineTest {
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE ALIAS SLEEP FOR \"java.lang.Thread.sleep\"");
+      Q2Sql.executeUpdate("CREATE TABLE DEADLINE_TEST (ID INTEGER)");
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      TransactionHelper.getTransactionManager().setTransactionTimeout(0);
+      Q2Sql.executeUpdate("DROP TABLE DEADLINE_TEST");
+      Q2Sql.executeUpdate("DROP ALIAS SLEEP");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void expiredClosureCancelsStatement() {
+      long start = System.nanoTime();
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(Duration.ofMillis(300), connection -> {
+         try (Statement stmt = connection.createStatement();
+              ResultSet resultSet = stmt.executeQuery("SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) A, SYSTEM_RANGE(1, 100000) B")) {
+            resultSet.next();
+         }
+         return null;
+      })).isInstanceOf(RuntimeException.class);
+
+      assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+   }
+
+   @Test
+   public void expiredTransactionRollsBack() throws Exception {
+      TransactionHelper.getTransactionManager().setTransactionTimeout(1);
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> {
+         Q2Sql.executeUpdate("INSERT INTO DEADLINE_TEST VALUES (1)");
+         Q2Sql.executeQuery("CALL SLEEP(1200)").close();
+         return null;
+      })).isInstanceOf(RuntimeException.class);
+
+      assertThat(Q2Sql.numberFromSql("SELECT COUNT(*) FROM DEADLINE_TEST").intValue()).isEqualTo(0);
+   }
+
+   @Test
+   public void rollbackOnlyTransactionRollsBack() {
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> {
+         Q2Sql.executeUpdate("INSERT INTO DEADLINE_TEST VALUES (1)");
+         try {
+            TransactionHelper.getTransactionManager().setRollbackOnly();
+         }
+         catch (SystemException e) {
+            throw new RuntimeException(e);
+         }
+         return null;
+      })).isInstanceOf(RuntimeException.class);
+
+      assertThat(Q2Sql.numberFromSql("SELECT COUNT(*) FROM DEADLINE_TEST").intValue()).isEqualTo(0);
+   }
+}
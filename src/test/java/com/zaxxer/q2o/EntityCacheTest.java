@@ -0,0 +1,131 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class EntityCacheTest {
+
+   @Cacheable
+   @Table(name = "CACHED_ENTITY")
+   public static class CachedEntity {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      int id;
+      @Column(name = "NAME")
+      String name;
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE CACHED_ENTITY (ID INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, NAME VARCHAR(32))");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE CACHED_ENTITY");
+      q2o.deinitialize();
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DELETE FROM CACHED_ENTITY");
+   }
+
+   private static CachedEntity insert(String name) {
+      CachedEntity entity = new CachedEntity();
+      entity.name = name;
+      return Q2Obj.insert(entity);
+   }
+
+   @Test
+   public void hitReturnsCopy() {
+      q2o.enableEntityCache(CachedEntity.class, 100, Duration.ZERO);
+      CachedEntity entity = insert("one");
+
+      CachedEntity first = Q2Obj.byId(CachedEntity.class, entity.id);
+      first.name = "changed, not saved";
+      CachedEntity second = Q2Obj.byId(CachedEntity.class, (long) entity.id);
+
+      assertThat(second).isNotSameAs(first);
+      assertThat(second.name).isEqualTo("one");
+      CacheStats stats = q2o.getEntityCacheStats(CachedEntity.class);
+      assertThat(stats.getHitCount()).isEqualTo(1);
+      assertThat(stats.getMissCount()).isEqualTo(1);
+      assertThat(stats.getTotalLoadTimeNanos()).isGreaterThan(0);
+   }
+
+   @Test
+   public void writesInvalidate() {
+      q2o.enableEntityCache(CachedEntity.class, 100, Duration.ZERO);
+      CachedEntity entity = insert("one");
+      Q2Obj.byId(CachedEntity.class, entity.id);
+
+      entity.name = "two";
+      Q2Obj.update(entity);
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("two");
+
+      Q2Obj.delete(entity);
+      CachedEntity deleted = Q2Obj.byId(CachedEntity.class, entity.id);
+      assertThat(deleted).isNull();
+   }
+
+   @Test
+   public void uncommittedChangesAreNotCached() {
+      q2o.enableEntityCache(CachedEntity.class, 100, Duration.ZERO);
+      CachedEntity entity = insert("one");
+      Q2Obj.byId(CachedEntity.class, entity.id);
+
+      TransactionHelper.beginOrJoinTransaction();
+      entity.name = "rolled back";
+      Q2Obj.update(entity);
+      // The transaction sees its own change.
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("rolled back");
+      TransactionHelper.rollback();
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("one");
+
+      TransactionHelper.beginOrJoinTransaction();
+      entity.name = "committed";
+      Q2Obj.update(entity);
+      Q2Obj.byId(CachedEntity.class, entity.id);
+      TransactionHelper.commit();
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("committed");
+   }
+
+   @Test
+   public void entriesExpire() throws InterruptedException {
+      q2o.enableEntityCache(CachedEntity.class, 100, Duration.ofMillis(50));
+      CachedEntity entity = insert("one");
+      Q2Obj.byId(CachedEntity.class, entity.id);
+      Q2Sql.executeUpdate("UPDATE CACHED_ENTITY SET NAME = 'two' WHERE ID = ?", entity.id);
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("one");
+
+      Thread.sleep(100);
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("two");
+   }
+
+   @Test
+   public void disabled() {
+      q2o.disableEntityCache(CachedEntity.class);
+      CachedEntity entity = insert("one");
+      Q2Obj.byId(CachedEntity.class, entity.id);
+      Q2Sql.executeUpdate("UPDATE CACHED_ENTITY SET NAME = 'two' WHERE ID = ?", entity.id);
+      assertThat(Q2Obj.byId(CachedEntity.class, entity.id).name).isEqualTo("two");
+      assertThat(q2o.getEntityCacheStats(CachedEntity.class)).isNull();
+   }
+}
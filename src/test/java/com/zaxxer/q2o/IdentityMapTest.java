@@ -0,0 +1,112 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class IdentityMapTest {
+
+   @Table(name = "MAPPED_ENTITY")
+   public static class MappedEntity {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      int id;
+      @Column(name = "NAME")
+      String name;
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      q2o.setIdentityMapEnabled(true);
+      Q2Sql.executeUpdate("CREATE TABLE MAPPED_ENTITY (ID INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, NAME VARCHAR(32))");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE MAPPED_ENTITY");
+      q2o.deinitialize();
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DELETE FROM MAPPED_ENTITY");
+   }
+
+   private static MappedEntity insert(String name) {
+      MappedEntity entity = new MappedEntity();
+      entity.name = name;
+      return Q2Obj.insert(entity);
+   }
+
+   @Test
+   public void sameInstanceWithinTransaction() {
+      int id = insert("one").id;
+      SqlClosure.sqlExecute(connection -> {
+         MappedEntity first = Q2Obj.byId(MappedEntity.class, id);
+         // Changed behind the back of the identity map.
+         Q2Sql.executeUpdate(connection, "UPDATE MAPPED_ENTITY SET NAME = 'two'");
+         MappedEntity second = Q2Obj.byId(MappedEntity.class, (long) id);
+         assertThat(second).isSameAs(first);
+         assertThat(second.name).isEqualTo("one");
+
+         List<MappedEntity> list = Q2ObjList.fromClause(MappedEntity.class, null);
+         assertThat(list.get(0)).isSameAs(first);
+         return null;
+      });
+
+      MappedEntity afterCommit = Q2Obj.byId(MappedEntity.class, id);
+      assertThat(afterCommit.name).isEqualTo("two");
+   }
+
+   @Test
+   public void listsPopulateTheMap() {
+      insert("one");
+      SqlClosure.sqlExecute(connection -> {
+         List<MappedEntity> list = Q2ObjList.fromClause(MappedEntity.class, null);
+         assertThat(Q2Obj.byId(MappedEntity.class, list.get(0).id)).isSameAs(list.get(0));
+         return null;
+      });
+   }
+
+   @Test
+   public void writes() {
+      SqlClosure.sqlExecute(connection -> {
+         MappedEntity inserted = insert("one");
+         assertThat(Q2Obj.byId(MappedEntity.class, inserted.id)).isSameAs(inserted);
+
+         Q2Obj.delete(inserted);
+         MappedEntity deleted = Q2Obj.byId(MappedEntity.class, inserted.id);
+         assertThat(deleted).isNull();
+         return null;
+      });
+   }
+
+   @Test
+   public void notOutsideTransactions() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      q2o.setIdentityMapEnabled(true);
+      try {
+         int id = insert("one").id;
+         MappedEntity first = Q2Obj.byId(MappedEntity.class, id);
+         assertThat(Q2Obj.byId(MappedEntity.class, id)).isNotSameAs(first);
+      }
+      finally {
+         q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+         q2o.setIdentityMapEnabled(true);
+      }
+   }
+}
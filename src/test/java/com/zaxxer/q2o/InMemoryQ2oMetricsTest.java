@@ -0,0 +1,113 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class InMemoryQ2oMetricsTest {
+
+   @Table(name = "METRICS_TEST")
+   public static class Item {
+      @Id
+      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      @Column(name = "NAME")
+      String name;
+
+      Item() {
+      }
+
+      Item(final String name) {
+         this.name = name;
+      }
+   }
+
+   private final InMemoryQ2oMetrics metrics = new InMemoryQ2oMetrics();
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE METRICS_TEST (ID INTEGER AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(32) NOT NULL)");
+      q2o.setMetrics(metrics);
+   }
+
+   @After
+   public void tearDown() {
+      q2o.setMetrics(null);
+      Q2Sql.executeUpdate("DROP TABLE METRICS_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void operationsAreRecordedPerEntityAndSqlShape() {
+      Item item = Q2Obj.insert(new Item("one"));
+      Q2ObjList.insertBatched(Arrays.asList(new Item("two"), new Item("three")));
+      item.name = "uno";
+      Q2Obj.update(item);
+      assertThat(Q2ObjList.fromClause(Item.class, "NAME = 'uno'")).hasSize(1);
+      assertThat(Q2ObjList.fromClause(Item.class, "NAME = 'two'")).hasSize(1);
+
+      InMemoryQ2oMetrics.Stats entity = metrics.getEntityStats().get(Item.class);
+      assertThat(entity.getCount(Q2oMetrics.Operation.INSERT)).isEqualTo(1);
+      assertThat(entity.getCount(Q2oMetrics.Operation.BATCH)).isEqualTo(1);
+      assertThat(entity.getCount(Q2oMetrics.Operation.UPDATE)).isEqualTo(1);
+      assertThat(entity.getCount(Q2oMetrics.Operation.QUERY)).isEqualTo(2);
+      assertThat(entity.getRowsRead()).isEqualTo(2);
+      assertThat(entity.getRowsWritten()).isEqualTo(4);
+      assertThat(entity.getBytesRead()).isPositive();
+      assertThat(entity.getBytesWritten()).isPositive();
+      assertThat(entity.getLatency().getCount()).isEqualTo(5);
+
+      // The queries differ in their literals only.
+      String shape = metrics.getSqlShapeStats().keySet().stream().filter(sql -> sql.contains("NAME = ?")).findFirst().get();
+      assertThat(metrics.getSqlShapeStats().get(shape).getCount(Q2oMetrics.Operation.QUERY)).isEqualTo(2);
+
+      assertThat(metrics.getCacheStats(Q2oMetrics.Cache.STATEMENT).getHitCount()).isPositive();
+      assertThat(metrics.getConnectionAcquireLatency().getCount()).isPositive();
+      assertThat(metrics.getClosureLatency().getCount()).isPositive();
+   }
+
+   @Test
+   public void errorsAreCounted() {
+      assertThatThrownBy(() -> Q2Obj.insert(new Item(null))).isInstanceOf(RuntimeException.class);
+
+      assertThat(metrics.getEntityStats().get(Item.class).getErrorCount()).isEqualTo(1);
+      assertThat(metrics.getEntityStats().get(Item.class).getCount()).isEqualTo(0);
+      assertThat(metrics.getFailedClosureCount()).isEqualTo(1);
+   }
+
+   @Test
+   public void sqlShapesHaveNoLiterals() {
+      assertThat(InMemoryQ2oMetrics.sqlShape("SELECT * FROM T1 WHERE NAME = 'it''s'  AND ID IN (1, 2,3) AND X > -1.5"))
+         .isEqualTo("SELECT * FROM T1 WHERE NAME = ? AND ID IN (?) AND X > -?");
+      assertThat(InMemoryQ2oMetrics.sqlShape("SELECT \"COL 1\" FROM T WHERE A = ?")).isEqualTo("SELECT \"COL 1\" FROM T WHERE A = ?");
+   }
+
+   @Test
+   public void latencyPercentilesAreAccurateToABucket() {
+      InMemoryQ2oMetrics.LatencyHistogram histogram = new InMemoryQ2oMetrics.LatencyHistogram();
+      for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+         histogram.record(nanos * 1000);
+      }
+
+      assertThat(histogram.getCount()).isEqualTo(1_000_000);
+      assertThat(histogram.getPercentileNanos(50)).isBetween(500_000_000L, 562_500_000L);
+      assertThat(histogram.getPercentileNanos(99)).isBetween(990_000_000L, 1_000_000_000L);
+      assertThat(histogram.getPercentileNanos(100)).isEqualTo(1_000_000_000L);
+      assertThat(histogram.getMeanNanos()).isEqualTo(500_000_500.0);
+   }
+}
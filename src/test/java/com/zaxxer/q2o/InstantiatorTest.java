@@ -0,0 +1,112 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class InstantiatorTest {
+
+   @Table(name = "IMMUTABLE_CUSTOMER")
+   public static class ImmutableCustomer {
+      @Id
+      private final int id;
+      @Column(name = "LAST_NAME")
+      private final String lastName;
+      @Column(name = "VISITS")
+      private final int visits;
+
+      @ConstructorProperties({"id", "lastName", "visits"})
+      public ImmutableCustomer(final int id, final String lastName, final int visits) {
+         this.id = id;
+         this.lastName = lastName;
+         this.visits = visits;
+      }
+   }
+
+   @Table(name = "IMMUTABLE_CUSTOMER")
+   public static class MutableCustomer {
+      @Id
+      private int id;
+      @Column(name = "LAST_NAME")
+      private String lastName;
+
+      private MutableCustomer() {
+      }
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE IMMUTABLE_CUSTOMER (ID INTEGER NOT NULL PRIMARY KEY, LAST_NAME VARCHAR(64), VISITS INTEGER)");
+      Q2Sql.executeUpdate("INSERT INTO IMMUTABLE_CUSTOMER VALUES (1, 'Smith', 3), (2, 'Miller', NULL)");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE IMMUTABLE_CUSTOMER");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void constructorInstantiation() {
+      List<ImmutableCustomer> customers = Q2ObjList.fromClause(ImmutableCustomer.class, "ID > 0 ORDER BY ID");
+      assertThat(customers).hasSize(2);
+      assertThat(customers.get(0).id).isEqualTo(1);
+      assertThat(customers.get(0).lastName).isEqualTo("Smith");
+      assertThat(customers.get(0).visits).isEqualTo(3);
+      // SQL NULL is passed as default value of the primitive constructor parameter.
+      assertThat(customers.get(1).visits).isEqualTo(0);
+
+      ImmutableCustomer customer = Q2Obj.byId(ImmutableCustomer.class, 2);
+      assertThat(customer.lastName).isEqualTo("Miller");
+   }
+
+   @Test
+   public void partialSelect() {
+      ImmutableCustomer customer = Q2Obj.fromSelect(ImmutableCustomer.class, "SELECT ID, LAST_NAME FROM IMMUTABLE_CUSTOMER WHERE ID = ?", 1);
+      assertThat(customer.lastName).isEqualTo("Smith");
+      assertThat(customer.visits).isEqualTo(0);
+   }
+
+   @Test
+   public void refreshImmutable() {
+      ImmutableCustomer customer = new ImmutableCustomer(1, null, 0);
+      assertThatThrownBy(() -> Q2Obj.refresh(customer)).hasRootCauseInstanceOf(IllegalArgumentException.class);
+   }
+
+   @Test
+   public void privateNoArgConstructor() {
+      MutableCustomer customer = Q2Obj.byId(MutableCustomer.class, 1);
+      assertThat(customer.lastName).isEqualTo("Smith");
+   }
+
+   @Test
+   public void customInstantiator() {
+      try {
+         q2o.registerInstantiator(MutableCustomer.class, args -> {
+            MutableCustomer customer = new MutableCustomer();
+            customer.lastName = "default";
+            return customer;
+         });
+         MutableCustomer customer = Q2Obj.fromSelect(MutableCustomer.class, "SELECT ID FROM IMMUTABLE_CUSTOMER WHERE ID = ?", 2);
+         assertThat(customer.id).isEqualTo(2);
+         assertThat(customer.lastName).isEqualTo("default");
+      }
+      finally {
+         q2o.registerInstantiator(MutableCustomer.class, null);
+      }
+   }
+}
@@ -0,0 +1,110 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class JfrEventsTest {
+
+   @Table(name = "JFR_TEST")
+   public static class Item {
+      @Id
+      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      @Column(name = "NAME")
+      String name;
+
+      Item() {
+      }
+
+      Item(final String name) {
+         this.name = name;
+      }
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE JFR_TEST (ID INTEGER AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(32))");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE JFR_TEST");
+      q2o.deinitialize();
+   }
+
+   private static List<RecordedEvent> record(final Runnable runnable) throws Exception {
+      final Path file = Files.createTempFile("q2o", ".jfr");
+      try (Recording recording = new Recording()) {
+         for (String name : Arrays.asList("q2o.Query", "q2o.Insert", "q2o.Batch", "q2o.Transaction", "q2o.ConnectionAcquire")) {
+            recording.enable(name).withoutThreshold();
+         }
+         recording.start();
+         runnable.run();
+         recording.stop();
+         recording.dump(file);
+         return RecordingFile.readAllEvents(file);
+      }
+      finally {
+         Files.delete(file);
+      }
+   }
+
+   private static List<RecordedEvent> ofType(final List<RecordedEvent> events, final String name) {
+      return events.stream().filter(event -> event.getEventType().getName().equals(name)).collect(Collectors.toList());
+   }
+
+   @Test
+   public void writesAndQueriesAreRecorded() throws Exception {
+      List<RecordedEvent> events = record(() -> {
+         SqlClosure.sqlExecute(connection -> {
+            Q2Obj.insert(new Item("one"));
+            Q2ObjList.insertBatched(connection, Arrays.asList(new Item("two"), new Item("three")));
+            return null;
+         });
+         assertThat(Q2ObjList.fromClause(Item.class, "NAME <> ?", "none")).hasSize(3);
+      });
+
+      RecordedEvent insert = ofType(events, "q2o.Insert").get(0);
+      assertThat(insert.getString("sql")).startsWith("INSERT INTO JFR_TEST");
+      assertThat(insert.getClass("entityClass").getName()).isEqualTo(Item.class.getName());
+      assertThat(insert.getInt("rows")).isEqualTo(1);
+
+      RecordedEvent batch = ofType(events, "q2o.Batch").get(0);
+      assertThat(batch.getString("operation")).isEqualTo("insert");
+      assertThat(batch.getInt("batchSize")).isEqualTo(2);
+
+      RecordedEvent query = ofType(events, "q2o.Query").get(0);
+      assertThat(query.getString("sql")).contains("NAME <> ?");
+      assertThat(query.getInt("rows")).isEqualTo(3);
+      assertThat(query.getDuration("mappingTime")).isGreaterThan(Duration.ZERO);
+
+      List<RecordedEvent> transactions = ofType(events, "q2o.Transaction");
+      // The query's closure executes in a transaction of its own.
+      assertThat(transactions).hasSize(2);
+      assertThat(transactions).allMatch(event -> event.getBoolean("committed") && event.getBoolean("connectionAcquired"));
+      assertThat(ofType(events, "q2o.ConnectionAcquire")).isNotEmpty();
+   }
+}
@@ -0,0 +1,122 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class LobStreamTest {
+
+   @Table(name = "LOB_ENTITY")
+   public static class LobEntity {
+      @Id
+      int id;
+      @Column(name = "DATA")
+      InputStream data;
+      @Column(name = "TEXT")
+      Reader text;
+      @Column(name = "FILE")
+      Path file;
+   }
+
+   private static byte[] bytes;
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE LOB_ENTITY (ID INTEGER NOT NULL PRIMARY KEY, DATA BLOB, TEXT CLOB, FILE BLOB)");
+      bytes = new byte[200_000];
+      for (int i = 0; i < bytes.length; i++) {
+         bytes[i] = (byte) i;
+      }
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE LOB_ENTITY");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void insertAndRead() throws IOException {
+      Path source = Files.createTempFile("q2o", ".bin");
+      try {
+         Files.write(source, bytes);
+         LobEntity entity = new LobEntity();
+         entity.id = 1;
+         entity.data = new ByteArrayInputStream(bytes);
+         entity.text = new StringReader("Gr\u00fc\u00dfe");
+         entity.file = source;
+         Q2Obj.insert(entity);
+
+         LobEntity read = Q2Obj.byId(LobEntity.class, 1);
+         try (InputStream in = read.data; Reader reader = read.text) {
+            assertThat(readAll(in)).isEqualTo(bytes);
+            char[] chars = new char[16];
+            assertThat(new String(chars, 0, reader.read(chars))).isEqualTo("Gr\u00fc\u00dfe");
+         }
+         assertThat(Files.readAllBytes(read.file)).isEqualTo(bytes);
+         Files.delete(read.file);
+      }
+      finally {
+         Files.deleteIfExists(source);
+         Q2Sql.executeUpdate("DELETE FROM LOB_ENTITY");
+      }
+   }
+
+   @Test
+   public void streamLob() throws IOException {
+      Path target = Files.createTempFile("q2o", ".bin");
+      try {
+         Q2Sql.executeUpdate("INSERT INTO LOB_ENTITY (ID, DATA, TEXT) VALUES (?, ?, ?)", 2, bytes, "Gr\u00fc\u00dfe");
+
+         try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            assertThat(Q2Obj.streamLob(LobEntity.class, 2, "data", channel)).isEqualTo(bytes.length);
+         }
+         assertThat(Files.readAllBytes(target)).isEqualTo(bytes);
+
+         ByteArrayOutputStream out = new ByteArrayOutputStream();
+         assertThat(Q2Obj.streamLob(LobEntity.class, 2, "text", Channels.newChannel(out))).isEqualTo(7);
+         assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("Gr\u00fc\u00dfe");
+
+         assertThat(Q2Obj.streamLob(LobEntity.class, 2, "file", Channels.newChannel(out))).isEqualTo(0);
+         assertThat(Q2Obj.streamLob(LobEntity.class, 3, "data", Channels.newChannel(out))).isEqualTo(-1);
+      }
+      finally {
+         Files.deleteIfExists(target);
+         Q2Sql.executeUpdate("DELETE FROM LOB_ENTITY");
+      }
+   }
+
+   private static byte[] readAll(final InputStream in) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+         out.write(buffer, 0, read);
+      }
+      return Arrays.copyOf(out.toByteArray(), out.size());
+   }
+}
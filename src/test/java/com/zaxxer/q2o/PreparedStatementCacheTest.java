@@ -0,0 +1,150 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class PreparedStatementCacheTest {
+
+   @Before
+   public void setUp() {
+      q2o.setPreparedStatementCacheSize(2);
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+   }
+
+   @After
+   public void tearDown() {
+      q2o.setPreparedStatementCacheSize(0);
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void reuseWithinConnection() throws SQLException {
+      PreparedStatement[] physical = new PreparedStatement[3];
+      SqlClosure.sqlExecute(connection -> {
+         PreparedStatement first = connection.prepareStatement("SELECT 1");
+         physical[0] = first.unwrap(PreparedStatement.class);
+         try (ResultSet resultSet = first.executeQuery()) {
+            resultSet.next();
+            // In use, so a second statement is prepared.
+            PreparedStatement concurrent = connection.prepareStatement("SELECT 1");
+            physical[1] = concurrent.unwrap(PreparedStatement.class);
+            concurrent.close();
+         }
+         first.close();
+         assertThat(first.isClosed()).isTrue();
+
+         try (PreparedStatement again = connection.prepareStatement("SELECT 1")) {
+            physical[2] = again.unwrap(PreparedStatement.class);
+         }
+         return null;
+      });
+      assertThat(physical[1]).isNotSameAs(physical[0]);
+      assertThat(physical[2]).isSameAs(physical[0]);
+      // Physically closed together with the connection.
+      assertThat(physical[0].isClosed()).isTrue();
+   }
+
+   @Test
+   public void leastRecentlyUsedIsClosed() {
+      SqlClosure.sqlExecute(connection -> {
+         PreparedStatement first = connection.prepareStatement("SELECT 1");
+         PreparedStatement physicalFirst = first.unwrap(PreparedStatement.class);
+         first.close();
+         connection.prepareStatement("SELECT 2").close();
+         connection.prepareStatement("SELECT 3").close();
+         assertThat(physicalFirst.isClosed()).isTrue();
+
+         PreparedStatement third = connection.prepareStatement("SELECT 3");
+         assertThat(third.unwrap(PreparedStatement.class).isClosed()).isFalse();
+         third.close();
+         return null;
+      });
+   }
+
+   @Test
+   public void parametersAreCleared() {
+      Q2Sql.executeUpdate("CREATE TABLE STMT_CACHE (ID INTEGER)");
+      try {
+         SqlClosure.sqlExecute(connection -> {
+            for (int i = 0; i < 3; i++) {
+               Q2Sql.executeUpdate(connection, "INSERT INTO STMT_CACHE VALUES (?)", i);
+            }
+            return null;
+         });
+         assertThat(Q2Sql.numberFromSql("SELECT SUM(ID) FROM STMT_CACHE").intValue()).isEqualTo(3);
+      }
+      finally {
+         Q2Sql.executeUpdate("DROP TABLE STMT_CACHE");
+      }
+   }
+
+   @Test
+   public void fetchSizeAndMaxRowsAreReset() {
+      SqlClosure.sqlExecute(connection -> {
+         PreparedStatement first = connection.prepareStatement("SELECT 1");
+         PreparedStatement physical = first.unwrap(PreparedStatement.class);
+         int defaultFetchSize = first.getFetchSize();
+         first.setFetchSize(defaultFetchSize + 10);
+         first.setMaxRows(1);
+         first.close();
+
+         try (PreparedStatement again = connection.prepareStatement("SELECT 1")) {
+            assertThat(again.unwrap(PreparedStatement.class)).isSameAs(physical);
+            assertThat(again.getFetchSize()).isEqualTo(defaultFetchSize);
+            assertThat(again.getMaxRows()).isZero();
+         }
+         return null;
+      });
+   }
+
+   @Test
+   public void closedStatementIsNotCancelled() {
+      SqlClosure.sqlExecute(connection -> {
+         PreparedStatement first = connection.prepareStatement("SELECT 1");
+         PreparedStatement physical = first.unwrap(PreparedStatement.class);
+         first.close();
+
+         try (PreparedStatement again = connection.prepareStatement("SELECT 1")) {
+            assertThat(again.unwrap(PreparedStatement.class)).isSameAs(physical);
+            // E.g. a timeout cancelling the statements of the closure.
+            assertThatThrownBy(first::cancel).isInstanceOf(SQLException.class);
+            try (ResultSet resultSet = again.executeQuery()) {
+               assertThat(resultSet.next()).isTrue();
+            }
+         }
+         return null;
+      });
+   }
+
+   @Test
+   public void closuresWithTheInitialDataSourceUseTheCache() {
+      DataSource dataSource = DataSources.getH2ImMemoryDataSource(true);
+      q2o.initializeTxNone(dataSource);
+      boolean reused = new SqlClosure<Boolean>(dataSource) {
+         @Override
+         protected Boolean execute(Connection connection) throws SQLException {
+            PreparedStatement first = connection.prepareStatement("SELECT 1");
+            PreparedStatement physical = first.unwrap(PreparedStatement.class);
+            first.close();
+            try (PreparedStatement again = connection.prepareStatement("SELECT 1")) {
+               return again.unwrap(PreparedStatement.class) == physical;
+            }
+         }
+      }.execute();
+      assertThat(reused).isTrue();
+   }
+}
@@ -0,0 +1,124 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class QueryCacheTest {
+
+   @Table(name = "QUERIED_ENTITY")
+   public static class QueriedEntity {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      int id;
+      @Column(name = "NAME")
+      String name;
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE QUERIED_ENTITY (ID INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, NAME VARCHAR(32))");
+      Q2Sql.executeUpdate("CREATE TABLE OTHER_TABLE (ID INTEGER)");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE QUERIED_ENTITY");
+      Q2Sql.executeUpdate("DROP TABLE OTHER_TABLE");
+      q2o.deinitialize();
+   }
+
+   @After
+   public void tearDown() {
+      q2o.disableQueryCache(QueriedEntity.class);
+      Q2Sql.executeUpdate("DELETE FROM QUERIED_ENTITY");
+   }
+
+   private static QueriedEntity insert(String name) {
+      QueriedEntity entity = new QueriedEntity();
+      entity.name = name;
+      return Q2Obj.insert(entity);
+   }
+
+   @Test
+   public void hitReturnsCopies() {
+      q2o.enableQueryCache(QueriedEntity.class, 100, Duration.ZERO);
+      insert("one");
+
+      List<QueriedEntity> first = Q2ObjList.fromClause(QueriedEntity.class, "NAME = ?", "one");
+      first.get(0).name = "changed, not saved";
+      first.clear();
+      List<QueriedEntity> second = Q2ObjList.fromClause(QueriedEntity.class, "NAME = ?", "one");
+
+      assertThat(second).hasSize(1);
+      assertThat(second.get(0).name).isEqualTo("one");
+      CacheStats stats = q2o.getQueryCacheStats(QueriedEntity.class);
+      assertThat(stats.getHitCount()).isEqualTo(1);
+      assertThat(stats.getMissCount()).isEqualTo(1);
+   }
+
+   @Test
+   public void writesToTheTableInvalidate() {
+      q2o.enableQueryCache(QueriedEntity.class, 100, Duration.ZERO);
+      insert("one");
+      assertThat(Q2ObjList.fromRawClause(QueriedEntity.class, "WHERE ID > 0 ORDER BY ID")).hasSize(1);
+
+      Q2Sql.executeUpdate("INSERT INTO OTHER_TABLE VALUES (1)");
+      assertThat(Q2ObjList.fromRawClause(QueriedEntity.class, "WHERE ID > 0 ORDER BY ID")).hasSize(1);
+      assertThat(q2o.getQueryCacheStats(QueriedEntity.class).getHitCount()).isEqualTo(1);
+
+      insert("two");
+      assertThat(Q2ObjList.fromRawClause(QueriedEntity.class, "WHERE ID > 0 ORDER BY ID")).hasSize(2);
+
+      Q2Sql.executeUpdate("DELETE FROM \"QUERIED_ENTITY\" WHERE NAME = ?", "two");
+      assertThat(Q2ObjList.fromRawClause(QueriedEntity.class, "WHERE ID > 0 ORDER BY ID")).hasSize(1);
+   }
+
+   @Test
+   public void uncommittedWritesAreNotCached() {
+      q2o.enableQueryCache(QueriedEntity.class, 100, Duration.ZERO);
+      insert("one");
+      Q2ObjList.fromClause(QueriedEntity.class, null);
+
+      TransactionHelper.beginOrJoinTransaction();
+      insert("rolled back");
+      // The transaction sees its own change.
+      assertThat(Q2ObjList.fromClause(QueriedEntity.class, null)).hasSize(2);
+      TransactionHelper.rollback();
+
+      assertThat(Q2ObjList.fromClause(QueriedEntity.class, null)).hasSize(1);
+   }
+
+   @Test
+   public void entriesExpire() throws InterruptedException {
+      q2o.enableQueryCache(QueriedEntity.class, 100, Duration.ofMillis(50));
+      insert("one");
+      Q2ObjList.fromClause(QueriedEntity.class, null);
+      // Plain JDBC is not noticed.
+      SqlClosure.sqlExecute(connection -> {
+         try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate("UPDATE QUERIED_ENTITY SET NAME = 'two'");
+         }
+      });
+      assertThat(Q2ObjList.fromClause(QueriedEntity.class, null).get(0).name).isEqualTo("one");
+
+      Thread.sleep(100);
+      assertThat(Q2ObjList.fromClause(QueriedEntity.class, null).get(0).name).isEqualTo("two");
+   }
+}
@@ -0,0 +1,167 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class QueryPublisherTest {
+
+   @Table(name = "PUBLISHED")
+   public static class Published {
+      @Id
+      int id;
+      @Column(name = "NAME")
+      String name;
+   }
+
+   /**
+    * Requests batch entities at a time, cancels after cancelAfter.
+    */
+   static class Collector implements Flow.Subscriber<Published> {
+      final List<Published> received = new ArrayList<>();
+      final CompletableFuture<List<Published>> done = new CompletableFuture<>();
+      final int batch;
+      final int cancelAfter;
+      volatile String thread;
+      Flow.Subscription subscription;
+
+      Collector(int batch, int cancelAfter) {
+         this.batch = batch;
+         this.cancelAfter = cancelAfter;
+      }
+
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+         this.subscription = subscription;
+         subscription.request(batch);
+      }
+
+      @Override
+      public void onNext(Published item) {
+         thread = Thread.currentThread().getName();
+         received.add(item);
+         if (received.size() == cancelAfter) {
+            subscription.cancel();
+            done.complete(received);
+         }
+         else if (received.size() % batch == 0) {
+            subscription.request(batch);
+         }
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+         done.completeExceptionally(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+         done.complete(received);
+      }
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE PUBLISHED (ID INTEGER PRIMARY KEY, NAME VARCHAR(32))");
+      List<Published> rows = new ArrayList<>();
+      for (int i = 1; i <= 25; i++) {
+         Published row = new Published();
+         row.id = i;
+         row.name = "name" + i;
+         rows.add(row);
+      }
+      Q2ObjList.insertBatched(rows);
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE PUBLISHED");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void publishAll() throws Exception {
+      Collector collector = new Collector(4, Integer.MAX_VALUE);
+      Q2ObjList.publisher(Published.class, "ID > 0 ORDER BY ID").subscribe(collector);
+
+      List<Published> received = collector.done.get(10, TimeUnit.SECONDS);
+      assertThat(received).hasSize(25);
+      assertThat(received.get(24).name).isEqualTo("name25");
+      assertThat(collector.thread).isNotEqualTo(Thread.currentThread().getName());
+   }
+
+   @Test
+   public void cancel() throws Exception {
+      Collector collector = new Collector(3, 5);
+      Q2ObjList.publisher(Published.class, "ID > ? ORDER BY ID", 10).subscribe(collector);
+
+      List<Published> received = collector.done.get(10, TimeUnit.SECONDS);
+      assertThat(received).hasSize(5);
+      assertThat(received.get(0).id).isEqualTo(11);
+      // No more entities after cancel.
+      Thread.sleep(100);
+      assertThat(received).hasSize(5);
+   }
+
+   @Test
+   public void error() throws Exception {
+      Collector collector = new Collector(1, Integer.MAX_VALUE);
+      Q2ObjList.publisher(Published.class, "NO_SUCH_COLUMN > 0").subscribe(collector);
+
+      CompletableFuture<Throwable> failure = collector.done.handle((list, e) -> e);
+      assertThat(failure.get(10, TimeUnit.SECONDS)).isNotNull();
+   }
+
+   @Test
+   public void invalidRequestIsSignalledAfterOnNext() throws Exception {
+      CompletableFuture<Boolean> signalledInOnNext = new CompletableFuture<>();
+      Flow.Subscriber<Published> subscriber = new Flow.Subscriber<Published>() {
+         Flow.Subscription subscription;
+         volatile boolean inOnNext;
+
+         @Override
+         public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(2);
+         }
+
+         @Override
+         public void onNext(Published item) {
+            inOnNext = true;
+            if (item.id == 1) {
+               subscription.request(0);
+            }
+            inOnNext = false;
+         }
+
+         @Override
+         public void onError(Throwable throwable) {
+            signalledInOnNext.complete(inOnNext);
+         }
+
+         @Override
+         public void onComplete() {
+            signalledInOnNext.completeExceptionally(new AssertionError("Completed"));
+         }
+      };
+      Q2ObjList.publisher(Published.class, "ID > 0 ORDER BY ID").subscribe(subscriber);
+
+      assertThat(signalledInOnNext.get(10, TimeUnit.SECONDS)).isFalse();
+   }
+}
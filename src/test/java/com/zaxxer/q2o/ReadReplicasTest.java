@@ -0,0 +1,125 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class ReadReplicasTest {
+
+   @Table(name = "REPLICATED")
+   public static class Replicated {
+      @Id
+      int id;
+      @Column(name = "SOURCE")
+      String source;
+   }
+
+   private final DataSource primary = DataSources.getH2ImMemoryDataSource(true);
+   private final DataSource replica1 = replica("q2o_replica1");
+   private final DataSource replica2 = replica("q2o_replica2");
+
+   private static DataSource replica(String name) {
+      JdbcDataSource dataSource = new JdbcDataSource();
+      dataSource.setUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+      return dataSource;
+   }
+
+   private static void execute(DataSource dataSource, String sql) throws SQLException {
+      try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+         stmt.execute(sql);
+      }
+   }
+
+   @Before
+   public void setUp() throws SQLException {
+      execute(primary, "CREATE TABLE REPLICATED (ID INTEGER PRIMARY KEY, SOURCE VARCHAR(16))");
+      execute(primary, "INSERT INTO REPLICATED VALUES (1, 'primary')");
+      execute(replica1, "CREATE TABLE REPLICATED (ID INTEGER PRIMARY KEY, SOURCE VARCHAR(16))");
+      execute(replica1, "INSERT INTO REPLICATED VALUES (1, 'replica1')");
+      execute(replica2, "CREATE TABLE REPLICATED (ID INTEGER PRIMARY KEY, SOURCE VARCHAR(16))");
+      execute(replica2, "INSERT INTO REPLICATED VALUES (1, 'replica2')");
+      q2o.initializeTxSimple(primary);
+   }
+
+   @After
+   public void tearDown() throws SQLException {
+      q2o.deinitialize();
+      execute(primary, "DROP TABLE REPLICATED");
+      execute(replica1, "DROP TABLE REPLICATED");
+      execute(replica2, "DROP TABLE REPLICATED");
+   }
+
+   @Test
+   public void roundRobin() {
+      q2o.setReadReplicas(ReplicaSelection.ROUND_ROBIN, replica1, replica2);
+
+      assertThat(Q2Obj.byId(Replicated.class, 1).source).isEqualTo("replica1");
+      assertThat(Q2ObjList.fromClause(Replicated.class, "ID > 0").get(0).source).isEqualTo("replica2");
+      assertThat(Q2Obj.byId(Replicated.class, 1).source).isEqualTo("replica1");
+   }
+
+   @Test
+   public void leastInFlight() {
+      q2o.setReadReplicas(ReplicaSelection.LEAST_IN_FLIGHT, replica1, replica2);
+
+      String nested = SqlClosure.sqlExecuteReadOnly(c -> Q2Obj.byId(Replicated.class, 1).source);
+      assertThat(nested).isEqualTo("replica2");
+      assertThat(Q2Obj.byId(Replicated.class, 1).source).isEqualTo("replica1");
+   }
+
+   @Test
+   public void writesAndTransactionsOnPrimary() {
+      q2o.setReadReplicas(ReplicaSelection.ROUND_ROBIN, replica1, replica2);
+
+      Replicated replicated = new Replicated();
+      replicated.id = 2;
+      replicated.source = "written";
+      Q2Obj.insert(replicated);
+
+      String inTx = SqlClosure.sqlExecute(c -> Q2Obj.byId(Replicated.class, 2).source);
+      assertThat(inTx).isEqualTo("written");
+      assertThat(Q2Obj.byId(Replicated.class, 2)).isNull();
+
+      q2o.setReadReplicas(ReplicaSelection.ROUND_ROBIN);
+      assertThat(Q2Obj.byId(Replicated.class, 1).source).isEqualTo("primary");
+   }
+
+   @Test
+   public void replicaReadsAreNotCached() {
+      q2o.enableEntityCache(Replicated.class, 10, Duration.ZERO);
+      q2o.enableQueryCache(Replicated.class, 10, Duration.ZERO);
+      try {
+         q2o.setReadReplicas(ReplicaSelection.ROUND_ROBIN, replica1);
+         assertThat(Q2Obj.byId(Replicated.class, 1).source).isEqualTo("replica1");
+         assertThat(Q2ObjList.fromClause(Replicated.class, "ID > 0").get(0).source).isEqualTo("replica1");
+
+         Replicated target = new Replicated();
+         target.id = 1;
+         assertThat(Q2Obj.byId(target).source).isEqualTo("primary");
+
+         q2o.setReadReplicas(ReplicaSelection.ROUND_ROBIN);
+         assertThat(Q2Obj.byId(Replicated.class, 1).source).isEqualTo("primary");
+         assertThat(Q2ObjList.fromClause(Replicated.class, "ID > 0").get(0).source).isEqualTo("primary");
+      }
+      finally {
+         q2o.disableEntityCache(Replicated.class);
+         q2o.disableQueryCache(Replicated.class);
+      }
+   }
+}
@@ -0,0 +1,95 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class RetryPolicyTest {
+
+   private RetryPolicy policy;
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE RETRY_TEST (ID INTEGER)");
+      policy = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5));
+      q2o.setRetryPolicy(policy);
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE RETRY_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void retryInFreshTransaction() {
+      AtomicInteger attempts = new AtomicInteger();
+      Integer count = SqlClosure.sqlExecute(connection -> {
+         Q2Sql.executeUpdate(connection, "INSERT INTO RETRY_TEST VALUES (1)");
+         if (attempts.incrementAndGet() < 3) {
+            throw new SQLException("Deadlock detected", "40P01");
+         }
+         return Q2Sql.numberFromSql(connection, "SELECT COUNT(*) FROM RETRY_TEST").intValue();
+      });
+
+      assertThat(count).isEqualTo(1);
+      assertThat(attempts.get()).isEqualTo(3);
+      assertThat(policy.getRetryCount()).isEqualTo(2);
+      assertThat(policy.getRecoveredCount()).isEqualTo(1);
+   }
+
+   @Test
+   public void exhausted() {
+      AtomicInteger attempts = new AtomicInteger();
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> {
+         attempts.incrementAndGet();
+         throw new SQLException("Serialization failure", "40001");
+      })).isInstanceOf(RuntimeException.class);
+
+      assertThat(attempts.get()).isEqualTo(3);
+      assertThat(policy.getExhaustedCount()).isEqualTo(1);
+   }
+
+   @Test
+   public void notRetried() {
+      AtomicInteger attempts = new AtomicInteger();
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> {
+         attempts.incrementAndGet();
+         throw new SQLException("Syntax error", "42000");
+      })).isInstanceOf(RuntimeException.class);
+      assertThat(attempts.get()).isEqualTo(1);
+
+      // Joined closures leave the retry to the outer one.
+      AtomicInteger outer = new AtomicInteger();
+      AtomicInteger inner = new AtomicInteger();
+      SqlClosure<Integer> closure = new SqlClosure<Integer>() {
+         @Override
+         protected Integer execute(Connection connection) {
+            outer.incrementAndGet();
+            return SqlClosure.sqlExecute(c -> {
+               if (inner.incrementAndGet() == 1) {
+                  throw new SQLException("Deadlock", "40001");
+               }
+               return 1;
+            });
+         }
+      };
+      closure.setRetryPolicy(new RetryPolicy(2, Duration.ZERO, Duration.ZERO, e -> "40001".equals(e.getSQLState())));
+      assertThat(closure.execute()).isEqualTo(1);
+      assertThat(outer.get()).isEqualTo(2);
+      assertThat(inner.get()).isEqualTo(2);
+   }
+}
@@ -0,0 +1,176 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class RowStoreTest {
+
+   @Table(name = "REFERENCE_ROW")
+   public static class ReferenceRow {
+      @Id
+      long id;
+      @Column(name = "CODE")
+      String code;
+      @Column(name = "WEIGHT")
+      Double weight;
+      @Column(name = "ACTIVE")
+      boolean active;
+      @Column(name = "PRICE")
+      BigDecimal price;
+   }
+
+   @Table(name = "TEMPORAL_ROW")
+   public static class TemporalRow {
+      @Id
+      long id;
+      @Column(name = "CREATED")
+      Timestamp created;
+      @Column(name = "DAY")
+      LocalDate day;
+      @Column(name = "SEEN")
+      Instant seen;
+      @Column(name = "AMOUNT")
+      BigDecimal amount;
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE REFERENCE_ROW (ID BIGINT PRIMARY KEY, CODE VARCHAR(16), WEIGHT DOUBLE, ACTIVE BOOLEAN, PRICE DECIMAL(10, 2))");
+      List<ReferenceRow> rows = new ArrayList<>();
+      for (int i = 1; i <= 5_000; i++) {
+         ReferenceRow row = new ReferenceRow();
+         row.id = i;
+         row.code = "C" + i % 100;
+         row.weight = i % 10 == 0 ? null : i / 2.0;
+         row.active = i % 2 == 0;
+         row.price = BigDecimal.valueOf(i % 3, 2);
+         rows.add(row);
+      }
+      Q2ObjList.insertBatched(rows);
+      Q2Sql.executeUpdate("CREATE TABLE TEMPORAL_ROW (ID BIGINT PRIMARY KEY, CREATED TIMESTAMP, DAY DATE, SEEN TIMESTAMP, AMOUNT DECIMAL(40, 2))");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE REFERENCE_ROW");
+      Q2Sql.executeUpdate("DROP TABLE TEMPORAL_ROW");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void loadAndMaterialize() {
+      RowStore<ReferenceRow> store = RowStore.load(ReferenceRow.class);
+      assertThat(store.size()).isEqualTo(5_000);
+      assertThat(store.getOffHeapBytes()).isGreaterThan(0);
+
+      ReferenceRow row = store.get(4_321);
+      assertThat(row.id).isEqualTo(4_321);
+      assertThat(row.code).isEqualTo("C21");
+      assertThat(row.weight).isEqualTo(2160.5);
+      assertThat(row.active).isFalse();
+      assertThat(row.price).isEqualByComparingTo("0.01");
+
+      assertThat(store.get(10).weight).isNull();
+      assertThat(store.get(5_001)).isNull();
+      assertThat(store.contains(5_000L)).isTrue();
+   }
+
+   @Test
+   public void view() {
+      RowStore<ReferenceRow> store = RowStore.load(ReferenceRow.class);
+      RowStore<ReferenceRow>.View view = store.view();
+      assertThat(view.moveTo(42)).isTrue();
+      assertThat(view.getString("code")).isEqualTo("C42");
+      assertThat(view.getDouble("weight")).isEqualTo(21.0);
+      assertThat(view.getBoolean("active")).isTrue();
+      assertThat(view.moveTo(0)).isFalse();
+   }
+
+   @Test
+   public void refresh() {
+      RowStore<ReferenceRow> store = RowStore.load(ReferenceRow.class);
+      try {
+         Q2Sql.executeUpdate("UPDATE REFERENCE_ROW SET CODE = 'CHANGED' WHERE ID = 7");
+         Q2Sql.executeUpdate("INSERT INTO REFERENCE_ROW (ID, CODE, ACTIVE) VALUES (9999, 'NEW', TRUE)");
+
+         assertThat(store.refresh("ID = 7 OR ID > 5000")).isEqualTo(2);
+         assertThat(store.size()).isEqualTo(5_001);
+         assertThat(store.get(7).code).isEqualTo("CHANGED");
+         assertThat(store.get(8).code).isEqualTo("C8");
+         assertThat(store.get(9999).code).isEqualTo("NEW");
+      }
+      finally {
+         Q2Sql.executeUpdate("UPDATE REFERENCE_ROW SET CODE = 'C7' WHERE ID = 7");
+         Q2Sql.executeUpdate("DELETE FROM REFERENCE_ROW WHERE ID = 9999");
+      }
+   }
+
+   @Test
+   public void refreshReusesAndCompactsStrings() {
+      RowStore<ReferenceRow> store = RowStore.load(ReferenceRow.class);
+      long loaded = store.getStringAreaBytes();
+      try {
+         store.refresh("ID > 0");
+         store.refresh("ID > 0");
+         assertThat(store.getStringAreaBytes()).isEqualTo(loaded);
+
+         for (int round = 1; round <= 5; round++) {
+            Q2Sql.executeUpdate("UPDATE REFERENCE_ROW SET CODE = CONCAT('R', ?, '-', ID)", round);
+            store.refresh("ID > 0");
+            assertThat(store.get(4_321).code).isEqualTo("R" + round + "-4321");
+         }
+         // One round of unique strings takes some 70 KB, orphaned ones are dropped by compaction.
+         assertThat(store.getStringAreaBytes()).isLessThan(200_000);
+      }
+      finally {
+         Q2Sql.executeUpdate("UPDATE REFERENCE_ROW SET CODE = CONCAT('C', MOD(ID, 100))");
+      }
+   }
+
+   @Test
+   public void temporalsAndDecimals() {
+      try {
+         Q2Sql.executeUpdate("INSERT INTO TEMPORAL_ROW VALUES (1, TIMESTAMP '2026-10-19 12:30:15.123456789', DATE '2026-10-19', TIMESTAMP '2026-10-19 00:00:01', 12.34)");
+         Q2Sql.executeUpdate("INSERT INTO TEMPORAL_ROW VALUES (2, NULL, NULL, NULL, 123456789012345678901234567890.12)");
+         RowStore<TemporalRow> store = RowStore.load(TemporalRow.class);
+
+         TemporalRow first = store.get(1);
+         TemporalRow expected = Q2Obj.byId(TemporalRow.class, 1);
+         assertThat(first.created).isEqualTo(expected.created);
+         assertThat(first.day).isEqualTo(LocalDate.of(2026, 10, 19));
+         assertThat(first.seen).isEqualTo(expected.seen);
+         assertThat(first.amount).isEqualByComparingTo("12.34");
+         assertThat(store.get(2).created).isNull();
+         assertThat(store.get(2).amount).isEqualByComparingTo("123456789012345678901234567890.12");
+         assertThat(store.getDictionarySize()).isEqualTo(1);
+
+         Q2Sql.executeUpdate("UPDATE TEMPORAL_ROW SET AMOUNT = 223456789012345678901234567890.12 WHERE ID = 2");
+         store.refresh("ID = 2");
+         Q2Sql.executeUpdate("UPDATE TEMPORAL_ROW SET AMOUNT = 1 WHERE ID = 2");
+         store.refresh("ID = 2");
+         assertThat(store.get(2).amount).isEqualByComparingTo("1");
+         assertThat(store.getDictionarySize()).isZero();
+      }
+      finally {
+         Q2Sql.executeUpdate("DELETE FROM TEMPORAL_ROW");
+      }
+   }
+}
@@ -0,0 +1,92 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.Types;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class SchemaCatalogTest {
+
+   @Table(name = "CATALOG_ENTITY")
+   public static class CatalogEntity {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      int id;
+      @Column(name = "NAME")
+      String name;
+      @Column(name = "AMOUNT")
+      long amount;
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE CATALOG_ENTITY (ID INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, NAME VARCHAR(32) NOT NULL, AMOUNT BIGINT)");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE CATALOG_ENTITY");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void insertAndUpdateWithCatalog() {
+      q2o.preloadSchemaCatalog(CatalogEntity.class);
+      try {
+         Map<String, SchemaCatalog.Column> columns = SqlClosure.sqlExecute(connection -> SchemaCatalog.getColumns(connection, "CATALOG_ENTITY"));
+         assertThat(columns.get("name").sqlType).isEqualTo(Types.VARCHAR);
+         assertThat(columns.get("name").size).isEqualTo(32);
+         assertThat(columns.get("name").nullable).isFalse();
+         assertThat(columns.get("amount").typeName).isEqualTo("BIGINT");
+
+         Introspected introspected = Introspected.getInstance(CatalogEntity.class);
+         int[] updateTypes = SqlClosure.sqlExecute(connection -> SchemaCatalog.getParameterTypes(connection, introspected, introspected.getUpdatableFcInfos(), null, true));
+         assertThat(updateTypes).containsExactly(Types.VARCHAR, Types.BIGINT, Types.INTEGER);
+
+         CatalogEntity entity = new CatalogEntity();
+         entity.name = "first";
+         entity.amount = 5;
+         Q2Obj.insert(entity);
+         entity.amount = 6;
+         Q2Obj.update(entity);
+         assertThat(Q2Obj.byId(CatalogEntity.class, entity.id).amount).isEqualTo(6);
+      }
+      finally {
+         q2o.setSchemaCatalogEnabled(false);
+         Q2Sql.executeUpdate("DELETE FROM CATALOG_ENTITY");
+      }
+   }
+
+   @Test
+   public void refresh() {
+      q2o.setSchemaCatalogEnabled(true);
+      try {
+         Map<String, SchemaCatalog.Column> unknown = SqlClosure.sqlExecute(connection -> SchemaCatalog.getColumns(connection, "CATALOG_LATER"));
+         assertThat(unknown).isEmpty();
+
+         Q2Sql.executeUpdate("CREATE TABLE CATALOG_LATER (ID INTEGER)");
+         Map<String, SchemaCatalog.Column> stale = SqlClosure.sqlExecute(connection -> SchemaCatalog.getColumns(connection, "CATALOG_LATER"));
+         assertThat(stale).isEmpty();
+         q2o.refreshSchemaCatalog();
+         Map<String, SchemaCatalog.Column> refreshed = SqlClosure.sqlExecute(connection -> SchemaCatalog.getColumns(connection, "CATALOG_LATER"));
+         assertThat(refreshed).containsOnlyKeys("ID");
+      }
+      finally {
+         q2o.setSchemaCatalogEnabled(false);
+         Q2Sql.executeUpdate("DROP TABLE IF EXISTS CATALOG_LATER");
+      }
+   }
+}
@@ -0,0 +1,151 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.transaction.TxThreadContext;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class SqlClosureSubmitTest {
+
+   @Before
+   public void setUp() {
+      setUpDataSource();
+      Q2Sql.executeUpdate("CREATE TABLE SUBMIT_TEST (ID INTEGER)");
+   }
+
+   private static void setUpDataSource() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE SUBMIT_TEST");
+      TxThreadContext.setCarrier(null);
+      q2o.setExecutor(null);
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void submit() throws Exception {
+      Future<Integer> inserted = new SqlClosure<Integer>() {
+         @Override
+         protected Integer execute(Connection connection) throws SQLException {
+            return Q2Sql.executeUpdate(connection, "INSERT INTO SUBMIT_TEST VALUES (1)");
+         }
+      }.submit();
+      assertThat(inserted.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(Q2Sql.numberFromSql("SELECT COUNT(*) FROM SUBMIT_TEST").intValue()).isEqualTo(1);
+   }
+
+   @Test
+   public void fanOut() throws Exception {
+      Q2Sql.executeUpdate("INSERT INTO SUBMIT_TEST VALUES (1)");
+      q2o.setExecutorThreads(2);
+      CompletableFuture<Number> count = SqlClosure.sqlExecuteAsync(connection -> Q2Sql.numberFromSql(connection, "SELECT COUNT(*) FROM SUBMIT_TEST"));
+      CompletableFuture<Number> max = SqlClosure.sqlExecuteAsync(connection -> Q2Sql.numberFromSql(connection, "SELECT MAX(ID) FROM SUBMIT_TEST"));
+      int sum = count.thenCombine(max, (c, m) -> c.intValue() + m.intValue()).get(10, TimeUnit.SECONDS);
+      assertThat(sum).isEqualTo(2);
+   }
+
+   @Test
+   public void replacedExecutorIsShutDown() {
+      q2o.setExecutorThreads(1);
+      ExecutorService threads = (ExecutorService) SqlClosure.getExecutor();
+      q2o.setExecutorThreads(1);
+      assertThat(threads.isShutdown()).isTrue();
+
+      ExecutorService replacement = (ExecutorService) SqlClosure.getExecutor();
+      q2o.deinitialize();
+      assertThat(replacement.isShutdown()).isTrue();
+      setUpDataSource();
+   }
+
+   @Test
+   public void virtualThreads() throws Exception {
+      Assume.assumeTrue("JDK 21 or later", VirtualThreads.isSupported());
+      q2o.setExecutorThreads(1);
+      ExecutorService threads = (ExecutorService) SqlClosure.getExecutor();
+      q2o.useVirtualThreads();
+      assertThat(threads.isShutdown()).isTrue();
+
+      Method isVirtual = Thread.class.getMethod("isVirtual");
+      CompletableFuture<Boolean> virtual = SqlClosure.sqlExecuteAsync(connection -> {
+         Q2Sql.executeUpdate(connection, "INSERT INTO SUBMIT_TEST VALUES (1)");
+         try {
+            return (Boolean) isVirtual.invoke(Thread.currentThread());
+         }
+         catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+         }
+      });
+      assertThat(virtual.get(10, TimeUnit.SECONDS)).isTrue();
+
+      ExecutorService virtualThreads = (ExecutorService) SqlClosure.getExecutor();
+      q2o.setExecutor(null);
+      assertThat(virtualThreads.isShutdown()).isTrue();
+   }
+
+   @Test
+   public void cancel() throws Exception {
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch finished = new CountDownLatch(1);
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      CompletableFuture<Number> future = SqlClosure.sqlExecuteAsync(connection -> {
+         started.countDown();
+         try {
+            return Q2Sql.numberFromSql(connection, "SELECT MAX(X * X) FROM SYSTEM_RANGE(1, 2000000000)");
+         }
+         catch (SQLException e) {
+            failure.set(e);
+            throw e;
+         }
+         finally {
+            finished.countDown();
+         }
+      });
+      assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+      Thread.sleep(200);
+
+      assertThat(future.cancel(true)).isTrue();
+      assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(future.isCancelled()).isTrue();
+      assertThat(failure.get()).isNotNull();
+   }
+
+   @Test
+   public void customCarrier() {
+      Map<Thread, TxThreadContext> contexts = new ConcurrentHashMap<>();
+      AtomicInteger lookups = new AtomicInteger();
+      TxThreadContext.setCarrier(() -> {
+         lookups.incrementAndGet();
+         return contexts.computeIfAbsent(Thread.currentThread(), thread -> TxThreadContext.newContext());
+      });
+
+      Integer count = SqlClosure.sqlExecute(connection -> {
+         Q2Sql.executeUpdate(connection, "INSERT INTO SUBMIT_TEST VALUES (1)");
+         return Q2Sql.numberFromSql(connection, "SELECT COUNT(*) FROM SUBMIT_TEST").intValue();
+      });
+      assertThat(count).isEqualTo(1);
+      assertThat(lookups.get()).isGreaterThan(0);
+   }
+}
@@ -123,6 +123,38 @@ public class SqlClosureTransactionsTest {
       }
    }
 
+   @Test
+   public void shouldRollbackOnlyFailedNestedTransactions() {
+      final Set<String> insertedValues = SqlClosure.sqlExecute(c -> {
+         Q2Sql.executeUpdate(c, "INSERT INTO tx_test VALUES (?)", "9");
+
+         assertThatThrownBy(() -> SqlClosure.sqlExecuteNested(cNested -> {
+            Q2Sql.executeUpdate(cNested, "INSERT INTO tx_test VALUES (?)", "10");
+            throw new RuntimeException("boom!");
+         })).hasMessage("boom!");
+
+         // Failing in a closure joining the nested transaction.
+         assertThatThrownBy(() -> SqlClosure.sqlExecuteNested(cNested -> {
+            Q2Sql.executeUpdate(cNested, "INSERT INTO tx_test VALUES (?)", "11");
+            return Q2Sql.executeUpdate("INSERT INTO no_such_table VALUES (?)", "12");
+         })).isInstanceOf(RuntimeException.class);
+
+         SqlClosure.sqlExecuteNested(cNested -> {
+            Q2Sql.executeUpdate(cNested, "INSERT INTO tx_test VALUES (?)", "13");
+            return SqlClosure.sqlExecuteNested(cNested2 -> Q2Sql.executeUpdate(cNested2, "INSERT INTO tx_test VALUES (?)", "14"));
+         });
+         return null;
+      });
+
+      final Set<String> committedValues = SqlClosure.sqlExecute(SqlClosureTransactionsTest::getStrings);
+      if (withUserTx) {
+         assertThat(committedValues).containsOnly("9", "13", "14");
+      }
+      else {
+         assertThat(committedValues).containsOnly("9", "10", "11", "13", "14");
+      }
+   }
+
    static Set<String> getStrings(Connection c) throws SQLException {
       ResultSet rs = Q2Sql.executeQuery(c, "SELECT string FROM tx_test;");
       Set<String> result = new HashSet<>();
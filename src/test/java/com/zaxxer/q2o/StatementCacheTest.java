@@ -0,0 +1,89 @@
+package com.zaxxer.q2o;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class StatementCacheTest {
+
+   @Test
+   public void hitsAndMisses() {
+      StatementCache.Counters counters = new StatementCache.Counters();
+      StatementCache<String, String> cache = new StatementCache<>(10, counters);
+      AtomicInteger computations = new AtomicInteger();
+
+      for (int i = 0; i < 3; i++) {
+         assertThat(cache.computeIfAbsent("id = ?", key -> {
+            computations.incrementAndGet();
+            return "SELECT * FROM t WHERE " + key;
+         })).isEqualTo("SELECT * FROM t WHERE id = ?");
+      }
+      assertThat(computations).hasValue(1);
+      CacheStats stats = counters.snapshot();
+      assertThat(stats.getHitCount()).isEqualTo(2);
+      assertThat(stats.getMissCount()).isEqualTo(1);
+      assertThat(stats.getEvictionCount()).isZero();
+   }
+
+   @Test
+   public void frequentlyUsedEntriesSurviveScans() {
+      StatementCache.Counters counters = new StatementCache.Counters();
+      StatementCache<String, String> cache = new StatementCache<>(100, counters);
+      for (int round = 0; round < 5; round++) {
+         for (int i = 0; i < 50; i++) {
+            cache.computeIfAbsent("hot" + i, key -> key);
+         }
+      }
+      // One-off clauses, e.g. with inlined values.
+      for (int i = 0; i < 1_000; i++) {
+         cache.computeIfAbsent("cold" + i, key -> key);
+      }
+
+      assertThat(cache.size()).isLessThanOrEqualTo(101);
+      int hotRetained = 0;
+      for (int i = 0; i < 50; i++) {
+         if (cache.containsKey("hot" + i)) {
+            hotRetained++;
+         }
+      }
+      assertThat(hotRetained).isGreaterThanOrEqualTo(45);
+      assertThat(counters.snapshot().getEvictionCount()).isGreaterThan(0);
+   }
+
+   @Test
+   public void concurrentAccess() throws Exception {
+      StatementCache.Counters counters = new StatementCache.Counters();
+      StatementCache<Integer, String> cache = new StatementCache<>(64, counters);
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      try {
+         Future<?>[] futures = new Future<?>[8];
+         for (int t = 0; t < futures.length; t++) {
+            futures[t] = executor.submit(() -> {
+               for (int i = 0; i < 10_000; i++) {
+                  Integer key = i % 200;
+                  assertThat(cache.computeIfAbsent(key, String::valueOf)).isEqualTo(String.valueOf(key));
+               }
+            });
+         }
+         for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+      }
+      finally {
+         executor.shutdownNow();
+      }
+      CacheStats stats = counters.snapshot();
+      assertThat(stats.getHitCount() + stats.getMissCount()).isEqualTo(80_000);
+      // Maintenance may lag behind by the entries added while another thread maintains.
+      assertThat(cache.size()).isLessThanOrEqualTo(64 + 8);
+   }
+}
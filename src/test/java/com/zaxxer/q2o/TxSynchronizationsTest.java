@@ -0,0 +1,57 @@
+package com.zaxxer.q2o;
+
+import org.h2.jdbc.JdbcConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class TxSynchronizationsTest {
+
+   private final AtomicReference<Boolean> completion = new AtomicReference<>();
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+   }
+
+   @After
+   public void tearDown() {
+      q2o.deinitialize();
+   }
+
+   private void bindResource() {
+      TxSynchronizations.getResource(this, () -> committed -> completion.set(committed));
+   }
+
+   @Test
+   public void resourcesAreNotifiedOfCommit() {
+      SqlClosure.sqlExecute(connection -> {
+         bindResource();
+         return Q2Sql.numberFromSql("SELECT 1");
+      });
+
+      assertThat(completion.get()).isTrue();
+   }
+
+   @Test
+   public void resourcesAreReleasedWhenRollbackFails() {
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> {
+         bindResource();
+         // Rolling back the closed connection fails.
+         connection.unwrap(JdbcConnection.class).close();
+         throw new SQLException("Failed");
+      })).isInstanceOf(RuntimeException.class);
+
+      assertThat(completion.get()).isFalse();
+   }
+}
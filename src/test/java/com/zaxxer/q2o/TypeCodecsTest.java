@@ -0,0 +1,151 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 19.10.26
+ */
+public class TypeCodecsTest {
+
+   @Table(name = "JAVA_TIME_ENTITY")
+   public static class JavaTimeEntity {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      int id;
+      @Column(name = "LOCAL_DATE_TIME")
+      LocalDateTime localDateTime;
+      @Column(name = "LOCAL_DATE")
+      LocalDate localDate;
+      @Column(name = "INSTANT")
+      Instant instant;
+      @Column(name = "OFFSET_DATE_TIME")
+      OffsetDateTime offsetDateTime;
+      @Column(name = "DURATION")
+      Duration duration;
+   }
+
+   @BeforeClass
+   public static void beforeClass() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE JAVA_TIME_ENTITY (ID INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY, LOCAL_DATE_TIME TIMESTAMP, LOCAL_DATE DATE, INSTANT TIMESTAMP, OFFSET_DATE_TIME TIMESTAMP, DURATION BIGINT)");
+   }
+
+   @AfterClass
+   public static void afterClass() {
+      Q2Sql.executeUpdate("DROP TABLE JAVA_TIME_ENTITY");
+      q2o.deinitialize();
+   }
+
+   @After
+   public void tearDown() {
+      TypeCodecs.reset();
+      Q2Sql.executeUpdate("DELETE FROM JAVA_TIME_ENTITY");
+   }
+
+   @Test
+   public void builtinCodecs() {
+      JavaTimeEntity entity = new JavaTimeEntity();
+      entity.localDateTime = LocalDateTime.of(2026, 10, 19, 12, 30, 15);
+      entity.localDate = LocalDate.of(2026, 10, 19);
+      entity.instant = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+      entity.offsetDateTime = OffsetDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+      Q2Obj.insert(entity);
+
+      JavaTimeEntity read = Q2Obj.byId(JavaTimeEntity.class, entity.id);
+      assertThat(read.localDateTime).isEqualTo(entity.localDateTime);
+      assertThat(read.localDate).isEqualTo(entity.localDate);
+      assertThat(read.instant).isEqualTo(entity.instant);
+      assertThat(read.offsetDateTime.toInstant()).isEqualTo(entity.offsetDateTime.toInstant());
+      assertThat(read.duration).isNull();
+
+      List<JavaTimeEntity> found = Q2ObjList.fromClause(JavaTimeEntity.class, "LOCAL_DATE = ?", LocalDate.of(2026, 10, 19));
+      assertThat(found).hasSize(1);
+   }
+
+   @Test
+   public void customCodec() {
+      TypeCodecs.register(Duration.class, new TypeCodec<Duration>() {
+         @Override
+         public Duration read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+            long millis = resultSet.getLong(columnIndex);
+            return resultSet.wasNull() ? null : Duration.ofMillis(millis);
+         }
+
+         @Override
+         public void write(final PreparedStatement stmt, final int parameterIndex, final Duration value, final int sqlType) throws SQLException {
+            stmt.setLong(parameterIndex, value.toMillis());
+         }
+      });
+      JavaTimeEntity entity = new JavaTimeEntity();
+      entity.duration = Duration.ofMinutes(3);
+      Q2Obj.insert(entity);
+
+      assertThat(Q2Sql.numberFromSql("SELECT DURATION FROM JAVA_TIME_ENTITY WHERE ID = ?", entity.id).longValue()).isEqualTo(180_000L);
+      assertThat(Q2Obj.byId(JavaTimeEntity.class, entity.id).duration).isEqualTo(Duration.ofMinutes(3));
+      assertThat(Q2ObjList.fromClause(JavaTimeEntity.class, "DURATION = ?", Duration.ofMinutes(3))).hasSize(1);
+   }
+
+   @Test
+   public void codecsAreBoundOncePerResultSetAndStatement() {
+      AtomicInteger resultSets = new AtomicInteger();
+      AtomicInteger statements = new AtomicInteger();
+      TypeCodecs.register(Duration.class, new TypeCodec<Duration>() {
+         @Override
+         public Duration read(final ResultSet resultSet, final int columnIndex) throws SQLException {
+            long millis = resultSet.getLong(columnIndex);
+            return resultSet.wasNull() ? null : Duration.ofMillis(millis);
+         }
+
+         @Override
+         public void write(final PreparedStatement stmt, final int parameterIndex, final Duration value, final int sqlType) throws SQLException {
+            stmt.setLong(parameterIndex, value.toMillis());
+         }
+
+         @Override
+         public TypeCodec<Duration> forResultSet(final ResultSet resultSet) {
+            resultSets.incrementAndGet();
+            return this;
+         }
+
+         @Override
+         public TypeCodec<Duration> forStatement(final PreparedStatement stmt) {
+            statements.incrementAndGet();
+            return this;
+         }
+      });
+      List<JavaTimeEntity> entities = new ArrayList<>();
+      for (int i = 1; i <= 3; i++) {
+         JavaTimeEntity entity = new JavaTimeEntity();
+         entity.duration = Duration.ofSeconds(i);
+         entities.add(entity);
+      }
+      Q2ObjList.insertBatched(entities);
+
+      assertThat(Q2ObjList.fromClause(JavaTimeEntity.class, "DURATION > 0")).hasSize(3);
+      assertThat(statements.get()).isEqualTo(1);
+      assertThat(resultSets.get()).isEqualTo(1);
+   }
+}
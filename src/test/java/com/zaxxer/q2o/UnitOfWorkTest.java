@@ -0,0 +1,177 @@
+package com.zaxxer.q2o;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @since 19.10.26
+ */
+public class UnitOfWorkTest {
+
+   @Table(name = "UOW_PARENT")
+   public static class Parent {
+      @Id
+      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      @Column(name = "NAME")
+      String name;
+   }
+
+   @Table(name = "UOW_CHILD")
+   public static class Child {
+      @Id
+      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      @Column(name = "NAME")
+      String name;
+      @Column(name = "PARENT_ID")
+      Integer parentId;
+      @ManyToOne
+      @JoinColumn(name = "PARENT_ID")
+      Parent parent;
+   }
+
+   @Table(name = "UOW_CHILD")
+   public static class PrimitiveChild {
+      @Id
+      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      @Column(name = "NAME")
+      String name;
+      @Column(name = "PARENT_ID")
+      int parentId;
+      @ManyToOne
+      @JoinColumn(name = "PARENT_ID")
+      Parent parent;
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      q2o.setDeferredWrites(true);
+      Q2Sql.executeUpdate("CREATE TABLE UOW_PARENT (ID INTEGER AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(32))");
+      Q2Sql.executeUpdate("CREATE TABLE UOW_CHILD (ID INTEGER AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(32), PARENT_ID INTEGER REFERENCES UOW_PARENT(ID))");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE UOW_CHILD");
+      Q2Sql.executeUpdate("DROP TABLE UOW_PARENT");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void parentsAreInsertedFirstAtCommit() {
+      List<Child> children = new ArrayList<>();
+      SqlClosure.sqlExecute(connection -> {
+         for (int i = 0; i < 3; i++) {
+            Parent parent = new Parent();
+            parent.name = "parent" + i;
+            for (int j = 0; j < 10; j++) {
+               Child child = new Child();
+               child.name = "child" + j;
+               child.parent = parent;
+               children.add(Q2Obj.insert(child));
+            }
+            Q2Obj.insert(parent);
+         }
+         assertThat(children.get(0).id).isNull();
+         return null;
+      });
+
+      assertThat(children).allSatisfy(child -> assertThat(child.id).isNotNull());
+      assertThat(Q2Sql.numberFromSql("SELECT COUNT(*) FROM UOW_CHILD WHERE PARENT_ID IS NOT NULL").intValue()).isEqualTo(30);
+      assertThat(Q2Obj.countFromClause(Parent.class, "ID > 0")).isEqualTo(3);
+   }
+
+   @Test
+   public void primitiveForeignKeysAreSet() {
+      PrimitiveChild child = new PrimitiveChild();
+      SqlClosure.sqlExecute(connection -> {
+         Parent parent = new Parent();
+         parent.name = "parent";
+         child.name = "child";
+         child.parent = parent;
+         Q2Obj.insert(child);
+         Q2Obj.insert(parent);
+         return null;
+      });
+
+      assertThat(child.parentId).isEqualTo(child.parent.id);
+      assertThat(Q2Sql.numberFromSql("SELECT PARENT_ID FROM UOW_CHILD").intValue()).isEqualTo(child.parent.id);
+   }
+
+   @Test
+   public void repeatedWritesCollapse() {
+      SqlClosure.sqlExecute(connection -> {
+         Parent kept = new Parent();
+         kept.name = "first";
+         Q2Obj.insert(kept);
+         kept.name = "second";
+         Q2Obj.update(kept);
+         Parent dropped = new Parent();
+         Q2Obj.insert(dropped);
+         assertThat(Q2Obj.delete(dropped)).isEqualTo(Statement.SUCCESS_NO_INFO);
+         return null;
+      });
+
+      List<Parent> parents = Q2ObjList.fromClause(Parent.class, "ID > 0");
+      assertThat(parents).hasSize(1);
+      assertThat(parents.get(0).name).isEqualTo("second");
+   }
+
+   @Test
+   public void closuresSeeDeferredWrites() {
+      int count = SqlClosure.sqlExecute(connection -> {
+         Q2Obj.insert(new Parent());
+         return Q2Obj.countFromClause(Parent.class, "ID > 0");
+      });
+
+      assertThat(count).isEqualTo(1);
+   }
+
+   @Test
+   public void deferredWritesJoinTheCommittingTransaction() {
+      Q2Sql.executeUpdate("INSERT INTO UOW_PARENT (NAME) VALUES ('initial')");
+      int id = Q2Sql.numberFromSql("SELECT MAX(ID) FROM UOW_PARENT").intValue();
+
+      SqlClosure.sqlExecute(connection -> {
+         Q2Sql.executeUpdate("UPDATE UOW_PARENT SET NAME = 'immediate' WHERE ID = ?", id);
+         Parent parent = Q2Obj.byId(Parent.class, id);
+         parent.name = "deferred";
+         Q2Obj.update(parent);
+         return null;
+      });
+
+      assertThat(Q2Obj.byId(Parent.class, id).name).isEqualTo("deferred");
+   }
+
+   @Test
+   public void failedFlushRollsBack() {
+      assertThatThrownBy(() -> SqlClosure.sqlExecute(connection -> {
+         Q2Sql.executeUpdate("INSERT INTO UOW_PARENT (NAME) VALUES ('immediate')");
+         Child child = new Child();
+         child.parentId = 999;
+         Q2Obj.insert(child);
+         return null;
+      })).isInstanceOf(RuntimeException.class);
+
+      assertThat(Q2Obj.countFromClause(Parent.class, "ID > 0")).isEqualTo(0);
+   }
+}